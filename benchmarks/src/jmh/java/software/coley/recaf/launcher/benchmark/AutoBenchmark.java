@@ -0,0 +1,89 @@
+package software.coley.recaf.launcher.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.coley.recaf.launcher.info.JavaVersion;
+import software.coley.recaf.launcher.info.LaunchProfile;
+import software.coley.recaf.launcher.task.DependencyCacheTasks;
+import software.coley.recaf.launcher.task.ExecutionTasks;
+import software.coley.recaf.launcher.task.JavaFxTasks;
+import software.coley.recaf.launcher.task.RecafBuildTasks;
+import software.coley.recaf.launcher.task.RecafTasks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of the steps of the CLI {@code auto} command, against a {@link FakeRemoteServer}.
+ * <br>
+ * A {@code cold} install starts each iteration from an empty Recaf directory, so everything is downloaded.
+ * A {@code warm} install keeps the directory between iterations, so only update checks are made.
+ * The launched Recaf jar exits immediately, so the time of the launch is that of starting the JVM and loading the
+ * classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class AutoBenchmark {
+	private static final int RECAF_PADDING_SIZE = 60_000_000;
+	@Param({"LOCAL", "BROADBAND", "MOBILE", "FLAKY"})
+	private NetworkConditions network;
+	@Param({"cold", "warm"})
+	private String install;
+	private FakeRemoteServer server;
+	private Path recafDirectory;
+
+	@Setup(Level.Trial)
+	public void setupTrial() throws IOException {
+		server = new FakeRemoteServer();
+		RemoteFixtures.install(server, RECAF_PADDING_SIZE);
+		server.useAsEndpoints();
+		recafDirectory = BenchmarkFiles.createTempDir("auto");
+		BenchmarkFiles.useRecafDirectory(recafDirectory);
+	}
+
+	@Setup(Level.Iteration)
+	public void setupIteration() throws IOException {
+		if (install.equals("cold")) {
+			BenchmarkFiles.delete(recafDirectory);
+			Files.createDirectories(recafDirectory);
+		}
+		server.setConditions(network);
+	}
+
+	@TearDown(Level.Trial)
+	public void teardownTrial() throws IOException {
+		server.close();
+		BenchmarkFiles.delete(recafDirectory);
+	}
+
+	@Benchmark
+	public int auto() throws IOException {
+		// Same steps as the 'auto' command, with the default CLI config.
+		if (JavaFxTasks.update(-1, JavaVersion.get(), false) == null)
+			return -1;
+		DependencyCacheTasks.removeOrphanedTempFiles();
+		DependencyCacheTasks.evict(DependencyCacheTasks.DEFAULT_BUDGET);
+		RecafTasks.setDeltaUpdates(false);
+		RecafBuildTasks.setRetainedBuilds(RecafBuildTasks.DEFAULT_RETAINED_BUILDS);
+		if (RecafTasks.updateFromSnapshot("master").getError() != null)
+			return -1;
+		return ExecutionTasks.run(false, true, null, LaunchProfile.DEFAULT,
+				Collections.emptyList(), Collections.emptyList()).getCode();
+	}
+}
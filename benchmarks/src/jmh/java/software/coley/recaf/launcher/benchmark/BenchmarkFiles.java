@@ -0,0 +1,77 @@
+package software.coley.recaf.launcher.benchmark;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Random;
+
+/**
+ * File utilities for benchmark fixtures.
+ */
+public class BenchmarkFiles {
+	/**
+	 * @param prefix
+	 * 		Prefix of the directory name.
+	 *
+	 * @return New temporary directory.
+	 *
+	 * @throws IOException
+	 * 		When the directory cannot be created.
+	 */
+	@Nonnull
+	public static Path createTempDir(@Nonnull String prefix) throws IOException {
+		return Files.createTempDirectory("recaf-launcher-bench-" + prefix);
+	}
+
+	/**
+	 * Points {@link software.coley.recaf.launcher.util.CommonPaths} at the given directory.
+	 *
+	 * @param recafDirectory
+	 * 		Directory to use as the Recaf directory.
+	 */
+	public static void useRecafDirectory(@Nonnull Path recafDirectory) {
+		System.setProperty("recaf.dir", recafDirectory.toString());
+	}
+
+	/**
+	 * @param size
+	 * 		Number of bytes.
+	 *
+	 * @return Array of random, and thus incompressible, bytes. Content is the same between runs.
+	 */
+	@Nonnull
+	public static byte[] randomBytes(int size) {
+		byte[] data = new byte[size];
+		new Random(size).nextBytes(data);
+		return data;
+	}
+
+	/**
+	 * @param directory
+	 * 		Directory to delete, along with its contents.
+	 *
+	 * @throws IOException
+	 * 		When the directory cannot be deleted.
+	 */
+	public static void delete(@Nonnull Path directory) throws IOException {
+		if (!Files.exists(directory))
+			return;
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+}
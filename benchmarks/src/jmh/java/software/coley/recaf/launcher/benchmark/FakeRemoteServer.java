@@ -0,0 +1,210 @@
+package software.coley.recaf.launcher.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import software.coley.recaf.launcher.util.Endpoints;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server standing in for Maven Central, the GitHub API and nightly.link.
+ * <br>
+ * Each service is served under its own path prefix, see {@link #getMavenCentralUrl()},
+ * {@link #getGitHubApiUrl()} and {@link #getNightlyLinkUrl()}. Responses are delayed and throttled according to
+ * the current {@link NetworkConditions}.
+ */
+public class FakeRemoteServer implements AutoCloseable {
+	private static final int CHUNK_SIZE = 16384;
+	private final Map<String, byte[]> resources = new ConcurrentHashMap<>();
+	private final AtomicInteger requestCount = new AtomicInteger();
+	private final AtomicInteger failureCount = new AtomicInteger();
+	private final ExecutorService executor;
+	private final HttpServer server;
+	private volatile NetworkConditions conditions = NetworkConditions.LOCAL;
+	private Random failureRandom = new Random(0);
+
+	/**
+	 * Starts the server on a free port of the loopback address.
+	 *
+	 * @throws IOException
+	 * 		When the server cannot be started.
+	 */
+	public FakeRemoteServer() throws IOException {
+		executor = Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "fake-remote-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * @return Base URL of the server, without a trailing slash.
+	 */
+	@Nonnull
+	public String getBaseUrl() {
+		InetSocketAddress address = server.getAddress();
+		return "http://" + address.getHostString() + ":" + address.getPort();
+	}
+
+	/**
+	 * @return Base URL of the fake Maven Central.
+	 */
+	@Nonnull
+	public String getMavenCentralUrl() {
+		return getBaseUrl() + "/maven2";
+	}
+
+	/**
+	 * @return Base URL of the fake GitHub API.
+	 */
+	@Nonnull
+	public String getGitHubApiUrl() {
+		return getBaseUrl() + "/github";
+	}
+
+	/**
+	 * @return Base URL of the fake nightly.link service.
+	 */
+	@Nonnull
+	public String getNightlyLinkUrl() {
+		return getBaseUrl() + "/nightly";
+	}
+
+	/**
+	 * Points the launcher's {@link Endpoints} at this server.
+	 */
+	public void useAsEndpoints() {
+		System.setProperty(Endpoints.MAVEN_CENTRAL_PROPERTY, getMavenCentralUrl());
+		System.setProperty(Endpoints.GITHUB_API_PROPERTY, getGitHubApiUrl());
+		System.setProperty(Endpoints.NIGHTLY_LINK_PROPERTY, getNightlyLinkUrl());
+	}
+
+	/**
+	 * @param path
+	 * 		Path of the resource, starting with {@code /}.
+	 * @param content
+	 * 		Content to serve at the path.
+	 */
+	public void put(@Nonnull String path, @Nonnull byte[] content) {
+		resources.put(path, content);
+	}
+
+	/**
+	 * @param path
+	 * 		Path of the resource, starting with {@code /}.
+	 * @param content
+	 * 		Text to serve at the path.
+	 */
+	public void put(@Nonnull String path, @Nonnull String content) {
+		put(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param path
+	 * 		Path of the resource, starting with {@code /}.
+	 *
+	 * @return Content served at the path, or {@code null} if there is none.
+	 */
+	@Nullable
+	public byte[] get(@Nonnull String path) {
+		return resources.get(path);
+	}
+
+	/**
+	 * Sets the conditions of later responses, and resets the request counters.
+	 * Failures are picked from a fixed seed, so the same sequence of requests fails the same way each time.
+	 *
+	 * @param conditions
+	 * 		Network conditions to simulate.
+	 */
+	public synchronized void setConditions(@Nonnull NetworkConditions conditions) {
+		this.conditions = conditions;
+		failureRandom = new Random(0);
+		requestCount.set(0);
+		failureCount.set(0);
+	}
+
+	/**
+	 * @return Number of requests since the conditions were last set.
+	 */
+	public int getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * @return Number of requests answered with a simulated failure since the conditions were last set.
+	 */
+	public int getFailureCount() {
+		return failureCount.get();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(@Nonnull HttpExchange exchange) throws IOException {
+		try {
+			requestCount.incrementAndGet();
+			NetworkConditions conditions = this.conditions;
+			if (conditions.getLatencyMillis() > 0)
+				Thread.sleep(conditions.getLatencyMillis());
+			if (shouldFail(conditions)) {
+				failureCount.incrementAndGet();
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+			byte[] content = resources.get(exchange.getRequestURI().getPath());
+			if (content == null) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, content.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				write(out, content, conditions.getBytesPerSecond());
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private synchronized boolean shouldFail(@Nonnull NetworkConditions conditions) {
+		return conditions.getFailureRate() > 0 && failureRandom.nextDouble() < conditions.getFailureRate();
+	}
+
+	private static void write(@Nonnull OutputStream out, @Nonnull byte[] content, long bytesPerSecond)
+			throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		for (int offset = 0; offset < content.length; offset += CHUNK_SIZE) {
+			int length = Math.min(CHUNK_SIZE, content.length - offset);
+			out.write(content, offset, length);
+			if (bytesPerSecond > 0) {
+				// Sleep until the time the bytes written so far should have taken.
+				long expected = TimeUnit.SECONDS.toNanos(offset + length) / bytesPerSecond;
+				long remaining = expected - (System.nanoTime() - start);
+				if (remaining > 0)
+					TimeUnit.NANOSECONDS.sleep(remaining);
+			}
+		}
+	}
+}
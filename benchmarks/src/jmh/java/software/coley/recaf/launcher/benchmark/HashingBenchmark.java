@@ -0,0 +1,37 @@
+package software.coley.recaf.launcher.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.coley.recaf.launcher.util.Hashing;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Hashing#sha1(java.io.InputStream)}, at sizes ranging from a sha1 file to the Recaf jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HashingBenchmark {
+	@Param({"1024", "1048576", "16777216", "83886080"})
+	private int size;
+	private byte[] data;
+
+	@Setup
+	public void setup() {
+		data = BenchmarkFiles.randomBytes(size);
+	}
+
+	@Benchmark
+	public String sha1() throws IOException {
+		return Hashing.sha1(new ByteArrayInputStream(data));
+	}
+}
@@ -0,0 +1,56 @@
+package software.coley.recaf.launcher.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.coley.recaf.launcher.info.PlatformType;
+import software.coley.recaf.launcher.task.JavaEnvTasks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link JavaEnvTasks#scanJavaRoot(Path)} over synthetic directories of JDKs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JavaEnvBenchmark {
+	@Param({"5", "50", "500"})
+	private int jdkCount;
+	private Path root;
+
+	@Setup
+	public void setup() throws IOException {
+		root = BenchmarkFiles.createTempDir("jdks");
+		String suffix = PlatformType.isWindows() ? ".exe" : "";
+		for (int i = 0; i < jdkCount; i++) {
+			// Mix of installs, JREs and unrelated directories, like a real JVM directory.
+			Path bin = Files.createDirectories(root.resolve("jdk-" + (17 + i % 8) + ".0." + i).resolve("bin"));
+			Files.createFile(bin.resolve("java" + suffix));
+			if (i % 5 != 0)
+				Files.createFile(bin.resolve("javac" + suffix));
+			if (i % 7 == 0)
+				Files.createDirectories(root.resolve("misc-" + i));
+		}
+	}
+
+	@TearDown
+	public void teardown() throws IOException {
+		BenchmarkFiles.delete(root);
+	}
+
+	@Benchmark
+	public int scanJavaRoot() {
+		JavaEnvTasks.scanJavaRoot(root);
+		return JavaEnvTasks.getJavaInstalls().size();
+	}
+}
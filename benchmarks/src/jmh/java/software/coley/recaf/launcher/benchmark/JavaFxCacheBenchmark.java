@@ -0,0 +1,61 @@
+package software.coley.recaf.launcher.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.coley.recaf.launcher.info.JavaFxPlatform;
+import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.task.JavaFxTasks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link JavaFxTasks#detectCachedVersion()} over dependency directories of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JavaFxCacheBenchmark {
+	private static final String[] ARTIFACTS = {"javafx-base", "javafx-graphics", "javafx-controls", "javafx-media"};
+	@Param({"10", "100", "1000"})
+	private int fileCount;
+	private Path recafDirectory;
+
+	@Setup
+	public void setup() throws IOException {
+		recafDirectory = BenchmarkFiles.createTempDir("javafx");
+		BenchmarkFiles.useRecafDirectory(recafDirectory);
+		JavaFxPlatform platform = JavaFxTasks.detectSystemPlatform();
+		Path dependencies = Files.createDirectories(JavaFxTasks.getArtifactDirectory(platform));
+		String classifier = platform.getClassifier();
+
+		// Fill with sets of older versions, then the latest set.
+		int files = 0;
+		for (int i = 0; files < fileCount - ARTIFACTS.length; i++) {
+			String version = (17 + i / 10) + ".0." + (i % 10);
+			for (int j = 0; j < ARTIFACTS.length && files < fileCount - ARTIFACTS.length; j++, files++)
+				Files.createFile(dependencies.resolve(ARTIFACTS[j] + "-" + version + "-" + classifier + ".jar"));
+		}
+		for (String artifact : ARTIFACTS)
+			Files.createFile(dependencies.resolve(artifact + "-999.0.0-" + classifier + ".jar"));
+	}
+
+	@TearDown
+	public void teardown() throws IOException {
+		BenchmarkFiles.delete(recafDirectory);
+	}
+
+	@Benchmark
+	public JavaFxVersion detectCachedVersion() {
+		return JavaFxTasks.detectCachedVersion();
+	}
+}
@@ -0,0 +1,28 @@
+package software.coley.recaf.launcher.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import software.coley.recaf.launcher.info.JavaVersion;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link JavaVersion#fromVersionString(String)}, with names of common JDK directories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JavaVersionBenchmark {
+	@Param({"jdk-21.0.3", "openjdk-17", "1.8.0_392", "temurin-22.0.1+8", "java-21-openjdk-amd64"})
+	private String name;
+
+	@Benchmark
+	public int fromVersionString() {
+		return JavaVersion.fromVersionString(name);
+	}
+}
@@ -0,0 +1,54 @@
+package software.coley.recaf.launcher.benchmark;
+
+/**
+ * Simulated network conditions for {@link FakeRemoteServer}.
+ */
+public enum NetworkConditions {
+	/**
+	 * No added latency or bandwidth limits.
+	 */
+	LOCAL(0, 0, 0),
+	/**
+	 * Typical home connection.
+	 */
+	BROADBAND(20, 12_500_000, 0),
+	/**
+	 * Slow connection with high latency.
+	 */
+	MOBILE(120, 1_500_000, 0),
+	/**
+	 * Typical home connection where some requests fail.
+	 */
+	FLAKY(40, 12_500_000, 0.1);
+
+	private final long latencyMillis;
+	private final long bytesPerSecond;
+	private final double failureRate;
+
+	NetworkConditions(long latencyMillis, long bytesPerSecond, double failureRate) {
+		this.latencyMillis = latencyMillis;
+		this.bytesPerSecond = bytesPerSecond;
+		this.failureRate = failureRate;
+	}
+
+	/**
+	 * @return Delay before each response, in milliseconds.
+	 */
+	public long getLatencyMillis() {
+		return latencyMillis;
+	}
+
+	/**
+	 * @return Max bytes per second of each response, or {@code 0} for no limit.
+	 */
+	public long getBytesPerSecond() {
+		return bytesPerSecond;
+	}
+
+	/**
+	 * @return Fraction of requests, from {@code 0} to {@code 1}, that are answered with a server error.
+	 */
+	public double getFailureRate() {
+		return failureRate;
+	}
+}
@@ -0,0 +1,49 @@
+package software.coley.recaf.launcher.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.coley.recaf.launcher.info.RecafVersion;
+import software.coley.recaf.launcher.task.RecafTasks;
+import software.coley.recaf.launcher.task.error.InvalidInstallationException;
+import software.coley.recaf.launcher.util.CommonPaths;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link RecafTasks#getInstalledVersion()} against a small jar, and one the size of a Recaf release.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecafJarBenchmark {
+	@Param({"0", "83886080"})
+	private int paddingSize;
+	private Path recafDirectory;
+
+	@Setup
+	public void setup() throws IOException {
+		recafDirectory = BenchmarkFiles.createTempDir("recaf");
+		BenchmarkFiles.useRecafDirectory(recafDirectory);
+		Files.write(CommonPaths.getRecafJar(), RemoteFixtures.createRecafJar(paddingSize));
+	}
+
+	@TearDown
+	public void teardown() throws IOException {
+		BenchmarkFiles.delete(recafDirectory);
+	}
+
+	@Benchmark
+	public RecafVersion getInstalledVersion() throws InvalidInstallationException {
+		return RecafTasks.getInstalledVersion();
+	}
+}
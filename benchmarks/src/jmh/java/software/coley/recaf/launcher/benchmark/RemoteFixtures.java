@@ -0,0 +1,212 @@
+package software.coley.recaf.launcher.benchmark;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import software.coley.recaf.launcher.info.PlatformType;
+import software.coley.recaf.launcher.task.JavaFxTasks;
+import software.coley.recaf.launcher.util.Hashing;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Content for {@link FakeRemoteServer} resembling the real services the launcher downloads from.
+ */
+public class RemoteFixtures {
+	/**
+	 * JavaFX version served by the fake Maven Central.
+	 */
+	public static final String JAVAFX_VERSION = "21.0.2";
+	/**
+	 * Recaf version served by the fake GitHub API.
+	 */
+	public static final String RECAF_VERSION = "4.0.0";
+	/**
+	 * Workflow run id of the snapshot build served by the fake GitHub API.
+	 */
+	public static final long WORKFLOW_RUN_ID = 1234567890L;
+	private static final int RECAF_REPO_ID = 98499283;
+	private static final int ENTRY_SIZE = 4096;
+	private static final String[] JAVAFX_ARTIFACTS = {"javafx-base", "javafx-graphics", "javafx-controls", "javafx-media"};
+	private static final int[] JAVAFX_ARTIFACT_SIZES = {750_000, 4_500_000, 2_500_000, 2_000_000};
+
+	/**
+	 * Adds JavaFX artifacts, and Recaf releases and snapshots to the server.
+	 *
+	 * @param server
+	 * 		Server to add content to.
+	 * @param recafPaddingSize
+	 * 		Size in bytes of filler content to add to the Recaf jar.
+	 *
+	 * @throws IOException
+	 * 		When the content could not be generated.
+	 */
+	public static void install(@Nonnull FakeRemoteServer server, int recafPaddingSize) throws IOException {
+		installJavaFx(server);
+		installRecaf(server, createRecafJar(recafPaddingSize));
+	}
+
+	/**
+	 * @param paddingSize
+	 * 		Size in bytes of filler content to add, split into many entries so the central directory is sized
+	 * 		like that of a real jar.
+	 *
+	 * @return Jar with a build config and a main class which immediately exits.
+	 *
+	 * @throws IOException
+	 * 		When the jar could not be written.
+	 */
+	@Nonnull
+	public static byte[] createRecafJar(int paddingSize) throws IOException {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "software.coley.recaf.Main");
+		ByteArrayOutputStream output = new ByteArrayOutputStream(paddingSize + 65536);
+		try (ZipOutputStream zip = new ZipOutputStream(output)) {
+			zip.putNextEntry(new ZipEntry(JarFile.MANIFEST_NAME));
+			manifest.write(zip);
+			zip.closeEntry();
+			zip.putNextEntry(new ZipEntry("software/coley/recaf/Main.class"));
+			zip.write(createMainClass());
+			zip.closeEntry();
+			zip.putNextEntry(new ZipEntry("software/coley/recaf/RecafBuildConfig.class"));
+			zip.write(createBuildConfig());
+			zip.closeEntry();
+			writePadding(zip, "software/coley/recaf/padding/Entry", ".class", paddingSize);
+		}
+		return output.toByteArray();
+	}
+
+	private static void installJavaFx(@Nonnull FakeRemoteServer server) throws IOException {
+		// Only the newest version has artifacts, like the real metadata listing versions we cannot use.
+		server.put("/maven2/org/openjfx/javafx-base/maven-metadata.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+				"<metadata>\n" +
+				"  <groupId>org.openjfx</groupId>\n" +
+				"  <artifactId>javafx-base</artifactId>\n" +
+				"  <versioning>\n" +
+				"    <latest>" + JAVAFX_VERSION + "</latest>\n" +
+				"    <release>" + JAVAFX_VERSION + "</release>\n" +
+				"    <versions>\n" +
+				"      <version>11</version>\n" +
+				"      <version>17.0.2</version>\n" +
+				"      <version>" + JAVAFX_VERSION + "</version>\n" +
+				"    </versions>\n" +
+				"  </versioning>\n" +
+				"</metadata>");
+		String classifier = JavaFxTasks.detectSystemPlatform().getClassifier();
+		for (int i = 0; i < JAVAFX_ARTIFACTS.length; i++) {
+			String artifact = JAVAFX_ARTIFACTS[i];
+			byte[] jar = createJavaFxJar(artifact, JAVAFX_ARTIFACT_SIZES[i]);
+			String path = "/maven2/org/openjfx/" + artifact + "/" + JAVAFX_VERSION + "/"
+					+ artifact + "-" + JAVAFX_VERSION + "-" + classifier + ".jar";
+			server.put(path, jar);
+			server.put(path + ".sha1", Hashing.sha1(new ByteArrayInputStream(jar)));
+		}
+	}
+
+	private static void installRecaf(@Nonnull FakeRemoteServer server, @Nonnull byte[] recafJar) throws IOException {
+		// Stable release, with the jar served from the same server.
+		String releaseJarPath = "/github/releases/download/" + RECAF_VERSION + "/recaf-" + RECAF_VERSION + "-all.jar";
+		server.put(releaseJarPath, recafJar);
+		JsonObject release = Json.object()
+				.add("tag_name", RECAF_VERSION)
+				.add("assets", Json.array().add(Json.object()
+						.add("name", "recaf-" + RECAF_VERSION + "-all.jar")
+						.add("size", recafJar.length)
+						.add("browser_download_url", server.getBaseUrl() + releaseJarPath)));
+		server.put("/github/repos/Col-E/Recaf/releases/latest", release.toString());
+
+		// Snapshot build, as an actions artifact downloaded through nightly.link.
+		ByteArrayOutputStream snapshotZip = new ByteArrayOutputStream(recafJar.length + 1024);
+		try (ZipOutputStream zip = new ZipOutputStream(snapshotZip)) {
+			zip.putNextEntry(new ZipEntry("recaf-" + RECAF_VERSION + "-SNAPSHOT-all.jar"));
+			zip.write(recafJar);
+			zip.closeEntry();
+		}
+		byte[] snapshot = snapshotZip.toByteArray();
+		server.put("/nightly/Col-E/Recaf/actions/runs/" + WORKFLOW_RUN_ID + "/snapshot-build.zip", snapshot);
+		JsonObject workflowRun = Json.object()
+				.add("id", WORKFLOW_RUN_ID)
+				.add("head_branch", "master")
+				.add("repository_id", RECAF_REPO_ID)
+				.add("head_repository_id", RECAF_REPO_ID);
+		JsonObject artifact = Json.object()
+				.add("id", 1)
+				.add("name", "snapshot-build")
+				.add("size_in_bytes", snapshot.length)
+				.add("expired", false)
+				.add("workflow_run", workflowRun);
+		server.put("/github/repos/Col-E/Recaf/actions/artifacts", Json.object()
+				.add("total_count", 1)
+				.add("artifacts", Json.array().add(artifact))
+				.toString());
+	}
+
+	@Nonnull
+	private static byte[] createJavaFxJar(@Nonnull String artifact, int size) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream(size + 65536);
+		try (ZipOutputStream zip = new ZipOutputStream(output)) {
+			if (artifact.equals("javafx-graphics")) {
+				zip.putNextEntry(new ZipEntry(nativeLibraryName("glass")));
+				zip.write(BenchmarkFiles.randomBytes(ENTRY_SIZE * 64));
+				zip.closeEntry();
+			}
+			String packageName = artifact.substring("javafx-".length());
+			writePadding(zip, "javafx/" + packageName + "/Entry", ".class", size);
+		}
+		return output.toByteArray();
+	}
+
+	private static void writePadding(@Nonnull ZipOutputStream zip, @Nonnull String prefix, @Nonnull String suffix,
+	                                 int size) throws IOException {
+		byte[] padding = BenchmarkFiles.randomBytes(ENTRY_SIZE);
+		for (int i = 0; i < size / ENTRY_SIZE; i++) {
+			zip.putNextEntry(new ZipEntry(prefix + i + suffix));
+			zip.write(padding);
+			zip.closeEntry();
+		}
+	}
+
+	@Nonnull
+	private static String nativeLibraryName(@Nonnull String name) {
+		if (PlatformType.isWindows())
+			return name + ".dll";
+		if (PlatformType.isMac())
+			return "lib" + name + ".dylib";
+		return "lib" + name + ".so";
+	}
+
+	@Nonnull
+	private static byte[] createMainClass() {
+		ClassWriter writer = new ClassWriter(0);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, "software/coley/recaf/Main", null, "java/lang/Object", null);
+		MethodVisitor main = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "main", "([Ljava/lang/String;)V", null, null);
+		main.visitCode();
+		main.visitInsn(Opcodes.RETURN);
+		main.visitMaxs(0, 1);
+		main.visitEnd();
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	@Nonnull
+	private static byte[] createBuildConfig() {
+		ClassWriter writer = new ClassWriter(0);
+		writer.visit(Opcodes.V22, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "software/coley/recaf/RecafBuildConfig", null, "java/lang/Object", null);
+		int access = Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL;
+		writer.visitField(access, "VERSION", "Ljava/lang/String;", null, RECAF_VERSION).visitEnd();
+		writer.visitField(access, "GIT_REVISION", "Ljava/lang/String;", null, "1200").visitEnd();
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+}
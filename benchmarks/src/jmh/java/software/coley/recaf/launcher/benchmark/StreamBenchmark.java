@@ -0,0 +1,63 @@
+package software.coley.recaf.launcher.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import software.coley.recaf.launcher.util.Stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Stream#transfer(int, java.io.InputStream, OutputStream)} with different buffer sizes.
+ * Buffers are capped at 64 KiB, so larger sizes are not measured as they would run the same as the largest one here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamBenchmark {
+	private static final int SIZE = 16 * 1024 * 1024;
+	@Param({"512", "2048", "8192", "65536"})
+	private int bufferSize;
+	private byte[] data;
+
+	@Setup
+	public void setup() {
+		data = BenchmarkFiles.randomBytes(SIZE);
+	}
+
+	@Benchmark
+	public void transfer(Blackhole blackhole) throws IOException {
+		Stream.transfer(bufferSize, new ByteArrayInputStream(data), new BlackholeOutputStream(blackhole));
+	}
+
+	/**
+	 * Output that discards what is written to it.
+	 */
+	private static class BlackholeOutputStream extends OutputStream {
+		private final Blackhole blackhole;
+
+		private BlackholeOutputStream(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public void write(int b) {
+			blackhole.consume(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			blackhole.consume(b);
+			blackhole.consume(len);
+		}
+	}
+}
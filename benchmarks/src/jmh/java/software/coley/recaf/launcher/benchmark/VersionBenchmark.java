@@ -0,0 +1,52 @@
+package software.coley.recaf.launcher.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.info.RecafVersion;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for comparing {@link software.coley.recaf.launcher.info.Version} models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VersionBenchmark {
+	@Param({"21", "21.0.2", "23-ea+22", "4.0.0-SNAPSHOT"})
+	private String version;
+	private JavaFxVersion javaFxVersion;
+	private JavaFxVersion otherJavaFxVersion;
+	private RecafVersion recafVersion;
+	private RecafVersion otherRecafVersion;
+
+	@Setup
+	public void setup() {
+		javaFxVersion = new JavaFxVersion(version);
+		otherJavaFxVersion = new JavaFxVersion("21.0.1");
+		recafVersion = new RecafVersion(version, 1200);
+		otherRecafVersion = new RecafVersion("4.0.0-SNAPSHOT", 1201);
+	}
+
+	@Benchmark
+	public int[] getVersionGroups() {
+		return javaFxVersion.getVersionGroups();
+	}
+
+	@Benchmark
+	public int compareJavaFx() {
+		return javaFxVersion.compareTo(otherJavaFxVersion);
+	}
+
+	@Benchmark
+	public int compareRecaf() {
+		return recafVersion.compareTo(otherRecafVersion);
+	}
+}
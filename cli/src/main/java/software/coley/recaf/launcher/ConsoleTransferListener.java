@@ -0,0 +1,72 @@
+package software.coley.recaf.launcher;
+
+import software.coley.recaf.launcher.util.TaskExecutors;
+import software.coley.recaf.launcher.util.TransferEvent;
+import software.coley.recaf.launcher.util.TransferProgress;
+
+import javax.annotation.Nonnull;
+import java.io.PrintStream;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfer listener that displays progress as a single line in the console, which is re-drawn in place
+ * at most {@link #FRAMES_PER_SECOND} times a second while transfers are in progress.
+ */
+public class ConsoleTransferListener extends TransferProgress {
+	private static final int FRAMES_PER_SECOND = 10;
+	private final PrintStream out;
+	private ScheduledFuture<?> renderTask;
+	private int lastLineLength;
+
+	/**
+	 * @param out
+	 * 		Console stream to draw the progress line in.
+	 */
+	public ConsoleTransferListener(@Nonnull PrintStream out) {
+		this.out = out;
+	}
+
+	@Override
+	public void start(@Nonnull TransferEvent event) {
+		super.start(event);
+		synchronized (this) {
+			if (renderTask == null)
+				renderTask = TaskExecutors.scheduler().scheduleAtFixedRate(this::render, 0, 1000 / FRAMES_PER_SECOND, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void render() {
+		Snapshot snapshot = sample();
+		if (snapshot.isActive()) {
+			String line = snapshot.getName() + ": " + snapshot.describe();
+			if (snapshot.getMax() > 0)
+				line = String.format("[%3d%%] %s", snapshot.getCurrent() * 100 / snapshot.getMax(), line);
+			draw(line);
+		} else {
+			synchronized (this) {
+				// A transfer started since sampling will have seen this task as still scheduled, so it must keep running.
+				if (sample().isActive())
+					return;
+
+				// Clear the line so that following log output starts on a clean line.
+				draw("");
+				if (renderTask != null) {
+					renderTask.cancel(false);
+					renderTask = null;
+				}
+			}
+		}
+	}
+
+	private void draw(@Nonnull String line) {
+		StringBuilder sb = new StringBuilder("\r").append(line);
+		for (int i = line.length(); i < lastLineLength; i++)
+			sb.append(' ');
+		if (line.isEmpty())
+			sb.append('\r');
+		lastLineLength = line.length();
+		out.print(sb);
+		out.flush();
+	}
+}
@@ -3,11 +3,13 @@
 import org.slf4j.Logger;
 import picocli.CommandLine;
 import software.coley.recaf.launcher.commands.Root;
+import software.coley.recaf.launcher.config.CliConfig;
 import software.coley.recaf.launcher.info.RecafVersion;
 import software.coley.recaf.launcher.info.SystemInformation;
 import software.coley.recaf.launcher.task.JavaFxTasks;
 import software.coley.recaf.launcher.task.RecafTasks;
 import software.coley.recaf.launcher.task.error.InvalidInstallationException;
+import software.coley.recaf.launcher.util.Endpoints;
 import software.coley.recaf.launcher.util.Loggers;
 
 import java.util.Map;
@@ -21,9 +23,26 @@ public class LauncherCli {
 
 	public static void main(String[] args) {
 		dumpInfo();
+		applyMirrors();
+		applyProgressDisplay();
 		new CommandLine(new Root()).execute(args);
 	}
 
+	private static void applyMirrors() {
+		CliConfig config = CliConfig.get();
+		config.getMirrors().forEach(Endpoints::setMirrors);
+		Endpoints.setHedgedRequests(config.isHedgedRequests());
+	}
+
+	private static void applyProgressDisplay() {
+		// Only draw progress in place in an interactive console, redirected output should only contain logs.
+		if (System.console() == null)
+			return;
+		ConsoleTransferListener listener = new ConsoleTransferListener(System.out);
+		RecafTasks.setDownloadListener(listener);
+		JavaFxTasks.setDownloadListener(listener);
+	}
+
 	public static void dumpInfo() {
 		// Print system info so that we don't have to ask users for it all the time.
 		// If they screenshot or share the log it should be here.
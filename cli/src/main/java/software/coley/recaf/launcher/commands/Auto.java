@@ -2,14 +2,19 @@
 
 import org.slf4j.Logger;
 import picocli.CommandLine.Command;
+import software.coley.recaf.launcher.config.CliConfig;
 import software.coley.recaf.launcher.info.JavaVersion;
+import software.coley.recaf.launcher.info.LaunchProfile;
+import software.coley.recaf.launcher.task.DependencyCacheTasks;
 import software.coley.recaf.launcher.task.ExecutionTasks;
 import software.coley.recaf.launcher.task.JavaFxTasks;
+import software.coley.recaf.launcher.task.RecafBuildTasks;
 import software.coley.recaf.launcher.task.RecafTasks;
 import software.coley.recaf.launcher.task.VersionUpdateResult;
 import software.coley.recaf.launcher.util.Loggers;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 
 /**
@@ -18,7 +23,7 @@
 @Command(name = "auto", description = {
 		"Runs the suggested commands in order: ",
 		" - compatibility",
-		" - update-jfx -maxc 30 -maxs 60000000 -k",
+		" - update-jfx -b 100 (or the 'cache-budget-mb' of the CLI config)",
 		" - update-snapshot",
 		" - run",
 		"If one of the commands fails, the following ones are skipped."
@@ -28,17 +33,22 @@ public class Auto implements Callable<Void> {
 
 	@Override
 	public Void call() {
+		// AutoBenchmark repeats the following steps, and should be updated along with them.
+
 		// Ensure compatibility
 		if (!Compatibility.isCompatible(false))
 			return null;
 
-		// Update JavaFX when possible, clearing outdated cache entries when it gets too cluttered
-		JavaFxTasks.checkClearCache(false, true, 30, 64_000_000);
+		// Update JavaFX when possible, evicting the least recently used versions when the cache is over budget
 		if (JavaFxTasks.update(-1, JavaVersion.get(), false) == null)
 			return null;
+		DependencyCacheTasks.removeOrphanedTempFiles();
+		DependencyCacheTasks.evict(CliConfig.get().getCacheBudget());
 
 		// Update Recaf.
 		// TODO: When released, replace with - UpdateRecaf.update(true);
+		RecafTasks.setDeltaUpdates(CliConfig.get().isDeltaUpdates());
+		RecafBuildTasks.setRetainedBuilds(CliConfig.get().getRetainedBuilds());
 		VersionUpdateResult result = RecafTasks.updateFromSnapshot("master");
 		if (result.getError() != null) {
 			logger.error("Encountered error updating Recaf from latest snapshot", result.getError());
@@ -46,8 +56,11 @@ public Void call() {
 		}
 
 		// Run recaf.
+		LaunchProfile profile = Run.getProfile(null);
+		if (profile == null)
+			return null;
 		try {
-			ExecutionTasks.run(true, true, null);
+			ExecutionTasks.run(true, true, null, profile, Collections.emptyList(), Collections.emptyList());
 		} catch (IOException ex) {
 			logger.error("Encountered error running Recaf", ex);
 		}
@@ -0,0 +1,104 @@
+package software.coley.recaf.launcher.commands;
+
+import org.slf4j.Logger;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+import software.coley.recaf.launcher.info.JavaFxPlatform;
+import software.coley.recaf.launcher.info.RecafBuild;
+import software.coley.recaf.launcher.task.InstallBundleTasks;
+import software.coley.recaf.launcher.util.Loggers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Command for moving a Recaf installation between systems as a single file.
+ */
+@Command(name = "bundle", description = {
+		"Exports or imports a fully provisioned Recaf installation as a single file.",
+		"Importing does not need network access, so bundles can be used to set up offline systems."
+}, subcommands = {Bundle.Export.class, Bundle.Import.class})
+public class Bundle implements Callable<Void> {
+	private static final Logger logger = Loggers.newLogger();
+	@Spec
+	private CommandSpec spec;
+
+	@Override
+	public Void call() {
+		logger.info(spec.commandLine().getUsageMessage(CommandLine.Help.Ansi.AUTO));
+		return null;
+	}
+
+	/**
+	 * Command for writing the current installation to a bundle.
+	 */
+	@Command(name = "export", description = "Writes the installed Recaf and JavaFX to a bundle file")
+	public static class Export implements Callable<Path> {
+		@Parameters(index = "0", description = "File to write the bundle to")
+		private Path output;
+		@Option(names = {"-p", "--platforms"}, split = ",", description = {
+				"JavaFX platforms to include, such as 'win,linux,mac-aarch64'. Defaults to the current platform.",
+				"Platforms that are not cached are downloaded first. Valid platforms: ${COMPLETION-CANDIDATES}"
+		}, completionCandidates = PlatformCandidates.class)
+		private List<String> platforms = Collections.emptyList();
+		@Option(names = {"-c", "--caches"}, description = "Include the recorded class load order from 'optimize --train'")
+		private boolean caches;
+
+		@Override
+		public Path call() {
+			List<JavaFxPlatform> exportedPlatforms = new ArrayList<>();
+			for (String classifier : platforms) {
+				JavaFxPlatform platform = JavaFxPlatform.fromClassifier(classifier.trim());
+				if (platform == null) {
+					logger.error("Unknown JavaFX platform '{}'", classifier);
+					return null;
+				}
+				exportedPlatforms.add(platform);
+			}
+			try {
+				InstallBundleTasks.exportBundle(output, exportedPlatforms, caches);
+				return output;
+			} catch (IOException ex) {
+				logger.error("Failed exporting install bundle", ex);
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Command for installing the contents of a bundle.
+	 */
+	@Command(name = "import", description = "Installs Recaf and JavaFX from a bundle file, without network access")
+	public static class Import implements Callable<RecafBuild> {
+		@Parameters(index = "0", description = "Bundle file to import")
+		private Path input;
+
+		@Override
+		public RecafBuild call() {
+			try {
+				return InstallBundleTasks.importBundle(input);
+			} catch (IOException ex) {
+				logger.error("Failed importing install bundle", ex);
+				return null;
+			}
+		}
+	}
+
+	static class PlatformCandidates extends ArrayList<String> {
+		private static final long serialVersionUID = 1L;
+
+		PlatformCandidates() {
+			for (JavaFxPlatform platform : JavaFxPlatform.values())
+				if (platform != JavaFxPlatform.UNSUPPORTED)
+					add(platform.getClassifier());
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package software.coley.recaf.launcher.commands;
+
+import org.slf4j.Logger;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import software.coley.recaf.launcher.ApplicationLauncher;
+import software.coley.recaf.launcher.info.LaunchProfile;
+import software.coley.recaf.launcher.task.ExecutionTasks;
+import software.coley.recaf.launcher.task.LaunchBundleTasks;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Loggers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Command for creating a launch-optimized bundle of Recaf and its dependencies.
+ */
+@Command(name = "optimize", description = {
+		"Repacks the installed Recaf and JavaFX jars into a single launch-optimized bundle.",
+		"The bundle uses more disk space, but loads faster. It is used by 'run' until Recaf or JavaFX are updated."
+})
+public class Optimize implements Callable<Void> {
+	private static final Logger logger = Loggers.newLogger();
+
+	@Option(names = {"-t", "--train"}, description = {
+			"Runs Recaf first to record the order classes are loaded in during startup.",
+			"Close Recaf once it has finished opening to create the bundle."
+	})
+	private boolean train;
+	@Option(names = {"-r", "--remove"}, description = "Removes the bundle, so that Recaf is run from its original jars")
+	private boolean remove;
+
+	@Override
+	public Void call() {
+		if (remove) {
+			LaunchBundleTasks.removeBundle();
+			logger.info("Removed launch bundle");
+			return null;
+		}
+
+		try {
+			if (train) {
+				// Train against the original jars, the recorded order is by entry name so it applies to the bundle all the same.
+				LaunchBundleTasks.removeBundle();
+				Path orderFile = CommonPaths.getClassLoadOrderFile();
+				Files.createDirectories(orderFile.getParent());
+				List<String> recordArg = Collections.singletonList("-D" + ApplicationLauncher.RECORD_LOAD_ORDER_PROPERTY + "=" + orderFile.toAbsolutePath());
+				ExecutionTasks.RunResult result = ExecutionTasks.run(true, true, null, LaunchProfile.DEFAULT, recordArg, Collections.emptyList());
+				if (!result.isSuccess()) {
+					logger.error("Recaf did not close normally, skipping bundle creation: {}", result.getCodeDescription());
+					return null;
+				}
+			}
+
+			List<Path> sources = LaunchBundleTasks.getBundleSources();
+			if (sources == null) {
+				logger.error("Recaf and JavaFX must be installed before they can be optimized");
+				return null;
+			}
+			LaunchBundleTasks.createBundle(sources);
+		} catch (IOException ex) {
+			logger.error("Encountered error creating launch bundle", ex);
+		}
+		return null;
+	}
+}
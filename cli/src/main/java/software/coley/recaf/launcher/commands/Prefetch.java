@@ -0,0 +1,82 @@
+package software.coley.recaf.launcher.commands;
+
+import org.slf4j.Logger;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import software.coley.recaf.launcher.info.JavaFxPlatform;
+import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.info.JavaVersion;
+import software.coley.recaf.launcher.task.DependencyCacheTasks;
+import software.coley.recaf.launcher.task.JavaFxTasks;
+import software.coley.recaf.launcher.util.Loggers;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Command for downloading JavaFX for other platforms into the dependency cache.
+ */
+@Command(name = "prefetch", description = {
+		"Downloads JavaFX for the given platforms into the dependency cache.",
+		"Useful when the Recaf directory is shared between systems of different platforms."
+})
+public class Prefetch implements Callable<JavaFxVersion> {
+	private static final Logger logger = Loggers.newLogger();
+
+	@Option(names = {"-p", "--platforms"}, split = ",", required = true, description = {
+			"JavaFX platforms to download, such as 'linux,linux-aarch64'.",
+			"Valid platforms: ${COMPLETION-CANDIDATES}"
+	}, completionCandidates = Bundle.PlatformCandidates.class)
+	private List<String> platforms;
+	@Option(names = {"-v", "--version"}, description = {
+			"Target JavaFX version to download.",
+			"Defaults to the version cached for the current platform, or the latest if there is none."
+	})
+	private int version;
+
+	@Override
+	public JavaFxVersion call() {
+		List<JavaFxPlatform> fetchedPlatforms = new ArrayList<>();
+		for (String classifier : platforms) {
+			JavaFxPlatform platform = JavaFxPlatform.fromClassifier(classifier.trim());
+			if (platform == null) {
+				logger.error("Unknown JavaFX platform '{}'", classifier);
+				return null;
+			}
+			fetchedPlatforms.add(platform);
+		}
+
+		JavaFxVersion fetchedVersion;
+		if (version >= 11)
+			fetchedVersion = new JavaFxVersion(version);
+		else if ((fetchedVersion = JavaFxTasks.detectCachedVersion()) == null)
+			fetchedVersion = JavaFxTasks.detectLatestRemoteVersion(JavaVersion.get());
+		if (fetchedVersion == null) {
+			logger.error("Could not determine which version of JavaFX to download");
+			return null;
+		}
+
+		for (JavaFxPlatform platform : fetchedPlatforms) {
+			JavaFxTasks.updateTo(fetchedVersion, platform, false);
+			if (!isCached(fetchedVersion, platform)) {
+				logger.error("Failed downloading JavaFX '{}' for platform '{}'", fetchedVersion.getVersion(), platform.getClassifier());
+				continue;
+			}
+			DependencyCacheTasks.markUsed(fetchedVersion, platform);
+			logger.info("JavaFX '{}' is cached for platform '{}'", fetchedVersion.getVersion(), platform.getClassifier());
+		}
+		return fetchedVersion;
+	}
+
+	private static boolean isCached(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform) {
+		Path artifactDir = JavaFxTasks.getArtifactDirectory(platform);
+		for (String artifactName : JavaFxTasks.getArtifactFileNames(version, platform))
+			if (!Files.isRegularFile(artifactDir.resolve(artifactName)))
+				return false;
+		return true;
+	}
+}
@@ -12,11 +12,15 @@
 @Command(name = "<launcher>",
 		subcommands = {
 				Auto.class,
+				Bundle.class,
 				Compatibility.class,
+				Optimize.class,
+				Prefetch.class,
 				Run.class,
 				UpdateJavaFX.class,
 				UpdateRecafSnapshot.class,
-				UpdateRecafStable.class
+				UpdateRecafStable.class,
+				Use.class
 		}
 )
 public class Root implements Callable<Void> {
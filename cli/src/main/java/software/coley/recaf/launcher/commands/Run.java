@@ -3,12 +3,24 @@
 import org.slf4j.Logger;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import software.coley.recaf.launcher.config.CliConfig;
+import software.coley.recaf.launcher.info.LaunchProfile;
 import software.coley.recaf.launcher.task.ExecutionTasks;
+import software.coley.recaf.launcher.task.HeapSizingTasks;
+import software.coley.recaf.launcher.task.WarmProcessPool;
 import software.coley.recaf.launcher.util.Loggers;
 
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Command for checking the currently installed version of Recaf.
@@ -22,15 +34,97 @@ public class Run implements Callable<ExecutionTasks.RunResult> {
 			"Not specifying a value will use the same Java executable used by the launcher."
 	})
 	private File javaExecutable;
+	@Option(names = {"-p", "--profile"}, description = {
+			"Name of the JVM tuning profile to run Recaf with.",
+			"Built-in profiles: default, fast-startup, large-workspace, low-memory.",
+			"Additional profiles can be defined in the 'profiles' array of the CLI config.",
+			"Not specifying a value will use the 'profile' of the CLI config, or 'default'."
+	})
+	private String profileName;
+	@Option(names = {"-minh", "--minHeap"}, description = {
+			"Lower bound in megabytes of the heap size picked for the files passed to Recaf.",
+			"Not specifying a value will use 'min-heap-mb' of the CLI config, or 512."
+	})
+	private Integer minHeap;
+	@Option(names = {"-maxh", "--maxHeap"}, description = {
+			"Upper bound in megabytes of the heap size picked for the files passed to Recaf.",
+			"Not specifying a value will use 'max-heap-mb' of the CLI config, or 80% of system memory."
+	})
+	private Integer maxHeap;
+	@Parameters(description = {
+			"Arguments to pass to Recaf, separated from the launcher's arguments with '--'.",
+			"When these point to files, such as '--input=app.jar', the heap is sized to fit them."
+	})
+	private List<String> recafArgs = new ArrayList<>();
+	@Option(names = {"-d", "--daemon"}, description = {
+			"Keep the launcher running after Recaf closes, with pre-started processes for near-instant re-launches.",
+			"Press enter to launch Recaf again, or type 'exit' to stop."
+	})
+	private boolean daemon;
+	@Option(names = {"-ps", "--poolSize"}, description = "Number of pre-started processes to keep in daemon mode")
+	private int poolSize = 1;
+	@Option(names = {"-it", "--idleTimeout"}, description = "Minutes without a launch before pre-started processes are terminated in daemon mode")
+	private long idleTimeout = 30;
 
 	@Override
 	public ExecutionTasks.RunResult call() throws Exception {
 		try {
 			String javaExecutablePath = javaExecutable == null ? null : javaExecutable.getAbsolutePath();
-			return ExecutionTasks.run(true, true, javaExecutablePath);
+			LaunchProfile profile = getProfile(profileName);
+			if (profile == null)
+				return null;
+			CliConfig config = CliConfig.get();
+			int minHeapMegabytes = minHeap != null ? minHeap : config.getMinHeapMegabytes();
+			int maxHeapMegabytes = maxHeap != null ? maxHeap : config.getMaxHeapMegabytes();
+			ExecutionTasks.setHeapBounds(minHeapMegabytes < 0 ? HeapSizingTasks.DEFAULT_MIN_HEAP : (long) minHeapMegabytes << 20,
+					maxHeapMegabytes < 0 ? -1 : (long) maxHeapMegabytes << 20);
+			if (!daemon)
+				return ExecutionTasks.run(true, true, javaExecutablePath, profile, Collections.emptyList(), recafArgs);
+
+			WarmProcessPool pool = new WarmProcessPool(poolSize, idleTimeout, TimeUnit.MINUTES);
+			ExecutionTasks.setProcessPool(pool);
+			try {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+				ExecutionTasks.RunResult result;
+				do {
+					result = ExecutionTasks.run(true, true, javaExecutablePath, profile, Collections.emptyList(), recafArgs);
+					logger.info("Recaf closed with exit code {}. Press enter to launch again, or type 'exit' to stop.", result.getCode());
+				} while (!isExitRequest(reader.readLine()));
+				return result;
+			} finally {
+				ExecutionTasks.setProcessPool(null);
+				pool.shutdown();
+			}
 		} catch (IOException ex) {
 			logger.error("Encountered error running Recaf", ex);
 			throw ex;
 		}
 	}
+
+	/**
+	 * @param profileName
+	 * 		Name of profile to look up, or {@code null} to use the one specified by the CLI config.
+	 *
+	 * @return Profile of the given name, or {@code null} if no such profile exists.
+	 */
+	@Nullable
+	public static LaunchProfile getProfile(@Nullable String profileName) {
+		CliConfig config = CliConfig.get();
+		if (profileName == null)
+			profileName = config.getProfileName();
+		LaunchProfile profile = LaunchProfile.find(profileName, config.getProfiles());
+		if (profile == null) {
+			List<String> names = new ArrayList<>();
+			for (LaunchProfile custom : config.getProfiles())
+				names.add(custom.getName());
+			for (LaunchProfile builtIn : LaunchProfile.BUILT_IN)
+				names.add(builtIn.getName());
+			logger.error("No launch profile named '{}', available profiles: {}", profileName, String.join(", ", names));
+		}
+		return profile;
+	}
+
+	private static boolean isExitRequest(String line) {
+		return line == null || line.trim().equalsIgnoreCase("exit");
+	}
 }
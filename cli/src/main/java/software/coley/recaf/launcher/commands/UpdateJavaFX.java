@@ -4,6 +4,7 @@
 import picocli.CommandLine.Option;
 import software.coley.recaf.launcher.info.JavaFxVersion;
 import software.coley.recaf.launcher.info.JavaVersion;
+import software.coley.recaf.launcher.task.DependencyCacheTasks;
 import software.coley.recaf.launcher.task.JavaFxTasks;
 
 import java.util.concurrent.Callable;
@@ -21,6 +22,11 @@ public class UpdateJavaFX implements Callable<JavaFxVersion> {
 	private long maxCacheSize = Integer.MAX_VALUE;
 	@Option(names = {"-k", "--keepLatest"}, description = "Keep latest cached dependency in the cache when clearing")
 	private boolean keepLatest;
+	@Option(names = {"-b", "--budget"}, description = {
+			"Evict the least recently used JavaFX versions until the dependency cache is under this many megabytes.",
+			"The version Recaf is launched with is never evicted."
+	})
+	private int budget = -1;
 	@Option(names = {"-f", "--force"}, description = "Force re-downloading even if the local install looks up-to-date")
 	private boolean force;
 	@Option(names = {"-v", "--version"}, description = "Target JavaFX version to use, instead of whatever is the latest")
@@ -29,6 +35,11 @@ public class UpdateJavaFX implements Callable<JavaFxVersion> {
 	@Override
 	public JavaFxVersion call() {
 		JavaFxTasks.checkClearCache(clear, keepLatest, maxCacheCount, maxCacheSize);
-		return JavaFxTasks.update(version, JavaVersion.get(), force);
+		JavaFxVersion updatedVersion = JavaFxTasks.update(version, JavaVersion.get(), force);
+		if (budget >= 0) {
+			DependencyCacheTasks.removeOrphanedTempFiles();
+			DependencyCacheTasks.evict((long) budget << 20);
+		}
+		return updatedVersion;
 	}
 }
\ No newline at end of file
@@ -2,7 +2,10 @@
 
 import org.slf4j.Logger;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import software.coley.recaf.launcher.config.CliConfig;
 import software.coley.recaf.launcher.info.RecafVersion;
+import software.coley.recaf.launcher.task.RecafBuildTasks;
 import software.coley.recaf.launcher.task.RecafTasks;
 import software.coley.recaf.launcher.task.VersionUpdateResult;
 import software.coley.recaf.launcher.util.Loggers;
@@ -16,8 +19,16 @@
 public class UpdateRecafSnapshot implements Callable<RecafVersion> {
 	private static final Logger logger = Loggers.newLogger();
 
+	@Option(names = {"-d", "--delta"}, description = {
+			"Re-use the unchanged entries of the installed jar when writing the update.",
+			"Can also be enabled with 'delta-updates' in the CLI config."
+	})
+	private boolean delta;
+
 	@Override
 	public RecafVersion call() {
+		RecafTasks.setDeltaUpdates(delta || CliConfig.get().isDeltaUpdates());
+		RecafBuildTasks.setRetainedBuilds(CliConfig.get().getRetainedBuilds());
 		VersionUpdateResult result = RecafTasks.updateFromSnapshot("master");
 
 		if (result.getError() != null) {
@@ -0,0 +1,63 @@
+package software.coley.recaf.launcher.commands;
+
+import org.slf4j.Logger;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+import software.coley.recaf.launcher.info.RecafBuild;
+import software.coley.recaf.launcher.task.RecafBuildTasks;
+import software.coley.recaf.launcher.util.Loggers;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Command for switching between retained Recaf builds.
+ */
+@Command(name = "use", description = {
+		"Switches to a previously installed Recaf build, without downloading it again.",
+		"Not specifying a build lists the retained builds.",
+		"The number of builds retained can be set with 'retained-builds' in the CLI config, the default is 3."
+})
+public class Use implements Callable<RecafBuild> {
+	private static final Logger logger = Loggers.newLogger();
+
+	@Parameters(arity = "0..1", description = "Name of the build, or the workflow run id of a snapshot build")
+	private String build;
+
+	@Override
+	public RecafBuild call() {
+		if (build == null) {
+			listBuilds();
+			return null;
+		}
+		try {
+			return RecafBuildTasks.use(build);
+		} catch (IOException ex) {
+			logger.error("Failed switching to Recaf build '{}'", build, ex);
+			return null;
+		}
+	}
+
+	private static void listBuilds() {
+		List<RecafBuild> builds = RecafBuildTasks.getBuilds();
+		if (builds.isEmpty()) {
+			logger.info("No Recaf builds are retained, they are recorded as Recaf is updated");
+			return;
+		}
+		RecafBuild active = RecafBuildTasks.getActiveBuild();
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+		StringBuilder sb = new StringBuilder("Retained Recaf builds:\n");
+		for (RecafBuild retained : builds) {
+			sb.append(active != null && active.getName().equals(retained.getName()) ? " * " : " - ")
+					.append(retained.getName())
+					.append(" (installed ").append(format.format(new Date(retained.getInstalledAt()))).append(')');
+			if (retained.isFailed())
+				sb.append(" [failed to launch]");
+			sb.append('\n');
+		}
+		logger.info(sb.toString());
+	}
+}
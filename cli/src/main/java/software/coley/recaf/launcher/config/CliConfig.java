@@ -0,0 +1,168 @@
+package software.coley.recaf.launcher.config;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.LaunchProfile;
+import software.coley.recaf.launcher.task.DependencyCacheTasks;
+import software.coley.recaf.launcher.task.RecafBuildTasks;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Endpoints;
+import software.coley.recaf.launcher.util.Loggers;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CLI config. Unlike the GUI config this is only read, users edit the file by hand.
+ */
+public class CliConfig {
+	private static CliConfig instance;
+	private static final Logger logger = Loggers.newLogger();
+	private final List<LaunchProfile> profiles = new ArrayList<>();
+	private String profileName = LaunchProfile.DEFAULT.getName();
+	private int minHeapMegabytes = -1;
+	private int maxHeapMegabytes = -1;
+	private boolean deltaUpdates;
+	private int retainedBuilds = RecafBuildTasks.DEFAULT_RETAINED_BUILDS;
+	private int cacheBudgetMegabytes = -1;
+	private final Map<Endpoints.Source, List<String>> mirrors = new EnumMap<>(Endpoints.Source.class);
+	private boolean hedgedRequests;
+
+	/**
+	 * Initialize config from storage.
+	 */
+	private CliConfig() {
+		Path configFile = CommonPaths.getCliConfigFile();
+		if (Files.exists(configFile)) {
+			try {
+				String content = new String(Files.readAllBytes(configFile), StandardCharsets.UTF_8);
+				JsonValue parsed = Json.parse(content);
+				if (parsed instanceof JsonObject) {
+					JsonObject root = (JsonObject) parsed;
+					profileName = root.getString("profile", profileName);
+					minHeapMegabytes = root.getInt("min-heap-mb", minHeapMegabytes);
+					maxHeapMegabytes = root.getInt("max-heap-mb", maxHeapMegabytes);
+					deltaUpdates = root.getBoolean("delta-updates", deltaUpdates);
+					retainedBuilds = root.getInt("retained-builds", retainedBuilds);
+					cacheBudgetMegabytes = root.getInt("cache-budget-mb", cacheBudgetMegabytes);
+					hedgedRequests = root.getBoolean("hedged-requests", hedgedRequests);
+					JsonValue mirrorsValue = root.get("mirrors");
+					if (mirrorsValue != null && mirrorsValue.isObject())
+						for (Endpoints.Source source : Endpoints.Source.values()) {
+							JsonValue sourceMirrors = mirrorsValue.asObject().get(getMirrorsKey(source));
+							if (sourceMirrors == null || !sourceMirrors.isArray())
+								continue;
+							List<String> urls = new ArrayList<>();
+							for (JsonValue url : sourceMirrors.asArray())
+								urls.add(url.asString());
+							mirrors.put(source, urls);
+						}
+					JsonValue profilesValue = root.get("profiles");
+					if (profilesValue != null && profilesValue.isArray())
+						for (JsonValue profile : profilesValue.asArray())
+							profiles.add(LaunchProfile.fromJson(profile.asObject()));
+				}
+			} catch (Throwable t) {
+				logger.error("Failed to read launcher config", t);
+			}
+		}
+	}
+
+	/**
+	 * @return Shared config instance.
+	 */
+	@Nonnull
+	public static synchronized CliConfig get() {
+		if (instance == null)
+			instance = new CliConfig();
+		return instance;
+	}
+
+	/**
+	 * @return Name of the launch profile to use when none is specified.
+	 */
+	@Nonnull
+	public String getProfileName() {
+		return profileName;
+	}
+
+	/**
+	 * @return User defined launch profiles.
+	 */
+	@Nonnull
+	public List<LaunchProfile> getProfiles() {
+		return Collections.unmodifiableList(profiles);
+	}
+
+	/**
+	 * @return Lower bound in megabytes of heap sizes picked for opening files, or a negative value to use the default.
+	 */
+	public int getMinHeapMegabytes() {
+		return minHeapMegabytes;
+	}
+
+	/**
+	 * @return Upper bound in megabytes of heap sizes picked for opening files, or a negative value to use the default.
+	 */
+	public int getMaxHeapMegabytes() {
+		return maxHeapMegabytes;
+	}
+
+	/**
+	 * @return {@code true} to write Recaf updates by re-using the unchanged entries of the installed jar.
+	 */
+	public boolean isDeltaUpdates() {
+		return deltaUpdates;
+	}
+
+	/**
+	 * @return Number of the most recently installed Recaf builds to keep for switching back to.
+	 */
+	public int getRetainedBuilds() {
+		return retainedBuilds;
+	}
+
+	/**
+	 * @return Base URLs of mirrors for each service, in the order to try them.
+	 * Services without configured mirrors are not included.
+	 */
+	@Nonnull
+	public Map<Endpoints.Source, List<String>> getMirrors() {
+		return Collections.unmodifiableMap(mirrors);
+	}
+
+	/**
+	 * @return {@code true} to also send requests to the next mirror when the first is slow to respond.
+	 */
+	public boolean isHedgedRequests() {
+		return hedgedRequests;
+	}
+
+	/**
+	 * @return Maximum number of bytes the dependency cache should occupy.
+	 */
+	public long getCacheBudget() {
+		return cacheBudgetMegabytes < 0 ? DependencyCacheTasks.DEFAULT_BUDGET : (long) cacheBudgetMegabytes << 20;
+	}
+
+	/**
+	 * @param source
+	 * 		Service to get the key of.
+	 *
+	 * @return Key of the service's mirrors in the {@code mirrors} object, such as {@code maven-central}.
+	 */
+	@Nonnull
+	private static String getMirrorsKey(@Nonnull Endpoints.Source source) {
+		return source.name().toLowerCase(Locale.ROOT).replace('_', '-');
+	}
+}
@@ -4,7 +4,12 @@
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Recaf application classloader.
@@ -14,8 +19,40 @@ final class AppClassLoader extends URLClassLoader {
 		ClassLoader.registerAsParallelCapable();
 	}
 
-	AppClassLoader(@Nonnull URL[] urls, @Nonnull ClassLoader parent) {
+	private final Set<String> loadOrder;
+
+	AppClassLoader(@Nonnull URL[] urls, @Nonnull ClassLoader parent, boolean recordLoadOrder) {
 		super(urls, parent);
+		loadOrder = recordLoadOrder ? Collections.synchronizedSet(new LinkedHashSet<>()) : null;
+	}
+
+	/**
+	 * @return Names of entries loaded from this loader, in the order they were first loaded.
+	 * Empty if the loader was not created to record the load order.
+	 */
+	@Nonnull
+	List<String> getLoadOrder() {
+		if (loadOrder == null)
+			return Collections.emptyList();
+		synchronized (loadOrder) {
+			return new ArrayList<>(loadOrder);
+		}
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		Class<?> c = super.findClass(name);
+		if (loadOrder != null)
+			loadOrder.add(name.replace('.', '/') + ".class");
+		return c;
+	}
+
+	@Override
+	public URL findResource(String name) {
+		URL url = super.findResource(name);
+		if (url != null && loadOrder != null)
+			loadOrder.add(name);
+		return url;
 	}
 
 	@Override
@@ -1,11 +1,16 @@
 package software.coley.recaf.launcher;
 
+import javax.annotation.Nonnull;
 import java.io.DataInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,14 +20,23 @@
 
 /**
  * Launch wrapper which reads classpath entries from {@link System#in}, detects the main-class, and invokes it.
+ * <br>
+ * The classpath entries are terminated by an empty string, and are followed by the main class name.
+ * If the parent process already knows the main class, we skip looking it up from the classpath manifest.
+ * Lastly the number of program arguments is given, followed by the arguments themselves.
  */
 public final class ApplicationLauncher {
+	/**
+	 * System property of a file path to write the order of loaded classes and resources to when the JVM exits.
+	 */
+	public static final String RECORD_LOAD_ORDER_PROPERTY = "recaf.launcher.recordLoadOrder";
+
 	private ApplicationLauncher() {
 	}
 
 	/**
 	 * @param args
-	 * 		Input arguments to pass to Recaf.
+	 * 		Input arguments to pass to Recaf, followed by those received from the parent process.
 	 *
 	 * @throws Throwable
 	 * 		When reading {@link System#in} fails, or reading from the current classpath manifest fails.
@@ -30,6 +44,7 @@ private ApplicationLauncher() {
 	public static void main(String[] args) throws Throwable {
 		// Read classpath urls from input
 		AppClassLoader classLoader;
+		String mainClass;
 		{
 			System.out.println("Receiving classpath entries from parent process...");
 			StringBuilder classpathProperty = new StringBuilder(1024);
@@ -41,30 +56,43 @@ public static void main(String[] args) throws Throwable {
 				classpathProperty.append(path).append(File.pathSeparatorChar);
 			}
 			classpathProperty.setLength(classpathProperty.length() - 1);
+			mainClass = in.readUTF();
+			int argCount = in.readInt();
+			if (argCount > 0) {
+				String[] forwardedArgs = new String[args.length + argCount];
+				System.arraycopy(args, 0, forwardedArgs, 0, args.length);
+				for (int i = 0; i < argCount; i++)
+					forwardedArgs[args.length + i] = in.readUTF();
+				args = forwardedArgs;
+			}
 			ClassLoader appClassLoader = ApplicationLauncher.class.getClassLoader();
 			ClassLoader platformClassLoader = appClassLoader.getParent();
-			classLoader = new AppClassLoader(urls.toArray(new URL[0]), platformClassLoader);
+			String loadOrderOutput = System.getProperty(RECORD_LOAD_ORDER_PROPERTY);
+			classLoader = new AppClassLoader(urls.toArray(new URL[0]), platformClassLoader, loadOrderOutput != null);
 			System.setProperty("java.class.path", classpathProperty.toString());
+			if (loadOrderOutput != null)
+				recordLoadOrder(classLoader, Paths.get(loadOrderOutput));
 		}
 
-		// Get the main class
-		System.out.println("Resolving Recaf entry-point...");
-		URL manifestUrl = classLoader.findResource(JarFile.MANIFEST_NAME);
-		if (manifestUrl == null) {
-			System.err.printf("Cannot locate '%s' entry%n", JarFile.MANIFEST_NAME);
-			System.exit(1);
-		}
-		Manifest manifest;
-		try (InputStream in = manifestUrl.openStream()) {
-			manifest = new Manifest(in);
-		}
-		String mainClass = manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
-		if (mainClass == null) {
-			System.err.printf("Cannot find '%s' in '%s'%n", Attributes.Name.MAIN_CLASS, JarFile.MANIFEST_NAME);
-			System.exit(2);
+		// Get the main class if the parent process did not provide it
+		if (mainClass.isEmpty()) {
+			System.out.println("Resolving Recaf entry-point...");
+			URL manifestUrl = classLoader.findResource(JarFile.MANIFEST_NAME);
+			if (manifestUrl == null) {
+				System.err.printf("Cannot locate '%s' entry%n", JarFile.MANIFEST_NAME);
+				System.exit(1);
+			}
+			Manifest manifest;
+			try (InputStream in = manifestUrl.openStream()) {
+				manifest = new Manifest(in);
+			}
+			mainClass = manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+			if (mainClass == null) {
+				System.err.printf("Cannot find '%s' in '%s'%n", Attributes.Name.MAIN_CLASS, JarFile.MANIFEST_NAME);
+				System.exit(2);
+			}
 		}
 
-
 		// Launch Recaf
 		System.out.println("Launching Recaf...");
 		Thread.currentThread().setContextClassLoader(classLoader);
@@ -73,4 +101,21 @@ public static void main(String[] args) throws Throwable {
 				.asFixedArity()
 				.invokeExact((String[]) args);
 	}
+
+	/**
+	 * @param classLoader
+	 * 		Loader recording its load order.
+	 * @param output
+	 * 		File to write the load order to when the JVM exits.
+	 */
+	private static void recordLoadOrder(@Nonnull AppClassLoader classLoader, @Nonnull Path output) {
+		System.out.println("Recording class load order to: " + output);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				Files.write(output, classLoader.getLoadOrder(), StandardCharsets.UTF_8);
+			} catch (IOException ex) {
+				System.err.println("Failed to write class load order: " + ex);
+			}
+		}));
+	}
 }
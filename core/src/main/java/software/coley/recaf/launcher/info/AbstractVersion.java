@@ -0,0 +1,125 @@
+package software.coley.recaf.launcher.info;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * Common base for versions, which parses the version string once so that comparisons do not need to.
+ */
+public abstract class AbstractVersion implements Version {
+	private static final int[] NO_GROUPS = new int[0];
+	protected final String version;
+	private final int[] groups;
+	private final boolean snapshot;
+
+	/**
+	 * @param version
+	 * 		Version string.
+	 * @param snapshot
+	 *        {@code true} when the version is a snapshot.
+	 */
+	protected AbstractVersion(@Nonnull String version, boolean snapshot) {
+		this.version = Objects.requireNonNull(version, "Version string cannot be null");
+		this.groups = parseGroups(version);
+		this.snapshot = snapshot;
+	}
+
+	@Override
+	public String getVersion() {
+		return version;
+	}
+
+	@Override
+	public int[] getVersionGroups() {
+		return groups().clone();
+	}
+
+	@Override
+	public boolean isSnapshot() {
+		return snapshot;
+	}
+
+	@Override
+	public int compareTo(Version other) {
+		if (!(other instanceof AbstractVersion))
+			return Version.super.compareTo(other);
+
+		// Same as the default implementation, but with the groups and snapshot state already known.
+		AbstractVersion otherVersion = (AbstractVersion) other;
+		int[] versionGroups = groups();
+		int[] otherVersionGroups = otherVersion.groups();
+		int max = Math.min(versionGroups.length, otherVersionGroups.length);
+		for (int i = 0; i < max; i++) {
+			int cmp = Integer.compare(versionGroups[i], otherVersionGroups[i]);
+			if (cmp != 0)
+				return cmp;
+			if (snapshot != otherVersion.snapshot)
+				return snapshot ? -1 : 1;
+		}
+		return 0;
+	}
+
+	@Nonnull
+	private int[] groups() {
+		// Versions which cannot be parsed only fail when they are compared, as they did before parsing was cached.
+		if (groups == null)
+			throw new NumberFormatException("Cannot map version to integer groups: " + version);
+		return groups;
+	}
+
+	/**
+	 * Equivalent to splitting the version by {@code [^0-9]+} and parsing each section, without the early-access
+	 * {@code -ea+} suffix.
+	 *
+	 * @param version
+	 * 		Version string.
+	 *
+	 * @return Array of version parts, or {@code null} if a part is not a valid integer.
+	 */
+	private static int[] parseGroups(@Nonnull String version) {
+		int length = version.length();
+		int eaIndex = version.indexOf("-ea+");
+		if (eaIndex > 0)
+			length = eaIndex;
+
+		// Count digit sequences. A leading non-digit yields an empty first section, which cannot be parsed.
+		int count = 0;
+		boolean inDigits = false;
+		for (int i = 0; i < length; i++) {
+			boolean digit = isDigit(version.charAt(i));
+			if (digit && !inDigits)
+				count++;
+			inDigits = digit;
+		}
+		if (length == 0 || (count > 0 && !isDigit(version.charAt(0))))
+			return null;
+		if (count == 0)
+			return NO_GROUPS;
+
+		int[] groups = new int[count];
+		int group = -1;
+		long value = 0;
+		inDigits = false;
+		for (int i = 0; i < length; i++) {
+			char c = version.charAt(i);
+			if (isDigit(c)) {
+				if (!inDigits) {
+					group++;
+					value = 0;
+				}
+				value = value * 10 + (c - '0');
+				if (value > Integer.MAX_VALUE)
+					return null;
+				groups[group] = (int) value;
+				inDigits = true;
+			} else {
+				inDigits = false;
+			}
+		}
+		return groups;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
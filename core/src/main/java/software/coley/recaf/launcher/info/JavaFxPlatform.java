@@ -24,6 +24,20 @@ public enum JavaFxPlatform {
 		this.architecture = architecture;
 	}
 
+	/**
+	 * @param classifier
+	 * 		Maven artifact classifier, such as {@code linux-aarch64}.
+	 *
+	 * @return Platform with the given classifier, or {@code null} if no supported platform has it.
+	 */
+	@Nullable
+	public static JavaFxPlatform fromClassifier(@Nonnull String classifier) {
+		for (JavaFxPlatform platform : values())
+			if (platform != UNSUPPORTED && platform.classifier.equalsIgnoreCase(classifier))
+				return platform;
+		return null;
+	}
+
 	/**
 	 * @return Maven artifact classifier for this platform.
 	 */
@@ -5,21 +5,19 @@
 /**
  * JavaFX version model.
  */
-public class JavaFxVersion implements Version {
+public class JavaFxVersion extends AbstractVersion {
 
 	/**
 	 * Oldest version we'd suggest using.
 	 */
 	public static final int MIN_SUGGESTED_JFX_VERSION = 21;
 
-	private final String version;
-
 	public JavaFxVersion(String version) {
-		this.version = version;
+		super(version, version.contains("-ea+"));
 	}
 
 	public JavaFxVersion(int version) {
-		this.version = String.valueOf(version);
+		this(String.valueOf(version));
 	}
 
 	/**
@@ -53,22 +51,12 @@ public boolean isCompatibleWith(int javaVersion) {
 		return getRequiredJavaVersion() <= javaVersion;
 	}
 
-	@Override
-	public boolean isSnapshot() {
-		return version.contains("-ea+");
-	}
-
 	@Override
 	public JavaFxVersion withoutSnapshot() {
 		String subversion = version.substring(0, version.length() - SNAPSHOT_SUFFIX.length());
 		return new JavaFxVersion(subversion);
 	}
 
-	@Override
-	public String getVersion() {
-		return version;
-	}
-
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
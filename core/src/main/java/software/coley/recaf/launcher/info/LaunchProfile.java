@@ -0,0 +1,429 @@
+package software.coley.recaf.launcher.info;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model of JVM tuning options to launch Recaf with.
+ */
+public class LaunchProfile {
+	/**
+	 * Profile that does not pass any tuning options, leaving everything up to the JVM.
+	 */
+	public static final LaunchProfile DEFAULT = new LaunchProfile("default", 0,
+			GarbageCollector.DEFAULT, TieredMode.DEFAULT, Collections.emptyList());
+	/**
+	 * Minimum major version of Java that can create a {@link #isSharedArchive() shared archive} automatically.
+	 */
+	public static final int SHARED_ARCHIVE_MIN_VERSION = 19;
+	/**
+	 * Built-in profiles.
+	 */
+	public static final List<LaunchProfile> BUILT_IN = Collections.unmodifiableList(Arrays.asList(
+			DEFAULT,
+			// Small single-threaded collector and C1 only, so the UI is responsive sooner.
+			// Classes loaded by Recaf are archived on the first run, and mapped from the archive on later runs.
+			new LaunchProfile("fast-startup", 0, GarbageCollector.SERIAL, TieredMode.QUICK,
+					Collections.emptyList(), true),
+			// Most of the system memory, for opening very large jars.
+			new LaunchProfile("large-workspace", 75, GarbageCollector.G1, TieredMode.DEFAULT,
+					Arrays.asList("-XX:+UseStringDeduplication", "-XX:+ParallelRefProcEnabled")),
+			// Small footprint, for constrained systems.
+			new LaunchProfile("low-memory", 25, GarbageCollector.SERIAL, TieredMode.DEFAULT,
+					Arrays.asList("-XX:ReservedCodeCacheSize=64m", "-XX:+UseStringDeduplication"))
+	));
+	private static final Map<String, Integer> FLAG_MIN_VERSIONS = new HashMap<>();
+	private static final int STRING_DEDUPLICATION_ANY_GC_VERSION = 18;
+	private final String name;
+	private final int heapPercent;
+	private final GarbageCollector garbageCollector;
+	private final TieredMode tieredMode;
+	private final List<String> flags;
+	private final boolean sharedArchive;
+
+	static {
+		// Flags used in profiles that are not available in all versions of Java.
+		// Flags not listed here are assumed to be supported by all versions.
+		FLAG_MIN_VERSIONS.put("MaxRAMPercentage", 10);
+		FLAG_MIN_VERSIONS.put("InitialRAMPercentage", 10);
+		FLAG_MIN_VERSIONS.put("UseEpsilonGC", 11);
+		FLAG_MIN_VERSIONS.put("UseShenandoahGC", 12);
+		FLAG_MIN_VERSIONS.put("UseZGC", 15);
+		FLAG_MIN_VERSIONS.put("ZUncommitDelay", 15);
+		FLAG_MIN_VERSIONS.put("SoftMaxHeapSize", 15);
+		FLAG_MIN_VERSIONS.put("AutoCreateSharedArchive", 19);
+		FLAG_MIN_VERSIONS.put("ZGenerational", 21);
+		// Experimental in 24, requiring -XX:+UnlockExperimentalVMOptions before it.
+		FLAG_MIN_VERSIONS.put("UseCompactObjectHeaders", 25);
+	}
+
+	/**
+	 * @param name
+	 * 		Name of the profile.
+	 * @param heapPercent
+	 * 		Max heap size as a percentage of the system's memory, or {@code 0} to use the JVM default.
+	 * @param garbageCollector
+	 * 		Garbage collector to use.
+	 * @param tieredMode
+	 * 		JIT compilation mode to use.
+	 * @param flags
+	 * 		Additional JVM flags.
+	 */
+	public LaunchProfile(@Nonnull String name, int heapPercent, @Nonnull GarbageCollector garbageCollector,
+	                     @Nonnull TieredMode tieredMode, @Nonnull List<String> flags) {
+		this(name, heapPercent, garbageCollector, tieredMode, flags, false);
+	}
+
+	/**
+	 * @param name
+	 * 		Name of the profile.
+	 * @param heapPercent
+	 * 		Max heap size as a percentage of the system's memory, or {@code 0} to use the JVM default.
+	 * @param garbageCollector
+	 * 		Garbage collector to use.
+	 * @param tieredMode
+	 * 		JIT compilation mode to use.
+	 * @param flags
+	 * 		Additional JVM flags.
+	 * @param sharedArchive
+	 *        {@code true} to archive the classes Recaf loads, and map them from the archive on later launches.
+	 */
+	public LaunchProfile(@Nonnull String name, int heapPercent, @Nonnull GarbageCollector garbageCollector,
+	                     @Nonnull TieredMode tieredMode, @Nonnull List<String> flags, boolean sharedArchive) {
+		this.name = name;
+		this.heapPercent = Math.max(0, Math.min(100, heapPercent));
+		this.garbageCollector = garbageCollector;
+		this.tieredMode = tieredMode;
+		this.flags = Collections.unmodifiableList(new ArrayList<>(flags));
+		this.sharedArchive = sharedArchive;
+	}
+
+	/**
+	 * @param name
+	 * 		Name of profile to find.
+	 * @param customProfiles
+	 * 		User defined profiles, which take priority over built-in profiles of the same name.
+	 *
+	 * @return Profile of the given name, or {@code null} if no such profile exists.
+	 */
+	@Nullable
+	public static LaunchProfile find(@Nonnull String name, @Nonnull Collection<LaunchProfile> customProfiles) {
+		for (LaunchProfile profile : customProfiles)
+			if (profile.getName().equalsIgnoreCase(name))
+				return profile;
+		for (LaunchProfile profile : BUILT_IN)
+			if (profile.getName().equalsIgnoreCase(name))
+				return profile;
+		return null;
+	}
+
+	/**
+	 * @param json
+	 * 		JSON model of a profile, from {@link #toJson()}.
+	 *
+	 * @return Profile from the JSON model.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the model has an unknown garbage collector or tiered mode.
+	 */
+	@Nonnull
+	public static LaunchProfile fromJson(@Nonnull JsonObject json) {
+		List<String> flags = new ArrayList<>();
+		JsonValue flagsValue = json.get("flags");
+		if (flagsValue != null && flagsValue.isArray())
+			for (JsonValue flag : flagsValue.asArray())
+				flags.add(flag.asString());
+		return new LaunchProfile(json.getString("name", "unnamed"),
+				json.getInt("heap-percent", 0),
+				GarbageCollector.valueOf(json.getString("gc", GarbageCollector.DEFAULT.name())),
+				TieredMode.valueOf(json.getString("tiered", TieredMode.DEFAULT.name())),
+				flags,
+				json.getBoolean("shared-archive", false));
+	}
+
+	/**
+	 * @return JSON model of the profile.
+	 */
+	@Nonnull
+	public JsonObject toJson() {
+		JsonArray flagsArray = Json.array();
+		for (String flag : flags)
+			flagsArray.add(flag);
+		return Json.object()
+				.add("name", name)
+				.add("heap-percent", heapPercent)
+				.add("gc", garbageCollector.name())
+				.add("tiered", tieredMode.name())
+				.add("flags", flagsArray)
+				.add("shared-archive", sharedArchive);
+	}
+
+	/**
+	 * @param javaVersion
+	 * 		Major version of Java the profile will be used with.
+	 *
+	 * @return Descriptions of options in this profile that are not supported by the given version of Java.
+	 * Empty if all options are supported.
+	 */
+	@Nonnull
+	public List<String> validate(int javaVersion) {
+		List<String> problems = new ArrayList<>();
+		if (!garbageCollector.isSupported(javaVersion))
+			problems.add("Garbage collector " + garbageCollector.name() + " requires Java " + garbageCollector.getMinVersion());
+		if (sharedArchive && javaVersion < SHARED_ARCHIVE_MIN_VERSION)
+			problems.add("Shared archive requires Java " + SHARED_ARCHIVE_MIN_VERSION);
+		for (String flag : flags) {
+			if (!flag.startsWith("-")) {
+				problems.add("Flag '" + flag + "' is not a JVM option");
+			} else if (!isFlagSupported(flag, javaVersion)) {
+				String problem = "Flag '" + flag + "' requires Java " + getFlagMinVersion(flag);
+				if (getFlagName(flag).equals("UseStringDeduplication"))
+					problem += " with garbage collector " + garbageCollector.name();
+				problems.add(problem);
+			}
+		}
+		return problems;
+	}
+
+	/**
+	 * Options not supported by the given version of Java, as reported by {@link #validate(int)}, are skipped.
+	 *
+	 * @param javaVersion
+	 * 		Major version of Java the arguments will be passed to.
+	 * 		If {@link JavaVersion#UNKNOWN_VERSION} only options supported by all versions are used.
+	 * @param totalMemory
+	 * 		Total memory of the system in bytes, or a negative value if not known.
+	 *
+	 * @return JVM arguments for this profile.
+	 */
+	@Nonnull
+	public List<String> toJvmArgs(int javaVersion, long totalMemory) {
+		return toJvmArgs(javaVersion, totalMemory, null);
+	}
+
+	/**
+	 * Options not supported by the given version of Java, as reported by {@link #validate(int)}, are skipped.
+	 *
+	 * @param javaVersion
+	 * 		Major version of Java the arguments will be passed to.
+	 * 		If {@link JavaVersion#UNKNOWN_VERSION} only options supported by all versions are used.
+	 * @param totalMemory
+	 * 		Total memory of the system in bytes, or a negative value if not known.
+	 * @param sharedArchiveFile
+	 * 		Location of the shared archive, used when the profile {@link #isSharedArchive() has one}.
+	 * 		The archive must be specific to the version of Java it is used with.
+	 *
+	 * @return JVM arguments for this profile.
+	 */
+	@Nonnull
+	public List<String> toJvmArgs(int javaVersion, long totalMemory, @Nullable Path sharedArchiveFile) {
+		List<String> args = new ArrayList<>();
+		if (heapPercent > 0 && totalMemory > 0)
+			args.add("-Xmx" + (totalMemory / 100 * heapPercent >> 20) + "m");
+		if (garbageCollector.isSupported(javaVersion))
+			args.addAll(garbageCollector.getFlags(javaVersion));
+		args.addAll(tieredMode.getFlags());
+		for (String flag : flags)
+			if (flag.startsWith("-") && isFlagSupported(flag, javaVersion))
+				args.add(flag);
+
+		// The archive is created when the JVM exits, and re-created if it does not match the classpath or JVM.
+		if (sharedArchive && sharedArchiveFile != null && javaVersion >= SHARED_ARCHIVE_MIN_VERSION) {
+			args.add("-XX:+AutoCreateSharedArchive");
+			args.add("-XX:SharedArchiveFile=" + sharedArchiveFile.toAbsolutePath());
+		}
+		return args;
+	}
+
+	/**
+	 * @return Name of the profile.
+	 */
+	@Nonnull
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Max heap size as a percentage of the system's memory, or {@code 0} to use the JVM default.
+	 */
+	public int getHeapPercent() {
+		return heapPercent;
+	}
+
+	/**
+	 * @return Garbage collector to use.
+	 */
+	@Nonnull
+	public GarbageCollector getGarbageCollector() {
+		return garbageCollector;
+	}
+
+	/**
+	 * @return JIT compilation mode to use.
+	 */
+	@Nonnull
+	public TieredMode getTieredMode() {
+		return tieredMode;
+	}
+
+	/**
+	 * @return Additional JVM flags.
+	 */
+	@Nonnull
+	public List<String> getFlags() {
+		return flags;
+	}
+
+	/**
+	 * @return {@code true} to archive the classes Recaf loads, and map them from the archive on later launches.
+	 */
+	public boolean isSharedArchive() {
+		return sharedArchive;
+	}
+
+	private boolean isFlagSupported(@Nonnull String flag, int javaVersion) {
+		Integer minVersion = getFlagMinVersion(flag);
+		return minVersion == null || javaVersion >= minVersion;
+	}
+
+	/**
+	 * @param flag
+	 * 		Flag such as {@code -XX:+UseZGC}.
+	 *
+	 * @return Minimum major version of Java supporting the flag with this profile's garbage collector,
+	 * or {@code null} if all versions support it.
+	 */
+	@Nullable
+	private Integer getFlagMinVersion(@Nonnull String flag) {
+		String flagName = getFlagName(flag);
+		if (flagName.equals("UseStringDeduplication")) {
+			// Only G1 supported deduplication before it was implemented for all collectors.
+			// G1 is the default collector from Java 9, before that it was the parallel collector.
+			if (garbageCollector == GarbageCollector.G1)
+				return null;
+			if (garbageCollector == GarbageCollector.DEFAULT)
+				return 9;
+			return STRING_DEDUPLICATION_ANY_GC_VERSION;
+		}
+		return FLAG_MIN_VERSIONS.get(flagName);
+	}
+
+	/**
+	 * @param flag
+	 * 		Flag such as {@code -XX:+UseZGC} or {@code -XX:SoftMaxHeapSize=1g}.
+	 *
+	 * @return Name of the flag, such as {@code UseZGC} or {@code SoftMaxHeapSize}.
+	 */
+	@Nonnull
+	private static String getFlagName(@Nonnull String flag) {
+		if (!flag.startsWith("-XX:"))
+			return flag;
+		int start = 4;
+		if (flag.length() > start && (flag.charAt(start) == '+' || flag.charAt(start) == '-'))
+			start++;
+		int end = flag.indexOf('=', start);
+		return end < 0 ? flag.substring(start) : flag.substring(start, end);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	/**
+	 * Garbage collectors to pick from.
+	 */
+	public enum GarbageCollector {
+		DEFAULT(8),
+		SERIAL(8, "-XX:+UseSerialGC"),
+		PARALLEL(8, "-XX:+UseParallelGC"),
+		G1(8, "-XX:+UseG1GC"),
+		SHENANDOAH(12, "-XX:+UseShenandoahGC"),
+		ZGC(15, "-XX:+UseZGC"),
+		GENERATIONAL_ZGC(21, "-XX:+UseZGC");
+
+		private final int minVersion;
+		private final List<String> flags;
+
+		GarbageCollector(int minVersion, String... flags) {
+			this.minVersion = minVersion;
+			this.flags = Arrays.asList(flags);
+		}
+
+		/**
+		 * @return Minimum major version of Java with this collector.
+		 */
+		public int getMinVersion() {
+			return minVersion;
+		}
+
+		/**
+		 * @param javaVersion
+		 * 		Major version of Java.
+		 *
+		 * @return {@code true} when the collector is available in the given version.
+		 */
+		public boolean isSupported(int javaVersion) {
+			return this == DEFAULT || javaVersion >= minVersion;
+		}
+
+		/**
+		 * @param javaVersion
+		 * 		Major version of Java.
+		 *
+		 * @return Flags to select this collector.
+		 */
+		@Nonnull
+		public List<String> getFlags(int javaVersion) {
+			// Generational mode is opt-in for 21 and 22, and the only mode from 23 onwards.
+			if (this == GENERATIONAL_ZGC && javaVersion < 23)
+				return Arrays.asList("-XX:+UseZGC", "-XX:+ZGenerational");
+			return flags;
+		}
+	}
+
+	/**
+	 * JIT compilation modes to pick from.
+	 */
+	public enum TieredMode {
+		/**
+		 * Use both C1 and C2.
+		 */
+		DEFAULT,
+		/**
+		 * Only use C1, which compiles quickly but produces slower code.
+		 */
+		QUICK("-XX:TieredStopAtLevel=1"),
+		/**
+		 * Only use C2, which compiles slowly but produces faster code.
+		 */
+		OPTIMIZED("-XX:-TieredCompilation");
+
+		private final List<String> flags;
+
+		TieredMode(String... flags) {
+			this.flags = Arrays.asList(flags);
+		}
+
+		/**
+		 * @return Flags to select this mode.
+		 */
+		@Nonnull
+		public List<String> getFlags() {
+			return flags;
+		}
+	}
+}
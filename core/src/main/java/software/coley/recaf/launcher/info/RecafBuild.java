@@ -0,0 +1,127 @@
+package software.coley.recaf.launcher.info;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Model of a Recaf build retained in the artifact store.
+ */
+public class RecafBuild {
+	private final String name;
+	private final String sha1;
+	private final long installedAt;
+	private final boolean failed;
+
+	/**
+	 * @param name
+	 * 		Name of the build, being its version, and for snapshots the workflow run it was built by.
+	 * @param sha1
+	 * 		Hash of the build's jar in the artifact store.
+	 * @param installedAt
+	 * 		Time the build was installed, in milliseconds since the epoch.
+	 * @param failed
+	 *        {@code true} when launching the build failed, and it was rolled back.
+	 */
+	public RecafBuild(@Nonnull String name, @Nonnull String sha1, long installedAt, boolean failed) {
+		this.name = name;
+		this.sha1 = sha1;
+		this.installedAt = installedAt;
+		this.failed = failed;
+	}
+
+	/**
+	 * @param json
+	 * 		JSON model of a build, from {@link #toJson()}.
+	 *
+	 * @return Build from the JSON model.
+	 */
+	@Nonnull
+	public static RecafBuild fromJson(@Nonnull JsonObject json) {
+		return new RecafBuild(json.getString("name", "unknown"),
+				json.getString("sha1", ""),
+				json.getLong("installed", 0),
+				json.getBoolean("failed", false));
+	}
+
+	/**
+	 * @return JSON model of the build.
+	 */
+	@Nonnull
+	public JsonObject toJson() {
+		return Json.object()
+				.add("name", name)
+				.add("sha1", sha1)
+				.add("installed", installedAt)
+				.add("failed", failed);
+	}
+
+	/**
+	 * @param failed
+	 *        {@code true} when launching the build failed.
+	 *
+	 * @return Copy of this build with the given failure state.
+	 */
+	@Nonnull
+	public RecafBuild withFailed(boolean failed) {
+		return new RecafBuild(name, sha1, installedAt, failed);
+	}
+
+	/**
+	 * @return Name of the build, being its version, and for snapshots the workflow run it was built by.
+	 */
+	@Nonnull
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Hash of the build's jar in the artifact store.
+	 */
+	@Nonnull
+	public String getSha1() {
+		return sha1;
+	}
+
+	/**
+	 * @return Time the build was installed, in milliseconds since the epoch.
+	 */
+	public long getInstalledAt() {
+		return installedAt;
+	}
+
+	/**
+	 * @return {@code true} when launching the build failed, and it was rolled back.
+	 */
+	public boolean isFailed() {
+		return failed;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		RecafBuild that = (RecafBuild) o;
+
+		if (installedAt != that.installedAt) return false;
+		if (failed != that.failed) return false;
+		if (!name.equals(that.name)) return false;
+		return sha1.equals(that.sha1);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = name.hashCode();
+		result = 31 * result + sha1.hashCode();
+		result = 31 * result + Long.hashCode(installedAt);
+		result = 31 * result + (failed ? 1 : 0);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -5,8 +5,7 @@
 /**
  * Recaf version model.
  */
-public class RecafVersion implements Version {
-	private final String version;
+public class RecafVersion extends AbstractVersion {
 	private final int revision;
 
 	/**
@@ -16,7 +15,7 @@ public class RecafVersion implements Version {
 	 * 		Git revision number. Negative if unknown.
 	 */
 	public RecafVersion(String version, int revision) {
-		this.version = Objects.requireNonNull(version, "Version string cannot be null");
+		super(version, Objects.requireNonNull(version, "Version string cannot be null").toLowerCase().endsWith(SNAPSHOT_SUFFIX));
 		this.revision = Math.max(-1, revision);
 	}
 
@@ -33,14 +32,9 @@ public RecafVersion withoutSnapshot() {
 		return new RecafVersion(subversion, revision);
 	}
 
-	@Override
-	public String getVersion() {
-		return version;
-	}
-
 	@Override
 	public int compareTo(Version other) {
-		int cmp = Version.super.compareTo(other);
+		int cmp = super.compareTo(other);
 		if (cmp == 0 && other instanceof RecafVersion) {
 			// If the versions are the same, check the rev.
 			// If one rev is known, it will always be preferred over the other.
@@ -1,5 +1,7 @@
 package software.coley.recaf.launcher.info;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -38,6 +40,20 @@ public class SystemInformation {
 		}
 	};
 
+	/**
+	 * @return Total physical memory of the system in bytes, or {@code -1} if it cannot be determined.
+	 */
+	public static long getTotalMemory() {
+		try {
+			OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+			if (os instanceof com.sun.management.OperatingSystemMXBean)
+				return ((com.sun.management.OperatingSystemMXBean) os).getTotalPhysicalMemorySize();
+		} catch (Throwable ignored) {
+			// Not available on this VM
+		}
+		return -1;
+	}
+
 	/**
 	 * @return {@code 64} or {@code 32} dependent on the {@link #OS_ARCH}.
 	 */
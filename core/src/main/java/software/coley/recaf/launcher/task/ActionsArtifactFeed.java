@@ -0,0 +1,275 @@
+package software.coley.recaf.launcher.task;
+
+import com.eclipsesource.json.JsonHandler;
+import com.eclipsesource.json.JsonParser;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.util.Endpoints;
+import software.coley.recaf.launcher.util.IOConsumer;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.Web;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Predicate;
+
+/**
+ * Streaming scan of the GitHub actions artifacts feed of Recaf, used to find snapshot builds.
+ * <br>
+ * The feed is listed newest first. Rather than parsing each page into a full JSON model, artifacts are read one
+ * at a time and the scan stops at the first match, closing the connection without reading the rest of the page.
+ * Later pages are only requested when no match has been found yet.
+ */
+final class ActionsArtifactFeed {
+	private static final Logger logger = Loggers.newLogger();
+	private static final String ARTIFACT_NAME = "snapshot-build";
+	private static final String ARTIFACT_PATH = "/artifacts/[]";
+	private static final String WORKFLOW_RUN_PATH = ARTIFACT_PATH + "/workflow_run";
+	static final int PER_PAGE = 20;
+	static final int MAX_PAGES = 5;
+
+	private ActionsArtifactFeed() {
+	}
+
+	/**
+	 * @param repositoryId
+	 * 		ID of the repository the build must come from. Builds of forks are skipped.
+	 * @param branchMatcher
+	 * 		Filter to whitelist only certain branches, or {@code null} for any branch.
+	 *
+	 * @return Newest non-expired snapshot build matching the filter, or {@code null} if none was found.
+	 *
+	 * @throws IOException
+	 * 		When the feed cannot be read.
+	 */
+	@Nullable
+	static SnapshotArtifact findSnapshot(int repositoryId, @Nullable Predicate<String> branchMatcher) throws IOException {
+		String basePath = "/repos/Col-E/Recaf/actions/artifacts?name=" + ARTIFACT_NAME
+				+ "&per_page=" + PER_PAGE + "&page=";
+		return findSnapshot(repositoryId, branchMatcher, (page, consumer) ->
+				Web.mapStream(Endpoints.Source.GITHUB_API, basePath + page, in -> {
+					consumer.accept(in);
+					return Boolean.TRUE;
+				}));
+	}
+
+	/**
+	 * @param repositoryId
+	 * 		ID of the repository the build must come from. Builds of forks are skipped.
+	 * @param branchMatcher
+	 * 		Filter to whitelist only certain branches, or {@code null} for any branch.
+	 * @param pages
+	 * 		Source of the feed's pages.
+	 *
+	 * @return Newest non-expired snapshot build matching the filter, or {@code null} if none was found.
+	 *
+	 * @throws IOException
+	 * 		When the feed cannot be read.
+	 */
+	@Nullable
+	static SnapshotArtifact findSnapshot(int repositoryId, @Nullable Predicate<String> branchMatcher,
+	                                     @Nonnull PageSource pages) throws IOException {
+		Predicate<SnapshotArtifact> filter = artifact -> !artifact.expired
+				&& ARTIFACT_NAME.equals(artifact.name)
+				&& (branchMatcher == null || branchMatcher.test(artifact.branch))
+				&& artifact.repositoryId == repositoryId
+				&& artifact.headRepositoryId == repositoryId
+				&& artifact.size > 0;
+		int seen = 0;
+		for (int page = 1; page <= MAX_PAGES; page++) {
+			FeedHandler handler = new FeedHandler(filter);
+			pages.read(page, in -> {
+				try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+					new JsonParser(handler).parse(reader);
+				} catch (MatchFound ignored) {
+					// Scan stopped early on a match.
+				}
+			});
+			if (handler.match != null) {
+				logger.debug("Found snapshot artifact of workflow run {} on page {}", handler.match.workflowRunId, page);
+				return handler.match;
+			}
+
+			// Stop when this page was the last, either by being partially filled or reaching the reported total.
+			seen += handler.artifactCount;
+			if (handler.artifactCount < PER_PAGE || (handler.totalCount >= 0 && seen >= handler.totalCount))
+				break;
+		}
+		return null;
+	}
+
+	/**
+	 * Source of the pages of the feed.
+	 */
+	interface PageSource {
+		/**
+		 * @param page
+		 * 		Page number, starting at {@code 1}.
+		 * @param consumer
+		 * 		Consumer of the page's content. It may stop reading before the end of the content.
+		 *
+		 * @throws IOException
+		 * 		When the page cannot be read.
+		 */
+		void read(int page, @Nonnull IOConsumer<InputStream> consumer) throws IOException;
+	}
+
+	/**
+	 * Snapshot build artifact, modeling the fields of the feed we care about.
+	 */
+	static final class SnapshotArtifact {
+		private String name = "?";
+		private boolean expired;
+		private long size = -1;
+		private long workflowRunId = -1;
+		private String branch = "?";
+		private int repositoryId;
+		private int headRepositoryId = -1;
+
+		/**
+		 * @return ID of the workflow run which produced the artifact.
+		 */
+		long getWorkflowRunId() {
+			return workflowRunId;
+		}
+
+		/**
+		 * @return Size of the artifact in bytes.
+		 */
+		long getSize() {
+			return size;
+		}
+	}
+
+	/**
+	 * Thrown to stop parsing once a match is found.
+	 */
+	private static final class MatchFound extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		private MatchFound() {
+			super(null, null, false, false);
+		}
+	}
+
+	/**
+	 * Handler tracking the path of the current value, recording only the fields of {@link SnapshotArtifact}.
+	 * Paths are formed of object member names, with {@code []} for array elements, such as {@code /artifacts/[]/name}.
+	 */
+	private static final class FeedHandler extends JsonHandler<Object, Object> {
+		private final Deque<String> paths = new ArrayDeque<>();
+		private final Predicate<SnapshotArtifact> filter;
+		private String memberName;
+		private SnapshotArtifact current;
+		private SnapshotArtifact match;
+		private int artifactCount;
+		private long totalCount = -1;
+
+		private FeedHandler(@Nonnull Predicate<SnapshotArtifact> filter) {
+			this.filter = filter;
+		}
+
+		@Override
+		public Object startArray() {
+			push();
+			return null;
+		}
+
+		@Override
+		public void endArray(Object array) {
+			paths.pop();
+		}
+
+		@Override
+		public void startArrayValue(Object array) {
+			memberName = null;
+		}
+
+		@Override
+		public Object startObject() {
+			String path = push();
+			if (path.equals(ARTIFACT_PATH))
+				current = new SnapshotArtifact();
+			return null;
+		}
+
+		@Override
+		public void endObject(Object object) {
+			String path = paths.pop();
+			if (path.equals(ARTIFACT_PATH)) {
+				artifactCount++;
+				if (filter.test(current)) {
+					match = current;
+					throw new MatchFound();
+				}
+				current = null;
+			}
+		}
+
+		@Override
+		public void startObjectValue(Object object, String name) {
+			memberName = name;
+		}
+
+		@Override
+		public void endString(String value) {
+			String parent = paths.peek();
+			if (current == null || memberName == null)
+				return;
+			if (ARTIFACT_PATH.equals(parent) && memberName.equals("name"))
+				current.name = value;
+			else if (WORKFLOW_RUN_PATH.equals(parent) && memberName.equals("head_branch"))
+				current.branch = value;
+		}
+
+		@Override
+		public void endBoolean(boolean value) {
+			if (current != null && ARTIFACT_PATH.equals(paths.peek()) && "expired".equals(memberName))
+				current.expired = value;
+		}
+
+		@Override
+		public void endNumber(String value) {
+			String parent = paths.peek();
+			if (memberName == null)
+				return;
+			try {
+				if (current == null) {
+					if ("".equals(parent) && memberName.equals("total_count"))
+						totalCount = Long.parseLong(value);
+				} else if (ARTIFACT_PATH.equals(parent)) {
+					if (memberName.equals("size_in_bytes"))
+						current.size = Long.parseLong(value);
+				} else if (WORKFLOW_RUN_PATH.equals(parent)) {
+					switch (memberName) {
+						case "id":
+							current.workflowRunId = Long.parseLong(value);
+							break;
+						case "repository_id":
+							current.repositoryId = Integer.parseInt(value);
+							break;
+						case "head_repository_id":
+							current.headRepositoryId = Integer.parseInt(value);
+							break;
+					}
+				}
+			} catch (NumberFormatException ignored) {
+				// Not an integer, so the default value is kept.
+			}
+		}
+
+		@Nonnull
+		private String push() {
+			String parent = paths.peek();
+			String path = parent == null ? "" : parent + "/" + (memberName == null ? "[]" : memberName);
+			paths.push(path);
+			return path;
+		}
+	}
+}
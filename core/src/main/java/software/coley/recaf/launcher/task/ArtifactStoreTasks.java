@@ -0,0 +1,332 @@
+package software.coley.recaf.launcher.task;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Hashing;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.ProcessLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Tasks for the content-addressable store of downloaded artifacts.
+ * <br>
+ * Artifacts are stored once by their SHA-1 hash, and the files Recaf is run from <i>(the Recaf jar and JavaFX
+ * jars)</i> are links into the store. Named references, such as {@code recaf/4.0.0@1200}, record which content
+ * each version had, so switching back to a stored version only needs a new link. Files are linked with hard links
+ * where possible, then symbolic links, and copied as a last resort.
+ */
+public class ArtifactStoreTasks {
+	private static final Logger logger = Loggers.newLogger();
+	private static final String BLOBS = "sha1";
+	private static final String REFS_FILE = "refs.json";
+	private static final String STORE_LOCK = "store";
+	private static final int FORMAT = 1;
+
+	/**
+	 * @param sha1
+	 * 		Hash of an artifact.
+	 *
+	 * @return Path of the artifact in the store. May not exist.
+	 */
+	@Nonnull
+	public static Path getBlobPath(@Nonnull String sha1) {
+		String key = sha1.toLowerCase();
+		return CommonPaths.getArtifactStoreDir().resolve(BLOBS).resolve(key.substring(0, 2)).resolve(key);
+	}
+
+	/**
+	 * @param sha1
+	 * 		Hash of an artifact.
+	 *
+	 * @return {@code true} when the store has an artifact of the given hash.
+	 */
+	public static boolean contains(@Nonnull String sha1) {
+		return Files.isRegularFile(getBlobPath(sha1));
+	}
+
+	/**
+	 * @param target
+	 * 		File to check.
+	 * @param sha1
+	 * 		Expected hash of the file.
+	 *
+	 * @return {@code true} when the file is a link to the stored artifact of the given hash.
+	 * Since stored artifacts are verified when added, this is equivalent to hashing the file.
+	 */
+	public static boolean isLinked(@Nonnull Path target, @Nonnull String sha1) {
+		Path blob = getBlobPath(sha1);
+		try {
+			return Files.exists(target) && Files.exists(blob) && Files.isSameFile(target, blob);
+		} catch (IOException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Moves a file into the store, and links it to the target path.
+	 *
+	 * @param file
+	 * 		File to store. It is moved into the store, or deleted if the store already has the same content.
+	 * 		When it is the target, it is kept in place and hard linked or copied into the store instead,
+	 * 		so the target never goes missing.
+	 * @param target
+	 * 		Path to link the stored artifact to. Can be the same as the file being stored.
+	 * @param refName
+	 * 		Name to reference the artifact by, or {@code null} to not name it. Artifacts that are not referenced
+	 * 		when the store lock is released may be {@link #prune() pruned} by another launcher.
+	 * @param sha1
+	 * 		Known hash of the file, or {@code null} to compute it.
+	 *
+	 * @return Hash of the stored artifact.
+	 *
+	 * @throws IOException
+	 * 		When the file cannot be stored or linked.
+	 */
+	@Nonnull
+	public static String install(@Nonnull Path file, @Nonnull Path target, @Nullable String refName,
+	                             @Nullable String sha1) throws IOException {
+		if (sha1 == null) {
+			try (InputStream in = Files.newInputStream(file)) {
+				sha1 = Hashing.sha1(in);
+			}
+		}
+		String storedSha1 = sha1.toLowerCase();
+		Path blob = getBlobPath(storedSha1);
+		ProcessLock.run(STORE_LOCK, () -> {
+			boolean inPlace = file.toAbsolutePath().normalize().equals(target.toAbsolutePath().normalize());
+			if (Files.isRegularFile(blob)) {
+				if (!inPlace && !Files.isSameFile(file, blob))
+					Files.delete(file);
+			} else {
+				Files.createDirectories(blob.getParent());
+				if (inPlace)
+					copyInto(file, blob);
+				else
+					move(file, blob);
+			}
+			link(storedSha1, target);
+			if (refName != null)
+				setRef(refName, storedSha1);
+		});
+		return storedSha1;
+	}
+
+	/**
+	 * Replaces the target path with a link to a stored artifact.
+	 *
+	 * @param sha1
+	 * 		Hash of the stored artifact.
+	 * @param target
+	 * 		Path to link the artifact to.
+	 *
+	 * @throws IOException
+	 * 		When the artifact is not in the store, or the link cannot be made.
+	 */
+	public static void link(@Nonnull String sha1, @Nonnull Path target) throws IOException {
+		Path blob = getBlobPath(sha1);
+		if (!Files.isRegularFile(blob))
+			throw new IOException("Artifact not in store: " + sha1);
+		if (Files.exists(target) && Files.isSameFile(target, blob))
+			return;
+
+		// Link at a temporary path first, so the target is replaced in one step.
+		Path parent = target.toAbsolutePath().getParent();
+		if (!Files.isDirectory(parent))
+			Files.createDirectories(parent);
+		Path temp = parent.resolve(target.getFileName() + ".link-tmp");
+		Files.deleteIfExists(temp);
+		try {
+			Files.createLink(temp, blob);
+		} catch (IOException | UnsupportedOperationException | SecurityException hardLinkEx) {
+			try {
+				Files.createSymbolicLink(temp, blob.toAbsolutePath());
+			} catch (IOException | UnsupportedOperationException | SecurityException symLinkEx) {
+				logger.debug("Cannot link '{}' to the store, copying instead", target, symLinkEx);
+				Files.copy(blob, temp, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+			}
+		}
+		move(temp, target);
+	}
+
+	/**
+	 * @param name
+	 * 		Reference name.
+	 *
+	 * @return Hash of the artifact with the given reference name, or {@code null} if there is no such reference.
+	 */
+	@Nullable
+	public static String getRef(@Nonnull String name) {
+		return readRefs().get(name);
+	}
+
+	/**
+	 * @return Map of reference names to artifact hashes.
+	 */
+	@Nonnull
+	public static Map<String, String> getRefs() {
+		return Collections.unmodifiableMap(readRefs());
+	}
+
+	/**
+	 * @param name
+	 * 		Reference name.
+	 * @param sha1
+	 * 		Hash of the artifact to reference.
+	 */
+	public static synchronized void setRef(@Nonnull String name, @Nonnull String sha1) {
+		try {
+			ProcessLock.run(STORE_LOCK, () -> {
+				Map<String, String> refs = readRefs();
+				if (!sha1.equals(refs.put(name, sha1)))
+					writeRefs(refs);
+			});
+		} catch (IOException ex) {
+			logger.error("Failed locking artifact store references", ex);
+		}
+	}
+
+	/**
+	 * @param names
+	 * 		Reference names to remove. The referenced artifacts are deleted by {@link #prune()}.
+	 */
+	public static synchronized void removeRefs(@Nonnull Collection<String> names) {
+		try {
+			ProcessLock.run(STORE_LOCK, () -> {
+				Map<String, String> refs = readRefs();
+				if (refs.keySet().removeAll(names))
+					writeRefs(refs);
+			});
+		} catch (IOException ex) {
+			logger.error("Failed locking artifact store references", ex);
+		}
+	}
+
+	/**
+	 * Deletes stored artifacts which are no longer referenced.
+	 *
+	 * @return Number of bytes freed.
+	 */
+	public static synchronized long prune() {
+		Path blobsDir = CommonPaths.getArtifactStoreDir().resolve(BLOBS);
+		if (!Files.isDirectory(blobsDir))
+			return 0;
+		try {
+			return ProcessLock.call(STORE_LOCK, () -> pruneLocked(blobsDir));
+		} catch (IOException ex) {
+			logger.warn("Failed pruning artifact store", ex);
+			return 0;
+		}
+	}
+
+	private static long pruneLocked(@Nonnull Path blobsDir) throws IOException {
+		long freed = 0;
+		try (Stream<Path> blobs = Files.walk(blobsDir, 2)) {
+			Set<String> referenced = new HashSet<>(readRefs().values());
+			for (Path blob : (Iterable<Path>) blobs.filter(Files::isRegularFile)::iterator) {
+				if (referenced.contains(blob.getFileName().toString()))
+					continue;
+				long size = Files.size(blob);
+				Files.delete(blob);
+				freed += size;
+				try (Stream<Path> siblings = Files.list(blob.getParent())) {
+					if (!siblings.findAny().isPresent())
+						Files.delete(blob.getParent());
+				}
+				logger.debug("Pruned unreferenced artifact {}", blob.getFileName());
+			}
+		}
+		return freed;
+	}
+
+	@Nonnull
+	private static Map<String, String> readRefs() {
+		Map<String, String> refs = new TreeMap<>();
+		Path refsFile = CommonPaths.getArtifactStoreDir().resolve(REFS_FILE);
+		if (!Files.exists(refsFile))
+			return refs;
+		try {
+			String content = new String(Files.readAllBytes(refsFile), StandardCharsets.UTF_8);
+			JsonObject root = Json.parse(content).asObject();
+			if (root.getInt("format", -1) != FORMAT)
+				return refs;
+			for (JsonObject.Member member : root.get("refs").asObject()) {
+				JsonValue value = member.getValue();
+				if (value.isString())
+					refs.put(member.getName(), value.asString());
+			}
+		} catch (Throwable t) {
+			logger.warn("Failed to read artifact store references", t);
+		}
+		return refs;
+	}
+
+	private static void writeRefs(@Nonnull Map<String, String> refs) {
+		JsonObject refsObject = Json.object();
+		refs.forEach(refsObject::add);
+		JsonObject root = Json.object()
+				.add("format", FORMAT)
+				.add("refs", refsObject);
+		try {
+			Path refsFile = CommonPaths.getArtifactStoreDir().resolve(REFS_FILE);
+			Files.createDirectories(refsFile.getParent());
+			Path temp = refsFile.resolveSibling(REFS_FILE + ".tmp");
+			Files.write(temp, root.toString().getBytes(StandardCharsets.UTF_8));
+			move(temp, refsFile);
+		} catch (IOException ex) {
+			logger.error("Failed to write artifact store references", ex);
+		}
+	}
+
+	/**
+	 * Adds a file to the store, without removing it from its current path.
+	 *
+	 * @param file
+	 * 		File to store.
+	 * @param blob
+	 * 		Path of the stored artifact.
+	 *
+	 * @throws IOException
+	 * 		When the file cannot be linked or copied into the store.
+	 */
+	private static void copyInto(@Nonnull Path file, @Nonnull Path blob) throws IOException {
+		try {
+			Files.createLink(blob, file);
+			return;
+		} catch (IOException | UnsupportedOperationException | SecurityException ex) {
+			logger.debug("Cannot hard link '{}' into the store, copying instead", file, ex);
+		}
+
+		// Copy at a temporary path first, so a partial copy is never taken for the artifact.
+		Path temp = blob.resolveSibling(blob.getFileName() + ".tmp");
+		Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+		move(temp, blob);
+	}
+
+	private static void move(@Nonnull Path source, @Nonnull Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException | FileAlreadyExistsException ex) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
@@ -0,0 +1,251 @@
+package software.coley.recaf.launcher.task;
+
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.util.IOSupplier;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.ZipIndex;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipException;
+
+/**
+ * Tasks for updating a jar by re-using the entries it shares with a new version of it.
+ * <br>
+ * The new jar is assembled from raw <i>(still compressed)</i> entry records. Entries with the same name, checksum,
+ * sizes and compression method as the installed jar's are copied from the installed jar. Only the others are
+ * taken from the new build. When no entries changed, the installed jar is left untouched.
+ */
+public class DeltaUpdateTasks {
+	private static final Logger logger = Loggers.newLogger();
+	private static final int EOCD_SIGNATURE = 0x06054b50;
+	private static final int EOCD_LENGTH = 22;
+
+	/**
+	 * @param installedJar
+	 * 		Currently installed jar.
+	 * @param newJar
+	 * 		Content of the new jar.
+	 * @param tempJar
+	 * 		Path to assemble the new jar at, before it replaces the installed jar.
+	 *
+	 * @return Summary of the update, or {@code null} if either jar cannot be updated this way,
+	 * in which case the new jar should be written as-is.
+	 *
+	 * @throws IOException
+	 * 		When the jars cannot be read, or the new jar cannot be written.
+	 */
+	@Nullable
+	public static DeltaResult update(@Nonnull Path installedJar, @Nonnull ByteBuffer newJar, @Nonnull Path tempJar) throws IOException {
+		return update(installedJar, () -> ZipIndex.read(newJar), tempJar);
+	}
+
+	/**
+	 * @param installedJar
+	 * 		Currently installed jar.
+	 * @param newJar
+	 * 		File of the new jar. It is only read, and is never the path the updated jar is written to.
+	 * @param tempJar
+	 * 		Path to assemble the new jar at, before it replaces the installed jar.
+	 *
+	 * @return Summary of the update, or {@code null} if either jar cannot be updated this way,
+	 * in which case the new jar should be written as-is.
+	 *
+	 * @throws IOException
+	 * 		When the jars cannot be read, or the new jar cannot be written.
+	 */
+	@Nullable
+	public static DeltaResult update(@Nonnull Path installedJar, @Nonnull Path newJar, @Nonnull Path tempJar) throws IOException {
+		try (FileChannel newChannel = FileChannel.open(newJar, StandardOpenOption.READ)) {
+			return update(installedJar, () -> ZipIndex.read(newChannel), tempJar);
+		}
+	}
+
+	@Nullable
+	private static DeltaResult update(@Nonnull Path installedJar, @Nonnull IOSupplier<ZipIndex> newJar,
+	                                  @Nonnull Path tempJar) throws IOException {
+		if (!Files.isRegularFile(installedJar))
+			return null;
+		DeltaResult result;
+		try (FileChannel installedChannel = FileChannel.open(installedJar, StandardOpenOption.READ)) {
+			ZipIndex installed;
+			ZipIndex latest;
+			try {
+				installed = ZipIndex.read(installedChannel);
+				latest = newJar.get();
+			} catch (ZipException ex) {
+				logger.debug("Cannot delta update '{}': {}", installedJar, ex.getMessage());
+				return null;
+			}
+
+			// Nothing to write if every entry of the new jar is already installed, and nothing was removed.
+			if (isUnchanged(installed, latest)) {
+				result = new DeltaResult(latest.getEntries().size(), 0, installedChannel.size(), 0, true);
+				logger.info("Delta update of '{}': {}", installedJar, result);
+				return result;
+			}
+
+			try {
+				result = assemble(installed, latest, tempJar);
+			} catch (ZipException ex) {
+				logger.debug("Cannot delta update '{}': {}", installedJar, ex.getMessage());
+				Files.deleteIfExists(tempJar);
+				return null;
+			} catch (IOException ex) {
+				Files.deleteIfExists(tempJar);
+				throw ex;
+			}
+		}
+
+		try {
+			Files.move(tempJar, installedJar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (Exception ignored) {
+			Files.move(tempJar, installedJar, StandardCopyOption.REPLACE_EXISTING);
+		}
+		logger.info("Delta update of '{}': {}", installedJar, result);
+		return result;
+	}
+
+	private static boolean isUnchanged(@Nonnull ZipIndex installed, @Nonnull ZipIndex latest) {
+		if (installed.getEntries().size() != latest.getEntries().size())
+			return false;
+		for (ZipIndex.Entry entry : latest.getEntries()) {
+			ZipIndex.Entry installedEntry = installed.getEntry(entry.getName());
+			if (installedEntry == null || !installedEntry.isSameContent(entry))
+				return false;
+		}
+		return true;
+	}
+
+	@Nonnull
+	private static DeltaResult assemble(@Nonnull ZipIndex installed, @Nonnull ZipIndex latest, @Nonnull Path output) throws IOException {
+		int reusedEntries = 0;
+		int changedEntries = 0;
+		long reusedBytes = 0;
+		long changedBytes = 0;
+		try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			// Copy the local records, keeping the order of the new jar.
+			List<byte[]> directory = new ArrayList<>(latest.getEntries().size());
+			for (ZipIndex.Entry entry : latest.getEntries()) {
+				long offset = out.position();
+				if (offset > 0xFFFFFFFFL)
+					throw new ZipException("Assembled jar would require Zip64");
+				ZipIndex.Entry installedEntry = installed.getEntry(entry.getName());
+				if (installedEntry != null && installedEntry.isSameContent(entry)) {
+					// The installed entry's central record is used, as it describes the local record we copy.
+					long length = installed.getRecordLength(installedEntry);
+					installed.transferRecord(installedEntry, length, out);
+					directory.add(installedEntry.toRecord(offset));
+					reusedEntries++;
+					reusedBytes += length;
+				} else {
+					long length = latest.getRecordLength(entry);
+					latest.transferRecord(entry, length, out);
+					directory.add(entry.toRecord(offset));
+					changedEntries++;
+					changedBytes += length;
+				}
+			}
+
+			// Write the central directory, and the end record pointing to it.
+			long directoryOffset = out.position();
+			long directorySize = 0;
+			for (byte[] record : directory) {
+				write(out, ByteBuffer.wrap(record));
+				directorySize += record.length;
+			}
+			byte[] comment = latest.getComment();
+			ByteBuffer end = ByteBuffer.allocate(EOCD_LENGTH + comment.length).order(ByteOrder.LITTLE_ENDIAN);
+			end.putInt(EOCD_SIGNATURE);
+			end.putShort((short) 0); // Disk number
+			end.putShort((short) 0); // Disk with the central directory
+			end.putShort((short) directory.size());
+			end.putShort((short) directory.size());
+			end.putInt((int) directorySize);
+			end.putInt((int) directoryOffset);
+			end.putShort((short) comment.length);
+			end.put(comment);
+			end.flip();
+			write(out, end);
+		}
+		return new DeltaResult(reusedEntries, changedEntries, reusedBytes, changedBytes, false);
+	}
+
+	private static void write(@Nonnull FileChannel out, @Nonnull ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			out.write(buffer);
+	}
+
+	/**
+	 * Summary of a delta update.
+	 */
+	public static class DeltaResult {
+		private final int reusedEntries;
+		private final int changedEntries;
+		private final long reusedBytes;
+		private final long changedBytes;
+		private final boolean unchanged;
+
+		private DeltaResult(int reusedEntries, int changedEntries, long reusedBytes, long changedBytes, boolean unchanged) {
+			this.reusedEntries = reusedEntries;
+			this.changedEntries = changedEntries;
+			this.reusedBytes = reusedBytes;
+			this.changedBytes = changedBytes;
+			this.unchanged = unchanged;
+		}
+
+		/**
+		 * @return Number of entries copied from the installed jar.
+		 */
+		public int getReusedEntries() {
+			return reusedEntries;
+		}
+
+		/**
+		 * @return Number of entries taken from the new jar.
+		 */
+		public int getChangedEntries() {
+			return changedEntries;
+		}
+
+		/**
+		 * @return Bytes of entry records copied from the installed jar.
+		 */
+		public long getReusedBytes() {
+			return reusedBytes;
+		}
+
+		/**
+		 * @return Bytes of entry records taken from the new jar.
+		 */
+		public long getChangedBytes() {
+			return changedBytes;
+		}
+
+		/**
+		 * @return {@code true} when the new jar has the same content as the installed jar, which was left as-is.
+		 */
+		public boolean isUnchanged() {
+			return unchanged;
+		}
+
+		@Override
+		public String toString() {
+			if (unchanged)
+				return "unchanged, " + reusedEntries + " entries";
+			return reusedEntries + " entries (" + reusedBytes + " bytes) reused, "
+					+ changedEntries + " entries (" + changedBytes + " bytes) changed";
+		}
+	}
+}
@@ -0,0 +1,427 @@
+package software.coley.recaf.launcher.task;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.JavaFxPlatform;
+import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.task.event.InstallEvent;
+import software.coley.recaf.launcher.task.event.InstallEvents;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.ProcessLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tasks for keeping the dependency cache within a size budget.
+ * <br>
+ * The cache is made up of version sets, being the JavaFX jars of one version and platform, and the natives extracted
+ * from them. The last time each set was launched with is recorded by {@link ExecutionTasks}. When the cache exceeds its
+ * budget, the least recently used sets are evicted first. The set that would be launched with next is never evicted.
+ */
+public class DependencyCacheTasks {
+	/**
+	 * Default budget of the dependency cache in bytes, enough for a few versions of JavaFX.
+	 */
+	public static final long DEFAULT_BUDGET = 100_000_000;
+	private static final Logger logger = Loggers.newLogger();
+	private static final long TEMP_FILE_MIN_AGE = TimeUnit.HOURS.toMillis(1);
+	private static final String USAGE_LOCK = "dependency-usage";
+	private static final int FORMAT = 1;
+
+	/**
+	 * Records that a version set was launched with.
+	 *
+	 * @param version
+	 * 		Version of JavaFX.
+	 * @param platform
+	 * 		Platform of the JavaFX artifacts.
+	 */
+	public static synchronized void markUsed(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform) {
+		try {
+			ProcessLock.run(USAGE_LOCK, () -> {
+				Map<String, Long> usage = readUsage();
+				usage.put(getSetName(version, platform), System.currentTimeMillis());
+				writeUsage(usage);
+			});
+		} catch (IOException ex) {
+			logger.warn("Failed locking dependency usage", ex);
+		}
+	}
+
+	/**
+	 * @return Version sets in the dependency cache, least recently used first.
+	 */
+	@Nonnull
+	public static List<VersionSet> getVersionSets() {
+		Map<String, VersionSet> sets = new TreeMap<>();
+		JavaFxTasks.migrateLegacyLayout();
+		Path nativesDir = CommonPaths.getNativesDir();
+		try {
+			for (JavaFxPlatform platform : JavaFxPlatform.values()) {
+				Path artifactDir = JavaFxTasks.getArtifactDirectory(platform);
+				if (platform == JavaFxPlatform.UNSUPPORTED || !Files.isDirectory(artifactDir))
+					continue;
+				try (Stream<Path> files = Files.list(artifactDir)) {
+					files.filter(Files::isRegularFile).forEach(file -> {
+						String setName = parseSetName(file.getFileName().toString());
+						if (setName != null)
+							sets.computeIfAbsent(setName, VersionSet::new).add(file);
+					});
+				}
+			}
+			if (Files.isDirectory(nativesDir))
+				try (Stream<Path> dirs = Files.list(nativesDir)) {
+					dirs.filter(Files::isDirectory).forEach(dir -> {
+						String setName = dir.getFileName().toString();
+						sets.computeIfAbsent(setName, VersionSet::new).add(dir);
+					});
+				}
+		} catch (IOException ex) {
+			logger.error("Failed listing dependency cache", ex);
+		}
+
+		Map<String, Long> usage = readUsage();
+		List<VersionSet> list = new ArrayList<>(sets.values());
+		for (VersionSet set : list)
+			set.lastUsed = usage.getOrDefault(set.getName(), 0L);
+		list.sort(Comparator.comparingLong(VersionSet::getLastUsed));
+		return list;
+	}
+
+	/**
+	 * Evicts the least recently used version sets until the cache fits in the given budget.
+	 * The newest version set of each platform, which other systems sharing the cache may launch with next,
+	 * and the one the current launch plan uses, are kept.
+	 *
+	 * @param budget
+	 * 		Maximum number of bytes the dependency cache should occupy.
+	 *
+	 * @return Number of bytes freed.
+	 */
+	public static long evict(long budget) {
+		// Hold the lock so that we do not evict versions another launcher is in the middle of downloading.
+		try {
+			return ProcessLock.call(JavaFxTasks.DEPENDENCIES_LOCK, () -> evictLocked(budget));
+		} catch (IOException ex) {
+			logger.error("Failed locking the dependency cache for eviction", ex);
+			return 0;
+		}
+	}
+
+	private static long evictLocked(long budget) {
+		List<VersionSet> sets = getVersionSets();
+		long total = 0;
+		for (VersionSet set : sets)
+			total += set.getSize();
+		logger.debug("Dependency cache: {} version sets, {} bytes, budget {} bytes", sets.size(), total, budget);
+		if (total <= budget)
+			return 0;
+
+		Set<String> inUse = getInUseSetNames();
+		List<String> removedRefs = new ArrayList<>();
+		Set<String> evicted = new HashSet<>();
+		long freed = 0;
+		for (VersionSet set : sets) {
+			if (total - freed <= budget)
+				break;
+			if (inUse.contains(set.getName()))
+				continue;
+			logger.info("Evicting JavaFX '{}' from the dependency cache ({} bytes)", set.getName(), set.getSize());
+			try {
+				for (Path file : set.getFiles()) {
+					if (!Files.isDirectory(file))
+						removedRefs.add("javafx/" + file.getFileName());
+					delete(file);
+				}
+				freed += set.getSize();
+				evicted.add(set.getName());
+				InstallEvents.publish(InstallEvent.removed(InstallEvent.Component.JAVAFX, set.getName()));
+			} catch (IOException ex) {
+				logger.warn("Failed evicting JavaFX '{}' from the dependency cache", set.getName(), ex);
+			}
+		}
+
+		if (!evicted.isEmpty()) {
+			synchronized (DependencyCacheTasks.class) {
+				try {
+					ProcessLock.run(USAGE_LOCK, () -> {
+						Map<String, Long> usage = readUsage();
+						usage.keySet().removeAll(evicted);
+						writeUsage(usage);
+					});
+				} catch (IOException ex) {
+					logger.warn("Failed locking dependency usage", ex);
+				}
+			}
+			ArtifactStoreTasks.removeRefs(removedRefs);
+			ArtifactStoreTasks.prune();
+		}
+		if (total - freed > budget)
+			logger.warn("Dependency cache is still {} bytes over its budget, the remaining JavaFX versions are in use", total - freed - budget);
+		return freed;
+	}
+
+	/**
+	 * Deletes temporary files left behind by downloads and updates that did not complete.
+	 * Only files older than an hour are deleted, so that the ones of updates still in progress are kept.
+	 * <br>
+	 * Only directories owned by the launcher are searched, and the known temporary files it places next to
+	 * Recaf's own files. Other files in the Recaf directory belong to Recaf, and are never touched.
+	 *
+	 * @return Number of files deleted.
+	 */
+	public static int removeOrphanedTempFiles() {
+		long cutoff = System.currentTimeMillis() - TEMP_FILE_MIN_AGE;
+		int[] removed = {0};
+		for (Path directory : Arrays.asList(CommonPaths.getDependenciesDir(),
+				CommonPaths.getLauncherDir(),
+				CommonPaths.getArtifactStoreDir())) {
+			if (!Files.isDirectory(directory))
+				continue;
+			try {
+				Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+						if (isTempFile(file) && deleteOrphan(file, attrs, cutoff))
+							removed[0]++;
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			} catch (IOException ex) {
+				logger.warn("Failed removing orphaned temporary files in {}", directory, ex);
+			}
+		}
+		for (Path file : Arrays.asList(CommonPaths.getRecafTempJar(),
+				linkTempOf(CommonPaths.getRecafJar()),
+				tempOf(CommonPaths.getLaunchBundleJar()))) {
+			try {
+				BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+				if (!attrs.isDirectory() && deleteOrphan(file, attrs, cutoff))
+					removed[0]++;
+			} catch (IOException ignored) {
+				// Does not exist
+			}
+		}
+		return removed[0];
+	}
+
+	private static boolean deleteOrphan(@Nonnull Path file, @Nonnull BasicFileAttributes attrs, long cutoff) {
+		if (attrs.lastModifiedTime().toMillis() >= cutoff)
+			return false;
+		try {
+			Files.delete(file);
+			logger.debug("Deleted orphaned temporary file {}", file);
+			return true;
+		} catch (IOException ex) {
+			logger.debug("Failed deleting orphaned temporary file {}", file, ex);
+			return false;
+		}
+	}
+
+	@Nonnull
+	private static Path tempOf(@Nonnull Path path) {
+		return path.resolveSibling(path.getFileName() + ".tmp");
+	}
+
+	@Nonnull
+	private static Path linkTempOf(@Nonnull Path path) {
+		return path.resolveSibling(path.getFileName() + ".link-tmp");
+	}
+
+	/**
+	 * @param version
+	 * 		Version of JavaFX.
+	 * @param platform
+	 * 		Platform of the JavaFX artifacts.
+	 *
+	 * @return Name of the version set, matching the name of its natives directory.
+	 */
+	@Nonnull
+	public static String getSetName(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform) {
+		return JavaFxTasks.getNativesDirectory(version, platform).getFileName().toString();
+	}
+
+	/**
+	 * @param fileName
+	 * 		Name of a file in the dependency cache, such as {@code javafx-base-21.0.2-linux-aarch64.jar}.
+	 *
+	 * @return Name of the version set the file belongs to, such as {@code 21.0.2-linux-aarch64},
+	 * or {@code null} if it is not a JavaFX artifact.
+	 */
+	@Nullable
+	private static String parseSetName(@Nonnull String fileName) {
+		if (!fileName.startsWith("javafx-") || !fileName.endsWith(".jar"))
+			return null;
+		int versionStart = fileName.indexOf('-', "javafx-".length()) + 1;
+		if (versionStart <= 0)
+			return null;
+		String setName = fileName.substring(versionStart, fileName.length() - ".jar".length());
+
+		// The version is only followed by a known platform classifier.
+		for (JavaFxPlatform platform : JavaFxPlatform.values())
+			if (platform != JavaFxPlatform.UNSUPPORTED && setName.endsWith("-" + platform.getClassifier()))
+				return setName;
+		return null;
+	}
+
+	@Nonnull
+	private static Set<String> getInUseSetNames() {
+		Set<String> inUse = new HashSet<>();
+		for (JavaFxPlatform platform : JavaFxPlatform.values()) {
+			JavaFxVersion cachedVersion = platform == JavaFxPlatform.UNSUPPORTED ? null : JavaFxTasks.detectCachedVersion(platform);
+			if (cachedVersion != null)
+				inUse.add(getSetName(cachedVersion, platform));
+		}
+		LaunchPlan plan = LaunchPlan.read();
+		if (plan != null)
+			inUse.add(getSetName(plan.getJavaFxVersion(), plan.getJavaFxPlatform()));
+		return inUse;
+	}
+
+	private static boolean isTempFile(@Nonnull Path file) {
+		String name = file.getFileName().toString();
+		return name.endsWith(".tmp") || name.endsWith("-tmp");
+	}
+
+	private static void delete(@Nonnull Path path) throws IOException {
+		if (!Files.isDirectory(path)) {
+			Files.deleteIfExists(path);
+			return;
+		}
+		Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	@Nonnull
+	private static Map<String, Long> readUsage() {
+		Map<String, Long> usage = new TreeMap<>();
+		Path usageFile = CommonPaths.getDependencyUsageFile();
+		if (!Files.exists(usageFile))
+			return usage;
+		try {
+			String content = new String(Files.readAllBytes(usageFile), StandardCharsets.UTF_8);
+			JsonObject root = Json.parse(content).asObject();
+			if (root.getInt("format", -1) != FORMAT)
+				return usage;
+			for (JsonObject.Member member : root.get("last-used").asObject())
+				usage.put(member.getName(), member.getValue().asLong());
+		} catch (Throwable t) {
+			logger.debug("Failed to read dependency usage, treating all versions as unused", t);
+		}
+		return usage;
+	}
+
+	private static void writeUsage(@Nonnull Map<String, Long> usage) {
+		JsonObject lastUsed = Json.object();
+		usage.forEach(lastUsed::add);
+		JsonObject root = Json.object()
+				.add("format", FORMAT)
+				.add("last-used", lastUsed);
+		try {
+			Path usageFile = CommonPaths.getDependencyUsageFile();
+			Path parentDir = usageFile.getParent();
+			if (!Files.isDirectory(parentDir))
+				Files.createDirectories(parentDir);
+			Files.write(usageFile, root.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException ex) {
+			logger.warn("Failed to write dependency usage", ex);
+		}
+	}
+
+	/**
+	 * Files of one version and platform of JavaFX in the dependency cache.
+	 */
+	public static class VersionSet {
+		private final String name;
+		private final List<Path> files = new ArrayList<>();
+		private long size;
+		private long lastUsed;
+
+		private VersionSet(@Nonnull String name) {
+			this.name = name;
+		}
+
+		private void add(@Nonnull Path path) {
+			files.add(path);
+			try {
+				if (Files.isDirectory(path)) {
+					try (Stream<Path> children = Files.walk(path)) {
+						size += children.filter(Files::isRegularFile).mapToLong(f -> f.toFile().length()).sum();
+					}
+				} else {
+					size += Files.size(path);
+				}
+			} catch (IOException ex) {
+				logger.debug("Failed to read size of {}", path, ex);
+			}
+		}
+
+		/**
+		 * @return Name of the set, being the JavaFX version followed by the platform classifier.
+		 */
+		@Nonnull
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return Jars and natives directory of the set.
+		 */
+		@Nonnull
+		public List<Path> getFiles() {
+			return Collections.unmodifiableList(files);
+		}
+
+		/**
+		 * @return Number of bytes the set occupies.
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * @return Time the set was last launched with, in milliseconds since the epoch, or {@code 0} if not known.
+		 */
+		public long getLastUsed() {
+			return lastUsed;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -4,7 +4,12 @@
 import software.coley.recaf.launcher.ApplicationLauncher;
 import software.coley.recaf.launcher.info.JavaFxPlatform;
 import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.info.JavaInstall;
+import software.coley.recaf.launcher.info.JavaVersion;
+import software.coley.recaf.launcher.info.LaunchProfile;
+import software.coley.recaf.launcher.info.RecafBuild;
 import software.coley.recaf.launcher.info.RecafVersion;
+import software.coley.recaf.launcher.info.SystemInformation;
 import software.coley.recaf.launcher.task.error.InvalidInstallationException;
 import software.coley.recaf.launcher.util.CommonPaths;
 import software.coley.recaf.launcher.util.Loggers;
@@ -13,15 +18,19 @@
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Tasks for executing Recaf.
@@ -44,6 +53,31 @@ public class ExecutionTasks {
 	public static final int ERR_CDI_INIT_FAILURE = 150;
 	public static final int ERR_NOT_A_JDK = 160;
 	public static final int INTELLIJ_TERMINATION = 130;
+	private static WarmProcessPool processPool;
+	private static long minHeap = HeapSizingTasks.DEFAULT_MIN_HEAP;
+	private static long maxHeap = -1;
+
+	/**
+	 * @param processPool
+	 * 		Pool of warm processes to launch Recaf with, or {@code null} to always start a new process.
+	 */
+	public static void setProcessPool(@Nullable WarmProcessPool processPool) {
+		ExecutionTasks.processPool = processPool;
+	}
+
+	/**
+	 * Sets the bounds of heap sizes picked when Recaf is given files to open.
+	 *
+	 * @param minHeap
+	 * 		Lower bound of the heap size in bytes.
+	 * @param maxHeap
+	 * 		Upper bound of the heap size in bytes, or a negative value to use
+	 *        {@link HeapSizingTasks#DEFAULT_MAX_HEAP_PERCENT a percentage of system memory}.
+	 */
+	public static void setHeapBounds(long minHeap, long maxHeap) {
+		ExecutionTasks.minHeap = minHeap;
+		ExecutionTasks.maxHeap = maxHeap;
+	}
 
 	/**
 	 * @param inheritIO
@@ -60,112 +94,245 @@ public class ExecutionTasks {
 	 */
 	@Nonnull
 	public static RunResult run(boolean inheritIO, boolean cliContext, @Nullable String javaExecutablePath) throws IOException {
-		Path recafDirectory = CommonPaths.getRecafDirectory();
-		logger.debug("Looking in '{}' for Recaf/dependencies...", recafDirectory);
+		return run(inheritIO, cliContext, javaExecutablePath, LaunchProfile.DEFAULT, Collections.emptyList(), Collections.emptyList());
+	}
 
-		RecafVersion installedVersion;
-		try {
-			installedVersion = RecafTasks.getInstalledVersion();
-		} catch (InvalidInstallationException e) {
-			String suggestion = cliContext ?
-					"- Try running with 'update'" :
-					"- Click 'Update' next to the 'Recaf Version' label in the GUI";
-			logger.error("No local version of Recaf found.\n" +
-					suggestion);
-			return new RunResult(ERR_NOT_INSTALLED);
-		}
+	/**
+	 * @param inheritIO
+	 *        {@code true} to pipe the started process's output into this one.
+	 * @param cliContext
+	 *        {@code true} when invoked from a CLI context.
+	 *        {@code false} when invoked from a GUI context.
+	 * @param javaExecutablePath
+	 * 		Path to use for invoking Java.
+	 * 		Use {@code null} to automatically match the current runtime's version.
+	 * @param profile
+	 * 		JVM tuning profile to launch with.
+	 * 		Options of the profile which the Java executable does not support are skipped.
+	 * @param extraJvmArgs
+	 * 		Additional arguments to pass to the JVM for this launch only.
+	 * @param programArgs
+	 * 		Arguments to pass to Recaf. When these point to files, the heap is sized to fit them.
+	 *
+	 * @throws IOException
+	 * 		When the process couldn't be launched.
+	 */
+	@Nonnull
+	public static RunResult run(boolean inheritIO, boolean cliContext, @Nullable String javaExecutablePath,
+	                            @Nonnull LaunchProfile profile, @Nonnull List<String> extraJvmArgs,
+	                            @Nonnull List<String> programArgs) throws IOException {
+		Path recafDirectory = CommonPaths.getRecafDirectory();
 
-		JavaFxPlatform javaFxPlatform = JavaFxTasks.detectSystemPlatform();
+		// Resolve the Java executable used by the current JVM.
+		if (javaExecutablePath == null)
+			javaExecutablePath = Paths.get(System.getProperty("java.home"))
+					.resolve("bin")
+					.resolve("java")
+					.toString();
 
-		// Pull the JavaFX version from our dependency download cache.
-		JavaFxVersion javaFxVersion = JavaFxTasks.detectCachedVersion();
+		// Re-use the last launch plan if none of the files it was resolved from have changed.
+		LaunchPlan plan = LaunchPlan.read();
+		if (plan != null && plan.isApplicable(javaExecutablePath)) {
+			logger.debug("Re-using launch plan from '{}'", CommonPaths.getLaunchPlanFile());
+		} else {
+			logger.debug("Looking in '{}' for Recaf/dependencies...", recafDirectory);
 
-		// Ensure a version was found
-		String updateJfxSuggestion = cliContext ?
-				"- Try running with 'update-jfx'" :
-				"- Click 'Update' next to the 'JavaFX Version' label in the GUI";
-		if (javaFxVersion == null) {
-			logger.error("No local cached version of JavaFX found.\n" +
-					updateJfxSuggestion);
-			return new RunResult(ERR_NO_JFX);
-		}
+			RecafVersion installedVersion;
+			try {
+				installedVersion = RecafTasks.getInstalledVersion();
+			} catch (InvalidInstallationException e) {
+				String suggestion = cliContext ?
+						"- Try running with 'update'" :
+						"- Click 'Update' next to the 'Recaf Version' label in the GUI";
+				logger.error("No local version of Recaf found.\n" +
+						suggestion);
+				return new RunResult(ERR_NOT_INSTALLED);
+			}
 
-		// Ensure a valid version was found
-		if (javaFxVersion.getMajorVersion() < JavaFxVersion.MIN_SUGGESTED_JFX_VERSION) {
-			logger.error("The cached version of JavaFX was too old ({}).\n" +
-					updateJfxSuggestion, javaFxVersion);
-			return new RunResult(ERR_FX_OLD_VERSION);
-		}
+			JavaFxPlatform javaFxPlatform = JavaFxTasks.detectSystemPlatform();
 
-		logger.info("Using cached version of JavaFX: {}", javaFxVersion);
+			// Pull the JavaFX version from our dependency download cache.
+			JavaFxVersion javaFxVersion = JavaFxTasks.detectCachedVersion();
 
-		// Build classpath:
-		//  - Recaf jar
-		//  - JavaFX jars
-		List<Path> classpathItems = new ArrayList<>();
-		classpathItems.add(recafDirectory.relativize(CommonPaths.getRecafJar()));
-		{
-			Path dependenciesDir = CommonPaths.getDependenciesDir();
-			if (!Files.isDirectory(dependenciesDir))
+			// Ensure a version was found
+			String updateJfxSuggestion = cliContext ?
+					"- Try running with 'update-jfx'" :
+					"- Click 'Update' next to the 'JavaFX Version' label in the GUI";
+			if (javaFxVersion == null) {
+				logger.error("No local cached version of JavaFX found.\n" +
+						updateJfxSuggestion);
 				return new RunResult(ERR_NO_JFX);
-			String versionIdentifier = javaFxVersion.getVersion() + "-" + javaFxPlatform.getClassifier();
-			List<Path> javafxDependencies;
-			try (Stream<Path> pathStream = Files.list(dependenciesDir)) {
-				javafxDependencies = pathStream
-						.filter(path -> {
-							String fileName = path.getFileName().toString();
-							return fileName.contains(versionIdentifier);
-						})
-						.map(recafDirectory::relativize)
-						.collect(Collectors.toList());
 			}
 
-			// Validate we found:
-			// - base
-			// - graphics
-			// - controls
-			// - media
-			List<String> expected = new ArrayList<>();
-			expected.add("javafx-base");
-			expected.add("javafx-graphics");
-			expected.add("javafx-controls");
-			expected.add("javafx-media");
-			for (Path fxDependency : javafxDependencies) {
-				String name = fxDependency.getFileName().toString();
-				expected.removeIf(name::contains);
+			// Ensure a valid version was found
+			if (javaFxVersion.getMajorVersion() < JavaFxVersion.MIN_SUGGESTED_JFX_VERSION) {
+				logger.error("The cached version of JavaFX was too old ({}).\n" +
+						updateJfxSuggestion, javaFxVersion);
+				return new RunResult(ERR_FX_OLD_VERSION);
 			}
-			if (!expected.isEmpty()) {
-				logger.error("Missing the following JavaFX artifacts: {}", String.join(", ", expected));
-				return new RunResult(ERR_NO_JFX);
+
+			logger.info("Using cached version of JavaFX: {}", javaFxVersion);
+
+			// Ensure natives are extracted before recording the state of the dependencies directory.
+			boolean nativesExtracted = JavaFxTasks.extractNatives(javaFxVersion, javaFxPlatform);
+
+			// Build classpath:
+			//  - Recaf jar
+			//  - JavaFX jars
+			// Any file that contributes to the classpath is recorded so that we know when to re-create the plan.
+			List<LaunchPlan.FileStamp> stamps = new ArrayList<>();
+			List<Path> classpathItems = new ArrayList<>();
+			Path recafJar = CommonPaths.getRecafJar();
+			classpathItems.add(recafJar);
+			stamps.add(LaunchPlan.FileStamp.of(recafJar));
+			{
+				Path dependenciesDir = CommonPaths.getDependenciesDir();
+				if (!Files.isDirectory(dependenciesDir))
+					return new RunResult(ERR_NO_JFX);
+				List<Path> javafxDependencies = JavaFxTasks.getCachedArtifacts(javaFxVersion, javaFxPlatform);
+
+				// Validate we found:
+				// - base
+				// - graphics
+				// - controls
+				// - media
+				List<String> expected = new ArrayList<>();
+				expected.add("javafx-base");
+				expected.add("javafx-graphics");
+				expected.add("javafx-controls");
+				expected.add("javafx-media");
+				for (Path fxDependency : javafxDependencies) {
+					String name = fxDependency.getFileName().toString();
+					expected.removeIf(name::contains);
+				}
+				if (!expected.isEmpty()) {
+					logger.error("Missing the following JavaFX artifacts: {}", String.join(", ", expected));
+					return new RunResult(ERR_NO_JFX);
+				}
+
+				// Add to -cp
+				for (Path fxDependency : javafxDependencies) {
+					classpathItems.add(fxDependency);
+					stamps.add(LaunchPlan.FileStamp.of(fxDependency));
+				}
+
+				// The platform's artifact directory modification time changes when artifacts are added or removed,
+				// which can change what version of JavaFX we would pick.
+				stamps.add(LaunchPlan.FileStamp.of(JavaFxTasks.getArtifactDirectory(javaFxPlatform)));
 			}
 
-			// Add to -cp
-			classpathItems.addAll(javafxDependencies);
-		}
+			// Swap the jars out for the launch-optimized bundle if one was made from them.
+			if (LaunchBundleTasks.isBundleCurrent(classpathItems)) {
+				Path bundle = CommonPaths.getLaunchBundleJar();
+				logger.info("Using launch bundle: {}", bundle);
+				classpathItems = Collections.singletonList(bundle);
+				stamps.add(LaunchPlan.FileStamp.of(bundle));
+			}
 
-		// Get location of the launch wrapper.
-		String launchWrapperclasspath;
-		try {
-			launchWrapperclasspath = Paths.get(ApplicationLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
-		} catch (URISyntaxException ex) {
-			throw new IOException("Error constructing classpath", ex);
+			// Get location of the launch wrapper.
+			String launchWrapperClasspath;
+			try {
+				Path launchWrapperPath = Paths.get(ApplicationLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+				launchWrapperClasspath = launchWrapperPath.toString();
+				stamps.add(LaunchPlan.FileStamp.of(launchWrapperPath));
+			} catch (URISyntaxException ex) {
+				throw new IOException("Error constructing classpath", ex);
+			}
+
+			// Record the Java executable, so we know if it gets swapped out with another version.
+			Path javaExecutable = Paths.get(javaExecutablePath);
+			if (Files.exists(javaExecutable))
+				stamps.add(LaunchPlan.FileStamp.of(javaExecutable));
+
+			List<String> jvmArgs = new ArrayList<>();
+			jvmArgs.add("--enable-native-access=ALL-UNNAMED");
+
+			// Point JavaFX at its pre-extracted natives, so it does not need to extract them itself.
+			if (nativesExtracted)
+				jvmArgs.add("-Djavafx.cachedir=" + JavaFxTasks.getNativesDirectory(javaFxVersion, javaFxPlatform).toAbsolutePath());
+
+			plan = new LaunchPlan(javaExecutablePath, resolveJavaVersion(javaExecutablePath), launchWrapperClasspath, readMainClass(recafJar),
+					installedVersion, javaFxVersion, javaFxPlatform,
+					classpathItems.stream().map(p -> recafDirectory.relativize(p).toString()).collect(Collectors.toList()),
+					jvmArgs, stamps);
+			plan.write();
 		}
 
-		// Resolve the Java executable used by the current JVM.
-		if (javaExecutablePath == null)
-			javaExecutablePath = Paths.get(System.getProperty("java.home"))
-					.resolve("bin")
-					.resolve("java")
-					.toString();
+		logger.info("Running Recaf '{}' with JavaFX '{}:{}'", plan.getRecafVersion().getVersion(),
+				plan.getJavaFxVersion().getVersion(), plan.getJavaFxPlatform().getClassifier());
+		DependencyCacheTasks.markUsed(plan.getJavaFxVersion(), plan.getJavaFxPlatform());
 
-		logger.info("Running Recaf '{}' with JavaFX '{}:{}'",
-				installedVersion.getVersion(), javaFxVersion.getVersion(), javaFxPlatform.getClassifier());
+		// Apply the profile against the version of Java it will be used with.
+		int javaVersion = plan.getJavaVersion();
+		if (profile != LaunchProfile.DEFAULT)
+			logger.info("Using launch profile '{}'", profile.getName());
+		for (String problem : profile.validate(javaVersion))
+			logger.warn("Skipping unsupported option of launch profile '{}' for Java {}: {}", profile.getName(), javaVersion, problem);
+		long totalMemory = SystemInformation.getTotalMemory();
+		Path sharedArchiveFile = null;
+		if (profile.isSharedArchive() && javaVersion >= LaunchProfile.SHARED_ARCHIVE_MIN_VERSION) {
+			// The JVM creates the archive file, but not its directory.
+			sharedArchiveFile = CommonPaths.getSharedArchiveFile(javaVersion);
+			try {
+				Files.createDirectories(sharedArchiveFile.getParent());
+			} catch (IOException ex) {
+				logger.warn("Failed creating shared archive directory, launching without it", ex);
+				sharedArchiveFile = null;
+			}
+		}
+		List<String> jvmArgs = new ArrayList<>(profile.toJvmArgs(javaVersion, totalMemory, sharedArchiveFile));
 
+		// Size the heap to fit the files Recaf is asked to open, overriding the heap size of the profile.
+		List<Path> inputs = HeapSizingTasks.findInputs(programArgs);
+		if (!inputs.isEmpty()) {
+			HeapSizingTasks.WorkspaceEstimate estimate = HeapSizingTasks.estimate(inputs);
+			long upperBound = maxHeap >= 0 ? maxHeap : totalMemory > 0 ?
+					totalMemory / 100 * HeapSizingTasks.DEFAULT_MAX_HEAP_PERCENT : Long.MAX_VALUE;
+			List<String> heapArgs = HeapSizingTasks.toJvmArgs(estimate, minHeap, upperBound);
+			logger.info("Sized heap for {} input files with {} classes: {}", estimate.getFiles(),
+					estimate.getClassCount(), String.join(" ", heapArgs));
+			jvmArgs.addAll(heapArgs);
+		}
+		jvmArgs.addAll(extraJvmArgs);
+		return execute(plan, recafDirectory, inheritIO, jvmArgs, HeapSizingTasks.absolutizeInputs(programArgs));
+	}
+
+	/**
+	 * @param plan
+	 * 		Plan outlining how to launch Recaf.
+	 * @param recafDirectory
+	 * 		Working directory to run Recaf in.
+	 * @param inheritIO
+	 *        {@code true} to pipe the started process's output into this one.
+	 * @param extraJvmArgs
+	 * 		Additional arguments to pass to the JVM, after those of the plan.
+	 * @param programArgs
+	 * 		Arguments to pass to Recaf.
+	 *
+	 * @return Result of the Recaf process.
+	 *
+	 * @throws IOException
+	 * 		When the process couldn't be launched.
+	 */
+	@Nonnull
+	private static RunResult execute(@Nonnull LaunchPlan plan, @Nonnull Path recafDirectory, boolean inheritIO,
+	                                 @Nonnull List<String> extraJvmArgs, @Nonnull List<String> programArgs) throws IOException {
 		// Create the process.
-		ProcessBuilder builder = new ProcessBuilder(javaExecutablePath, "-cp", launchWrapperclasspath,
-				"--enable-native-access=ALL-UNNAMED", MAIN_CLASS);
-		builder.directory(recafDirectory.toFile());
-		Process recafProcess = builder.start();
+		List<String> command = new ArrayList<>();
+		command.add(plan.getJavaExecutable());
+		command.add("-cp");
+		command.add(plan.getLaunchWrapper());
+		command.addAll(plan.getJvmArgs());
+		command.addAll(extraJvmArgs);
+		command.add(MAIN_CLASS);
+		File directory = recafDirectory.toFile();
+		WarmProcessPool pool = processPool;
+		Process recafProcess = pool == null ? null : pool.take(command, directory);
+		if (recafProcess == null) {
+			ProcessBuilder builder = new ProcessBuilder(command);
+			builder.directory(directory);
+			recafProcess = builder.start();
+		}
 
 		StringBuilder out = new StringBuilder();
 		StringBuilder err = new StringBuilder();
@@ -185,13 +352,22 @@ public static RunResult run(boolean inheritIO, boolean cliContext, @Nullable Str
 		}
 
 		try {
-			// Write classpath entries to the launcher wrapper
+			// Write classpath entries to the launcher wrapper, followed by the main class and program arguments.
+			// Arguments are sent this way rather than on the command line, so that warm processes can receive them.
 			try (DataOutputStream pout = new DataOutputStream(recafProcess.getOutputStream())) {
-				for (Path classpathItem : classpathItems)
-					pout.writeUTF(classpathItem.toString());
+				for (String classpathItem : plan.getClasspath())
+					pout.writeUTF(classpathItem);
 				pout.writeUTF("");
+				pout.writeUTF(plan.getMainClass());
+				pout.writeInt(programArgs.size());
+				for (String programArg : programArgs)
+					pout.writeUTF(programArg);
 			}
 
+			// Now that this launch is handed off, prepare a replacement for the next one.
+			if (pool != null)
+				pool.fill(command, directory);
+
 			// Handle non-standard exit codes. Recaf has a few for special cases.
 			int exitCode = recafProcess.waitFor();
 			switch (exitCode) {
@@ -224,12 +400,98 @@ public static RunResult run(boolean inheritIO, boolean cliContext, @Nullable Str
 					// Expected after normal closure
 					break;
 			}
+
+			// If something went wrong we do not want to trust the plan on the next run.
+			if (exitCode != SUCCESS && exitCode != INTELLIJ_TERMINATION) {
+				LaunchPlan.invalidate();
+
+				// Same goes for the bundle, if it could not provide Recaf with what it needed.
+				if (isClasspathFailure(exitCode) && usesBundle(plan, recafDirectory)) {
+					logger.warn("Removing launch bundle after failed launch, the next launch will use the original jars");
+					LaunchBundleTasks.removeBundle();
+				} else if (isRecafFailure(exitCode)) {
+					// The installed build is broken, switch back to the last one that is not.
+					RecafBuild rolledBackTo = RecafBuildTasks.rollback();
+					if (rolledBackTo != null)
+						logger.warn("Switched to Recaf build '{}' after failed launch, the next launch will use it", rolledBackTo.getName());
+				}
+			}
 			return new RunResult(exitCode, out, err);
 		} catch (InterruptedException ignored) {
 			return new RunResult(SUCCESS);
 		}
 	}
 
+	/**
+	 * @param javaExecutablePath
+	 * 		Path of the Java executable.
+	 *
+	 * @return Major version of the Java executable, or {@link JavaVersion#UNKNOWN_VERSION} if it could not be determined.
+	 */
+	private static int resolveJavaVersion(@Nonnull String javaExecutablePath) {
+		Path javaExecutable = Paths.get(javaExecutablePath).toAbsolutePath();
+		if (javaExecutable.startsWith(Paths.get(System.getProperty("java.home")).toAbsolutePath()))
+			return JavaVersion.get();
+		JavaInstall install = JavaEnvTasks.getByPath(javaExecutable);
+		if (install == null && JavaEnvTasks.addJavaInstall(javaExecutable).wasSuccess())
+			install = JavaEnvTasks.getByPath(javaExecutable);
+		return install == null ? JavaVersion.UNKNOWN_VERSION : install.getVersion();
+	}
+
+	/**
+	 * @param exitCode
+	 * 		Exit code of Recaf.
+	 *
+	 * @return {@code true} when the exit code indicates Recaf could not find what it needed on the classpath.
+	 */
+	private static boolean isClasspathFailure(int exitCode) {
+		return exitCode == ERR_FX_CLASS_NOT_FOUND || exitCode == ERR_FX_NO_SUCH_METHOD || exitCode == ERR_CDI_INIT_FAILURE;
+	}
+
+	/**
+	 * @param exitCode
+	 * 		Exit code of Recaf.
+	 *
+	 * @return {@code true} when the exit code indicates the Recaf build itself failed to start.
+	 */
+	private static boolean isRecafFailure(int exitCode) {
+		return exitCode == ERR_CDI_INIT_FAILURE;
+	}
+
+	/**
+	 * @param plan
+	 * 		Plan Recaf was launched with.
+	 * @param recafDirectory
+	 * 		Directory the plan's classpath is relative to.
+	 *
+	 * @return {@code true} when the plan launched Recaf from the launch bundle.
+	 */
+	private static boolean usesBundle(@Nonnull LaunchPlan plan, @Nonnull Path recafDirectory) {
+		List<String> classpath = plan.getClasspath();
+		return classpath.size() == 1 && recafDirectory.resolve(classpath.get(0)).equals(CommonPaths.getLaunchBundleJar());
+	}
+
+	/**
+	 * @param recafJar
+	 * 		Path to Recaf jar.
+	 *
+	 * @return Main class declared in the jar's manifest, or an empty string if it could not be read.
+	 * The launch wrapper will then attempt to find the main class itself.
+	 */
+	@Nonnull
+	private static String readMainClass(@Nonnull Path recafJar) {
+		try (JarFile jar = new JarFile(recafJar.toFile())) {
+			Manifest manifest = jar.getManifest();
+			if (manifest == null)
+				return "";
+			String mainClass = manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+			return mainClass == null ? "" : mainClass;
+		} catch (IOException ex) {
+			logger.warn("Failed to read main class from '{}'", recafJar, ex);
+			return "";
+		}
+	}
+
 	public static class RunResult {
 		private final String out;
 		private final String err;
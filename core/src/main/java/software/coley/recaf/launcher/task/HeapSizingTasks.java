@@ -0,0 +1,285 @@
+package software.coley.recaf.launcher.task;
+
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.ZipIndex;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Tasks for sizing the heap of Recaf based on the files it is asked to open.
+ * <br>
+ * Archives are not extracted, only their central directory is read to get the sizes and names of their entries.
+ */
+public class HeapSizingTasks {
+	private static final Logger logger = Loggers.newLogger();
+	/**
+	 * Default lower bound of heap sizes, in bytes.
+	 */
+	public static final long DEFAULT_MIN_HEAP = 512L << 20;
+	/**
+	 * Default upper bound of heap sizes, as a percentage of system memory.
+	 */
+	public static final int DEFAULT_MAX_HEAP_PERCENT = 80;
+	// Heuristics of how much memory Recaf uses, tuned against opening typical applications and libraries.
+	private static final long BASE_FOOTPRINT = 384L << 20; // Recaf itself, JavaFX, and services
+	private static final int CLASS_BYTES_FACTOR = 6; // Raw bytes, parsed models, and indexes of each class
+	private static final int CLASS_OVERHEAD = 4096; // Per-class bookkeeping regardless of size
+	private static final int NESTED_ARCHIVE_FACTOR = 2; // Embedded archives are roughly half their uncompressed size
+	private static final double HEADROOM = 1.5; // Room for decompilation and analysis on top of the loaded workspace
+
+	/**
+	 * @param programArgs
+	 * 		Arguments passed to Recaf.
+	 *
+	 * @return Arguments that point to existing files, including the value of {@code --name=value} style arguments.
+	 */
+	@Nonnull
+	public static List<Path> findInputs(@Nonnull List<String> programArgs) {
+		List<Path> inputs = new ArrayList<>();
+		for (String arg : programArgs) {
+			Path path = toExistingFile(arg);
+			if (path != null)
+				inputs.add(path);
+		}
+		return inputs;
+	}
+
+	/**
+	 * Recaf is run in the Recaf directory, so paths relative to the current directory would not be found by it.
+	 *
+	 * @param programArgs
+	 * 		Arguments passed to Recaf.
+	 *
+	 * @return Copy of the arguments, where those pointing to existing files are made absolute.
+	 */
+	@Nonnull
+	public static List<String> absolutizeInputs(@Nonnull List<String> programArgs) {
+		List<String> args = new ArrayList<>(programArgs.size());
+		for (String arg : programArgs) {
+			Path path = toExistingFile(arg);
+			if (path == null)
+				args.add(arg);
+			else if (arg.startsWith("-"))
+				args.add(arg.substring(0, arg.indexOf('=') + 1) + path);
+			else
+				args.add(path.toString());
+		}
+		return args;
+	}
+
+	/**
+	 * @param inputs
+	 * 		Files to estimate the footprint of.
+	 *
+	 * @return Estimate of the memory needed to open the files in Recaf.
+	 */
+	@Nonnull
+	public static WorkspaceEstimate estimate(@Nonnull List<Path> inputs) {
+		WorkspaceEstimate estimate = new WorkspaceEstimate();
+		for (Path input : inputs) {
+			try {
+				if (!readCentralDirectory(input, estimate)) {
+					long size = Files.size(input);
+					estimate.addEntry(input.getFileName().toString(), size, size);
+				}
+				estimate.files++;
+			} catch (IOException ex) {
+				logger.warn("Failed to read '{}' for heap sizing", input, ex);
+			}
+		}
+		return estimate;
+	}
+
+	/**
+	 * @param estimate
+	 * 		Estimate of the memory needed.
+	 * @param minHeap
+	 * 		Lower bound of the heap size in bytes.
+	 * @param maxHeap
+	 * 		Upper bound of the heap size in bytes.
+	 *
+	 * @return {@code -Xms} and {@code -Xmx} arguments for the estimate.
+	 */
+	@Nonnull
+	public static List<String> toJvmArgs(@Nonnull WorkspaceEstimate estimate, long minHeap, long maxHeap) {
+		maxHeap = Math.max(minHeap, maxHeap);
+		long initial = clamp(estimate.getEstimatedFootprint(), minHeap, maxHeap);
+		long max = clamp((long) (estimate.getEstimatedFootprint() * HEADROOM), initial, maxHeap);
+		List<String> args = new ArrayList<>(2);
+		args.add("-Xms" + (initial >> 20) + "m");
+		args.add("-Xmx" + (max >> 20) + "m");
+		return args;
+	}
+
+	private static long clamp(long value, long min, long max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * @param arg
+	 * 		Program argument.
+	 *
+	 * @return Absolute path of the file the argument points to, or {@code null} if it does not point to a file.
+	 */
+	private static Path toExistingFile(@Nonnull String arg) {
+		String value = arg;
+		if (arg.startsWith("-")) {
+			int split = arg.indexOf('=');
+			if (split < 0)
+				return null;
+			value = arg.substring(split + 1);
+		}
+		if (value.isEmpty())
+			return null;
+		try {
+			Path path = Paths.get(value);
+			if (Files.isRegularFile(path))
+				return path.toAbsolutePath();
+		} catch (RuntimeException ignored) {
+			// Not a valid path
+		}
+		return null;
+	}
+
+	/**
+	 * @param path
+	 * 		File to read.
+	 * @param estimate
+	 * 		Estimate to add entries of the archive to.
+	 *
+	 * @return {@code true} when the file was an archive. {@code false} when it is some other kind of file.
+	 *
+	 * @throws IOException
+	 * 		When the file could not be read.
+	 */
+	private static boolean readCentralDirectory(@Nonnull Path path, @Nonnull WorkspaceEstimate estimate) throws IOException {
+		ZipIndex index;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			index = ZipIndex.read(channel);
+		} catch (ZipException ex) {
+			// Zip64 archives, archives with data prepended to them, and files that are not archives at all
+			// are left to the JDK to tell apart.
+			return readWithZipFile(path, estimate);
+		}
+		for (ZipIndex.Entry entry : index.getEntries())
+			estimate.addEntry(entry.getName(), entry.getCompressedSize(), entry.getSize());
+		return true;
+	}
+
+	private static boolean readWithZipFile(@Nonnull Path path, @Nonnull WorkspaceEstimate estimate) throws IOException {
+		// Entries are collected separately so that nothing is counted if the archive turns out to be unreadable.
+		WorkspaceEstimate archive = new WorkspaceEstimate();
+		try (ZipFile zip = new ZipFile(path.toFile())) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				archive.addEntry(entry.getName(), Math.max(0, entry.getCompressedSize()), Math.max(0, entry.getSize()));
+			}
+		} catch (ZipException ex) {
+			// Not an archive
+			return false;
+		}
+		estimate.add(archive);
+		return true;
+	}
+
+	/**
+	 * Summary of the contents of files to open in Recaf.
+	 */
+	public static class WorkspaceEstimate {
+		private int files;
+		private int classCount;
+		private long classBytes;
+		private long nestedArchiveBytes;
+		private long otherBytes;
+		private long compressedBytes;
+
+		private void addEntry(@Nonnull String name, long compressedSize, long uncompressedSize) {
+			addEntry(name.endsWith(".class"), name.endsWith(".jar") || name.endsWith(".zip"), compressedSize, uncompressedSize);
+		}
+
+		private void addEntry(boolean isClass, boolean isArchive, long compressedSize, long uncompressedSize) {
+			compressedBytes += compressedSize;
+			if (isClass) {
+				classCount++;
+				classBytes += uncompressedSize;
+			} else if (isArchive) {
+				nestedArchiveBytes += uncompressedSize;
+			} else {
+				otherBytes += uncompressedSize;
+			}
+		}
+
+		private void add(@Nonnull WorkspaceEstimate other) {
+			classCount += other.classCount;
+			classBytes += other.classBytes;
+			nestedArchiveBytes += other.nestedArchiveBytes;
+			otherBytes += other.otherBytes;
+			compressedBytes += other.compressedBytes;
+		}
+
+		/**
+		 * @return Number of files read.
+		 */
+		public int getFiles() {
+			return files;
+		}
+
+		/**
+		 * @return Number of classes in the files.
+		 */
+		public int getClassCount() {
+			return classCount;
+		}
+
+		/**
+		 * @return Uncompressed size of all classes.
+		 */
+		public long getClassBytes() {
+			return classBytes;
+		}
+
+		/**
+		 * @return Compressed size of all entries.
+		 */
+		public long getCompressedBytes() {
+			return compressedBytes;
+		}
+
+		/**
+		 * @return Estimated memory usage of Recaf after opening the files, in bytes.
+		 */
+		public long getEstimatedFootprint() {
+			long nestedClassBytes = nestedArchiveBytes * NESTED_ARCHIVE_FACTOR;
+			return BASE_FOOTPRINT
+					+ (classBytes + nestedClassBytes) * CLASS_BYTES_FACTOR
+					+ (long) classCount * CLASS_OVERHEAD
+					+ otherBytes;
+		}
+
+		@Override
+		public String toString() {
+			return "WorkspaceEstimate{" +
+					"files=" + files +
+					", classes=" + classCount +
+					", classBytes=" + classBytes +
+					", nestedArchiveBytes=" + nestedArchiveBytes +
+					", otherBytes=" + otherBytes +
+					", footprint=" + getEstimatedFootprint() +
+					'}';
+		}
+	}
+}
@@ -0,0 +1,349 @@
+package software.coley.recaf.launcher.task;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.JavaFxPlatform;
+import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.info.RecafBuild;
+import software.coley.recaf.launcher.task.error.InvalidInstallationException;
+import software.coley.recaf.launcher.task.event.InstallEvent;
+import software.coley.recaf.launcher.task.event.InstallEvents;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Hashing;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.ProcessLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tasks for moving a fully provisioned Recaf installation to systems without network access.
+ * <br>
+ * An install bundle is a zip of the Recaf jar, the JavaFX artifacts of one or more platforms, and optionally the
+ * recorded class load order used to create the {@link LaunchBundleTasks launch bundle}. Its {@code bundle.json}
+ * entry lists every file with its SHA-1, and all files are checked against it before anything is installed.
+ */
+public class InstallBundleTasks {
+	private static final Logger logger = Loggers.newLogger();
+	private static final String MANIFEST_NAME = "bundle.json";
+	private static final String RECAF_ENTRY = "recaf.jar";
+	private static final String JAVAFX_PREFIX = "javafx/";
+	private static final String LOAD_ORDER_ENTRY = "caches/class-load-order.txt";
+	private static final int FORMAT = 1;
+
+	/**
+	 * Writes the current installation to a bundle. JavaFX artifacts of requested platforms that are not cached
+	 * are downloaded first.
+	 *
+	 * @param output
+	 * 		File to write the bundle to.
+	 * @param platforms
+	 * 		Platforms to include JavaFX artifacts for. If empty, the {@link JavaFxTasks#detectSystemPlatform() current
+	 * 		system's} platform is used.
+	 * @param includeCaches
+	 *        {@code true} to include the recorded class load order, so the importing system can create a launch bundle.
+	 *
+	 * @throws IOException
+	 * 		When Recaf or JavaFX is not installed, or the bundle cannot be written.
+	 */
+	public static void exportBundle(@Nonnull Path output, @Nonnull Collection<JavaFxPlatform> platforms,
+	                                boolean includeCaches) throws IOException {
+		Path recafJar = CommonPaths.getRecafJar();
+		JavaFxVersion javaFxVersion = JavaFxTasks.detectCachedVersion();
+		if (!Files.isRegularFile(recafJar) || javaFxVersion == null)
+			throw new IOException("Recaf and JavaFX must be installed before they can be exported");
+		Set<JavaFxPlatform> exportedPlatforms = new LinkedHashSet<>(platforms);
+		if (exportedPlatforms.isEmpty())
+			exportedPlatforms.add(JavaFxTasks.detectSystemPlatform());
+		exportedPlatforms.remove(JavaFxPlatform.UNSUPPORTED);
+		if (exportedPlatforms.isEmpty())
+			throw new IOException("No supported JavaFX platform to export");
+
+		// Collect the files to export, by their entry names
+		Map<String, Path> files = new LinkedHashMap<>();
+		files.put(RECAF_ENTRY, recafJar);
+		for (JavaFxPlatform platform : exportedPlatforms) {
+			Path artifactDir = JavaFxTasks.getArtifactDirectory(platform);
+			List<String> artifactNames = JavaFxTasks.getArtifactFileNames(javaFxVersion, platform);
+			if (!allExist(artifactDir, artifactNames)) {
+				logger.info("Downloading JavaFX '{}' for platform '{}' to export", javaFxVersion.getVersion(), platform.getClassifier());
+				JavaFxTasks.updateTo(javaFxVersion, platform, false);
+				if (!allExist(artifactDir, artifactNames))
+					throw new IOException("Failed to download JavaFX '" + javaFxVersion.getVersion() + "' for platform '" + platform.getClassifier() + "'");
+			}
+			for (String artifactName : artifactNames)
+				files.put(JAVAFX_PREFIX + platform.getClassifier() + "/" + artifactName, artifactDir.resolve(artifactName));
+		}
+		Path loadOrderFile = CommonPaths.getClassLoadOrderFile();
+		if (includeCaches) {
+			if (Files.isRegularFile(loadOrderFile))
+				files.put(LOAD_ORDER_ENTRY, loadOrderFile);
+			else
+				logger.warn("No class load order has been recorded, run 'optimize --train' to include one");
+		}
+
+		// Describe the bundle, so that its contents can be verified before importing
+		JsonObject manifest = Json.object()
+				.add("format", FORMAT)
+				.add("recaf-build", getInstalledBuildName())
+				.add("javafx-version", javaFxVersion.getVersion());
+		Long workflowRunId = readWorkflowRunId();
+		if (workflowRunId != null)
+			manifest.add("workflow-id", workflowRunId);
+		JsonArray platformsArray = Json.array();
+		for (JavaFxPlatform platform : exportedPlatforms)
+			platformsArray.add(platform.getClassifier());
+		manifest.add("platforms", platformsArray);
+		JsonObject filesObject = Json.object();
+		for (Map.Entry<String, Path> entry : files.entrySet()) {
+			try (InputStream in = Files.newInputStream(entry.getValue())) {
+				filesObject.add(entry.getKey(), Hashing.sha1(in));
+			}
+		}
+		manifest.add("files", filesObject);
+
+		// Write to a temporary file first, so a partial bundle is never mistaken for a complete one
+		Path outputTemp = output.resolveSibling(output.getFileName() + ".tmp");
+		if (output.getParent() != null && !Files.isDirectory(output.getParent()))
+			Files.createDirectories(output.getParent());
+		try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(outputTemp)))) {
+			// The content is almost entirely jars, which do not compress any further
+			zos.setLevel(Deflater.BEST_SPEED);
+			zos.putNextEntry(new ZipEntry(MANIFEST_NAME));
+			zos.write(manifest.toString().getBytes(StandardCharsets.UTF_8));
+			zos.closeEntry();
+			for (Map.Entry<String, Path> entry : files.entrySet()) {
+				zos.putNextEntry(new ZipEntry(entry.getKey()));
+				Files.copy(entry.getValue(), zos);
+				zos.closeEntry();
+			}
+		} catch (IOException ex) {
+			Files.deleteIfExists(outputTemp);
+			throw ex;
+		}
+		try {
+			Files.move(outputTemp, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (Exception ignored) {
+			Files.move(outputTemp, output, StandardCopyOption.REPLACE_EXISTING);
+		}
+		logger.info("Exported Recaf '{}' with JavaFX '{}' for {} to '{}'", manifest.getString("recaf-build", "?"),
+				javaFxVersion.getVersion(), exportedPlatforms, output);
+	}
+
+	/**
+	 * Installs the contents of a bundle, without making any network requests.
+	 * <br>
+	 * Every file is extracted and verified before any of them is installed, so a corrupt bundle leaves the current
+	 * installation as it was. The JavaFX artifacts are installed before the Recaf jar, which is replaced in a
+	 * single move.
+	 *
+	 * @param bundle
+	 * 		Bundle to import, from {@link #exportBundle(Path, Collection, boolean)}.
+	 *
+	 * @return The imported Recaf build.
+	 *
+	 * @throws IOException
+	 * 		When the bundle is not valid, does not support the current system, or cannot be installed.
+	 */
+	@Nonnull
+	public static RecafBuild importBundle(@Nonnull Path bundle) throws IOException {
+		JavaFxPlatform platform = JavaFxTasks.detectSystemPlatform();
+
+		// Each import stages to its own directory, so that concurrent imports do not remove each other's files.
+		Path launcherDir = CommonPaths.getLauncherDir();
+		if (!Files.isDirectory(launcherDir))
+			Files.createDirectories(launcherDir);
+		Path stagingDir = Files.createTempDirectory(launcherDir, "bundle-import");
+		try (ZipFile zip = new ZipFile(bundle.toFile())) {
+			ZipEntry manifestEntry = zip.getEntry(MANIFEST_NAME);
+			if (manifestEntry == null)
+				throw new IOException("Not a Recaf install bundle, missing '" + MANIFEST_NAME + "'");
+			JsonObject manifest;
+			try (InputStream in = zip.getInputStream(manifestEntry)) {
+				manifest = Json.parse(new String(readAll(in), StandardCharsets.UTF_8)).asObject();
+			}
+			int format = manifest.getInt("format", -1);
+			if (format < 1 || format > FORMAT)
+				throw new IOException("Unsupported install bundle format: " + format);
+			String buildName = manifest.getString("recaf-build", "unknown");
+			JavaFxVersion javaFxVersion = new JavaFxVersion(manifest.getString("javafx-version", "?"));
+			JsonValue workflowValue = manifest.get("workflow-id");
+			Long workflowRunId = workflowValue != null && workflowValue.isNumber() ? workflowValue.asLong() : null;
+
+			// Check the bundle has everything this system needs
+			Map<String, String> files = new LinkedHashMap<>();
+			for (JsonObject.Member member : manifest.get("files").asObject())
+				files.put(member.getName(), member.getValue().asString().toLowerCase());
+			String platformPrefix = JAVAFX_PREFIX + platform.getClassifier() + "/";
+			List<String> artifactNames = JavaFxTasks.getArtifactFileNames(javaFxVersion, platform);
+			if (!files.containsKey(RECAF_ENTRY))
+				throw new IOException("Install bundle does not contain a Recaf jar");
+			for (String artifactName : artifactNames)
+				if (!files.containsKey(platformPrefix + artifactName))
+					throw new IOException("Install bundle does not contain JavaFX for platform '" + platform.getClassifier()
+							+ "', it has: " + manifest.get("platforms"));
+
+			// Extract and verify everything needed before installing any of it
+			Map<String, Path> staged = new LinkedHashMap<>();
+			for (Map.Entry<String, String> file : files.entrySet()) {
+				String name = file.getKey();
+				if (!name.equals(RECAF_ENTRY) && !name.equals(LOAD_ORDER_ENTRY) && !name.startsWith(platformPrefix))
+					continue;
+				if (name.startsWith(platformPrefix) && !artifactNames.contains(name.substring(platformPrefix.length())))
+					continue;
+				ZipEntry entry = zip.getEntry(name);
+				if (entry == null)
+					throw new IOException("Install bundle is missing '" + name + "'");
+				Path stagedFile = stagingDir.resolve(staged.size() + ".tmp");
+				try (InputStream in = zip.getInputStream(entry)) {
+					Files.copy(in, stagedFile);
+				}
+				String actualSha1;
+				try (InputStream in = Files.newInputStream(stagedFile)) {
+					actualSha1 = Hashing.sha1(in);
+				}
+				if (!actualSha1.equals(file.getValue()))
+					throw new IOException("Install bundle entry '" + name + "' does not match its checksum, the bundle is corrupt");
+				staged.put(name, stagedFile);
+			}
+
+			// Install JavaFX first, so that the new Recaf jar never runs without its dependencies
+			Path artifactDir = JavaFxTasks.getArtifactDirectory(platform);
+			ProcessLock.run(JavaFxTasks.DEPENDENCIES_LOCK, () -> {
+				if (!Files.isDirectory(artifactDir))
+					Files.createDirectories(artifactDir);
+				for (String artifactName : artifactNames) {
+					String entryName = platformPrefix + artifactName;
+					ArtifactStoreTasks.install(staged.get(entryName), artifactDir.resolve(artifactName),
+							"javafx/" + artifactName, files.get(entryName));
+				}
+				JavaFxTasks.extractNatives(javaFxVersion, platform);
+			});
+			DependencyCacheTasks.markUsed(javaFxVersion, platform);
+			InstallEvents.publish(InstallEvent.installed(InstallEvent.Component.JAVAFX, javaFxVersion.getVersion()));
+
+			// Then replace the Recaf jar
+			ProcessLock.run(RecafTasks.RECAF_LOCK, () -> {
+				String sha1 = ArtifactStoreTasks.install(staged.get(RECAF_ENTRY), CommonPaths.getRecafJar(),
+						RecafBuildTasks.getRefName(buildName), files.get(RECAF_ENTRY));
+				RecafBuildTasks.record(buildName, sha1);
+				Path snapshotWorkflowFile = CommonPaths.getSnapshotWorkflowFile();
+				if (workflowRunId != null) {
+					if (!Files.isDirectory(snapshotWorkflowFile.getParent()))
+						Files.createDirectories(snapshotWorkflowFile.getParent());
+					Files.write(snapshotWorkflowFile, String.valueOf(workflowRunId).getBytes(StandardCharsets.UTF_8));
+				} else {
+					Files.deleteIfExists(snapshotWorkflowFile);
+				}
+				LaunchBundleTasks.removeBundle();
+			});
+			InstallEvents.publish(InstallEvent.installed(InstallEvent.Component.RECAF, buildName));
+
+			// Re-create the launch bundle locally if the recorded load order was included
+			Path stagedLoadOrder = staged.get(LOAD_ORDER_ENTRY);
+			if (stagedLoadOrder != null) {
+				Path loadOrderFile = CommonPaths.getClassLoadOrderFile();
+				Files.move(stagedLoadOrder, loadOrderFile, StandardCopyOption.REPLACE_EXISTING);
+				try {
+					List<Path> sources = LaunchBundleTasks.getBundleSources();
+					if (sources != null)
+						LaunchBundleTasks.createBundle(sources);
+				} catch (IOException ex) {
+					logger.warn("Failed to create launch bundle from the imported class load order", ex);
+				}
+			}
+			logger.info("Imported Recaf '{}' with JavaFX '{}'", buildName, javaFxVersion.getVersion());
+			RecafBuild build = RecafBuildTasks.findBuild(buildName);
+			if (build == null)
+				throw new IOException("Imported Recaf build '" + buildName + "' was not recorded");
+			return build;
+		} finally {
+			deleteRecursively(stagingDir);
+		}
+	}
+
+	/**
+	 * @return Name of the installed Recaf build.
+	 */
+	@Nonnull
+	private static String getInstalledBuildName() {
+		RecafBuild active = RecafBuildTasks.getActiveBuild();
+		if (active != null)
+			return active.getName();
+		try {
+			String name = RecafTasks.getInstalledVersion().getVersion();
+			Long workflowRunId = readWorkflowRunId();
+			return workflowRunId == null ? name : name + RecafTasks.SNAPSHOT_RUN_SEPARATOR + workflowRunId;
+		} catch (InvalidInstallationException ex) {
+			return "unknown";
+		}
+	}
+
+	/**
+	 * @return Id of the workflow run of the installed snapshot, or {@code null} if not known.
+	 */
+	@Nullable
+	private static Long readWorkflowRunId() {
+		Path snapshotWorkflowFile = CommonPaths.getSnapshotWorkflowFile();
+		if (!Files.isRegularFile(snapshotWorkflowFile))
+			return null;
+		try {
+			return Long.parseLong(new String(Files.readAllBytes(snapshotWorkflowFile), StandardCharsets.UTF_8).trim());
+		} catch (IOException | NumberFormatException ex) {
+			logger.warn("Failed to read installed snapshot workflow id", ex);
+			return null;
+		}
+	}
+
+	private static boolean allExist(@Nonnull Path directory, @Nonnull List<String> names) {
+		for (String name : names)
+			if (!Files.isRegularFile(directory.resolve(name)))
+				return false;
+		return true;
+	}
+
+	@Nonnull
+	private static byte[] readAll(@Nonnull InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1)
+			out.write(buffer, 0, read);
+		return out.toByteArray();
+	}
+
+	private static void deleteRecursively(@Nonnull Path directory) throws IOException {
+		if (!Files.isDirectory(directory))
+			return;
+		List<Path> paths = new ArrayList<>();
+		try (Stream<Path> walk = Files.walk(directory)) {
+			walk.sorted(Comparator.reverseOrder()).forEach(paths::add);
+		}
+		for (Path path : paths)
+			Files.deleteIfExists(path);
+	}
+}
@@ -72,21 +72,8 @@ private static void scanForLinuxJavaPaths() {
 				"/usr/lib/jvm/",
 				System.getenv("HOME") + "/.jdks/"
 		};
-		for (String root : javaRoots) {
-			Path rootPath = Paths.get(root);
-			if (Files.isDirectory(rootPath)) {
-				try (Stream<Path> subDirStream = Files.list(rootPath)) {
-					subDirStream.filter(subDir -> Files.exists(subDir.resolve("bin/java")))
-							.forEach(subDir -> {
-								Path javaPath = subDir.resolve("bin/java");
-								if (Files.exists(javaPath))
-									addJavaInstall(javaPath);
-							});
-				} catch (IOException ignored) {
-					// Skip
-				}
-			}
-		}
+		for (String root : javaRoots)
+			scanJavaRoot(Paths.get(root));
 	}
 
 	/**
@@ -160,16 +147,26 @@ private static void scanForWindowsJavaPaths() {
 				"C:/Program Files/SapMachine/JDK/",
 				"C:/Program Files/Zulu/",
 		};
-		for (String root : javaRoots) {
-			Path rootPath = Paths.get(root);
-			if (Files.isDirectory(rootPath)) {
-				try (Stream<Path> subDirStream = Files.list(rootPath)) {
-					subDirStream.filter(subDir -> Files.exists(subDir.resolve("bin/java.exe")))
-							.forEach(subDir -> addJavaInstall(subDir.resolve("bin/java.exe")));
-				} catch (IOException ignored) {
-					// Skip
-				}
-			}
+		for (String root : javaRoots)
+			scanJavaRoot(Paths.get(root));
+	}
+
+	/**
+	 * Detect Java installations in the sub-directories of the given directory.
+	 *
+	 * @param root
+	 * 		Directory holding Java installations, such as {@code /usr/lib/jvm/}.
+	 */
+	public static void scanJavaRoot(@Nonnull Path root) {
+		if (!Files.isDirectory(root))
+			return;
+		String executable = PlatformType.isWindows() ? "bin/java.exe" : "bin/java";
+		try (Stream<Path> subDirStream = Files.list(root)) {
+			subDirStream.map(subDir -> subDir.resolve(executable))
+					.filter(Files::exists)
+					.forEach(javaPath -> addJavaInstall(javaPath));
+		} catch (IOException ignored) {
+			// Skip
 		}
 	}
 
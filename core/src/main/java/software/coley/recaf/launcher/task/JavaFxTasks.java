@@ -1,40 +1,54 @@
 package software.coley.recaf.launcher.task;
 
-import com.eclipsesource.json.Json;
-import com.eclipsesource.json.JsonArray;
-import com.eclipsesource.json.JsonObject;
-import com.eclipsesource.json.JsonValue;
-import org.json.XML;
 import org.slf4j.Logger;
 import software.coley.recaf.launcher.info.ArchitectureType;
 import software.coley.recaf.launcher.info.JavaFxPlatform;
 import software.coley.recaf.launcher.info.JavaFxVersion;
 import software.coley.recaf.launcher.info.PlatformType;
 import software.coley.recaf.launcher.info.SystemInformation;
+import software.coley.recaf.launcher.task.event.InstallEvent;
+import software.coley.recaf.launcher.task.event.InstallEvents;
 import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Endpoints;
 import software.coley.recaf.launcher.util.Hashing;
 import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.MavenMetadata;
+import software.coley.recaf.launcher.util.ProcessLock;
+import software.coley.recaf.launcher.util.Retries;
+import software.coley.recaf.launcher.util.RetryableException;
 import software.coley.recaf.launcher.util.TransferListener;
 import software.coley.recaf.launcher.util.Web;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.ByteArrayInputStream;
-import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.stream.Stream;
 
 public class JavaFxTasks {
 	/**
@@ -44,9 +58,13 @@ public class JavaFxTasks {
 	 */
 	public static final int FALLBACK_FX_SIZE_BYTES = 3_000_000;
 	public static final NavigableMap<Integer, Integer> JFX_SUPPORTED_JDK_MAP = new TreeMap<>();
+	/**
+	 * Name of the {@link ProcessLock} held while modifying the dependency cache.
+	 */
+	public static final String DEPENDENCIES_LOCK = "dependencies";
 	private static final Logger logger = Loggers.newLogger();
-	private static final String JFX_METADATA = "https://repo1.maven.org/maven2/org/openjfx/javafx-base/maven-metadata.xml";
 	private static final String[] ARTIFACT_NAMES = {"javafx-base", "javafx-graphics", "javafx-controls", "javafx-media"};
+	private static volatile boolean layoutMigrated;
 	private static TransferListener downloadListener;
 
 	static {
@@ -93,48 +111,100 @@ public static JavaFxPlatform detectSystemPlatform() {
 	 */
 	@Nullable
 	public static JavaFxVersion detectCachedVersion() {
-		Path dependenciesDir = CommonPaths.getDependenciesDir();
-		if (!Files.isDirectory(dependenciesDir)) return null;
-		try {
-			Optional<JavaFxVersion> maxVersion = Files.list(dependenciesDir)
-					.map(JavaFxTasks::mapToVersion)
-					.filter(Objects::nonNull)
-					.max(Comparator.naturalOrder());
-
-			// Not found, so we have no local artifacts cached
-			if (!maxVersion.isPresent())
-				return null;
-
-			// We should only yield the version if we have the 4 required artifacts of the same version
-			JavaFxVersion version = maxVersion.get();
-			String versionSuffix = version.getVersion();
-			Set<String> versionedArtifacts = Files.list(dependenciesDir)
-					.map(p -> p.getFileName().toString())
-					.filter(name -> name.contains(versionSuffix))
-					.collect(Collectors.toSet());
-
-			// If there are less than 4 artifacts, we can't possibly have all 4 required artifacts
-			if (versionedArtifacts.size() < 4)
-				return null;
-
-			// Check for each artifact
-			if (versionedArtifacts.stream().noneMatch(name -> name.contains("javafx-base-")))
-				return null;
-			if (versionedArtifacts.stream().noneMatch(name -> name.contains("javafx-graphics-")))
-				return null;
-			if (versionedArtifacts.stream().noneMatch(name -> name.contains("javafx-controls-")))
-				return null;
-			if (versionedArtifacts.stream().noneMatch(name -> name.contains("javafx-media-")))
-				return null;
-
-			// We have all four artifacts, and they're all using the same version
-			return version;
+		return detectCachedVersion(detectSystemPlatform());
+	}
+
+	/**
+	 * @param platform
+	 * 		Platform of the artifacts to look up.
+	 *
+	 * @return Newest locally cached JavaFX version with all required artifacts for the given platform,
+	 * or {@code null} if there is none.
+	 */
+	@Nullable
+	public static JavaFxVersion detectCachedVersion(@Nonnull JavaFxPlatform platform) {
+		migrateLegacyLayout();
+		Path artifactDir = getArtifactDirectory(platform);
+		if (!Files.isDirectory(artifactDir)) return null;
+		try (Stream<Path> pathStream = Files.list(artifactDir)) {
+			// Collect the artifacts present for each version
+			Map<JavaFxVersion, Set<String>> versionArtifacts = new TreeMap<>(Comparator.reverseOrder());
+			pathStream.forEach(path -> {
+				String fileName = path.getFileName().toString();
+				JavaFxVersion version = mapToVersion(fileName, platform);
+				if (version != null)
+					versionArtifacts.computeIfAbsent(version, v -> new HashSet<>())
+							.add(fileName.substring(0, fileName.indexOf('-', "javafx-".length())));
+			});
+
+			// We should only yield a version if we have all the required artifacts of the same version
+			for (Map.Entry<JavaFxVersion, Set<String>> entry : versionArtifacts.entrySet())
+				if (entry.getValue().containsAll(Arrays.asList(ARTIFACT_NAMES)))
+					return entry.getKey();
+			return null;
 		} catch (IOException ex) {
 			logger.error("Could not determine latest JavaFX version from local cache", ex);
 			return null;
 		}
 	}
 
+	/**
+	 * @param version
+	 * 		Version of JavaFX to look up.
+	 * @param platform
+	 * 		Platform of the artifacts to look up.
+	 *
+	 * @return Locally cached artifacts of the given version and platform.
+	 * Empty if the dependencies directory does not exist.
+	 *
+	 * @throws IOException
+	 * 		When the dependencies directory cannot be listed.
+	 */
+	@Nonnull
+	public static List<Path> getCachedArtifacts(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform) throws IOException {
+		migrateLegacyLayout();
+		Path artifactDir = getArtifactDirectory(platform);
+		if (!Files.isDirectory(artifactDir))
+			return Collections.emptyList();
+		String versionName = version.getVersion();
+		try (Stream<Path> pathStream = Files.list(artifactDir)) {
+			return pathStream
+					.filter(path -> {
+						JavaFxVersion fileVersion = mapToVersion(path.getFileName().toString(), platform);
+						return fileVersion != null && fileVersion.getVersion().equals(versionName);
+					})
+					.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * @param platform
+	 * 		Platform of JavaFX artifacts.
+	 *
+	 * @return Directory holding the cached artifacts of the given platform.
+	 * Each platform has its own directory, so that a Recaf directory can be shared between systems.
+	 */
+	@Nonnull
+	public static Path getArtifactDirectory(@Nonnull JavaFxPlatform platform) {
+		return CommonPaths.getDependenciesDir().resolve(platform.getClassifier());
+	}
+
+	/**
+	 * @param version
+	 * 		Version of JavaFX.
+	 * @param platform
+	 * 		Platform of the artifacts.
+	 *
+	 * @return File names of all artifacts required to run the given version on the given platform.
+	 */
+	@Nonnull
+	public static List<String> getArtifactFileNames(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform) {
+		List<String> names = new ArrayList<>(ARTIFACT_NAMES.length);
+		for (String artifact : ARTIFACT_NAMES)
+			names.add(artifact + "-" + version.getVersion() + "-" + platform.getClassifier() + ".jar");
+		return names;
+	}
+
 	/**
 	 * @param javaVersion
 	 * 		Version of Java to use for compatibility filtering.
@@ -144,51 +214,35 @@ public static JavaFxVersion detectCachedVersion() {
 	@Nullable
 	public static JavaFxVersion detectLatestRemoteVersion(int javaVersion) {
 		try {
-			String metadataXml = Web.getText(JFX_METADATA);
-			String metadataJson = XML.toJSONObject(metadataXml).toString();
-			JsonObject metadata = Json.parse(metadataJson).asObject();
-			JsonObject versioning = metadata.get("metadata").asObject().get("versioning").asObject();
-			JsonArray versions = versioning.get("versions").asObject().get("version").asArray();
-
-			// Newer versions are last in the array.
-			for (int i = versions.size() - 1; i > 0; i--) {
-				// The XML scheme handling in this json library is... kinda annoying.
-				//   <version>11.0.1</version ---> String
-				//   <version>11</version ---> int
-				// It doesn't enforce a flat type for the repeated elements.
-				String versionString;
-				JsonValue version = versions.get(i);
-				if (version.isString())
-					versionString = version.asString();
-				else if (version.isNumber())
-					versionString = String.valueOf(version.asInt());
-				else
-					versionString = String.valueOf(JavaFxVersion.MIN_SUGGESTED_JFX_VERSION); // Fallback.
+			List<JavaFxVersion> versions = Web.mapStream(Endpoints.Source.MAVEN_CENTRAL, "/org/openjfx/javafx-base/maven-metadata.xml",
+					in -> MavenMetadata.readVersions(in, JavaFxVersion::new));
+			String artifactFormat = "%s-%s-%s.jar.sha1";
+			String artifactPathFormat = "/org/openjfx/%s/%s/" + artifactFormat;
+			String classifier = detectSystemPlatform().getClassifier();
+
+			// Versions are ordered newest first.
+			for (JavaFxVersion version : versions) {
+				// Skip versions that are not compatible with the given java version.
+				if (!version.isCompatibleWith(javaVersion))
+					continue;
 
 				// Double check that the version has the artifacts for our system.
 				// - Some versions may unexpectedly ship without proper artifacts for all platforms (see: 25-ea+22)
 				boolean hasArtifacts = true;
-				String artifactFormat = "%s-%s-%s.jar.sha1";
-				String artifactUrlFormat = "https://repo1.maven.org/maven2/org/openjfx/%s/%s/" + artifactFormat;
-				String classifier = detectSystemPlatform().getClassifier();
+				String versionString = version.getVersion();
 				try {
 					for (String artifact : ARTIFACT_NAMES) {
-						String artifactUrl = String.format(artifactUrlFormat, artifact, versionString, artifact, versionString, classifier);
-						if (Web.getText(artifactUrl).length() < 40) {
+						String artifactPath = String.format(artifactPathFormat, artifact, versionString, artifact, versionString, classifier);
+						if (Web.getText(Endpoints.Source.MAVEN_CENTRAL, artifactPath).length() < 40) {
 							hasArtifacts = false;
 							break;
 						}
 					}
-				} catch (Exception ex) {
+				} catch (FileNotFoundException ex) {
 					hasArtifacts = false;
 				}
-				if (!hasArtifacts)
-					continue;
-
-				// Only return this version if its compatible with the given java version.
-				JavaFxVersion latestVersion = new JavaFxVersion(versionString);
-				if (latestVersion.isCompatibleWith(javaVersion))
-					return latestVersion;
+				if (hasArtifacts)
+					return version;
 			}
 
 			logger.error("Failed to find a compatible JavaFX version");
@@ -200,15 +254,19 @@ else if (version.isNumber())
 	}
 
 	/**
-	 * @param javafxDependency
-	 * 		Local file path.
+	 * @param fileName
+	 * 		Local file name, such as {@code javafx-base-21.0.2-linux.jar}.
+	 * @param platform
+	 * 		Platform the file is expected to be an artifact of.
 	 *
-	 * @return Extracted version based on file name pattern.
+	 * @return Extracted version based on file name pattern, or {@code null} if the name is not of a JavaFX artifact
+	 * of the given platform.
 	 */
 	@Nullable
-	private static JavaFxVersion mapToVersion(@Nonnull Path javafxDependency) {
-		JavaFxPlatform platform = detectSystemPlatform();
-		String name = javafxDependency.getFileName().toString();
+	private static JavaFxVersion mapToVersion(@Nonnull String fileName, @Nonnull JavaFxPlatform platform) {
+		String suffix = "-" + platform.getClassifier() + ".jar";
+		if (!fileName.endsWith(suffix))
+			return null;
 		String[] prefixes = {
 				"javafx-base-",
 				"javafx-controls-",
@@ -219,15 +277,85 @@ private static JavaFxVersion mapToVersion(@Nonnull Path javafxDependency) {
 				"javafx-web-"
 		};
 		for (String prefix : prefixes) {
-			if (name.startsWith(prefix)) {
-				int prefixLength = prefix.length();
-				String version = name.substring(prefixLength, name.indexOf("-" + platform.getClassifier(), prefixLength));
+			int versionEnd = fileName.length() - suffix.length();
+			if (fileName.startsWith(prefix) && versionEnd > prefix.length()) {
+				String version = fileName.substring(prefix.length(), versionEnd);
+				if (!Character.isDigit(version.charAt(0)))
+					return null;
 				return new JavaFxVersion(version);
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Moves artifacts of the older layout, where all platforms shared the root of the dependencies directory,
+	 * into their {@link #getArtifactDirectory(JavaFxPlatform) platform directories}. This is only checked once per run.
+	 */
+	static void migrateLegacyLayout() {
+		if (layoutMigrated)
+			return;
+		Path dependenciesDir = CommonPaths.getDependenciesDir();
+		try {
+			if (!Files.isDirectory(dependenciesDir) || !hasLegacyArtifacts(dependenciesDir)) {
+				layoutMigrated = true;
+				return;
+			}
+			ProcessLock.run(DEPENDENCIES_LOCK, () -> migrateLegacyLayoutLocked(dependenciesDir));
+			layoutMigrated = true;
+		} catch (IOException ex) {
+			logger.error("Failed moving JavaFX artifacts into platform directories", ex);
+		}
+	}
+
+	private static void migrateLegacyLayoutLocked(@Nonnull Path dependenciesDir) throws IOException {
+		// Another launcher may have migrated while we waited for the lock
+		List<Path> legacyFiles;
+		try (Stream<Path> pathStream = Files.list(dependenciesDir)) {
+			legacyFiles = pathStream.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+		for (Path file : legacyFiles) {
+			JavaFxPlatform platform = findArtifactPlatform(file.getFileName().toString());
+			if (platform == null)
+				continue;
+			Path artifactDir = getArtifactDirectory(platform);
+			if (!Files.isDirectory(artifactDir))
+				Files.createDirectories(artifactDir);
+			Path target = artifactDir.resolve(file.getFileName());
+			if (Files.exists(target)) {
+				Files.delete(file);
+				continue;
+			}
+			try {
+				Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+			} catch (Exception ignoredEx) {
+				Files.move(file, target);
+			}
+			logger.debug("Moved FX artifact '{}' to '{}'", file.getFileName(), artifactDir);
+		}
+	}
+
+	private static boolean hasLegacyArtifacts(@Nonnull Path dependenciesDir) throws IOException {
+		try (Stream<Path> pathStream = Files.list(dependenciesDir)) {
+			return pathStream.anyMatch(path -> Files.isRegularFile(path)
+					&& findArtifactPlatform(path.getFileName().toString()) != null);
+		}
+	}
+
+	/**
+	 * @param fileName
+	 * 		Local file name.
+	 *
+	 * @return Platform the file is an artifact of, or {@code null} if it is not a JavaFX artifact.
+	 */
+	@Nullable
+	private static JavaFxPlatform findArtifactPlatform(@Nonnull String fileName) {
+		for (JavaFxPlatform platform : JavaFxPlatform.values())
+			if (platform != JavaFxPlatform.UNSUPPORTED && mapToVersion(fileName, platform) != null)
+				return platform;
+		return null;
+	}
+
 	/**
 	 * @param clear
 	 * 		Clear the dependency cache
@@ -254,21 +382,30 @@ public static void checkClearCache(boolean clear, boolean keepLatest, int maxCac
 	 * @return Number of bytes in the dependency cache.
 	 */
 	public static long getCachedFileSize() {
-		File dir = CommonPaths.getDependenciesDir().toFile();
-		if (!dir.exists()) return 0;
-		long size = 0;
-		for (File file : Objects.requireNonNull(dir.listFiles()))
-			size += file.length();
-		return size;
+		Path dir = CommonPaths.getDependenciesDir();
+		if (!Files.isDirectory(dir)) return 0;
+		try (Stream<Path> pathStream = Files.walk(dir)) {
+			return pathStream.filter(Files::isRegularFile)
+					.mapToLong(path -> path.toFile().length())
+					.sum();
+		} catch (IOException ex) {
+			logger.error("Failed measuring dependency cache", ex);
+			return 0;
+		}
 	}
 
 	/**
 	 * @return Number of files in the dependency cache.
 	 */
 	public static int getCachedFileCount() {
-		File dir = CommonPaths.getDependenciesDir().toFile();
-		if (!dir.exists()) return 0;
-		return Objects.requireNonNull(dir.list()).length;
+		Path dir = CommonPaths.getDependenciesDir();
+		if (!Files.isDirectory(dir)) return 0;
+		try (Stream<Path> pathStream = Files.walk(dir)) {
+			return (int) pathStream.filter(Files::isRegularFile).count();
+		} catch (IOException ex) {
+			logger.error("Failed counting dependency cache", ex);
+			return 0;
+		}
 	}
 
 	/**
@@ -279,35 +416,74 @@ public static int getCachedFileCount() {
 	 */
 	public static void clearCache(boolean keepLatest) {
 		logger.debug("Clearing dependency cache" + (keepLatest ? ", keeping latest entries" : ""));
-		JavaFxVersion latestLocalVersion = detectCachedVersion();
 		Path dependenciesDir = CommonPaths.getDependenciesDir();
+
+		// The latest version of each platform, as they may be in use by other systems sharing the directory
+		Map<JavaFxPlatform, JavaFxVersion> latestLocalVersions = new EnumMap<>(JavaFxPlatform.class);
+		Set<String> latestNativesDirs = new HashSet<>();
+		for (JavaFxPlatform platform : JavaFxPlatform.values()) {
+			JavaFxVersion latestLocalVersion = platform == JavaFxPlatform.UNSUPPORTED ? null : detectCachedVersion(platform);
+			if (latestLocalVersion != null) {
+				latestLocalVersions.put(platform, latestLocalVersion);
+				latestNativesDirs.add(getNativesDirectory(latestLocalVersion, platform).getFileName().toString());
+			}
+		}
+		List<String> removedRefs = new ArrayList<>();
 		try {
-			if (!Files.isDirectory(dependenciesDir)) return;
-			Files.walkFileTree(dependenciesDir, new SimpleFileVisitor<Path>() {
-				@Override
-				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-					if (keepLatest) {
-						// Only delete if it's an old version
-						JavaFxVersion versionOfFile = mapToVersion(file);
-						if (versionOfFile == null || versionOfFile.isOlder(latestLocalVersion)) {
+			ProcessLock.run(DEPENDENCIES_LOCK, () -> {
+				if (!Files.isDirectory(dependenciesDir)) return;
+				Path nativesDir = CommonPaths.getNativesDir();
+				Files.walkFileTree(dependenciesDir, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+						// Keep natives extracted from the latest version
+						if (keepLatest && nativesDir.equals(dir.getParent())
+								&& latestNativesDirs.contains(dir.getFileName().toString()))
+							return FileVisitResult.SKIP_SUBTREE;
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+						if (keepLatest) {
+							// Only delete if it's an old version
+							JavaFxPlatform platform = JavaFxPlatform.fromClassifier(file.getParent().getFileName().toString());
+							JavaFxVersion versionOfFile = platform == null ? null : mapToVersion(file.getFileName().toString(), platform);
+							if (versionOfFile == null || versionOfFile.isOlder(latestLocalVersions.get(platform))) {
+								logger.debug("Deleting dependency {}", file.getFileName());
+								Files.delete(file);
+								removedRefs.add("javafx/" + file.getFileName());
+							}
+						} else {
 							logger.debug("Deleting dependency {}", file.getFileName());
 							Files.delete(file);
+							removedRefs.add("javafx/" + file.getFileName());
 						}
-					} else {
-						logger.debug("Deleting dependency {}", file.getFileName());
-						Files.delete(file);
+						return FileVisitResult.CONTINUE;
 					}
-					return FileVisitResult.CONTINUE;
-				}
 
-				@Override
-				public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-					return FileVisitResult.CONTINUE;
-				}
+					@Override
+					public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+						// Remove directories of natives that have been emptied
+						if (dir.startsWith(nativesDir) && !dir.equals(nativesDir))
+							try (Stream<Path> children = Files.list(dir)) {
+								if (!children.findAny().isPresent())
+									Files.delete(dir);
+							}
+						return FileVisitResult.CONTINUE;
+					}
+				});
 			});
 		} catch (IOException ex) {
 			logger.error("Failed clearing dependency cache", ex);
 		}
+
+		if (!removedRefs.isEmpty())
+			InstallEvents.publish(InstallEvent.removed(InstallEvent.Component.JAVAFX, null));
+
+		// Drop the deleted artifacts from the store, unless something else still refers to them
+		ArtifactStoreTasks.removeRefs(removedRefs);
+		ArtifactStoreTasks.prune();
 	}
 
 	/**
@@ -327,11 +503,24 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
 	@Nullable
 	public static JavaFxVersion update(int fxVersion, int javaVersion, boolean force) {
 		JavaFxVersion latest = fxVersion < 11 ? detectLatestRemoteVersion(javaVersion) : new JavaFxVersion(fxVersion);
-		JavaFxVersion local = detectCachedVersion();
 
 		// Can't do anything if we don't know what remote version there is.
 		if (latest == null)
-			return local;
+			return detectCachedVersion();
+
+		// The local version is checked while holding the lock, so if another launcher
+		// was updating the cache we see the result of its update.
+		try {
+			return ProcessLock.call(DEPENDENCIES_LOCK, () -> Optional.ofNullable(updateLocked(latest, force))).orElse(null);
+		} catch (IOException ex) {
+			logger.error("Failed locking the dependency cache to update JavaFX", ex);
+			return detectCachedVersion();
+		}
+	}
+
+	@Nullable
+	private static JavaFxVersion updateLocked(@Nonnull JavaFxVersion latest, boolean force) {
+		JavaFxVersion local = detectCachedVersion();
 
 		// If no local JFX version is found we must force the update process.
 		if (local == null)
@@ -367,63 +556,220 @@ public static void updateTo(@Nonnull JavaFxVersion version, boolean force) {
 			return;
 		}
 
+		updateTo(version, platform, force);
+	}
+
+	/**
+	 * Downloads and caches the requested version of JavaFX for the given platform.
+	 * Natives are only extracted when the platform is the {@link #detectSystemPlatform() current system's}.
+	 *
+	 * @param version
+	 * 		Version to update to.
+	 * @param platform
+	 * 		Platform of the artifacts to download.
+	 * @param force
+	 *        {@code true} to re-download the version even if a local one exists.
+	 */
+	public static void updateTo(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform, boolean force) {
+		// Only one launcher updates the cache at a time. Any others wait for it, then find the artifacts present.
+		try {
+			ProcessLock.run(DEPENDENCIES_LOCK, () -> {
+				downloadArtifacts(version, platform, force);
+
+				// Extract natives ahead of time so JavaFX does not need to when Recaf is launched.
+				if (platform == detectSystemPlatform())
+					extractNatives(version, platform);
+				if (version.equals(detectCachedVersion(platform))) {
+					// The plan refers to the previously newest version.
+					LaunchPlan.invalidate();
+					InstallEvents.publish(InstallEvent.installed(InstallEvent.Component.JAVAFX, version.getVersion()));
+				}
+			});
+		} catch (IOException ex) {
+			logger.error("Failed locking the dependency cache to update JavaFX", ex);
+		}
+	}
+
+	/**
+	 * @param version
+	 * 		Version to download.
+	 * @param platform
+	 * 		Platform of the artifacts to download.
+	 * @param force
+	 *        {@code true} to re-download the version even if a local one exists.
+	 */
+	private static void downloadArtifacts(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform, boolean force) {
 		// Need to download the artifacts with this pattern:
-		//  https://repo1.maven.org/maven2/org/openjfx/<ARTIFACT>/<VERSION>/
+		//  <MAVEN-CENTRAL>/org/openjfx/<ARTIFACT>/<VERSION>/
 		//   <ARTIFACT>-<VERSION>-<CLASSIFIER>.jar
 		String versionName = version.getVersion();
 		String classifier = platform.getClassifier();
 		for (String artifact : ARTIFACT_NAMES) {
 			String artifactFormat = "%s-%s-%s.jar";
-			String artifactUrlFormat = "https://repo1.maven.org/maven2/org/openjfx/%s/%s/" + artifactFormat;
+			String artifactPathFormat = "/org/openjfx/%s/%s/" + artifactFormat;
 			String localArtifact = String.format(artifactFormat, artifact, versionName, classifier);
-			String artifactUrl = String.format(artifactUrlFormat, artifact, versionName, artifact, versionName, classifier);
-			String artifactUrlSha1 = artifactUrl + ".sha1";
-			Path dependenciesDir = CommonPaths.getDependenciesDir();
+			String artifactPath = String.format(artifactPathFormat, artifact, versionName, artifact, versionName, classifier);
+			String artifactPathSha1 = artifactPath + ".sha1";
+			Path dependenciesDir = getArtifactDirectory(platform);
 			Path localPath = dependenciesDir.resolve(localArtifact);
 			Path localTmpPath = dependenciesDir.resolve(localArtifact + ".tmp");
+			String refName = "javafx/" + localArtifact;
 			boolean localPathExists = Files.exists(localPath);
+			if (!force && !localPathExists) {
+				// Link the artifact from the store if it has been downloaded before
+				String storedSha1 = ArtifactStoreTasks.getRef(refName);
+				if (storedSha1 != null && ArtifactStoreTasks.contains(storedSha1)) {
+					try {
+						ArtifactStoreTasks.link(storedSha1, localPath);
+						continue;
+					} catch (IOException ex) {
+						logger.warn("Failed linking FX artifact '{}' from the store", artifact, ex);
+					}
+				}
+			}
 			if (force || !localPathExists) {
 				try {
-					String expectedSha1 = Web.getText(artifactUrlSha1).trim();
+					String expectedSha1 = Web.getText(Endpoints.Source.MAVEN_CENTRAL, artifactPathSha1).trim();
 					String actualSha1;
 					if (localPathExists) {
-						// Skip if the local file hash exactly matches the expected hash reported by maven central
-						actualSha1 = Hashing.sha1(Files.newInputStream(localPath));
-						if (actualSha1.equals(expectedSha1))
+						// Skip if the local file is already linked to the expected content in the store
+						if (ArtifactStoreTasks.isLinked(localPath, expectedSha1))
 							continue;
+
+						// Otherwise add the local file to the store if its hash exactly matches the expected
+						// hash reported by maven central
+						try (InputStream in = Files.newInputStream(localPath)) {
+							actualSha1 = Hashing.sha1(in);
+						}
+						if (actualSha1.equals(expectedSha1)) {
+							ArtifactStoreTasks.install(localPath, localPath, refName, expectedSha1);
+							continue;
+						}
+					}
+
+					// Link the artifact from the store if we already have the expected content
+					if (ArtifactStoreTasks.contains(expectedSha1)) {
+						ArtifactStoreTasks.link(expectedSha1, localPath);
+						ArtifactStoreTasks.setRef(refName, expectedSha1);
+						continue;
 					}
 
 					// Ensure parent directory exists before writing
 					if (!Files.isDirectory(dependenciesDir)) Files.createDirectories(dependenciesDir);
 
-					int tries = 5;
-					while (tries-- > 0) {
-						// Download the file to the local temporary path
-						if (downloadListener != null) downloadListener.init(artifactUrl);
-						byte[] download = Web.getBytes(artifactUrl, downloadListener);
-						Files.copy(new ByteArrayInputStream(download), localTmpPath, StandardCopyOption.REPLACE_EXISTING);
+					// Download the file to the local temporary path, and try again with backoff if its hash does not match.
+					// Failed requests are already retried by the download itself.
+					Retries.run(artifactPath, () -> {
+						TransferListener listener = InstallEvents.progressListener(InstallEvent.Component.JAVAFX, localArtifact, downloadListener);
+						listener.init(Endpoints.getMavenCentral() + artifactPath);
+						Web.download(Endpoints.Source.MAVEN_CENTRAL, artifactPath, localTmpPath, listener);
+						String downloadedSha1;
+						try (InputStream in = Files.newInputStream(localTmpPath)) {
+							downloadedSha1 = Hashing.sha1(in);
+						}
+						if (!downloadedSha1.equals(expectedSha1))
+							throw new RetryableException("Downloaded FX artifact '" + artifact + "' but the SHA1 hash did not match " +
+									"(expected=" + expectedSha1 + " vs local=" + downloadedSha1 + ")");
+						return downloadedSha1;
+					}, ex -> ex instanceof RetryableException);
+
+					// The hash matches, move it into the store and link it to the intended path location
+					InstallEvents.publish(InstallEvent.verified(InstallEvent.Component.JAVAFX, localArtifact));
+					ArtifactStoreTasks.install(localTmpPath, localPath, refName, expectedSha1);
+				} catch (IOException ex) {
+					logger.error("Failed downloading FX artifact: '{}'", artifactPath, ex);
+				}
+			}
+		}
+	}
 
-						// Validate the file hash matches, try again if it does not match
-						actualSha1 = Hashing.sha1(Files.newInputStream(localTmpPath));
-						if (actualSha1.equals(expectedSha1)) {
-							// The hash matches, move it to the intended path location
-							try {
-								Files.move(localTmpPath, localPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
-							} catch (Exception ignored) {
-								Files.move(localTmpPath, localPath, StandardCopyOption.REPLACE_EXISTING);
-							}
+	/**
+	 * @param version
+	 * 		Version of JavaFX.
+	 * @param platform
+	 * 		Platform of the JavaFX artifacts.
+	 *
+	 * @return Directory holding natives extracted from the given version's artifacts.
+	 */
+	@Nonnull
+	public static Path getNativesDirectory(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform) {
+		return CommonPaths.getNativesDir().resolve(version.getVersion() + "-" + platform.getClassifier());
+	}
 
-							// Break out of the while loop, move onto the next artifact
-							break;
-						} else {
-							logger.error("Downloaded FX artifact '{}' but the SHA1 hash did not match " +
-									"(expected={} vs local={}), retries remaining={}", artifact, tries, expectedSha1, actualSha1);
+	/**
+	 * Extracts the native libraries bundled in the cached artifacts of the given version into
+	 * {@link #getNativesDirectory(JavaFxVersion, JavaFxPlatform)}. Libraries that were already extracted are
+	 * only re-extracted if their contents no longer match the artifact.
+	 *
+	 * @param version
+	 * 		Version of JavaFX to extract natives of.
+	 * @param platform
+	 * 		Platform of the JavaFX artifacts.
+	 *
+	 * @return {@code true} when all natives were extracted and verified.
+	 */
+	public static boolean extractNatives(@Nonnull JavaFxVersion version, @Nonnull JavaFxPlatform platform) {
+		Path nativesDir = getNativesDirectory(version, platform);
+		try {
+			List<Path> artifacts = getCachedArtifacts(version, platform);
+			if (artifacts.isEmpty())
+				return false;
+			if (!Files.isDirectory(nativesDir))
+				Files.createDirectories(nativesDir);
+			int extracted = 0;
+			for (Path artifact : artifacts) {
+				try (ZipFile zip = new ZipFile(artifact.toFile())) {
+					Enumeration<? extends ZipEntry> entries = zip.entries();
+					while (entries.hasMoreElements()) {
+						ZipEntry entry = entries.nextElement();
+						String name = entry.getName();
+
+						// Natives are in the root of the artifacts
+						if (entry.isDirectory() || name.indexOf('/') >= 0 || !isNativeLibrary(name))
+							continue;
+						Path target = nativesDir.resolve(name);
+						if (Files.exists(target) && Files.size(target) == entry.getSize() && crc(target) == entry.getCrc())
+							continue;
+						Path targetTemp = nativesDir.resolve(name + ".tmp");
+						CRC32 crc = new CRC32();
+						try (InputStream in = new CheckedInputStream(zip.getInputStream(entry), crc)) {
+							Files.copy(in, targetTemp, StandardCopyOption.REPLACE_EXISTING);
 						}
+						if (crc.getValue() != entry.getCrc()) {
+							Files.deleteIfExists(targetTemp);
+							logger.error("Extracted FX native '{}' but its checksum did not match the artifact '{}'", name, artifact.getFileName());
+							return false;
+						}
+						try {
+							Files.move(targetTemp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+						} catch (Exception ignored) {
+							Files.move(targetTemp, target, StandardCopyOption.REPLACE_EXISTING);
+						}
+						extracted++;
 					}
-				} catch (IOException ex) {
-					logger.error("Failed downloading FX artifact: '{}'", artifactUrl, ex);
 				}
 			}
+			if (extracted > 0)
+				logger.info("Extracted {} JavaFX natives to '{}'", extracted, nativesDir);
+			return true;
+		} catch (IOException ex) {
+			logger.error("Failed extracting FX natives to '{}'", nativesDir, ex);
+			return false;
+		}
+	}
+
+	private static boolean isNativeLibrary(@Nonnull String name) {
+		return name.endsWith(".so") || name.endsWith(".dll") || name.endsWith(".dylib") || name.endsWith(".jnilib");
+	}
+
+	private static long crc(@Nonnull Path path) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[16384];
+		try (InputStream in = Files.newInputStream(path)) {
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				crc.update(buffer, 0, read);
 		}
+		return crc.getValue();
 	}
 }
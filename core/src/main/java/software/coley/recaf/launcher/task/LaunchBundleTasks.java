@@ -0,0 +1,243 @@
+package software.coley.recaf.launcher.task;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Loggers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tasks for creating a launch-optimized bundle of Recaf and its JavaFX dependencies.
+ * <br>
+ * The bundle merges the Recaf jar and JavaFX jars into a single archive of uncompressed entries, where entries
+ * are ordered by the order Recaf loads them at startup. This trades disk space for less work when loading classes
+ * and resources. The order is taken from {@link CommonPaths#getClassLoadOrderFile()} which can be recorded by
+ * running Recaf with the {@link software.coley.recaf.launcher.ApplicationLauncher#RECORD_LOAD_ORDER_PROPERTY}
+ * property.
+ */
+public class LaunchBundleTasks {
+	private static final Logger logger = Loggers.newLogger();
+	private static final String MANIFEST_NAME = "META-INF/MANIFEST.MF";
+	private static final int FORMAT = 1;
+
+	/**
+	 * @return Jars of the current Recaf installation to bundle, or {@code null} if Recaf or JavaFX is not installed.
+	 *
+	 * @throws IOException
+	 * 		When the dependencies directory could not be read.
+	 */
+	@Nullable
+	public static List<Path> getBundleSources() throws IOException {
+		Path recafJar = CommonPaths.getRecafJar();
+		JavaFxVersion javaFxVersion = JavaFxTasks.detectCachedVersion();
+		if (!Files.isRegularFile(recafJar) || javaFxVersion == null)
+			return null;
+		List<Path> sources = new ArrayList<>();
+		sources.add(recafJar);
+		sources.addAll(JavaFxTasks.getCachedArtifacts(javaFxVersion, JavaFxTasks.detectSystemPlatform()));
+		return sources;
+	}
+
+	/**
+	 * @param sources
+	 * 		Jars that would be bundled.
+	 *
+	 * @return {@code true} when the existing bundle was created from the given jars, and neither the bundle or
+	 * any of the jars have changed since.
+	 */
+	public static boolean isBundleCurrent(@Nonnull List<Path> sources) {
+		Path indexFile = CommonPaths.getLaunchBundleIndexFile();
+		if (!Files.exists(indexFile) || !Files.exists(CommonPaths.getLaunchBundleJar()))
+			return false;
+		try {
+			String content = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8);
+			JsonObject root = Json.parse(content).asObject();
+			if (root.getInt("format", -1) != FORMAT)
+				return false;
+			if (!LaunchPlan.FileStamp.fromJson(root.get("bundle").asObject()).isCurrent())
+				return false;
+			JsonArray sourceStamps = root.get("sources").asArray();
+			if (sourceStamps.size() != sources.size())
+				return false;
+			for (int i = 0; i < sources.size(); i++) {
+				LaunchPlan.FileStamp stamp = LaunchPlan.FileStamp.fromJson(sourceStamps.get(i).asObject());
+				if (!stamp.getPath().equals(sources.get(i).toAbsolutePath().toString()) || !stamp.isCurrent())
+					return false;
+			}
+			return true;
+		} catch (Throwable t) {
+			logger.debug("Failed to read launch bundle index", t);
+			return false;
+		}
+	}
+
+	/**
+	 * Creates the bundle from the given jars. When the same entry exists in multiple jars, the first jar's entry is used.
+	 *
+	 * @param sources
+	 * 		Jars to bundle.
+	 *
+	 * @throws IOException
+	 * 		When the jars could not be read, or the bundle could not be written.
+	 */
+	public static void createBundle(@Nonnull List<Path> sources) throws IOException {
+		Path bundle = CommonPaths.getLaunchBundleJar();
+		Path bundleTemp = bundle.resolveSibling(bundle.getFileName() + ".tmp");
+		List<String> loadOrder = readLoadOrder();
+		logger.info("Creating launch bundle from {} jars, with {} entries in recorded load order", sources.size(), loadOrder.size());
+
+		List<ZipFile> zips = new ArrayList<>();
+		try {
+			// Map each entry name to the first jar that contains it.
+			Map<String, ZipFile> owners = new LinkedHashMap<>();
+			for (Path source : sources) {
+				ZipFile zip = new ZipFile(source.toFile());
+				zips.add(zip);
+				Enumeration<? extends ZipEntry> entries = zip.entries();
+				while (entries.hasMoreElements()) {
+					String name = entries.nextElement().getName();
+					if (!isSignatureFile(name))
+						owners.putIfAbsent(name, zip);
+				}
+			}
+
+			// Order: manifest, then entries in the order they were loaded, then everything else.
+			Set<String> order = new LinkedHashSet<>();
+			if (owners.containsKey(MANIFEST_NAME))
+				order.add(MANIFEST_NAME);
+			for (String name : loadOrder)
+				if (owners.containsKey(name))
+					order.add(name);
+			order.addAll(owners.keySet());
+
+			try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(bundleTemp)))) {
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+				CRC32 crc = new CRC32();
+				for (String name : order) {
+					ZipFile zip = owners.get(name);
+					ZipEntry sourceEntry = zip.getEntry(name);
+					buffer.reset();
+					try (InputStream in = zip.getInputStream(sourceEntry)) {
+						copy(in, buffer);
+					}
+					byte[] data = buffer.toByteArray();
+					crc.reset();
+					crc.update(data, 0, data.length);
+
+					// Stored entries must declare their size and checksum up-front.
+					ZipEntry entry = new ZipEntry(name);
+					entry.setMethod(ZipEntry.STORED);
+					entry.setSize(data.length);
+					entry.setCompressedSize(data.length);
+					entry.setCrc(crc.getValue());
+					entry.setTime(sourceEntry.getTime());
+					out.putNextEntry(entry);
+					out.write(data);
+					out.closeEntry();
+				}
+			}
+		} catch (IOException ex) {
+			Files.deleteIfExists(bundleTemp);
+			throw ex;
+		} finally {
+			for (ZipFile zip : zips)
+				zip.close();
+		}
+
+		try {
+			Files.move(bundleTemp, bundle, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException ex) {
+			Files.move(bundleTemp, bundle, StandardCopyOption.REPLACE_EXISTING);
+		}
+		writeIndex(sources, bundle);
+
+		// The launch plan refers to the jars the bundle replaces, so it needs to be re-created.
+		LaunchPlan.invalidate();
+		logger.info("Created launch bundle: {} ({} bytes)", bundle, Files.size(bundle));
+	}
+
+	/**
+	 * Deletes the bundle and its index, so that Recaf is launched from its original jars.
+	 */
+	public static void removeBundle() {
+		try {
+			Files.deleteIfExists(CommonPaths.getLaunchBundleIndexFile());
+			Files.deleteIfExists(CommonPaths.getLaunchBundleJar());
+			LaunchPlan.invalidate();
+		} catch (IOException ex) {
+			logger.warn("Failed to delete launch bundle", ex);
+		}
+	}
+
+	/**
+	 * @return Recorded load order of entries, or an empty list if none has been recorded.
+	 */
+	@Nonnull
+	private static List<String> readLoadOrder() {
+		Path orderFile = CommonPaths.getClassLoadOrderFile();
+		if (!Files.exists(orderFile))
+			return Collections.emptyList();
+		try {
+			return Files.readAllLines(orderFile, StandardCharsets.UTF_8);
+		} catch (IOException ex) {
+			logger.warn("Failed to read recorded class load order", ex);
+			return Collections.emptyList();
+		}
+	}
+
+	private static void writeIndex(@Nonnull List<Path> sources, @Nonnull Path bundle) throws IOException {
+		JsonArray sourceStamps = Json.array();
+		for (Path source : sources)
+			sourceStamps.add(LaunchPlan.FileStamp.of(source).toJson());
+		JsonObject root = Json.object()
+				.add("format", FORMAT)
+				.add("bundle", LaunchPlan.FileStamp.of(bundle).toJson())
+				.add("sources", sourceStamps);
+		Path indexFile = CommonPaths.getLaunchBundleIndexFile();
+		Path parentDir = indexFile.getParent();
+		if (!Files.isDirectory(parentDir))
+			Files.createDirectories(parentDir);
+		Files.write(indexFile, root.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static boolean isSignatureFile(@Nonnull String name) {
+		// Signatures of the original jars do not apply to the bundle, and would fail verification.
+		if (!name.startsWith("META-INF/") || name.indexOf('/', 9) >= 0)
+			return false;
+		return name.endsWith(".SF") || name.endsWith(".RSA") || name.endsWith(".DSA") || name.endsWith(".EC");
+	}
+
+	private static void copy(@Nonnull InputStream in, @Nonnull OutputStream out) throws IOException {
+		byte[] buffer = new byte[16384];
+		int read;
+		while ((read = in.read(buffer)) != -1)
+			out.write(buffer, 0, read);
+	}
+}
@@ -0,0 +1,336 @@
+package software.coley.recaf.launcher.task;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.JavaFxPlatform;
+import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.info.JavaVersion;
+import software.coley.recaf.launcher.info.RecafVersion;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Loggers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pre-resolved inputs for launching Recaf.
+ * <br>
+ * Plans are persisted to {@link CommonPaths#getLaunchPlanFile()} so that later runs can skip re-deriving them.
+ * A persisted plan is only re-used while all of the files it was resolved from are unchanged, which is checked
+ * by comparing their size and modification time.
+ */
+public class LaunchPlan {
+	private static final Logger logger = Loggers.newLogger();
+	private static final int FORMAT = 3;
+	private final String javaExecutable;
+	private final int javaVersion;
+	private final String launchWrapper;
+	private final String mainClass;
+	private final RecafVersion recafVersion;
+	private final JavaFxVersion javaFxVersion;
+	private final JavaFxPlatform javaFxPlatform;
+	private final List<String> classpath;
+	private final List<String> jvmArgs;
+	private final List<FileStamp> stamps;
+
+	/**
+	 * @param javaExecutable
+	 * 		Path of the Java executable to run with.
+	 * @param javaVersion
+	 * 		Major version of the Java executable, or {@link JavaVersion#UNKNOWN_VERSION}.
+	 * @param launchWrapper
+	 * 		Classpath location of the {@link software.coley.recaf.launcher.ApplicationLauncher launch wrapper}.
+	 * @param mainClass
+	 * 		Main class of Recaf, or an empty string if it should be looked up by the launch wrapper.
+	 * @param recafVersion
+	 * 		Installed Recaf version.
+	 * @param javaFxVersion
+	 * 		Cached JavaFX version.
+	 * @param javaFxPlatform
+	 * 		Platform of the cached JavaFX artifacts.
+	 * @param classpath
+	 * 		Classpath entries to send to the launch wrapper.
+	 * @param jvmArgs
+	 * 		Arguments to pass to the JVM.
+	 * @param stamps
+	 * 		Stamps of files the plan was resolved from.
+	 */
+	public LaunchPlan(@Nonnull String javaExecutable, int javaVersion, @Nonnull String launchWrapper, @Nonnull String mainClass,
+	                  @Nonnull RecafVersion recafVersion, @Nonnull JavaFxVersion javaFxVersion,
+	                  @Nonnull JavaFxPlatform javaFxPlatform, @Nonnull List<String> classpath,
+	                  @Nonnull List<String> jvmArgs, @Nonnull List<FileStamp> stamps) {
+		this.javaExecutable = javaExecutable;
+		this.javaVersion = javaVersion;
+		this.launchWrapper = launchWrapper;
+		this.mainClass = mainClass;
+		this.recafVersion = recafVersion;
+		this.javaFxVersion = javaFxVersion;
+		this.javaFxPlatform = javaFxPlatform;
+		this.classpath = Collections.unmodifiableList(classpath);
+		this.jvmArgs = Collections.unmodifiableList(jvmArgs);
+		this.stamps = Collections.unmodifiableList(stamps);
+	}
+
+	/**
+	 * @return Plan read from {@link CommonPaths#getLaunchPlanFile()}, or {@code null} if no plan could be read.
+	 */
+	@Nullable
+	public static LaunchPlan read() {
+		Path planFile = CommonPaths.getLaunchPlanFile();
+		if (!Files.exists(planFile))
+			return null;
+		try {
+			String content = new String(Files.readAllBytes(planFile), StandardCharsets.UTF_8);
+			JsonObject root = Json.parse(content).asObject();
+			if (root.getInt("format", -1) != FORMAT)
+				return null;
+			JavaFxPlatform platform = JavaFxPlatform.valueOf(root.getString("javafx-platform", JavaFxPlatform.UNSUPPORTED.name()));
+			List<FileStamp> stamps = new ArrayList<>();
+			for (JsonValue value : root.get("stamps").asArray())
+				stamps.add(FileStamp.fromJson(value.asObject()));
+			return new LaunchPlan(root.getString("java", ""),
+					root.getInt("java-version", JavaVersion.UNKNOWN_VERSION),
+					root.getString("wrapper", ""),
+					root.getString("main-class", ""),
+					new RecafVersion(root.getString("recaf-version", "?"), root.getInt("recaf-revision", -1)),
+					new JavaFxVersion(root.getString("javafx-version", "?")),
+					platform,
+					toStringList(root.get("classpath").asArray()),
+					toStringList(root.get("jvm-args").asArray()),
+					stamps);
+		} catch (Throwable t) {
+			// Malformed plans are not a problem, we will just make a new one.
+			logger.debug("Failed to read launch plan, it will be re-created", t);
+			return null;
+		}
+	}
+
+	/**
+	 * Persist the plan to {@link CommonPaths#getLaunchPlanFile()}.
+	 */
+	public void write() {
+		JsonArray stampsArray = Json.array();
+		for (FileStamp stamp : stamps)
+			stampsArray.add(stamp.toJson());
+		JsonObject root = Json.object()
+				.add("format", FORMAT)
+				.add("java", javaExecutable)
+				.add("java-version", javaVersion)
+				.add("wrapper", launchWrapper)
+				.add("main-class", mainClass)
+				.add("recaf-version", recafVersion.getVersion())
+				.add("recaf-revision", recafVersion.getRevision())
+				.add("javafx-version", javaFxVersion.getVersion())
+				.add("javafx-platform", javaFxPlatform.name())
+				.add("classpath", toJsonArray(classpath))
+				.add("jvm-args", toJsonArray(jvmArgs))
+				.add("stamps", stampsArray);
+		try {
+			Path planFile = CommonPaths.getLaunchPlanFile();
+			Path parentDir = planFile.getParent();
+			if (!Files.isDirectory(parentDir))
+				Files.createDirectories(parentDir);
+			Files.write(planFile, root.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException ex) {
+			logger.warn("Failed to persist launch plan", ex);
+		}
+	}
+
+	/**
+	 * Deletes the persisted plan, forcing the next launch to resolve a new one.
+	 */
+	public static void invalidate() {
+		try {
+			Files.deleteIfExists(CommonPaths.getLaunchPlanFile());
+		} catch (IOException ex) {
+			logger.warn("Failed to delete launch plan", ex);
+		}
+	}
+
+	/**
+	 * @param javaExecutable
+	 * 		Path of the Java executable that is going to be used.
+	 *
+	 * @return {@code true} when this plan was made for the given executable, and none of the files it was
+	 * resolved from have changed since.
+	 */
+	public boolean isApplicable(@Nonnull String javaExecutable) {
+		if (!this.javaExecutable.equals(javaExecutable))
+			return false;
+		for (FileStamp stamp : stamps)
+			if (!stamp.isCurrent())
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return Path of the Java executable to run with.
+	 */
+	@Nonnull
+	public String getJavaExecutable() {
+		return javaExecutable;
+	}
+
+	/**
+	 * @return Major version of the Java executable, or {@link JavaVersion#UNKNOWN_VERSION} if it is not known.
+	 */
+	public int getJavaVersion() {
+		return javaVersion;
+	}
+
+	/**
+	 * @return Classpath location of the {@link software.coley.recaf.launcher.ApplicationLauncher launch wrapper}.
+	 */
+	@Nonnull
+	public String getLaunchWrapper() {
+		return launchWrapper;
+	}
+
+	/**
+	 * @return Main class of Recaf, or an empty string if it should be looked up by the launch wrapper.
+	 */
+	@Nonnull
+	public String getMainClass() {
+		return mainClass;
+	}
+
+	/**
+	 * @return Installed Recaf version.
+	 */
+	@Nonnull
+	public RecafVersion getRecafVersion() {
+		return recafVersion;
+	}
+
+	/**
+	 * @return Cached JavaFX version.
+	 */
+	@Nonnull
+	public JavaFxVersion getJavaFxVersion() {
+		return javaFxVersion;
+	}
+
+	/**
+	 * @return Platform of the cached JavaFX artifacts.
+	 */
+	@Nonnull
+	public JavaFxPlatform getJavaFxPlatform() {
+		return javaFxPlatform;
+	}
+
+	/**
+	 * @return Classpath entries to send to the launch wrapper.
+	 */
+	@Nonnull
+	public List<String> getClasspath() {
+		return classpath;
+	}
+
+	/**
+	 * @return Arguments to pass to the JVM.
+	 */
+	@Nonnull
+	public List<String> getJvmArgs() {
+		return jvmArgs;
+	}
+
+	@Nonnull
+	private static List<String> toStringList(@Nonnull JsonArray array) {
+		List<String> list = new ArrayList<>(array.size());
+		for (JsonValue value : array)
+			list.add(value.asString());
+		return list;
+	}
+
+	@Nonnull
+	private static JsonArray toJsonArray(@Nonnull List<String> list) {
+		JsonArray array = Json.array();
+		for (String value : list)
+			array.add(value);
+		return array;
+	}
+
+	/**
+	 * Size and modification time of a file at the time a plan was resolved.
+	 */
+	public static class FileStamp {
+		private final String path;
+		private final long size;
+		private final long modified;
+
+		private FileStamp(@Nonnull String path, long size, long modified) {
+			this.path = path;
+			this.size = size;
+			this.modified = modified;
+		}
+
+		/**
+		 * @param path
+		 * 		Path to create a stamp of.
+		 *
+		 * @return Stamp of the file's current state.
+		 *
+		 * @throws IOException
+		 * 		When the file attributes cannot be read.
+		 */
+		@Nonnull
+		public static FileStamp of(@Nonnull Path path) throws IOException {
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			return new FileStamp(path.toAbsolutePath().toString(), attributes.size(), attributes.lastModifiedTime().toMillis());
+		}
+
+		/**
+		 * @param json
+		 * 		JSON model of a stamp, from {@link #toJson()}.
+		 *
+		 * @return Stamp from the JSON model.
+		 */
+		@Nonnull
+		public static FileStamp fromJson(@Nonnull JsonObject json) {
+			return new FileStamp(json.getString("path", ""), json.getLong("size", -1), json.getLong("modified", -1));
+		}
+
+		/**
+		 * @return JSON model of the stamp.
+		 */
+		@Nonnull
+		public JsonObject toJson() {
+			return Json.object()
+					.add("path", path)
+					.add("size", size)
+					.add("modified", modified);
+		}
+
+		/**
+		 * @return Absolute path of the stamped file.
+		 */
+		@Nonnull
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * @return {@code true} when the file still has the same size and modification time.
+		 */
+		public boolean isCurrent() {
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
+				return attributes.size() == size && attributes.lastModifiedTime().toMillis() == modified;
+			} catch (IOException ex) {
+				return false;
+			}
+		}
+	}
+}
@@ -0,0 +1,268 @@
+package software.coley.recaf.launcher.task;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.RecafBuild;
+import software.coley.recaf.launcher.task.event.InstallEvent;
+import software.coley.recaf.launcher.task.event.InstallEvents;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.ProcessLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tasks for keeping multiple Recaf builds side by side, and switching between them.
+ * <br>
+ * Each installed build is kept in the {@link ArtifactStoreTasks artifact store}, so switching builds only replaces
+ * {@link CommonPaths#getRecafJar()} with a link to a different stored jar. The most recently installed builds are
+ * retained, see {@link #setRetainedBuilds(int)}.
+ */
+public class RecafBuildTasks {
+	/**
+	 * Default number of builds to retain.
+	 */
+	public static final int DEFAULT_RETAINED_BUILDS = 3;
+	private static final Logger logger = Loggers.newLogger();
+	private static final String REF_PREFIX = "recaf/";
+	private static final int FORMAT = 1;
+	private static int retainedBuilds = DEFAULT_RETAINED_BUILDS;
+
+	/**
+	 * @param retainedBuilds
+	 * 		Number of the most recently installed builds to keep. The active build is always kept.
+	 */
+	public static void setRetainedBuilds(int retainedBuilds) {
+		RecafBuildTasks.retainedBuilds = Math.max(1, retainedBuilds);
+	}
+
+	/**
+	 * @param name
+	 * 		Name of a build.
+	 *
+	 * @return Name of the {@link ArtifactStoreTasks artifact store} reference to the build's jar.
+	 * Passing it when installing the jar keeps the jar from being pruned before the build is {@link #record recorded}.
+	 */
+	@Nonnull
+	static String getRefName(@Nonnull String name) {
+		return REF_PREFIX + name;
+	}
+
+	/**
+	 * @return Retained builds, most recently installed first.
+	 */
+	@Nonnull
+	public static List<RecafBuild> getBuilds() {
+		return Collections.unmodifiableList(readBuilds().builds);
+	}
+
+	/**
+	 * @return Build currently linked to {@link CommonPaths#getRecafJar()}, or {@code null} if the installed jar
+	 * was not installed as a retained build.
+	 */
+	@Nullable
+	public static RecafBuild getActiveBuild() {
+		BuildList list = readBuilds();
+		return list.find(list.active);
+	}
+
+	/**
+	 * @param name
+	 * 		Name of a build, or the workflow run id of a snapshot build.
+	 *
+	 * @return Retained build of the given name, or {@code null} if there is no such build.
+	 */
+	@Nullable
+	public static RecafBuild findBuild(@Nonnull String name) {
+		return readBuilds().find(name);
+	}
+
+	/**
+	 * Records the jar at {@link CommonPaths#getRecafJar()} as the active build.
+	 * Builds past the {@link #setRetainedBuilds(int) retained amount} are removed from the artifact store.
+	 *
+	 * @param name
+	 * 		Name of the build.
+	 * @param sha1
+	 * 		Hash of the build's jar in the artifact store.
+	 */
+	public static synchronized void record(@Nonnull String name, @Nonnull String sha1) {
+		try {
+			ProcessLock.run(RecafTasks.RECAF_LOCK, () -> recordLocked(name, sha1));
+		} catch (IOException ex) {
+			logger.error("Failed locking retained Recaf builds", ex);
+		}
+	}
+
+	private static void recordLocked(@Nonnull String name, @Nonnull String sha1) {
+		BuildList list = readBuilds();
+		list.builds.removeIf(build -> build.getName().equals(name));
+		list.builds.add(0, new RecafBuild(name, sha1, System.currentTimeMillis(), false));
+		list.active = name;
+		ArtifactStoreTasks.setRef(getRefName(name), sha1);
+
+		// Drop the oldest builds, never the active one.
+		List<String> removedRefs = new ArrayList<>();
+		while (list.builds.size() > retainedBuilds) {
+			RecafBuild removed = list.builds.remove(list.builds.size() - 1);
+			removedRefs.add(getRefName(removed.getName()));
+			logger.debug("No longer retaining Recaf build '{}'", removed.getName());
+		}
+		writeBuilds(list);
+		if (!removedRefs.isEmpty()) {
+			ArtifactStoreTasks.removeRefs(removedRefs);
+			ArtifactStoreTasks.prune();
+		}
+	}
+
+	/**
+	 * Switches the installed jar to a retained build. The installed jar is replaced in a single move,
+	 * so Recaf is never left without a jar.
+	 *
+	 * @param name
+	 * 		Name of a build, or the workflow run id of a snapshot build.
+	 *
+	 * @return The build now in use.
+	 *
+	 * @throws IOException
+	 * 		When there is no such build, or the installed jar cannot be replaced.
+	 */
+	@Nonnull
+	public static synchronized RecafBuild use(@Nonnull String name) throws IOException {
+		return ProcessLock.call(RecafTasks.RECAF_LOCK, () -> useLocked(name));
+	}
+
+	@Nonnull
+	private static RecafBuild useLocked(@Nonnull String name) throws IOException {
+		BuildList list = readBuilds();
+		RecafBuild build = list.find(name);
+		if (build == null)
+			throw new IOException("No retained Recaf build named '" + name + "'");
+		ArtifactStoreTasks.link(build.getSha1(), CommonPaths.getRecafJar());
+
+		// Explicitly picking a build clears a prior failure.
+		RecafBuild used = build.withFailed(false);
+		list.builds.set(list.builds.indexOf(build), used);
+		list.active = used.getName();
+		writeBuilds(list);
+
+		// The plan and bundle refer to the previous jar.
+		LaunchPlan.invalidate();
+		LaunchBundleTasks.removeBundle();
+		logger.info("Now using Recaf build '{}'", used.getName());
+		InstallEvents.publish(InstallEvent.installed(InstallEvent.Component.RECAF, used.getName()));
+		return used;
+	}
+
+	/**
+	 * Marks the active build as failed, and switches to the most recent build before it that has not failed.
+	 *
+	 * @return The build now in use, or {@code null} if there was no build to roll back to.
+	 */
+	@Nullable
+	public static synchronized RecafBuild rollback() {
+		try {
+			return ProcessLock.call(RecafTasks.RECAF_LOCK, () -> Optional.ofNullable(rollbackLocked())).orElse(null);
+		} catch (IOException ex) {
+			logger.error("Failed locking retained Recaf builds", ex);
+			return null;
+		}
+	}
+
+	@Nullable
+	private static RecafBuild rollbackLocked() {
+		BuildList list = readBuilds();
+		RecafBuild active = list.find(list.active);
+		if (active == null)
+			return null;
+		int activeIndex = list.builds.indexOf(active);
+		list.builds.set(activeIndex, active.withFailed(true));
+		writeBuilds(list);
+		for (int i = activeIndex + 1; i < list.builds.size(); i++) {
+			RecafBuild candidate = list.builds.get(i);
+			if (candidate.isFailed() || !ArtifactStoreTasks.contains(candidate.getSha1()))
+				continue;
+			try {
+				RecafBuild used = useLocked(candidate.getName());
+				logger.warn("Rolled back Recaf from build '{}' to '{}'", active.getName(), used.getName());
+				return used;
+			} catch (IOException ex) {
+				logger.warn("Failed rolling back to Recaf build '{}'", candidate.getName(), ex);
+			}
+		}
+		return null;
+	}
+
+	@Nonnull
+	private static BuildList readBuilds() {
+		BuildList list = new BuildList();
+		Path buildsFile = CommonPaths.getRecafBuildsFile();
+		if (!Files.exists(buildsFile))
+			return list;
+		try {
+			String content = new String(Files.readAllBytes(buildsFile), StandardCharsets.UTF_8);
+			JsonObject root = Json.parse(content).asObject();
+			if (root.getInt("format", -1) != FORMAT)
+				return list;
+			list.active = root.getString("active", null);
+			for (JsonValue build : root.get("builds").asArray())
+				list.builds.add(RecafBuild.fromJson(build.asObject()));
+		} catch (Throwable t) {
+			logger.warn("Failed to read retained Recaf builds", t);
+		}
+		return list;
+	}
+
+	private static void writeBuilds(@Nonnull BuildList list) {
+		JsonArray builds = Json.array();
+		for (RecafBuild build : list.builds)
+			builds.add(build.toJson());
+		JsonObject root = Json.object()
+				.add("format", FORMAT)
+				.add("builds", builds);
+		if (list.active != null)
+			root.add("active", list.active);
+		try {
+			Path buildsFile = CommonPaths.getRecafBuildsFile();
+			Path parentDir = buildsFile.getParent();
+			if (!Files.isDirectory(parentDir))
+				Files.createDirectories(parentDir);
+			Files.write(buildsFile, root.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException ex) {
+			logger.error("Failed to write retained Recaf builds", ex);
+		}
+	}
+
+	/**
+	 * Retained builds, and the name of the active one.
+	 */
+	private static class BuildList {
+		private final List<RecafBuild> builds = new ArrayList<>();
+		private String active;
+
+		@Nullable
+		private RecafBuild find(@Nullable String name) {
+			if (name == null)
+				return null;
+			for (RecafBuild build : builds)
+				if (build.getName().equals(name))
+					return build;
+			for (RecafBuild build : builds)
+				if (build.getName().endsWith(RecafTasks.SNAPSHOT_RUN_SEPARATOR + name))
+					return build;
+			return null;
+		}
+	}
+}
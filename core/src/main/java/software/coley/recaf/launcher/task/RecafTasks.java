@@ -8,16 +8,22 @@
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.Opcodes;
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.RecafBuild;
 import software.coley.recaf.launcher.info.RecafVersion;
 import software.coley.recaf.launcher.task.error.InvalidInstallationException;
+import software.coley.recaf.launcher.task.event.InstallEvent;
+import software.coley.recaf.launcher.task.event.InstallEvents;
 import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Endpoints;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.ProcessLock;
 import software.coley.recaf.launcher.util.Stream;
 import software.coley.recaf.launcher.util.TransferListener;
 import software.coley.recaf.launcher.util.Web;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,11 +42,20 @@
  * Tasks for Recaf versioning.
  */
 public class RecafTasks {
-	private static final String LATEST_RELEASE = "https://api.github.com/repos/Col-E/Recaf/releases/latest";
 	private static final int RECAF_REPO_ID = 98499283; // See: https://api.github.com/repos/Col-E/Recaf
 	private static final RecafVersion SNAPSHOT_VERSION = new RecafVersion("4.X.X-SNAPSHOT", 0);
 	public static final int FALLBACK_RECAF_SIZE_BYTES = 80_000_000; // Rough over-estimated size of recaf jar in bytes (80 MB)
+	/**
+	 * Separator between the version and workflow run id in the {@link RecafBuildTasks build names} of snapshots.
+	 */
+	public static final String SNAPSHOT_RUN_SEPARATOR = "@";
+	/**
+	 * Name of the {@link ProcessLock} held while modifying the installed Recaf jar.
+	 */
+	public static final String RECAF_LOCK = "recaf";
+	private static final Logger logger = Loggers.newLogger();
 	private static TransferListener downloadListener;
+	private static boolean deltaUpdates;
 
 	/**
 	 * @param downloadListener
@@ -50,6 +65,15 @@ public static void setDownloadListener(@Nullable TransferListener downloadListen
 		RecafTasks.downloadListener = downloadListener;
 	}
 
+	/**
+	 * @param deltaUpdates
+	 *        {@code true} to write updates by re-using the unchanged entries of the installed jar.
+	 * 		See {@link DeltaUpdateTasks} for more details.
+	 */
+	public static void setDeltaUpdates(boolean deltaUpdates) {
+		RecafTasks.deltaUpdates = deltaUpdates;
+	}
+
 	/**
 	 * Get the current installed version of Recaf.
 	 *
@@ -124,6 +148,16 @@ public FieldVisitor visitField(int access, String name, String descriptor, Strin
 	 */
 	@Nonnull
 	public static VersionUpdateResult updateFromStable() {
+		// Only one launcher updates Recaf at a time. Any others wait for it, then find Recaf up-to-date.
+		try {
+			return ProcessLock.call(RECAF_LOCK, () -> updateFromStableLocked());
+		} catch (IOException ex) {
+			return new VersionUpdateResult(null, null, VersionUpdateStatusType.FAILED_TO_WRITE).withError(ex);
+		}
+	}
+
+	@Nonnull
+	private static VersionUpdateResult updateFromStableLocked() {
 		RecafVersion installedVersion;
 		try {
 			installedVersion = getInstalledVersion();
@@ -135,7 +169,7 @@ public static VersionUpdateResult updateFromStable() {
 		// Get release JSON model from GitHub
 		JsonObject latestRelease;
 		try {
-			String latestReleaseJson = Web.getText(LATEST_RELEASE);
+			String latestReleaseJson = Web.getText(Endpoints.Source.GITHUB_API, "/repos/Col-E/Recaf/releases/latest");
 			latestRelease = Json.parse(latestReleaseJson).asObject();
 		} catch (IOException ex) {
 			return new VersionUpdateResult(installedVersion, null, VersionUpdateStatusType.FAILED_TO_FETCH)
@@ -149,6 +183,19 @@ public static VersionUpdateResult updateFromStable() {
 			return new VersionUpdateResult(installedVersion, latestVersion, VersionUpdateStatusType.UP_TO_DATE);
 		}
 
+		// Switch to the release if we have retained it, unless it was rolled back for failing to launch.
+		RecafBuild retainedBuild = RecafBuildTasks.findBuild(latestVersion.getVersion());
+		if (retainedBuild != null && ArtifactStoreTasks.contains(retainedBuild.getSha1())) {
+			if (retainedBuild.isFailed())
+				return new VersionUpdateResult(installedVersion, latestVersion, VersionUpdateStatusType.UP_TO_DATE);
+			try {
+				RecafBuildTasks.use(retainedBuild.getName());
+				return new VersionUpdateResult(installedVersion, latestVersion, VersionUpdateStatusType.UPDATE_TO_NEW);
+			} catch (IOException ex) {
+				logger.warn("Failed switching to retained build '{}', downloading it instead", retainedBuild.getName(), ex);
+			}
+		}
+
 		JsonArray assets = latestRelease.get("assets").asArray();
 		for (JsonValue assetValue : assets) {
 			JsonObject asset = assetValue.asObject();
@@ -156,17 +203,16 @@ public static VersionUpdateResult updateFromStable() {
 
 			// Get the first asset that indicates a fat-jar
 			if (name.endsWith("-all.jar") || name.endsWith("-jar-with-dependencies.jar")) {
-				Path recafJar = CommonPaths.getRecafJar();
-				Path recafJarTemp = CommonPaths.getRecafTempJar();
 				String downloadUrl = asset.getString("browser_download_url", null);
 				try {
-					if (downloadListener != null) downloadListener.init(downloadUrl);
-					byte[] download = Web.getBytes(downloadUrl, downloadListener);
-					Files.copy(new ByteArrayInputStream(download), recafJarTemp, StandardCopyOption.REPLACE_EXISTING);
+					TransferListener listener = InstallEvents.progressListener(InstallEvent.Component.RECAF, name, downloadListener);
+					listener.init(downloadUrl);
+					Path download = newDownloadFile();
 					try {
-						Files.move(recafJarTemp, recafJar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
-					} catch (Exception ignored) {
-						Files.move(recafJarTemp, recafJar, StandardCopyOption.REPLACE_EXISTING);
+						Web.download(downloadUrl, download, listener);
+						installJar(download, -1);
+					} finally {
+						Files.deleteIfExists(download);
 					}
 					return new VersionUpdateResult(installedVersion, latestVersion, VersionUpdateStatusType.UPDATE_TO_NEW);
 				} catch (IOException ex) {
@@ -203,6 +249,16 @@ public static VersionUpdateResult updateFromSnapshot(@Nullable String branch) {
 	 */
 	@Nonnull
 	public static VersionUpdateResult updateFromSnapshot(@Nullable Predicate<String> branchMatcher) {
+		// Only one launcher updates Recaf at a time. Any others wait for it, then find Recaf up-to-date.
+		try {
+			return ProcessLock.call(RECAF_LOCK, () -> updateFromSnapshotLocked(branchMatcher));
+		} catch (IOException ex) {
+			return new VersionUpdateResult(null, SNAPSHOT_VERSION, VersionUpdateStatusType.FAILED_TO_WRITE).withError(ex);
+		}
+	}
+
+	@Nonnull
+	private static VersionUpdateResult updateFromSnapshotLocked(@Nullable Predicate<String> branchMatcher) {
 		RecafVersion installedVersion;
 		try {
 			installedVersion = getInstalledVersion();
@@ -212,104 +268,173 @@ public static VersionUpdateResult updateFromSnapshot(@Nullable Predicate<String>
 		}
 
 		try {
-			// Get artifacts.
-			// They appear in sorted order by time.
-			String artifactsJson = Web.getText("https://api.github.com/repos/Col-E/Recaf/actions/artifacts");
-			JsonObject artifacts = Json.parse(artifactsJson).asObject();
-			JsonArray listing = artifacts.get("artifacts").asArray();
-			for (JsonValue artifactValue : listing) {
-				JsonObject artifact = artifactValue.asObject();
-
-				// Skip expired artifacts
-				boolean expired = artifact.getBoolean("expired", false);
-				if (expired)
-					continue;
-
-				// Skip non snapshot builds
-				String name = artifact.getString("name", "?");
-				if (!name.equals("snapshot-build"))
-					continue;
-
-				// Skip branches if predicate is given
-				JsonObject workflowRun = artifact.get("workflow_run").asObject();
-				if (branchMatcher == null)
-					continue;
-				String branch = workflowRun.getString("head_branch", "?");
-				if (!branchMatcher.test(branch))
-					continue;
-
-				// Skip if the repository isn't Col-E/Recaf
-				int repositoryId = workflowRun.getInt("repository_id", 0);
-				if (repositoryId != RECAF_REPO_ID)
-					continue;
-				int headRepositoryId = workflowRun.getInt("head_repository_id", -1);
-				if (headRepositoryId != RECAF_REPO_ID)
-					continue;
-
-				// Size sanity check
-				long size = artifact.getLong("size_in_bytes", -1);
-				if (size <= 0)
-					continue;
-
-				// You can't just use the 'archive_download_url' value because we don't have permissions without
-				// including an access token... which, I'm not going to do.
-				// You also cannot reconstruct the URL: https://github.com/Col-E/Recaf/suites/<check_suite_id>/artifacts/<artifact_id>
-				// as that is also locked behind requiring an account or access token.
-				long workflowRunId = workflowRun.getLong("id", -1);
-
-				// Compare to what we have locally installed. We can skip updating if the ids match.
-				Path snapshotWorkflowFile = CommonPaths.getSnapshotWorkflowFile();
-				if (Files.exists(snapshotWorkflowFile) && Files.exists(CommonPaths.getRecafJar())) {
-					try {
-						String existingWorkflowRunId = new String(Files.readAllBytes(snapshotWorkflowFile), StandardCharsets.UTF_8);
-						if (existingWorkflowRunId.endsWith(String.valueOf(workflowRunId))) {
-							return new VersionUpdateResult(installedVersion, installedVersion, VersionUpdateStatusType.UP_TO_DATE);
-						}
-					} catch (IOException ignored) {
-						// We handle checking if the file exists, so this should never occur.
-					}
+			// Find the newest snapshot build.
+			ActionsArtifactFeed.SnapshotArtifact artifact = ActionsArtifactFeed.findSnapshot(RECAF_REPO_ID, branchMatcher);
+			if (artifact == null)
+				return new VersionUpdateResult(installedVersion, SNAPSHOT_VERSION, VersionUpdateStatusType.FAILED_NO_CANDIDATES);
+
+			// You can't just use the 'archive_download_url' value because we don't have permissions without
+			// including an access token... which, I'm not going to do.
+			// You also cannot reconstruct the URL: https://github.com/Col-E/Recaf/suites/<check_suite_id>/artifacts/<artifact_id>
+			// as that is also locked behind requiring an account or access token.
+			long workflowRunId = artifact.getWorkflowRunId();
+
+			// Check if we have retained the build of this run. If it is not the one in use we can switch to it,
+			// unless it was rolled back for failing to launch.
+			RecafBuild retainedBuild = RecafBuildTasks.findBuild(String.valueOf(workflowRunId));
+			if (retainedBuild != null && ArtifactStoreTasks.contains(retainedBuild.getSha1())) {
+				RecafBuild activeBuild = RecafBuildTasks.getActiveBuild();
+				if (retainedBuild.isFailed() || (activeBuild != null && activeBuild.getName().equals(retainedBuild.getName()))) {
+					if (retainedBuild.isFailed())
+						logger.info("Latest snapshot '{}' previously failed to launch, keeping current build", retainedBuild.getName());
+					return new VersionUpdateResult(installedVersion, installedVersion, VersionUpdateStatusType.UP_TO_DATE);
+				}
+				try {
+					RecafBuildTasks.use(retainedBuild.getName());
+					return new VersionUpdateResult(installedVersion, getInstalledVersion(), VersionUpdateStatusType.UPDATE_TO_NEW);
+				} catch (IOException | InvalidInstallationException ex) {
+					logger.warn("Failed switching to retained build '{}', downloading it instead", retainedBuild.getName(), ex);
 				}
+			}
 
-				// Write the workflow id so that we can compare against it later.
+			// Compare to what we have locally installed. We can skip updating if the ids match.
+			Path snapshotWorkflowFile = CommonPaths.getSnapshotWorkflowFile();
+			if (Files.exists(snapshotWorkflowFile) && Files.exists(CommonPaths.getRecafJar())) {
 				try {
-					if (Files.isDirectory(snapshotWorkflowFile.getParent()))
-						Files.createDirectories(snapshotWorkflowFile.getParent());
-					Files.write(snapshotWorkflowFile, String.valueOf(workflowRunId).getBytes(StandardCharsets.UTF_8));
+					String existingWorkflowRunId = new String(Files.readAllBytes(snapshotWorkflowFile), StandardCharsets.UTF_8);
+					if (existingWorkflowRunId.endsWith(String.valueOf(workflowRunId))) {
+						return new VersionUpdateResult(installedVersion, installedVersion, VersionUpdateStatusType.UP_TO_DATE);
+					}
 				} catch (IOException ignored) {
-					// We handle checking if the file/parent-dirs exists, so this should never occur.
+					// We handle checking if the file exists, so this should never occur.
 				}
+			}
 
-				// Instead we use a graciously hosted public service that will generate a link for you.
-				// https://nightly.link/Col-E/Recaf/actions/runs/<run-id>/snapshot-build.zip
-				//  - Feeling generous? You can sponsor the nightly link mirror service: https://github.com/sponsors/oprypin
-				String downloadUrl = "https://nightly.link/Col-E/Recaf/actions/runs/" + workflowRunId + "/snapshot-build.zip";
-				if (downloadListener != null) downloadListener.init(downloadUrl);
-				byte[] download = Web.getBytes(downloadUrl, downloadListener);
-				try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(download))) {
+			// Instead we use a graciously hosted public service that will generate a link for you.
+			// https://nightly.link/Col-E/Recaf/actions/runs/<run-id>/snapshot-build.zip
+			//  - Feeling generous? You can sponsor the nightly link mirror service: https://github.com/sponsors/oprypin
+			String downloadPath = "/Col-E/Recaf/actions/runs/" + workflowRunId + "/snapshot-build.zip";
+			TransferListener listener = InstallEvents.progressListener(InstallEvent.Component.RECAF, "snapshot-build.zip", downloadListener);
+			listener.init(Endpoints.getNightlyLink() + downloadPath);
+			Path download = newDownloadFile();
+			try {
+				Web.download(Endpoints.Source.NIGHTLY_LINK, downloadPath, download, listener);
+				try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(download))) {
 					// Extract the jar from the zip
 					while (true) {
 						ZipEntry entry = zip.getNextEntry();
 						if (entry == null) break;
 						if (entry.getName().toLowerCase().contains(".jar")) {
-							Files.copy(zip, CommonPaths.getRecafTempJar(), StandardCopyOption.REPLACE_EXISTING);
+							// Extracted to a file first, as delta updates need random access to the new jar.
+							Path jar = newDownloadFile();
 							try {
-								Files.move(CommonPaths.getRecafTempJar(), CommonPaths.getRecafJar(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
-							} catch (Exception ignored) {
-								Files.move(CommonPaths.getRecafTempJar(), CommonPaths.getRecafJar(), StandardCopyOption.REPLACE_EXISTING);
+								Files.copy(zip, jar, StandardCopyOption.REPLACE_EXISTING);
+								installJar(jar, workflowRunId);
+							} finally {
+								Files.deleteIfExists(jar);
 							}
 						}
 					}
-				} catch (IOException ex) {
-					return new VersionUpdateResult(installedVersion, SNAPSHOT_VERSION, VersionUpdateStatusType.FAILED_TO_WRITE)
-							.withError(ex);
 				}
-				return new VersionUpdateResult(installedVersion, installedVersion, VersionUpdateStatusType.UPDATE_TO_NEW);
+			} catch (IOException ex) {
+				return new VersionUpdateResult(installedVersion, SNAPSHOT_VERSION, VersionUpdateStatusType.FAILED_TO_WRITE)
+						.withError(ex);
+			} finally {
+				Files.deleteIfExists(download);
 			}
 
-			return new VersionUpdateResult(installedVersion, SNAPSHOT_VERSION, VersionUpdateStatusType.FAILED_NO_CANDIDATES);
+			// Write the workflow id so that we can compare against it later.
+			// This is only done once the jar is installed, so an interrupted update is not considered up-to-date.
+			try {
+				if (!Files.isDirectory(snapshotWorkflowFile.getParent()))
+					Files.createDirectories(snapshotWorkflowFile.getParent());
+				Files.write(snapshotWorkflowFile, String.valueOf(workflowRunId).getBytes(StandardCharsets.UTF_8));
+			} catch (IOException ex) {
+				logger.warn("Failed to record installed snapshot workflow id", ex);
+			}
+			return new VersionUpdateResult(installedVersion, installedVersion, VersionUpdateStatusType.UPDATE_TO_NEW);
 		} catch (Throwable t) {
 			return new VersionUpdateResult(installedVersion, SNAPSHOT_VERSION, VersionUpdateStatusType.FAILED_TO_FETCH)
 					.withError(t);
 		}
 	}
+
+	/**
+	 * Replaces the installed Recaf jar. When {@link #setDeltaUpdates(boolean) delta updates} are enabled,
+	 * unchanged entries of the installed jar are re-used.
+	 *
+	 * @param jar
+	 * 		File of the new jar. It is moved into place unless the installed jar is delta updated from it.
+	 * @param workflowRunId
+	 * 		Id of the workflow run that built the jar, or {@code -1} for releases.
+	 *
+	 * @throws IOException
+	 * 		When the jar cannot be written.
+	 */
+	private static void installJar(@Nonnull Path jar, long workflowRunId) throws IOException {
+		Path recafJar = CommonPaths.getRecafJar();
+		Path recafJarTemp = CommonPaths.getRecafTempJar();
+		if (deltaUpdates) {
+			try {
+				if (DeltaUpdateTasks.update(recafJar, jar, recafJarTemp) != null) {
+					storeInstalledJar(workflowRunId);
+					return;
+				}
+			} catch (IOException ex) {
+				logger.warn("Delta update failed, replacing the whole jar instead", ex);
+			}
+		}
+
+		// Moved next to the installed jar first, so that it is replaced in a single move.
+		Files.move(jar, recafJarTemp, StandardCopyOption.REPLACE_EXISTING);
+		try {
+			Files.move(recafJarTemp, recafJar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (Exception ignored) {
+			Files.move(recafJarTemp, recafJar, StandardCopyOption.REPLACE_EXISTING);
+		}
+		storeInstalledJar(workflowRunId);
+	}
+
+	/**
+	 * @return New temporary file to download to. Downloads are written to files rather than held in memory,
+	 * as Recaf and its snapshot archives can be large.
+	 *
+	 * @throws IOException
+	 * 		When the file cannot be created.
+	 */
+	@Nonnull
+	private static Path newDownloadFile() throws IOException {
+		Path launcherDir = CommonPaths.getLauncherDir();
+		if (!Files.isDirectory(launcherDir))
+			Files.createDirectories(launcherDir);
+		return Files.createTempFile(launcherDir, "recaf-download", ".tmp");
+	}
+
+	/**
+	 * Adds the installed Recaf jar to the {@link ArtifactStoreTasks artifact store}, without removing it from its place,
+	 * and records it as the active {@link RecafBuildTasks retained build}.
+	 * <br>
+	 * Failing to store the jar does not affect the installation, so errors are only logged.
+	 *
+	 * @param workflowRunId
+	 * 		Id of the workflow run that built the jar, or {@code -1} for releases.
+	 */
+	private static void storeInstalledJar(long workflowRunId) {
+		Path recafJar = CommonPaths.getRecafJar();
+		String name;
+		try {
+			name = getInstalledVersion().getVersion();
+		} catch (InvalidInstallationException ex) {
+			name = "unknown";
+		}
+		if (workflowRunId >= 0)
+			name += SNAPSHOT_RUN_SEPARATOR + workflowRunId;
+		try {
+			String sha1 = ArtifactStoreTasks.install(recafJar, recafJar, RecafBuildTasks.getRefName(name), null);
+			RecafBuildTasks.record(name, sha1);
+		} catch (IOException ex) {
+			logger.warn("Failed to add installed Recaf jar to the artifact store", ex);
+		}
+		InstallEvents.publish(InstallEvent.installed(InstallEvent.Component.RECAF, name));
+	}
 }
@@ -0,0 +1,169 @@
+package software.coley.recaf.launcher.task;
+
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.util.Loggers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of pre-started {@link software.coley.recaf.launcher.ApplicationLauncher launch wrapper} processes.
+ * <br>
+ * Each pooled process has already started its JVM and is blocked waiting for its classpath on {@link System#in}.
+ * Handing out a warm process lets a launch skip the JVM startup cost. Pooled processes are discarded when the
+ * command they were started with no longer matches, when the Java executable changes on disk, and when the pool
+ * has not been used for longer than the configured idle timeout.
+ */
+public class WarmProcessPool {
+	private static final Logger logger = Loggers.newLogger();
+	private final Deque<WarmProcess> processes = new ArrayDeque<>();
+	private final ScheduledExecutorService reaper;
+	private final Thread shutdownHook = new Thread(this::clear, "Warm-Process-Pool-Shutdown");
+	private final int size;
+	private final long idleTimeoutMillis;
+	private long lastUsed = System.currentTimeMillis();
+
+	/**
+	 * @param size
+	 * 		Number of processes to keep warm.
+	 * @param idleTimeout
+	 * 		Time without use before warm processes are terminated.
+	 * @param unit
+	 * 		Time unit of the idle timeout.
+	 */
+	public WarmProcessPool(int size, long idleTimeout, @Nonnull TimeUnit unit) {
+		this.size = Math.max(1, size);
+		this.idleTimeoutMillis = unit.toMillis(idleTimeout);
+
+		reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r);
+			thread.setName("Warm-Process-Reaper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1000, idleTimeoutMillis / 2);
+		reaper.scheduleAtFixedRate(this::reapIfIdle, period, period, TimeUnit.MILLISECONDS);
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	/**
+	 * @param command
+	 * 		Command the process must have been started with.
+	 * @param directory
+	 * 		Working directory the process must have been started in.
+	 *
+	 * @return Warm process matching the given command, or {@code null} if none are available.
+	 */
+	@Nullable
+	public synchronized Process take(@Nonnull List<String> command, @Nonnull File directory) {
+		lastUsed = System.currentTimeMillis();
+		Iterator<WarmProcess> iterator = processes.iterator();
+		while (iterator.hasNext()) {
+			WarmProcess warm = iterator.next();
+			if (!warm.isUsable()) {
+				// Dead, or the Java installation it was started with has been changed.
+				iterator.remove();
+				warm.process.destroy();
+			} else if (warm.matches(command, directory)) {
+				iterator.remove();
+				logger.debug("Using warm launch process");
+				return warm.process;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Starts processes with the given command until the pool is full.
+	 * Existing processes that do not match the command are discarded.
+	 *
+	 * @param command
+	 * 		Command to start processes with.
+	 * @param directory
+	 * 		Working directory to start processes in.
+	 */
+	public synchronized void fill(@Nonnull List<String> command, @Nonnull File directory) {
+		lastUsed = System.currentTimeMillis();
+		processes.removeIf(warm -> {
+			if (warm.isUsable() && warm.matches(command, directory))
+				return false;
+			warm.process.destroy();
+			return true;
+		});
+		try {
+			LaunchPlan.FileStamp executableStamp = LaunchPlan.FileStamp.of(Paths.get(command.get(0)));
+			while (processes.size() < size) {
+				ProcessBuilder builder = new ProcessBuilder(command);
+				builder.directory(directory);
+				processes.add(new WarmProcess(builder.start(), command, directory, executableStamp));
+			}
+		} catch (IOException ex) {
+			logger.warn("Failed to pre-start launch process", ex);
+			return;
+		}
+		logger.debug("Warm launch processes ready: {}", processes.size());
+	}
+
+	/**
+	 * Terminates all warm processes.
+	 */
+	public synchronized void clear() {
+		for (WarmProcess warm : processes)
+			warm.process.destroy();
+		processes.clear();
+	}
+
+	/**
+	 * Terminates all warm processes and stops the pool from reaping idle processes.
+	 */
+	public void shutdown() {
+		reaper.shutdownNow();
+		clear();
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException ignored) {
+			// Already shutting down
+		}
+	}
+
+	private synchronized void reapIfIdle() {
+		if (!processes.isEmpty() && System.currentTimeMillis() - lastUsed > idleTimeoutMillis) {
+			logger.debug("Terminating idle warm launch processes");
+			clear();
+		}
+	}
+
+	private static class WarmProcess {
+		private final Process process;
+		private final List<String> command;
+		private final File directory;
+		private final LaunchPlan.FileStamp executableStamp;
+
+		private WarmProcess(@Nonnull Process process, @Nonnull List<String> command, @Nonnull File directory,
+		                    @Nonnull LaunchPlan.FileStamp executableStamp) {
+			this.process = process;
+			this.command = new ArrayList<>(command);
+			this.directory = directory;
+			this.executableStamp = executableStamp;
+		}
+
+		private boolean isUsable() {
+			return process.isAlive() && executableStamp.isCurrent();
+		}
+
+		private boolean matches(@Nonnull List<String> command, @Nonnull File directory) {
+			return this.command.equals(command) && this.directory.equals(directory);
+		}
+	}
+}
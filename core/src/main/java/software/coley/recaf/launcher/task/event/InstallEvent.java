@@ -0,0 +1,148 @@
+package software.coley.recaf.launcher.task.event;
+
+import software.coley.recaf.launcher.util.TransferEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Change to the installed state of Recaf or its dependencies.
+ *
+ * @see InstallEvents
+ */
+public class InstallEvent {
+	private final Component component;
+	private final Kind kind;
+	private final String name;
+	private final TransferEvent transfer;
+
+	private InstallEvent(@Nonnull Component component, @Nonnull Kind kind, @Nullable String name,
+	                     @Nullable TransferEvent transfer) {
+		this.component = component;
+		this.kind = kind;
+		this.name = name;
+		this.transfer = transfer;
+	}
+
+	/**
+	 * @param component
+	 * 		Installed component.
+	 * @param name
+	 * 		Version or build name now installed.
+	 *
+	 * @return Event of a new version of the component being installed and put in use.
+	 */
+	@Nonnull
+	public static InstallEvent installed(@Nonnull Component component, @Nonnull String name) {
+		return new InstallEvent(component, Kind.INSTALLED, name, null);
+	}
+
+	/**
+	 * @param component
+	 * 		Component with removed files.
+	 * @param name
+	 * 		Version or file name removed, or {@code null} when several were removed at once.
+	 *
+	 * @return Event of installed files of the component being removed.
+	 */
+	@Nonnull
+	public static InstallEvent removed(@Nonnull Component component, @Nullable String name) {
+		return new InstallEvent(component, Kind.REMOVED, name, null);
+	}
+
+	/**
+	 * @param component
+	 * 		Component with the verified file.
+	 * @param name
+	 * 		Name of the verified file.
+	 *
+	 * @return Event of a downloaded file of the component matching its expected hash.
+	 */
+	@Nonnull
+	public static InstallEvent verified(@Nonnull Component component, @Nonnull String name) {
+		return new InstallEvent(component, Kind.VERIFIED, name, null);
+	}
+
+	/**
+	 * @param component
+	 * 		Component being downloaded.
+	 * @param name
+	 * 		Name of the file being downloaded.
+	 * @param transfer
+	 * 		Progress of the download.
+	 *
+	 * @return Event of download progress of a file of the component.
+	 */
+	@Nonnull
+	public static InstallEvent progress(@Nonnull Component component, @Nonnull String name, @Nonnull TransferEvent transfer) {
+		return new InstallEvent(component, Kind.PROGRESS, name, transfer);
+	}
+
+	/**
+	 * @return Affected component.
+	 */
+	@Nonnull
+	public Component getComponent() {
+		return component;
+	}
+
+	/**
+	 * @return Kind of change.
+	 */
+	@Nonnull
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return Version, build or file name the event is about, or {@code null} if it is about several.
+	 */
+	@Nullable
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Download progress for {@link Kind#PROGRESS} events, otherwise {@code null}.
+	 */
+	@Nullable
+	public TransferEvent getTransfer() {
+		return transfer;
+	}
+
+	/**
+	 * @return {@code true} when the event changes what is installed, as opposed to reporting on work in progress.
+	 */
+	public boolean isStateChange() {
+		return kind == Kind.INSTALLED || kind == Kind.REMOVED;
+	}
+
+	@Override
+	public String toString() {
+		return kind + " " + component + (name == null ? "" : " '" + name + "'");
+	}
+
+	/**
+	 * Installable components.
+	 */
+	public enum Component {
+		/** The Recaf jar. */
+		RECAF,
+		/** JavaFX artifacts in the dependency cache. */
+		JAVAFX
+	}
+
+	/**
+	 * Kinds of install changes.
+	 */
+	public enum Kind {
+		/** A new version was installed and put in use. */
+		INSTALLED,
+		/** Installed files were removed. */
+		REMOVED,
+		/** A downloaded file matched its expected hash. */
+		VERIFIED,
+		/** A download made progress. */
+		PROGRESS
+	}
+}
@@ -0,0 +1,18 @@
+package software.coley.recaf.launcher.task.event;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Listener for {@link InstallEvent}s.
+ *
+ * @see InstallEvents#addListener(InstallEventListener)
+ */
+public interface InstallEventListener {
+	/**
+	 * Called on the thread that made the change, so implementations should return quickly.
+	 *
+	 * @param event
+	 * 		The change.
+	 */
+	void onEvent(@Nonnull InstallEvent event);
+}
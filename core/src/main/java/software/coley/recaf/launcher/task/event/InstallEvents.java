@@ -0,0 +1,98 @@
+package software.coley.recaf.launcher.task.event;
+
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.TransferEvent;
+import software.coley.recaf.launcher.util.TransferListener;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bus for {@link InstallEvent}s, published by the tasks that install, verify and remove Recaf and its dependencies.
+ * <br>
+ * This lets displays of the install state update when the state changes, rather than watching the file system.
+ * Changes made by other processes are not published.
+ */
+public class InstallEvents {
+	private static final Logger logger = Loggers.newLogger();
+	private static final List<InstallEventListener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * @param listener
+	 * 		Listener to add.
+	 */
+	public static void addListener(@Nonnull InstallEventListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener
+	 * 		Listener to remove.
+	 */
+	public static void removeListener(@Nonnull InstallEventListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @param event
+	 * 		Event to pass to all listeners, on the current thread.
+	 */
+	public static void publish(@Nonnull InstallEvent event) {
+		if (event.getKind() != InstallEvent.Kind.PROGRESS)
+			logger.debug("Install event: {}", event);
+		for (InstallEventListener listener : listeners) {
+			try {
+				listener.onEvent(event);
+			} catch (Throwable t) {
+				logger.error("Install event listener failed handling: {}", event, t);
+			}
+		}
+	}
+
+	/**
+	 * @param component
+	 * 		Component being downloaded.
+	 * @param name
+	 * 		Name of the file being downloaded.
+	 * @param delegate
+	 * 		Optional listener to also pass the transfer to.
+	 *
+	 * @return Transfer listener that publishes {@link InstallEvent.Kind#PROGRESS progress events} of the download.
+	 */
+	@Nonnull
+	public static TransferListener progressListener(@Nonnull InstallEvent.Component component, @Nonnull String name,
+	                                                @Nullable TransferListener delegate) {
+		return new TransferListener() {
+			@Override
+			public void init(@Nonnull String transferName) {
+				if (delegate != null) delegate.init(transferName);
+			}
+
+			@Override
+			public void start(@Nonnull TransferEvent event) {
+				if (delegate != null) delegate.start(event);
+				publishProgress(event);
+			}
+
+			@Override
+			public void progress(@Nonnull TransferEvent event) {
+				if (delegate != null) delegate.progress(event);
+				publishProgress(event);
+			}
+
+			@Override
+			public void end(@Nonnull TransferEvent event) {
+				if (delegate != null) delegate.end(event);
+				publishProgress(event);
+			}
+
+			private void publishProgress(@Nonnull TransferEvent event) {
+				if (!listeners.isEmpty())
+					publish(InstallEvent.progress(component, name, event));
+			}
+		};
+	}
+}
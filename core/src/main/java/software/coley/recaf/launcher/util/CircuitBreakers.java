@@ -0,0 +1,150 @@
+package software.coley.recaf.launcher.util;
+
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host circuit breakers for web requests.
+ * <br>
+ * After {@link #FAILURE_THRESHOLD} consecutive failures of a host, or when the host asks for requests to
+ * be held off, requests to it fail immediately with an {@link OpenException} instead of waiting on a host that is
+ * known to be down. Once the breaker has been open for a while, a single request is let through to check if the
+ * host has recovered. If it succeeds the breaker closes, otherwise it stays open for another period.
+ */
+public class CircuitBreakers {
+	/**
+	 * Number of consecutive failures of a host before requests to it are short-circuited.
+	 */
+	public static final int FAILURE_THRESHOLD = 5;
+	private static final long OPEN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	private static final Logger logger = Loggers.newLogger();
+	private static final Map<String, Circuit> CIRCUITS = new ConcurrentHashMap<>();
+
+	/**
+	 * @param url
+	 * 		URL about to be requested.
+	 *
+	 * @throws OpenException
+	 * 		When the host of the URL is short-circuited.
+	 */
+	static void check(@Nonnull URL url) throws OpenException {
+		Circuit circuit = getCircuit(url);
+		if (circuit != null)
+			circuit.check(url);
+	}
+
+	/**
+	 * @param url
+	 * 		URL whose host answered a request.
+	 */
+	static void success(@Nonnull URL url) {
+		Circuit circuit = getCircuit(url);
+		if (circuit != null)
+			circuit.success();
+	}
+
+	/**
+	 * @param url
+	 * 		URL whose host failed to answer a request.
+	 * @param error
+	 * 		The failure, or {@code null} if unknown.
+	 */
+	static void failure(@Nonnull URL url, @Nullable Throwable error) {
+		Circuit circuit = getCircuit(url);
+		if (circuit == null)
+			return;
+		long holdOffMillis = error instanceof HttpStatusException ? ((HttpStatusException) error).getRetryAfterMillis() : -1;
+		if (circuit.failure(holdOffMillis))
+			logger.warn("Requests to '{}' are paused after repeated failures: {}", url.getHost(),
+					error == null ? "unknown error" : error.toString());
+	}
+
+	/**
+	 * @param host
+	 * 		Host name.
+	 *
+	 * @return {@code true} when requests to the host are currently short-circuited.
+	 */
+	public static boolean isOpen(@Nonnull String host) {
+		Circuit circuit = CIRCUITS.get(host);
+		return circuit != null && circuit.isOpen();
+	}
+
+	/**
+	 * Closes all breakers, letting requests to all hosts through again.
+	 */
+	public static void reset() {
+		CIRCUITS.clear();
+	}
+
+	private static Circuit getCircuit(@Nonnull URL url) {
+		// Local files and other non-network content do not need breaking.
+		String host = url.getHost();
+		if (host == null || host.isEmpty())
+			return null;
+		return CIRCUITS.computeIfAbsent(host, h -> new Circuit());
+	}
+
+	/**
+	 * Breaker state of a single host.
+	 */
+	private static class Circuit {
+		private int consecutiveFailures;
+		private long openUntil;
+		private boolean trialInProgress;
+
+		private synchronized void check(@Nonnull URL url) throws OpenException {
+			long now = System.currentTimeMillis();
+			if (now < openUntil)
+				throw new OpenException(url, openUntil - now);
+
+			// The open period is over, let one request through to see if the host recovered.
+			if (consecutiveFailures >= FAILURE_THRESHOLD) {
+				if (trialInProgress)
+					throw new OpenException(url, 0);
+				trialInProgress = true;
+			}
+		}
+
+		private synchronized void success() {
+			consecutiveFailures = 0;
+			openUntil = 0;
+			trialInProgress = false;
+		}
+
+		private synchronized boolean failure(long holdOffMillis) {
+			boolean wasOpen = consecutiveFailures >= FAILURE_THRESHOLD;
+			consecutiveFailures++;
+			trialInProgress = false;
+			long now = System.currentTimeMillis();
+			if (holdOffMillis > 0)
+				openUntil = Math.max(openUntil, now + holdOffMillis);
+			if (consecutiveFailures >= FAILURE_THRESHOLD)
+				openUntil = Math.max(openUntil, now + OPEN_MILLIS);
+			return !wasOpen && consecutiveFailures >= FAILURE_THRESHOLD;
+		}
+
+		private synchronized boolean isOpen() {
+			return System.currentTimeMillis() < openUntil;
+		}
+	}
+
+	/**
+	 * Exception for a request that was not made, because its host is short-circuited.
+	 */
+	public static class OpenException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		private OpenException(@Nonnull URL url, long remainingMillis) {
+			super("Requests to '" + url.getHost() + "' are paused after failing or being rate limited" +
+					(remainingMillis > 0 ? ", retry in " + StringUtil.humanReadableDuration(remainingMillis) : ""));
+		}
+	}
+}
@@ -16,8 +16,10 @@ public class CommonPaths {
 	 */
 	@Nonnull
 	public static Path getRecafDirectory() {
-		// Try environment variable first.
-		String recafDir = System.getenv("RECAF");
+		// Try system property first, then the environment variable.
+		String recafDir = System.getProperty("recaf.dir");
+		if (recafDir == null)
+			recafDir = System.getenv("RECAF");
 		if (recafDir != null) {
 			return Paths.get(recafDir);
 		}
@@ -37,6 +39,30 @@ public static Path getDependenciesDir() {
 		return getRecafDirectory().resolve("dependencies");
 	}
 
+	/**
+	 * @return Path to the directory of native libraries extracted from Recaf's dependencies.
+	 */
+	@Nonnull
+	public static Path getNativesDir() {
+		return getDependenciesDir().resolve("natives");
+	}
+
+	/**
+	 * @return Path to file containing when each cached set of JavaFX artifacts was last used.
+	 */
+	@Nonnull
+	public static Path getDependencyUsageFile() {
+		return getLauncherDir().resolve("dependency-usage.json");
+	}
+
+	/**
+	 * @return Path to the content-addressable store of downloaded artifacts.
+	 */
+	@Nonnull
+	public static Path getArtifactStoreDir() {
+		return getRecafDirectory().resolve("store");
+	}
+
 	/**
 	 * @return Path to the Recaf launcher's directory for additional resource/config storage.
 	 */
@@ -45,6 +71,14 @@ public static Path getLauncherDir() {
 		return getRecafDirectory().resolve("launcher");
 	}
 
+	/**
+	 * @return Path to the directory of lock files, used to coordinate concurrently running launchers.
+	 */
+	@Nonnull
+	public static Path getLocksDir() {
+		return getLauncherDir().resolve("locks");
+	}
+
 	/**
 	 * @return Path to Recaf jar.
 	 */
@@ -85,6 +119,57 @@ public static Path getSnapshotWorkflowFile() {
 		return getLauncherDir().resolve("installed-workflow-id.txt");
 	}
 
+	/**
+	 * @return Path to file containing the retained Recaf builds.
+	 */
+	@Nonnull
+	public static Path getRecafBuildsFile() {
+		return getLauncherDir().resolve("recaf-builds.json");
+	}
+
+	/**
+	 * @return Path to file containing the last resolved launch plan.
+	 */
+	@Nonnull
+	public static Path getLaunchPlanFile() {
+		return getLauncherDir().resolve("launch-plan.json");
+	}
+
+	/**
+	 * @return Path to the launch-optimized bundle of Recaf and its dependencies.
+	 */
+	@Nonnull
+	public static Path getLaunchBundleJar() {
+		return getRecafDirectory().resolve("recaf-bundle.jar");
+	}
+
+	/**
+	 * @return Path to file describing what the launch bundle was created from.
+	 */
+	@Nonnull
+	public static Path getLaunchBundleIndexFile() {
+		return getLauncherDir().resolve("launch-bundle.json");
+	}
+
+	/**
+	 * @return Path to file containing the recorded class load order of Recaf's startup.
+	 */
+	@Nonnull
+	public static Path getClassLoadOrderFile() {
+		return getLauncherDir().resolve("class-load-order.txt");
+	}
+
+	/**
+	 * @param javaVersion
+	 * 		Major version of Java the archive is used with.
+	 *
+	 * @return Path to the archive of classes loaded by Recaf, for class data sharing.
+	 */
+	@Nonnull
+	public static Path getSharedArchiveFile(int javaVersion) {
+		return getLauncherDir().resolve("cds").resolve("recaf-java" + javaVersion + ".jsa");
+	}
+
 	/**
 	 * @return Root config directory for the current OS.
 	 */
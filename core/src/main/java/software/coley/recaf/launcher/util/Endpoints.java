@@ -0,0 +1,165 @@
+package software.coley.recaf.launcher.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base URLs of the remote services used to update Recaf and its dependencies.
+ * <br>
+ * Each service can have an ordered list of mirrors, such as an internal repository manager or a local {@code file://}
+ * copy. They can be set with a comma separated system property, which takes priority, or with
+ * {@link #setMirrors(Source, List)}. Requests are made through {@link Mirrors}, which fails over between them.
+ */
+public class Endpoints {
+	/**
+	 * System property to override the base URL of Maven Central.
+	 */
+	public static final String MAVEN_CENTRAL_PROPERTY = "recaf.launcher.mavenCentral";
+	/**
+	 * System property to override the base URL of the GitHub API.
+	 */
+	public static final String GITHUB_API_PROPERTY = "recaf.launcher.githubApi";
+	/**
+	 * System property to override the base URL of the nightly.link service.
+	 */
+	public static final String NIGHTLY_LINK_PROPERTY = "recaf.launcher.nightlyLink";
+	/**
+	 * System property to enable hedged requests, see {@link #setHedgedRequests(boolean)}.
+	 */
+	public static final String HEDGED_REQUESTS_PROPERTY = "recaf.launcher.hedgedRequests";
+	private static final String DEFAULT_MAVEN_CENTRAL = "https://repo1.maven.org/maven2";
+	private static final String DEFAULT_GITHUB_API = "https://api.github.com";
+	private static final String DEFAULT_NIGHTLY_LINK = "https://nightly.link";
+	private static final Map<Source, List<String>> configuredMirrors = new EnumMap<>(Source.class);
+	private static boolean hedgedRequests;
+
+	/**
+	 * @return Base URL of Maven Central, without a trailing slash.
+	 */
+	@Nonnull
+	public static String getMavenCentral() {
+		return getMirrors(Source.MAVEN_CENTRAL).get(0);
+	}
+
+	/**
+	 * @return Base URL of the GitHub API, without a trailing slash.
+	 */
+	@Nonnull
+	public static String getGitHubApi() {
+		return getMirrors(Source.GITHUB_API).get(0);
+	}
+
+	/**
+	 * @return Base URL of the nightly.link service, without a trailing slash.
+	 */
+	@Nonnull
+	public static String getNightlyLink() {
+		return getMirrors(Source.NIGHTLY_LINK).get(0);
+	}
+
+	/**
+	 * @param source
+	 * 		Remote service.
+	 *
+	 * @return Base URLs of the service's mirrors in order of preference, without trailing slashes. Never empty.
+	 */
+	@Nonnull
+	public static List<String> getMirrors(@Nonnull Source source) {
+		List<String> mirrors = parse(System.getProperty(source.getProperty()));
+		if (mirrors.isEmpty())
+			synchronized (configuredMirrors) {
+				mirrors = configuredMirrors.getOrDefault(source, Collections.emptyList());
+			}
+		if (mirrors.isEmpty())
+			return Collections.singletonList(source.getDefaultUrl());
+		return mirrors;
+	}
+
+	/**
+	 * @param source
+	 * 		Remote service.
+	 * @param mirrors
+	 * 		Base URLs of the service's mirrors in order of preference, or {@code null} to use the default.
+	 * 		Ignored when the service's system property is set.
+	 */
+	public static void setMirrors(@Nonnull Source source, @Nullable List<String> mirrors) {
+		List<String> normalized = new ArrayList<>();
+		if (mirrors != null)
+			for (String mirror : mirrors)
+				normalized.addAll(parse(mirror));
+		synchronized (configuredMirrors) {
+			configuredMirrors.put(source, Collections.unmodifiableList(normalized));
+		}
+	}
+
+	/**
+	 * @return {@code true} when requests to services with multiple mirrors are hedged.
+	 */
+	public static boolean isHedgedRequests() {
+		return hedgedRequests || Boolean.getBoolean(HEDGED_REQUESTS_PROPERTY);
+	}
+
+	/**
+	 * When hedging, a request that a mirror has not answered within its usual latency is also sent to the next mirror,
+	 * and whichever answers first is used. This trades some extra requests for a lower worst-case latency.
+	 *
+	 * @param hedgedRequests
+	 *        {@code true} to hedge requests to services with multiple mirrors.
+	 */
+	public static void setHedgedRequests(boolean hedgedRequests) {
+		Endpoints.hedgedRequests = hedgedRequests;
+	}
+
+	@Nonnull
+	private static List<String> parse(@Nullable String urls) {
+		if (urls == null)
+			return Collections.emptyList();
+		List<String> list = new ArrayList<>();
+		for (String url : urls.split(",")) {
+			url = url.trim();
+			while (url.endsWith("/"))
+				url = url.substring(0, url.length() - 1);
+			if (!url.isEmpty())
+				list.add(url);
+		}
+		return list;
+	}
+
+	/**
+	 * Remote services the launcher uses.
+	 */
+	public enum Source {
+		MAVEN_CENTRAL(MAVEN_CENTRAL_PROPERTY, DEFAULT_MAVEN_CENTRAL),
+		GITHUB_API(GITHUB_API_PROPERTY, DEFAULT_GITHUB_API),
+		NIGHTLY_LINK(NIGHTLY_LINK_PROPERTY, DEFAULT_NIGHTLY_LINK);
+
+		private final String property;
+		private final String defaultUrl;
+
+		Source(@Nonnull String property, @Nonnull String defaultUrl) {
+			this.property = property;
+			this.defaultUrl = defaultUrl;
+		}
+
+		/**
+		 * @return System property to set the service's mirrors with.
+		 */
+		@Nonnull
+		public String getProperty() {
+			return property;
+		}
+
+		/**
+		 * @return Base URL of the service itself.
+		 */
+		@Nonnull
+		public String getDefaultUrl() {
+			return defaultUrl;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package software.coley.recaf.launcher.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Exception for a HTTP request that was answered with an error status.
+ */
+public class HttpStatusException extends IOException {
+	private static final long serialVersionUID = 1L;
+	private final int status;
+	private final long retryAfterMillis;
+	private final boolean rateLimited;
+
+	/**
+	 * @param url
+	 * 		URL of the request.
+	 * @param status
+	 * 		Response status code.
+	 * @param retryAfterMillis
+	 * 		Time the server asked to wait before making another request, or {@code -1} if it did not say.
+	 * @param rateLimited
+	 * 		{@code true} when the request was rejected for exceeding a rate limit.
+	 * @param cause
+	 * 		Original exception of the request.
+	 */
+	public HttpStatusException(@Nonnull String url, int status, long retryAfterMillis, boolean rateLimited,
+	                           @Nullable Throwable cause) {
+		super("HTTP " + status + (rateLimited ? " (rate limited)" : "") + " for " + url, cause);
+		this.status = status;
+		this.retryAfterMillis = retryAfterMillis;
+		this.rateLimited = rateLimited;
+	}
+
+	/**
+	 * @return Response status code.
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return Time the server asked to wait before making another request, or {@code -1} if it did not say.
+	 */
+	public long getRetryAfterMillis() {
+		return retryAfterMillis;
+	}
+
+	/**
+	 * @return {@code true} when the request was rejected for exceeding a rate limit.
+	 */
+	public boolean isRateLimited() {
+		return rateLimited;
+	}
+
+	/**
+	 * @return {@code true} when the status indicates a temporary problem, where the same request may succeed later.
+	 */
+	public boolean isTemporary() {
+		switch (status) {
+			case HttpURLConnection.HTTP_CLIENT_TIMEOUT:
+			case 425: // Too early
+			case 429: // Too many requests
+			case HttpURLConnection.HTTP_INTERNAL_ERROR:
+			case HttpURLConnection.HTTP_BAD_GATEWAY:
+			case HttpURLConnection.HTTP_UNAVAILABLE:
+			case HttpURLConnection.HTTP_GATEWAY_TIMEOUT:
+				return true;
+			default:
+				return rateLimited;
+		}
+	}
+}
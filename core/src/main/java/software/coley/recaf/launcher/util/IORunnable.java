@@ -0,0 +1,14 @@
+package software.coley.recaf.launcher.util;
+
+import java.io.IOException;
+
+/**
+ * Runnable that throws an {@link IOException}.
+ */
+public interface IORunnable {
+	/**
+	 * @throws IOException
+	 * 		When the action fails.
+	 */
+	void run() throws IOException;
+}
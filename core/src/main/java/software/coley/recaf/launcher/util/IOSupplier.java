@@ -0,0 +1,21 @@
+package software.coley.recaf.launcher.util;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+/**
+ * Supplier that throws an {@link IOException}.
+ *
+ * @param <T>
+ * 		Supplied type.
+ */
+public interface IOSupplier<T> {
+	/**
+	 * @return Supplied value. Should never be {@code null}.
+	 *
+	 * @throws IOException
+	 * 		When the value cannot be supplied.
+	 */
+	@Nonnull
+	T get() throws IOException;
+}
@@ -0,0 +1,87 @@
+package software.coley.recaf.launcher.util;
+
+import javax.annotation.Nonnull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streaming reader for {@code maven-metadata.xml} files.
+ */
+public class MavenMetadata {
+	private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+	static {
+		// Metadata never needs a DTD or external entities, and we do not want to resolve them.
+		FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	}
+
+	/**
+	 * Reads the {@code <version>} elements of {@code <metadata><versioning><versions>}.
+	 * Other elements are skipped without being read into memory.
+	 *
+	 * @param input
+	 * 		Stream of the metadata XML.
+	 * @param mapper
+	 * 		Function to map version text to a version model.
+	 * @param <V>
+	 * 		Version model type.
+	 *
+	 * @return Versions listed in the metadata, newest first.
+	 *
+	 * @throws IOException
+	 * 		When the metadata cannot be read or is not valid XML.
+	 */
+	@Nonnull
+	public static <V> List<V> readVersions(@Nonnull InputStream input, @Nonnull Function<String, V> mapper) throws IOException {
+		List<V> versions = new ArrayList<>();
+		XMLStreamReader reader = null;
+		try {
+			reader = FACTORY.createXMLStreamReader(input);
+			int depth = 0;
+			int versionsDepth = -1;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					String name = reader.getLocalName();
+					if (versionsDepth < 0 && depth == 3 && name.equals("versions")) {
+						versionsDepth = depth;
+					} else if (versionsDepth > 0 && depth == versionsDepth + 1 && name.equals("version")) {
+						// Text is kept as-is, so that '21' and '21.0.1' stay distinct.
+						String version = reader.getElementText().trim();
+						depth--;
+						if (!version.isEmpty())
+							versions.add(mapper.apply(version));
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					if (depth == versionsDepth)
+						break;
+					depth--;
+				}
+			}
+		} catch (XMLStreamException ex) {
+			throw new IOException("Invalid maven metadata", ex);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException ignored) {
+					// Closing the reader does not close the input, which is handled by the caller.
+				}
+			}
+		}
+
+		// Maven lists versions in the order they were deployed, so the newest are last.
+		Collections.reverse(versions);
+		return versions;
+	}
+}
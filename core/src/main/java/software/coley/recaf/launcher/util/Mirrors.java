@@ -0,0 +1,283 @@
+package software.coley.recaf.launcher.util;
+
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Requests to the mirrors of a {@link Endpoints.Source}, with failover and optional hedging.
+ * <br>
+ * Mirrors are tried in their configured order, except that mirrors which failed repeatedly are tried last until
+ * they have had time to recover. A mirror that does not have the requested file is not considered unhealthy,
+ * but the next mirror is still tried. When {@link Endpoints#isHedgedRequests() hedging}, a request that a mirror has
+ * not answered within {@link #HEDGE_PERCENTILE its usual time to respond} is also sent to the next mirror, and the
+ * first to respond is used.
+ * <br>
+ * If all mirrors fail and any of them failed for a temporary reason, the request is {@link Retries retried}.
+ */
+public class Mirrors {
+	/**
+	 * Percentile of a mirror's recent response times to wait for before hedging a request to it.
+	 */
+	public static final double HEDGE_PERCENTILE = 0.95;
+	private static final Logger logger = Loggers.newLogger();
+	private static final Map<String, Health> HEALTH = new ConcurrentHashMap<>();
+	private static final ExecutorService HEDGE_EXECUTOR = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "Mirror-Request");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * @param source
+	 * 		Service to request from.
+	 * @param path
+	 * 		Path of the content, relative to the base URL of the service. Should start with a {@code /}.
+	 * @param function
+	 * 		Function to map the content of the first mirror to respond.
+	 * 		If it fails, the content of the next mirror is mapped instead.
+	 * @param <T>
+	 * 		Mapped type.
+	 *
+	 * @return Mapped content.
+	 *
+	 * @throws IOException
+	 * 		When no mirror could provide the content.
+	 */
+	@Nonnull
+	static <T> T request(@Nonnull Endpoints.Source source, @Nonnull String path,
+	                     @Nonnull IOBiFunction<URLConnection, InputStream, T> function) throws IOException {
+		// Each attempt tries all mirrors, so a retry only waits when every mirror failed.
+		return Retries.run(path, () -> requestOnce(source, path, function));
+	}
+
+	@Nonnull
+	private static <T> T requestOnce(@Nonnull Endpoints.Source source, @Nonnull String path,
+	                                 @Nonnull IOBiFunction<URLConnection, InputStream, T> function) throws IOException {
+		List<String> remaining = getOrderedMirrors(source);
+		boolean hedge = Endpoints.isHedgedRequests();
+		IOException lastError = null;
+		while (!remaining.isEmpty()) {
+			String mirror = remaining.remove(0);
+			boolean hedged = hedge && !remaining.isEmpty();
+			Response response;
+			try {
+				response = hedged ? openHedged(mirror, remaining.get(0), path) : open(mirror, path);
+			} catch (IOException ex) {
+				logger.debug("Failed requesting '{}' from mirror '{}'", path, mirror, ex);
+				lastError = pickError(lastError, ex);
+
+				// A failed hedged request means both mirrors failed.
+				if (hedged)
+					remaining.remove(0);
+				continue;
+			}
+
+			// The next mirror is only used up if it won the race, otherwise it still gets its own turn.
+			remaining.remove(response.mirror);
+			try {
+				return function.apply(response.connection, response.stream);
+			} catch (IOException ex) {
+				logger.debug("Failed reading '{}' from mirror '{}'", path, response.mirror, ex);
+				getHealth(response.mirror).failure();
+				response.close();
+				lastError = pickError(lastError, ex);
+			}
+		}
+		throw lastError != null ? lastError : new IOException("No mirrors for " + source);
+	}
+
+	/**
+	 * @param previous
+	 * 		Error of an earlier mirror, if any.
+	 * @param error
+	 * 		Error of the current mirror.
+	 *
+	 * @return Error to report for the request. Temporary errors are preferred, so that the request is retried when
+	 * any of the mirrors may still be able to provide the content.
+	 */
+	@Nonnull
+	private static IOException pickError(@Nullable IOException previous, @Nonnull IOException error) {
+		if (previous != null && Retries.isRetryable(previous) && !Retries.isRetryable(error))
+			return previous;
+		return error;
+	}
+
+	/**
+	 * @param source
+	 * 		Service to get mirrors of.
+	 *
+	 * @return Base URLs of the service's mirrors, healthy mirrors first.
+	 */
+	@Nonnull
+	public static List<String> getOrderedMirrors(@Nonnull Endpoints.Source source) {
+		List<String> healthy = new ArrayList<>();
+		List<String> unhealthy = new ArrayList<>();
+		for (String mirror : Endpoints.getMirrors(source))
+			(getHealth(mirror).isHealthy() ? healthy : unhealthy).add(mirror);
+		healthy.addAll(unhealthy);
+		return healthy;
+	}
+
+	@Nonnull
+	private static Response open(@Nonnull String mirror, @Nonnull String path) throws IOException {
+		Health health = getHealth(mirror);
+		long start = System.nanoTime();
+		URLConnection connection = Web.openConnection(mirror + path);
+		try {
+			InputStream stream = Web.openStream(connection);
+			health.success(System.nanoTime() - start);
+			return new Response(mirror, connection, stream);
+		} catch (FileNotFoundException ex) {
+			// The mirror answered, it just does not have this content.
+			health.success(System.nanoTime() - start);
+			throw ex;
+		} catch (IOException ex) {
+			health.failure();
+			throw ex;
+		}
+	}
+
+	@Nonnull
+	private static Response openHedged(@Nonnull String mirror, @Nonnull String nextMirror, @Nonnull String path) throws IOException {
+		CompletableFuture<Response> primary = openAsync(mirror, path);
+		long delay = getHealth(mirror).getHedgeDelayMillis();
+		try {
+			return primary.get(delay, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ex) {
+			// Nothing to race against, the first mirror has already failed.
+			logger.debug("Failed requesting '{}' from mirror '{}'", path, mirror, ex.getCause());
+			return open(nextMirror, path);
+		} catch (TimeoutException ex) {
+			logger.debug("Mirror '{}' did not respond within {}ms, also requesting '{}' from '{}'", mirror, delay, path, nextMirror);
+		} catch (InterruptedException ex) {
+			throw new InterruptedIOException();
+		}
+
+		// Use whichever responds first, and close the other.
+		CompletableFuture<Response> hedge = openAsync(nextMirror, path);
+		CompletableFuture<Response> winner = new CompletableFuture<>();
+		AtomicInteger failures = new AtomicInteger();
+		BiConsumer<Response, Throwable> handler = (response, error) -> {
+			if (error != null) {
+				if (failures.incrementAndGet() == 2)
+					winner.completeExceptionally(error);
+			} else if (!winner.complete(response)) {
+				response.close();
+			}
+		};
+		primary.whenComplete(handler);
+		hedge.whenComplete(handler);
+		try {
+			return winner.get();
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause() instanceof IOException || ex.getCause().getCause() == null ?
+					ex.getCause() : ex.getCause().getCause();
+			throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+		} catch (InterruptedException ex) {
+			throw new InterruptedIOException();
+		}
+	}
+
+	@Nonnull
+	private static CompletableFuture<Response> openAsync(@Nonnull String mirror, @Nonnull String path) {
+		CompletableFuture<Response> future = new CompletableFuture<>();
+		HEDGE_EXECUTOR.execute(() -> {
+			try {
+				future.complete(open(mirror, path));
+			} catch (Throwable t) {
+				future.completeExceptionally(t);
+			}
+		});
+		return future;
+	}
+
+	@Nonnull
+	private static Health getHealth(@Nonnull String mirror) {
+		return HEALTH.computeIfAbsent(mirror, m -> new Health());
+	}
+
+	/**
+	 * Opened content of a mirror.
+	 */
+	private static class Response {
+		private final String mirror;
+		private final URLConnection connection;
+		private final InputStream stream;
+
+		private Response(@Nonnull String mirror, @Nonnull URLConnection connection, @Nonnull InputStream stream) {
+			this.mirror = mirror;
+			this.connection = connection;
+			this.stream = stream;
+		}
+
+		private void close() {
+			try {
+				stream.close();
+			} catch (IOException ignored) {
+				// Nothing more to do with it either way.
+			}
+			if (connection instanceof HttpURLConnection)
+				((HttpURLConnection) connection).disconnect();
+		}
+	}
+
+	/**
+	 * Recent failures and response times of a mirror.
+	 */
+	private static class Health {
+		private static final int MAX_FAILURES = 3;
+		private static final long RECOVERY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+		private static final int MIN_SAMPLES = 5;
+		private static final long DEFAULT_HEDGE_DELAY_MILLIS = 750;
+		private static final long MIN_HEDGE_DELAY_MILLIS = 20;
+		private final long[] samples = new long[32];
+		private int sampleCount;
+		private int consecutiveFailures;
+		private long lastFailure;
+
+		private synchronized void success(long latencyNanos) {
+			consecutiveFailures = 0;
+			samples[sampleCount++ % samples.length] = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+		}
+
+		private synchronized void failure() {
+			consecutiveFailures++;
+			lastFailure = System.currentTimeMillis();
+		}
+
+		private synchronized boolean isHealthy() {
+			return consecutiveFailures < MAX_FAILURES || System.currentTimeMillis() - lastFailure > RECOVERY_MILLIS;
+		}
+
+		private synchronized long getHedgeDelayMillis() {
+			int count = Math.min(sampleCount, samples.length);
+			if (count < MIN_SAMPLES)
+				return DEFAULT_HEDGE_DELAY_MILLIS;
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			long percentile = sorted[Math.min(count - 1, (int) Math.ceil(count * HEDGE_PERCENTILE) - 1)];
+			return Math.max(MIN_HEDGE_DELAY_MILLIS, percentile);
+		}
+	}
+}
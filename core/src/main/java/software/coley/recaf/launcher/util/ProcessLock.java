@@ -0,0 +1,138 @@
+package software.coley.recaf.launcher.util;
+
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Named lock shared by all launchers using the same Recaf directory, backed by a {@link FileLock} on a file in
+ * {@link CommonPaths#getLocksDir()}.
+ * <br>
+ * Work that writes to shared files, such as downloading an update, is done while holding the lock. A launcher that
+ * has to wait for the lock should re-check if the work is still needed once it gets it, so that concurrently started
+ * launchers re-use the result of the first one rather than repeating it. Locks are re-entrant for the thread holding
+ * them, and are released by the OS if the process holding them exits.
+ * <br>
+ * Prefer {@link #run(String, IORunnable)} and {@link #call(String, IOSupplier)}, which release the lock when the
+ * work is done, over {@link #acquire(String) acquiring} it directly.
+ */
+public final class ProcessLock implements Closeable {
+	private static final Logger logger = Loggers.newLogger();
+	private static final Map<String, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+	private final ReentrantLock localLock;
+	private final FileChannel channel;
+	private final FileLock fileLock;
+
+	private ProcessLock(@Nonnull ReentrantLock localLock, FileChannel channel, FileLock fileLock) {
+		this.localLock = localLock;
+		this.channel = channel;
+		this.fileLock = fileLock;
+	}
+
+	/**
+	 * Blocks until the lock is acquired.
+	 *
+	 * @param name
+	 * 		Name of the lock.
+	 *
+	 * @return Held lock, to be {@link #close() closed} when the work is done.
+	 *
+	 * @throws IOException
+	 * 		When the lock file cannot be opened or locked.
+	 */
+	@Nonnull
+	public static ProcessLock acquire(@Nonnull String name) throws IOException {
+		// File locks are held by the whole JVM, so threads of this process are coordinated separately.
+		ReentrantLock localLock = LOCAL_LOCKS.computeIfAbsent(name, n -> new ReentrantLock());
+		localLock.lock();
+		if (localLock.getHoldCount() > 1)
+			return new ProcessLock(localLock, null, null);
+
+		FileChannel channel = null;
+		try {
+			Path lockFile = CommonPaths.getLocksDir().resolve(name + ".lock");
+			Files.createDirectories(lockFile.getParent());
+			channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			FileLock fileLock = channel.tryLock();
+			if (fileLock == null) {
+				logger.info("Waiting for another launcher to release '{}'...", name);
+				fileLock = channel.lock();
+			}
+			return new ProcessLock(localLock, channel, fileLock);
+		} catch (IOException | RuntimeException ex) {
+			if (channel != null)
+				channel.close();
+			localLock.unlock();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Runs an action while holding the lock.
+	 *
+	 * @param name
+	 * 		Name of the lock.
+	 * @param action
+	 * 		Action to run.
+	 *
+	 * @throws IOException
+	 * 		When the lock cannot be acquired or released, or the action fails.
+	 */
+	@SuppressWarnings("try")
+	public static void run(@Nonnull String name, @Nonnull IORunnable action) throws IOException {
+		try (ProcessLock lock = acquire(name)) {
+			action.run();
+		}
+	}
+
+	/**
+	 * Computes a value while holding the lock.
+	 *
+	 * @param name
+	 * 		Name of the lock.
+	 * @param action
+	 * 		Action computing the value.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Computed value.
+	 *
+	 * @throws IOException
+	 * 		When the lock cannot be acquired or released, or the action fails.
+	 */
+	@Nonnull
+	@SuppressWarnings("try")
+	public static <T> T call(@Nonnull String name, @Nonnull IOSupplier<T> action) throws IOException {
+		try (ProcessLock lock = acquire(name)) {
+			return action.get();
+		}
+	}
+
+	/**
+	 * Releases the lock.
+	 *
+	 * @throws IOException
+	 * 		When the lock file cannot be released.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (fileLock != null)
+				fileLock.release();
+			if (channel != null)
+				channel.close();
+		} finally {
+			localLock.unlock();
+		}
+	}
+}
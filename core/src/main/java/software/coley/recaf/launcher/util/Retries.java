@@ -0,0 +1,160 @@
+package software.coley.recaf.launcher.util;
+
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.net.ssl.SSLHandshakeException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Retry policy for web requests.
+ * <br>
+ * Failures are {@link #isRetryable(IOException) classified} so that only temporary problems are retried, such as
+ * timeouts, dropped connections and server errors. Missing content, unknown hosts and other failures that would
+ * not change on another attempt fail right away. Attempts are spaced with exponential backoff and jitter, and wait
+ * at least as long as the server asked for with {@code Retry-After} or its rate limit headers. If the server asks
+ * for a wait longer than {@link #MAX_REQUESTED_WAIT_MILLIS}, the request fails instead of hanging.
+ */
+public class Retries {
+	/**
+	 * System property to override the max number of attempts of a request, see {@link #getMaxAttempts()}.
+	 */
+	public static final String MAX_ATTEMPTS_PROPERTY = "recaf.launcher.maxAttempts";
+	/**
+	 * Longest wait requested by a server that is honoured. Requests needing a longer wait fail right away.
+	 */
+	public static final long MAX_REQUESTED_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	private static final int DEFAULT_MAX_ATTEMPTS = 4;
+	private static final long BASE_DELAY_MILLIS = 250;
+	private static final long MAX_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(8);
+	private static final Logger logger = Loggers.newLogger();
+
+	/**
+	 * @param name
+	 * 		Name of the operation, for logging.
+	 * @param action
+	 * 		Operation to run. Should be safe to run again from the start when it fails.
+	 * @param <T>
+	 * 		Result type.
+	 *
+	 * @return Result of the first successful attempt.
+	 *
+	 * @throws IOException
+	 * 		The failure of the last attempt, or the first failure that is not worth retrying.
+	 */
+	@Nonnull
+	public static <T> T run(@Nonnull String name, @Nonnull IOSupplier<T> action) throws IOException {
+		return run(name, action, Retries::isRetryable);
+	}
+
+	/**
+	 * @param name
+	 * 		Name of the operation, for logging.
+	 * @param action
+	 * 		Operation to run. Should be safe to run again from the start when it fails.
+	 * @param retryable
+	 * 		Filter of failures to retry. Operations made of requests that are already retried on their own can use
+	 * 		this to only retry their own failures, such as {@link RetryableException}.
+	 * @param <T>
+	 * 		Result type.
+	 *
+	 * @return Result of the first successful attempt.
+	 *
+	 * @throws IOException
+	 * 		The failure of the last attempt, or the first failure that is not worth retrying.
+	 */
+	@Nonnull
+	public static <T> T run(@Nonnull String name, @Nonnull IOSupplier<T> action,
+	                        @Nonnull Predicate<IOException> retryable) throws IOException {
+		int maxAttempts = getMaxAttempts();
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return action.get();
+			} catch (IOException ex) {
+				if (attempt >= maxAttempts || !retryable.test(ex))
+					throw ex;
+				long delay = getDelayMillis(ex, attempt);
+				if (delay < 0)
+					throw ex;
+				logger.info("Attempt {}/{} of '{}' failed, retrying in {}ms: {}", attempt, maxAttempts, name, delay, ex.toString());
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted waiting to retry '" + name + "'");
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param error
+	 * 		Failure of an operation.
+	 *
+	 * @return {@code true} when the failure is likely temporary, so the operation may succeed if tried again.
+	 */
+	public static boolean isRetryable(@Nonnull IOException error) {
+		if (error instanceof RetryableException)
+			return true;
+		if (error instanceof HttpStatusException)
+			return ((HttpStatusException) error).isTemporary();
+		if (error instanceof SocketTimeoutException)
+			return true;
+
+		// Other interruptions are the thread being asked to stop, which should not be fought.
+		return !(error instanceof InterruptedIOException
+				|| error instanceof CircuitBreakers.OpenException
+				|| error instanceof FileNotFoundException
+				|| error instanceof UnknownHostException
+				|| error instanceof MalformedURLException
+				|| error instanceof ProtocolException
+				|| error instanceof SSLHandshakeException);
+	}
+
+	/**
+	 * @return Max number of attempts of a request, including the first.
+	 */
+	public static int getMaxAttempts() {
+		String property = System.getProperty(MAX_ATTEMPTS_PROPERTY);
+		if (property != null) {
+			try {
+				return Math.max(1, Integer.parseInt(property.trim()));
+			} catch (NumberFormatException ex) {
+				logger.warn("Invalid value for '{}': {}", MAX_ATTEMPTS_PROPERTY, property);
+			}
+		}
+		return DEFAULT_MAX_ATTEMPTS;
+	}
+
+	/**
+	 * @param error
+	 * 		Failure of the attempt.
+	 * @param attempt
+	 * 		Number of the failed attempt, starting at {@code 1}.
+	 *
+	 * @return Time to wait before the next attempt, or {@code -1} if the server asked for a longer wait than
+	 * is reasonable to hold the request for.
+	 */
+	private static long getDelayMillis(@Nonnull IOException error, int attempt) {
+		// Equal jitter: half of the exponential delay is fixed, the other half is random.
+		// This keeps some spacing between attempts, while spreading out launchers that failed at the same time.
+		long exponential = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << Math.min(attempt - 1, 16));
+		long delay = exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+		if (error instanceof HttpStatusException) {
+			long requested = ((HttpStatusException) error).getRetryAfterMillis();
+			if (requested > MAX_REQUESTED_WAIT_MILLIS)
+				return -1;
+			delay = Math.max(delay, requested);
+		}
+		return delay;
+	}
+}
@@ -0,0 +1,20 @@
+package software.coley.recaf.launcher.util;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+/**
+ * Exception for failures that are expected to be temporary, such as downloaded content not matching its expected
+ * hash, so that the operation is {@link Retries retried}.
+ */
+public class RetryableException extends IOException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @param message
+	 * 		Description of the failure.
+	 */
+	public RetryableException(@Nonnull String message) {
+		super(message);
+	}
+}
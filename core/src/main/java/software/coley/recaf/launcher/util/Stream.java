@@ -19,7 +19,7 @@ public class Stream {
 	 * @return Array buffer of the given size, capped to {@link #MAX_BUFFER_SIZE}.
 	 */
 	private static byte[] newBuffer(int bufferSize) {
-		return new byte[Math.max(bufferSize, MAX_BUFFER_SIZE)];
+		return new byte[Math.min(bufferSize, MAX_BUFFER_SIZE)];
 	}
 
 	/**
@@ -45,24 +45,41 @@ public static void transfer(int bufferSize, @Nonnull InputStream input, @Nonnull
 	 * @param output
 	 * 		Stream to feed into.
 	 * @param max
-	 * 		Expected max length of input content.
+	 * 		Expected max length of input content, or a negative value if not known.
 	 * @param listener
 	 * 		Optional listener for transfer progress notifications.
 	 *
+	 * @return Number of bytes transferred.
+	 *
 	 * @throws IOException
 	 * 		When the streams cannot be read or written to.
 	 */
-	public static void transfer(int bufferSize, @Nonnull InputStream input, @Nonnull OutputStream output,
-	                            int max, @Nullable TransferListener listener) throws IOException {
-		if (listener != null) listener.start(max);
+	public static long transfer(int bufferSize, @Nonnull InputStream input, @Nonnull OutputStream output,
+	                            long max, @Nullable TransferListener listener) throws IOException {
+		long id = listener == null ? 0 : TransferEvent.nextId();
+		long startTime = System.nanoTime();
+		long lastTime = startTime;
+		if (listener != null) listener.start(new TransferEvent(id, 0, max, 0, 0));
 		int read;
-		int written = 0;
+		long written = 0;
 		byte[] data = newBuffer(bufferSize);
-		while ((read = input.read(data)) != -1) {
-			output.write(data, 0, read);
-			written += read;
-			if (listener != null) listener.progress(written, max);
+		try {
+			while ((read = input.read(data)) != -1) {
+				output.write(data, 0, read);
+				written += read;
+				if (listener != null) {
+					long now = System.nanoTime();
+					double instantRate = now > lastTime ? read * 1_000_000_000.0 / (now - lastTime) : 0;
+					lastTime = now;
+					listener.progress(new TransferEvent(id, written, max, now - startTime, instantRate));
+				}
+			}
+		} catch (IOException ex) {
+			// Still end the transfer so listeners are not left waiting on it. The transfer may be retried as a new one.
+			if (listener != null) listener.end(new TransferEvent(id, written, max, System.nanoTime() - startTime, 0));
+			throw ex;
 		}
-		if (listener != null) listener.end(written, max);
+		if (listener != null) listener.end(new TransferEvent(id, written, max, System.nanoTime() - startTime, 0));
+		return written;
 	}
 }
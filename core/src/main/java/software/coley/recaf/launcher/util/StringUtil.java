@@ -25,4 +25,19 @@ public static String humanReadableByteCountSI(long bytes) {
 		}
 		return String.format("%.1f %cB", bytes / 1000.0, ci.current());
 	}
+
+	/**
+	 * @param millis
+	 * 		Duration in milliseconds.
+	 *
+	 * @return Human legible duration, such as {@code 12s}, {@code 3m 05s} or {@code 1h 02m}.
+	 */
+	public static String humanReadableDuration(long millis) {
+		long seconds = Math.max(0, (millis + 999) / 1000);
+		if (seconds < 60)
+			return seconds + "s";
+		if (seconds < 3600)
+			return String.format("%dm %02ds", seconds / 60, seconds % 60);
+		return String.format("%dh %02dm", seconds / 3600, seconds / 60 % 60);
+	}
 }
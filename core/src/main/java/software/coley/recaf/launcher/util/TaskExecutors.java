@@ -0,0 +1,149 @@
+package software.coley.recaf.launcher.util;
+
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.JavaVersion;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared executors for background work of the launcher.
+ * <br>
+ * Blocking work such as web requests, file and zip operations should run on {@link #io()} rather than the common
+ * {@link java.util.concurrent.ForkJoinPool}, which is sized for CPU bound work and easily starved by blocking tasks
+ * on machines with few cores. On Java 21+ the IO executor uses virtual threads, otherwise it is a bounded pool of
+ * daemon threads. Delayed tasks are scheduled on the single {@link #scheduler()} thread, and should hand off any
+ * blocking work to {@link #io()}.
+ */
+public class TaskExecutors {
+	/**
+	 * System property to disable the use of virtual threads on Java 21+.
+	 */
+	public static final String VIRTUAL_THREADS_PROPERTY = "recaf.launcher.virtualThreads";
+	/**
+	 * Max number of threads of the IO pool when virtual threads are not used.
+	 */
+	public static final int IO_POOL_SIZE = Math.max(4, Math.min(16, Runtime.getRuntime().availableProcessors() * 2));
+	private static final Logger logger = Loggers.newLogger();
+	private static final ExecutorService IO_EXECUTOR = newIoExecutor();
+	private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+			newDaemonFactory("Launcher-Scheduler"));
+
+	/**
+	 * @return Executor for blocking work.
+	 */
+	@Nonnull
+	public static ExecutorService io() {
+		return IO_EXECUTOR;
+	}
+
+	/**
+	 * @return Scheduler for delayed and periodic tasks. Tasks should be short, as they share a single thread.
+	 */
+	@Nonnull
+	public static ScheduledExecutorService scheduler() {
+		return SCHEDULER;
+	}
+
+	/**
+	 * @param task
+	 * 		Blocking task to run.
+	 *
+	 * @return Future of the task, running on {@link #io()}.
+	 */
+	@Nonnull
+	public static CompletableFuture<Void> runAsync(@Nonnull Runnable task) {
+		return CompletableFuture.runAsync(logFailure(task), IO_EXECUTOR);
+	}
+
+	/**
+	 * @param task
+	 * 		Blocking task to run.
+	 * @param <T>
+	 * 		Result type.
+	 *
+	 * @return Future of the task result, running on {@link #io()}.
+	 */
+	@Nonnull
+	public static <T> CompletableFuture<T> supplyAsync(@Nonnull Supplier<T> task) {
+		return CompletableFuture.supplyAsync(task, IO_EXECUTOR);
+	}
+
+	/**
+	 * Starts a dedicated daemon thread, for long-running loops that would otherwise hold a pooled thread forever.
+	 *
+	 * @param name
+	 * 		Thread name.
+	 * @param task
+	 * 		Task to run.
+	 *
+	 * @return The started thread. Interrupt it to signal the task to stop.
+	 */
+	@Nonnull
+	public static Thread startDaemon(@Nonnull String name, @Nonnull Runnable task) {
+		Thread thread = new Thread(logFailure(task), name);
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * @return {@code true} when {@link #io()} runs tasks on virtual threads.
+	 */
+	public static boolean isVirtual() {
+		return !(IO_EXECUTOR instanceof ThreadPoolExecutor);
+	}
+
+	@Nonnull
+	private static Runnable logFailure(@Nonnull Runnable task) {
+		// Failures of fire-and-forget tasks would otherwise go unseen.
+		return () -> {
+			try {
+				task.run();
+			} catch (Throwable t) {
+				logger.error("Unhandled error in background task", t);
+				throw t;
+			}
+		};
+	}
+
+	@Nonnull
+	private static ExecutorService newIoExecutor() {
+		if (JavaVersion.get() >= 21 && Boolean.parseBoolean(System.getProperty(VIRTUAL_THREADS_PROPERTY, "true"))) {
+			// Reflection, since we still target Java 8.
+			try {
+				Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+				Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+				builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "Launcher-IO-", 0L);
+				ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+				return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+						.invoke(null, factory);
+			} catch (ReflectiveOperationException | RuntimeException ex) {
+				logger.debug("Virtual threads are not available, using a thread pool for IO tasks", ex);
+			}
+		}
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(IO_POOL_SIZE, IO_POOL_SIZE, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), newDaemonFactory("Launcher-IO"));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	@Nonnull
+	private static ThreadFactory newDaemonFactory(@Nonnull String name) {
+		AtomicInteger count = new AtomicInteger();
+		return r -> {
+			Thread thread = new Thread(r, name + "-" + count.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
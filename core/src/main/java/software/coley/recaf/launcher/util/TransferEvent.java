@@ -0,0 +1,97 @@
+package software.coley.recaf.launcher.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a transfer at a point in time, as reported to {@link TransferListener}.
+ * Byte counts are 64-bit, so transfers over 2 GB are reported accurately.
+ */
+public class TransferEvent {
+	private static final AtomicLong NEXT_ID = new AtomicLong();
+	private final long id;
+	private final long bytes;
+	private final long total;
+	private final long elapsedNanos;
+	private final double instantRate;
+
+	/**
+	 * @param id
+	 * 		Id of the transfer.
+	 * @param bytes
+	 * 		Bytes transferred so far.
+	 * @param total
+	 * 		Expected total bytes of the transfer, or a negative value if not known.
+	 * @param elapsedNanos
+	 * 		Nanoseconds since the transfer started.
+	 * @param instantRate
+	 * 		Bytes per second since the previous event of the transfer.
+	 */
+	public TransferEvent(long id, long bytes, long total, long elapsedNanos, double instantRate) {
+		this.id = id;
+		this.bytes = bytes;
+		this.total = total;
+		this.elapsedNanos = elapsedNanos;
+		this.instantRate = instantRate;
+	}
+
+	/**
+	 * @return New id for a transfer, unique within this JVM.
+	 */
+	public static long nextId() {
+		return NEXT_ID.incrementAndGet();
+	}
+
+	/**
+	 * @return Id of the transfer, shared by all events of the same transfer.
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * @return Bytes transferred so far.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return Expected total bytes of the transfer, or {@code -1} if not known.
+	 */
+	public long getTotal() {
+		return total < 0 ? -1 : total;
+	}
+
+	/**
+	 * @return {@code true} when the total bytes of the transfer is known.
+	 */
+	public boolean isTotalKnown() {
+		return total >= 0;
+	}
+
+	/**
+	 * @return Nanoseconds since the transfer started.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return Bytes per second since the previous event of the transfer.
+	 */
+	public double getInstantRate() {
+		return instantRate;
+	}
+
+	/**
+	 * @return Bytes per second since the transfer started.
+	 */
+	public double getAverageRate() {
+		return elapsedNanos <= 0 ? 0 : bytes * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "Transfer#" + id + "[" + bytes + "/" + getTotal() + "]";
+	}
+}
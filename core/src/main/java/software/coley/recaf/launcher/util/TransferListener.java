@@ -4,6 +4,10 @@
 
 /**
  * Listener for IO transfer operations.
+ * <br>
+ * Transfers are reported through {@link TransferEvent}s. Listeners written against the older {@code int} based
+ * methods still work, as the event methods pass their values along to those by default, capped to
+ * {@link Integer#MAX_VALUE}.
  *
  * @see Stream
  * @see Web
@@ -16,13 +20,46 @@ public interface TransferListener {
 	 */
 	default void init(@Nonnull String name) {}
 
+	/**
+	 * Called when the transfer begins.
+	 *
+	 * @param event
+	 * 		Transfer state, with no bytes transferred yet.
+	 */
+	default void start(@Nonnull TransferEvent event) {
+		start(toInt(event.getTotal()));
+	}
+
+	/**
+	 * Called during progress updates for the transfer.
+	 *
+	 * @param event
+	 * 		Transfer state.
+	 */
+	default void progress(@Nonnull TransferEvent event) {
+		progress(toInt(event.getBytes()), toInt(event.getTotal()));
+	}
+
+	/**
+	 * Called when the transfer completes.
+	 *
+	 * @param event
+	 * 		Final transfer state. The bytes should be equal to the total when the transfer was a success.
+	 */
+	default void end(@Nonnull TransferEvent event) {
+		end(toInt(event.getBytes()), toInt(event.getTotal()));
+	}
+
 	/**
 	 * Called when the transfer begins.
 	 *
 	 * @param max
 	 * 		Max length of transfer. Can be negative for unknown transfer content length.
+	 *
+	 * @deprecated Limited to 2 GB, override {@link #start(TransferEvent)} instead.
 	 */
-	void start(int max);
+	@Deprecated
+	default void start(int max) {}
 
 	/**
 	 * Called during progress updates for the transfer.
@@ -31,8 +68,11 @@ default void init(@Nonnull String name) {}
 	 * 		Current amount of bytes transferred.
 	 * @param max
 	 * 		Max length of transfer. Can be negative for unknown transfer content length.
+	 *
+	 * @deprecated Limited to 2 GB, override {@link #progress(TransferEvent)} instead.
 	 */
-	void progress(int current, int max);
+	@Deprecated
+	default void progress(int current, int max) {}
 
 	/**
 	 * Called when the transfer completes.
@@ -41,6 +81,19 @@ default void init(@Nonnull String name) {}
 	 * 		Current amount of bytes transferred. Should be equal to {@code max} when the transfer was a success.
 	 * @param max
 	 * 		Max length of transfer. Can be negative for unknown transfer content length.
+	 *
+	 * @deprecated Limited to 2 GB, override {@link #end(TransferEvent)} instead.
+	 */
+	@Deprecated
+	default void end(int current, int max) {}
+
+	/**
+	 * @param value
+	 * 		Byte count, or a negative value for unknown.
+	 *
+	 * @return Byte count capped to the range of {@code int}.
 	 */
-	void end(int current, int max);
+	static int toInt(long value) {
+		return value < 0 ? -1 : (int) Math.min(Integer.MAX_VALUE, value);
+	}
 }
@@ -0,0 +1,213 @@
+package software.coley.recaf.launcher.util;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfer listener that aggregates the progress of any number of transfers, including ones running in parallel
+ * on different threads. Notifications only update counters, so they are cheap to receive for every chunk of a
+ * transfer. Displays are expected to {@link #sample() sample} the aggregated progress at their own frame rate.
+ * <br>
+ * Transfers that run while others are active are combined into one batch. Once all transfers of a batch end,
+ * the next transfer starts a new batch.
+ */
+public class TransferProgress implements TransferListener {
+	/**
+	 * Weight of the newest sample in the smoothed throughput.
+	 */
+	private static final double SMOOTHING = 0.3;
+	private final Map<Long, Transfer> activeTransfers = new ConcurrentHashMap<>();
+	private final AtomicLong totalTransferred = new AtomicLong();
+	private final Map<Thread, String> pendingNames = new ConcurrentHashMap<>();
+	private long batchEndedCurrent;
+	private long batchEndedMax;
+	private volatile String lastName = "";
+	private long lastSampleTime = -1;
+	private long lastSampleTransferred;
+	private double bytesPerSecond = -1;
+
+	@Override
+	public void init(@Nonnull String name) {
+		pendingNames.put(Thread.currentThread(), name);
+	}
+
+	@Override
+	public void start(@Nonnull TransferEvent event) {
+		String name = pendingNames.remove(Thread.currentThread());
+		if (name != null)
+			lastName = name;
+		synchronized (this) {
+			// Nothing else is running, so this begins a new batch
+			if (activeTransfers.isEmpty()) {
+				batchEndedCurrent = 0;
+				batchEndedMax = 0;
+			}
+			activeTransfers.put(event.getId(), new Transfer(event.getTotal()));
+		}
+	}
+
+	@Override
+	public void progress(@Nonnull TransferEvent event) {
+		Transfer transfer = activeTransfers.get(event.getId());
+		if (transfer == null)
+			return;
+		long current = event.getBytes();
+		totalTransferred.addAndGet(current - transfer.current);
+		transfer.current = current;
+	}
+
+	@Override
+	public void end(@Nonnull TransferEvent event) {
+		Transfer transfer = activeTransfers.get(event.getId());
+		if (transfer == null)
+			return;
+		long current = event.getBytes();
+		totalTransferred.addAndGet(current - transfer.current);
+		synchronized (this) {
+			activeTransfers.remove(event.getId());
+			batchEndedCurrent += current;
+			// Failed transfers end short of their total, and only what was transferred should count towards the batch
+			batchEndedMax += current;
+		}
+	}
+
+	/**
+	 * Samples the aggregated progress, and updates the smoothed throughput.
+	 *
+	 * @return Progress of the current batch of transfers.
+	 */
+	@Nonnull
+	public synchronized Snapshot sample() {
+		long now = System.nanoTime();
+		long transferred = totalTransferred.get();
+		if (lastSampleTime >= 0) {
+			long elapsed = now - lastSampleTime;
+			if (elapsed > 0) {
+				double rate = (transferred - lastSampleTransferred) * 1_000_000_000.0 / elapsed;
+				bytesPerSecond = bytesPerSecond < 0 ? rate : bytesPerSecond + SMOOTHING * (rate - bytesPerSecond);
+			}
+		}
+		lastSampleTime = now;
+		lastSampleTransferred = transferred;
+
+		long current = batchEndedCurrent;
+		long max = batchEndedMax;
+		boolean maxUnknown = false;
+		for (Transfer transfer : activeTransfers.values()) {
+			current += transfer.current;
+			if (transfer.max > 0)
+				max += transfer.max;
+			else
+				maxUnknown = true;
+		}
+		int active = activeTransfers.size();
+
+		// Without active transfers there is no throughput to speak of, and the next batch should start fresh
+		if (active == 0) {
+			lastSampleTime = -1;
+			bytesPerSecond = -1;
+		}
+		return new Snapshot(lastName, current, maxUnknown ? -1 : max, Math.max(0, bytesPerSecond), active);
+	}
+
+	/**
+	 * Progress of one transfer.
+	 */
+	private static class Transfer {
+		private final long max;
+		private volatile long current;
+
+		private Transfer(long max) {
+			this.max = max;
+		}
+	}
+
+	/**
+	 * Aggregated progress at a point in time.
+	 */
+	public static class Snapshot {
+		private final String name;
+		private final long current;
+		private final long max;
+		private final double bytesPerSecond;
+		private final int activeTransfers;
+
+		private Snapshot(@Nonnull String name, long current, long max, double bytesPerSecond, int activeTransfers) {
+			this.name = name;
+			this.current = current;
+			this.max = max;
+			this.bytesPerSecond = bytesPerSecond;
+			this.activeTransfers = activeTransfers;
+		}
+
+		/**
+		 * @return Name of the most recently started transfer.
+		 */
+		@Nonnull
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return Bytes transferred in the current batch.
+		 */
+		public long getCurrent() {
+			return current;
+		}
+
+		/**
+		 * @return Total bytes of the current batch, or {@code -1} if the length of a transfer is not known.
+		 */
+		public long getMax() {
+			return max;
+		}
+
+		/**
+		 * @return Smoothed throughput in bytes per second.
+		 */
+		public double getBytesPerSecond() {
+			return bytesPerSecond;
+		}
+
+		/**
+		 * @return Estimated milliseconds until the current batch completes, or {@code -1} if it cannot be estimated.
+		 */
+		public long getEtaMillis() {
+			if (max < 0 || bytesPerSecond <= 0)
+				return -1;
+			return (long) (Math.max(0, max - current) * 1000 / bytesPerSecond);
+		}
+
+		/**
+		 * @return Number of transfers in progress.
+		 */
+		public int getActiveTransfers() {
+			return activeTransfers;
+		}
+
+		/**
+		 * @return {@code true} when any transfer is in progress.
+		 */
+		public boolean isActive() {
+			return activeTransfers > 0;
+		}
+
+		/**
+		 * @return Description of the progress, such as {@code 12.3 MB / 40.0 MB - 5.1 MB/s - 6s left}.
+		 */
+		@Nonnull
+		public String describe() {
+			StringBuilder sb = new StringBuilder(StringUtil.humanReadableByteCountSI(current));
+			if (max >= 0)
+				sb.append(" / ").append(StringUtil.humanReadableByteCountSI(max));
+			if (bytesPerSecond > 0)
+				sb.append(" - ").append(StringUtil.humanReadableByteCountSI((long) bytesPerSecond)).append("/s");
+			long eta = getEtaMillis();
+			if (eta >= 0 && isActive())
+				sb.append(" - ").append(StringUtil.humanReadableDuration(eta)).append(" left");
+			return sb.toString();
+		}
+	}
+}
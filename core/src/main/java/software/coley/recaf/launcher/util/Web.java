@@ -4,18 +4,27 @@
 import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Basic web utils.
+ * <br>
+ * Requests are {@link Retries retried} when they fail for temporary reasons, and requests to hosts that keep
+ * failing are short-circuited by {@link CircuitBreakers}.
  */
 public class Web {
+	private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+	private static final int READ_TIMEOUT_MILLIS = 30_000;
 	private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.11 (KHTML, like Gecko) Chrome/23.0.1271.95 Safari/537.11";
 
 	/**
@@ -36,7 +45,8 @@ public static String getText(@Nonnull String url) throws IOException {
 	 * @param url
 	 * 		URL to read from.
 	 *
-	 * @return Raw bytes of content at location.
+	 * @return Raw bytes of content at location. The content is held in memory, so large artifacts should be
+	 * {@link #download(String, Path, TransferListener) downloaded} to a file instead.
 	 *
 	 * @throws IOException
 	 * 		When the content cannot be read.
@@ -44,16 +54,37 @@ public static String getText(@Nonnull String url) throws IOException {
 	@Nonnull
 	public static byte[] getBytes(@Nonnull String url, @Nullable TransferListener listener) throws IOException {
 		return mapContent(url, (connection, stream) -> {
-			int max = connection.getContentLength();
+			long max = connection.getContentLengthLong();
 			return Web.toBytes(stream, max, listener);
 		});
 	}
 
+	/**
+	 * @param url
+	 * 		URL to read from.
+	 * @param target
+	 * 		File to write the content to. It is replaced if it exists, including by later attempts when reading fails.
+	 * @param listener
+	 * 		Optional listener for transfer progress.
+	 *
+	 * @return Number of bytes written.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read, or the file cannot be written.
+	 */
+	public static long download(@Nonnull String url, @Nonnull Path target, @Nullable TransferListener listener) throws IOException {
+		return mapContent(url, (connection, stream) -> {
+			long max = connection.getContentLengthLong();
+			return Web.toFile(stream, max, target, listener);
+		});
+	}
+
 	/**
 	 * @param url
 	 * 		URL to read from.
 	 * @param consumer
 	 * 		Consumer to operate on the content at the given URL.
+	 * 		If reading the content fails, it may be called again with the content of another attempt.
 	 *
 	 * @throws IOException
 	 * 		When the content cannot be read.
@@ -62,23 +93,216 @@ public static void consumeStream(@Nonnull String url, @Nonnull IOConsumer<InputS
 		acceptContent(url, (connection, stream) -> consumer.accept(stream));
 	}
 
+	/**
+	 * @param url
+	 * 		URL to read from.
+	 * @param function
+	 * 		Function to map the content at the given URL. The content stream is closed after the function completes.
+	 * @param <T>
+	 * 		Mapped type.
+	 *
+	 * @return Mapped content.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read.
+	 */
+	@Nonnull
+	public static <T> T mapStream(@Nonnull String url, @Nonnull IOFunction<InputStream, T> function) throws IOException {
+		return mapContent(url, (connection, stream) -> {
+			try (InputStream in = stream) {
+				return function.apply(in);
+			}
+		});
+	}
+
+	/**
+	 * @param source
+	 * 		Service to read from, using the first of its {@link Mirrors mirrors} to respond.
+	 * @param path
+	 * 		Path of the content, relative to the base URL of the service.
+	 *
+	 * @return Text of web content at location.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read from any mirror.
+	 */
+	@Nonnull
+	public static String getText(@Nonnull Endpoints.Source source, @Nonnull String path) throws IOException {
+		return Mirrors.request(source, path, (connection, stream) -> toString(stream));
+	}
+
+	/**
+	 * @param source
+	 * 		Service to read from, using the first of its {@link Mirrors mirrors} to respond.
+	 * @param path
+	 * 		Path of the content, relative to the base URL of the service.
+	 * @param listener
+	 * 		Optional listener for transfer progress.
+	 *
+	 * @return Raw bytes of content at location. The content is held in memory, so large artifacts should be
+	 * {@link #download(Endpoints.Source, String, Path, TransferListener) downloaded} to a file instead.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read from any mirror.
+	 */
+	@Nonnull
+	public static byte[] getBytes(@Nonnull Endpoints.Source source, @Nonnull String path,
+	                              @Nullable TransferListener listener) throws IOException {
+		return Mirrors.request(source, path, (connection, stream) -> {
+			long max = connection.getContentLengthLong();
+			return Web.toBytes(stream, max, listener);
+		});
+	}
+
+	/**
+	 * @param source
+	 * 		Service to read from, using the first of its {@link Mirrors mirrors} to respond.
+	 * @param path
+	 * 		Path of the content, relative to the base URL of the service.
+	 * @param target
+	 * 		File to write the content to. It is replaced if it exists, including by later attempts when reading fails.
+	 * @param listener
+	 * 		Optional listener for transfer progress.
+	 *
+	 * @return Number of bytes written.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read from any mirror, or the file cannot be written.
+	 */
+	public static long download(@Nonnull Endpoints.Source source, @Nonnull String path, @Nonnull Path target,
+	                            @Nullable TransferListener listener) throws IOException {
+		return Mirrors.request(source, path, (connection, stream) -> {
+			long max = connection.getContentLengthLong();
+			return Web.toFile(stream, max, target, listener);
+		});
+	}
+
+	/**
+	 * @param source
+	 * 		Service to read from, using the first of its {@link Mirrors mirrors} to respond.
+	 * @param path
+	 * 		Path of the content, relative to the base URL of the service.
+	 * @param function
+	 * 		Function to map the content. The content stream is closed after the function completes.
+	 * @param <T>
+	 * 		Mapped type.
+	 *
+	 * @return Mapped content.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read from any mirror.
+	 */
+	@Nonnull
+	public static <T> T mapStream(@Nonnull Endpoints.Source source, @Nonnull String path,
+	                              @Nonnull IOFunction<InputStream, T> function) throws IOException {
+		return Mirrors.request(source, path, (connection, stream) -> {
+			try (InputStream in = stream) {
+				return function.apply(in);
+			}
+		});
+	}
+
 	@Nonnull
 	private static <T> T mapContent(@Nonnull String url, @Nonnull IOBiFunction<URLConnection, InputStream, T> function) throws IOException {
-		URLConnection conn = openConnection(url);
-		return function.apply(conn, conn.getInputStream());
+		return Retries.run(url, () -> {
+			URLConnection conn = openConnection(url);
+			return function.apply(conn, openStream(conn));
+		});
 	}
 
 	private static void acceptContent(@Nonnull String url, @Nonnull IOBiConsumer<URLConnection, InputStream> consumer) throws IOException {
-		URLConnection conn = openConnection(url);
-		consumer.accept(conn, conn.getInputStream());
+		mapContent(url, (conn, stream) -> {
+			consumer.accept(conn, stream);
+			return Boolean.TRUE;
+		});
+	}
+
+	/**
+	 * @param connection
+	 * 		Connection to open.
+	 *
+	 * @return Content stream of the connection.
+	 *
+	 * @throws HttpStatusException
+	 * 		When the server responded with an error status other than not found.
+	 * @throws CircuitBreakers.OpenException
+	 * 		When requests to the host of the connection are short-circuited.
+	 * @throws IOException
+	 * 		When the content cannot be opened for any other reason.
+	 */
+	@Nonnull
+	static InputStream openStream(@Nonnull URLConnection connection) throws IOException {
+		URL url = connection.getURL();
+		CircuitBreakers.check(url);
+		boolean answered = false;
+		Throwable error = null;
+		try {
+			InputStream stream = connection.getInputStream();
+			answered = true;
+			return stream;
+		} catch (IOException ex) {
+			IOException statusError = toStatusException(connection, ex);
+			error = statusError;
+
+			// The host is up if it told us it cannot give us this content.
+			answered = !Retries.isRetryable(statusError)
+					&& (statusError instanceof FileNotFoundException || statusError instanceof HttpStatusException);
+			throw statusError;
+		} catch (RuntimeException | Error ex) {
+			error = ex;
+			throw ex;
+		} finally {
+			// Every outcome is recorded, so that the trial request of an open breaker is always concluded.
+			if (answered)
+				CircuitBreakers.success(url);
+			else
+				CircuitBreakers.failure(url, error);
+		}
 	}
 
 	@Nonnull
-	private static URLConnection openConnection(@Nonnull String url) throws IOException {
+	private static IOException toStatusException(@Nonnull URLConnection connection, @Nonnull IOException ex) {
+		if (!(connection instanceof HttpURLConnection) || ex instanceof FileNotFoundException)
+			return ex;
+		HttpURLConnection http = (HttpURLConnection) connection;
+		int status;
+		try {
+			status = http.getResponseCode();
+		} catch (IOException ignored) {
+			return ex;
+		}
+		if (status < 400)
+			return ex;
+		long now = System.currentTimeMillis();
+		long retryAfter = -1;
+		String retryAfterValue = http.getHeaderField("Retry-After");
+		if (retryAfterValue != null) {
+			try {
+				retryAfter = Math.max(0, Long.parseLong(retryAfterValue.trim()) * 1000);
+			} catch (NumberFormatException ignored) {
+				// Can also be a HTTP date
+				long date = http.getHeaderFieldDate("Retry-After", -1);
+				if (date > 0) retryAfter = Math.max(0, date - now);
+			}
+		}
+
+		// GitHub reports exhausted rate limits with a 403 or 429 and the time the limit resets at.
+		boolean rateLimited = status == 429 || "0".equals(http.getHeaderField("X-RateLimit-Remaining"));
+		if (rateLimited && retryAfter < 0) {
+			long reset = http.getHeaderFieldLong("X-RateLimit-Reset", -1);
+			if (reset > 0) retryAfter = Math.max(0, reset * 1000 - now);
+		}
+		return new HttpStatusException(connection.getURL().toString(), status, retryAfter, rateLimited, ex);
+	}
+
+	@Nonnull
+	static URLConnection openConnection(@Nonnull String url) throws IOException {
 		URL urlObject = new URL(url);
 		URLConnection conn = urlObject.openConnection();
 		conn.setRequestProperty("User-Agent", USER_AGENT);
 		conn.setRequestProperty("Accept", "*/*");
+		conn.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+		conn.setReadTimeout(READ_TIMEOUT_MILLIS);
 		if (conn instanceof HttpURLConnection) {
 			HttpURLConnection httpURLConnection = (HttpURLConnection) conn;
 			httpURLConnection.setRequestMethod("GET");
@@ -88,12 +312,19 @@ private static URLConnection openConnection(@Nonnull String url) throws IOExcept
 	}
 
 	@Nonnull
-	private static byte[] toBytes(@Nonnull InputStream input, int max, @Nullable TransferListener listener) throws IOException {
+	private static byte[] toBytes(@Nonnull InputStream input, long max, @Nullable TransferListener listener) throws IOException {
 		ByteArrayOutputStream output = new ByteArrayOutputStream();
 		Stream.transfer(65536, input, output, max, listener);
 		return output.toByteArray();
 	}
 
+	private static long toFile(@Nonnull InputStream input, long max, @Nonnull Path target,
+	                           @Nullable TransferListener listener) throws IOException {
+		try (InputStream in = input; OutputStream output = Files.newOutputStream(target)) {
+			return Stream.transfer(65536, in, output, max, listener);
+		}
+	}
+
 	@Nonnull
 	private static String toString(@Nonnull InputStream input) throws IOException {
 		try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
@@ -0,0 +1,424 @@
+package software.coley.recaf.launcher.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipException;
+
+/**
+ * Index of the central directory of a zip archive, with access to the raw <i>(still compressed)</i> record of
+ * each entry. This allows entries to be copied between archives without inflating and deflating them.
+ * <br>
+ * Only plain archives are supported. Zip64 archives, and archives with data prepended to them, are rejected with
+ * a {@link ZipException} so that callers can fall back to the JDK's zip support.
+ */
+public class ZipIndex {
+	private static final int EOCD_SIGNATURE = 0x06054b50;
+	private static final int CEN_SIGNATURE = 0x02014b50;
+	private static final int LOC_SIGNATURE = 0x04034b50;
+	private static final int DESCRIPTOR_SIGNATURE = 0x08074b50;
+	private static final int EOCD_LENGTH = 22;
+	private static final int CEN_LENGTH = 46;
+	private static final int LOC_LENGTH = 30;
+	private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+	private final Source source;
+	private final List<Entry> entries;
+	private final Map<String, Entry> entriesByName;
+	private final byte[] comment;
+
+	private ZipIndex(@Nonnull Source source, @Nonnull List<Entry> entries, @Nonnull byte[] comment) {
+		this.source = source;
+		this.entries = Collections.unmodifiableList(entries);
+		this.comment = comment;
+		entriesByName = new HashMap<>(entries.size() * 2);
+		for (Entry entry : entries)
+			entriesByName.putIfAbsent(entry.getName(), entry);
+	}
+
+	/**
+	 * @param channel
+	 * 		Channel of the archive. Must remain open while the index is used.
+	 *
+	 * @return Index of the archive.
+	 *
+	 * @throws ZipException
+	 * 		When the archive is not a plain zip archive.
+	 * @throws IOException
+	 * 		When the archive cannot be read.
+	 */
+	@Nonnull
+	public static ZipIndex read(@Nonnull FileChannel channel) throws IOException {
+		return read(new FileChannelSource(channel));
+	}
+
+	/**
+	 * @param data
+	 * 		Content of the archive.
+	 *
+	 * @return Index of the archive.
+	 *
+	 * @throws ZipException
+	 * 		When the archive is not a plain zip archive.
+	 * @throws IOException
+	 * 		When the archive cannot be read.
+	 */
+	@Nonnull
+	public static ZipIndex read(@Nonnull ByteBuffer data) throws IOException {
+		ByteBuffer content = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		return read(new Source() {
+			@Override
+			public long size() {
+				return content.limit();
+			}
+
+			@Nonnull
+			@Override
+			public ByteBuffer read(long position, int length) throws IOException {
+				return slice(position, length);
+			}
+
+			@Override
+			public void transfer(long position, long length, @Nonnull WritableByteChannel target) throws IOException {
+				ByteBuffer slice = slice(position, (int) length);
+				while (slice.hasRemaining())
+					target.write(slice);
+			}
+
+			@Nonnull
+			private ByteBuffer slice(long position, int length) throws ZipException {
+				if (position < 0 || position + length > content.limit())
+					throw new ZipException("Unexpected end of archive");
+				ByteBuffer slice = content.duplicate();
+				slice.position((int) position).limit((int) position + length);
+				return slice.slice().order(ByteOrder.LITTLE_ENDIAN);
+			}
+		});
+	}
+
+	/**
+	 * @param source
+	 * 		Source of the archive content. An index built from a remote source, such as a published manifest of
+	 * 		entries, can have its records fetched remotely.
+	 *
+	 * @return Index of the archive.
+	 *
+	 * @throws ZipException
+	 * 		When the archive is not a plain zip archive.
+	 * @throws IOException
+	 * 		When the archive cannot be read.
+	 */
+	@Nonnull
+	public static ZipIndex read(@Nonnull Source source) throws IOException {
+		// The end of central directory record is at the end of the archive, followed by a comment of up to 64kb.
+		long size = source.size();
+		if (size < EOCD_LENGTH)
+			throw new ZipException("Archive too small");
+		int tailLength = (int) Math.min(size, EOCD_LENGTH + 0xFFFF);
+		ByteBuffer tail = source.read(size - tailLength, tailLength);
+		int eocd = -1;
+		for (int i = tailLength - EOCD_LENGTH; i >= 0; i--) {
+			if (tail.getInt(i) == EOCD_SIGNATURE) {
+				eocd = i;
+				break;
+			}
+		}
+		if (eocd < 0)
+			throw new ZipException("Missing end of central directory");
+		int entryCount = tail.getShort(eocd + 10) & 0xFFFF;
+		long directorySize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+		long directoryOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+		int commentLength = Math.min(tail.getShort(eocd + 20) & 0xFFFF, tailLength - eocd - EOCD_LENGTH);
+		if (entryCount == 0xFFFF || directoryOffset == 0xFFFFFFFFL)
+			throw new ZipException("Zip64 archives are not supported");
+		if (directoryOffset + directorySize != size - tailLength + eocd)
+			throw new ZipException("Archives with prepended data are not supported");
+		if (directorySize > Integer.MAX_VALUE)
+			throw new ZipException("Central directory too large");
+		byte[] comment = new byte[commentLength];
+		ByteBuffer commentBuffer = tail.duplicate();
+		commentBuffer.position(eocd + EOCD_LENGTH);
+		commentBuffer.get(comment);
+
+		ByteBuffer directory = source.read(directoryOffset, (int) directorySize);
+		List<Entry> entries = new ArrayList<>(entryCount);
+		int offset = 0;
+		for (int i = 0; i < entryCount; i++) {
+			if (offset + CEN_LENGTH > directory.limit() || directory.getInt(offset) != CEN_SIGNATURE)
+				throw new ZipException("Invalid central directory entry");
+			int nameLength = directory.getShort(offset + 28) & 0xFFFF;
+			int extraLength = directory.getShort(offset + 30) & 0xFFFF;
+			int entryCommentLength = directory.getShort(offset + 32) & 0xFFFF;
+			int recordLength = CEN_LENGTH + nameLength + extraLength + entryCommentLength;
+			if (offset + recordLength > directory.limit())
+				throw new ZipException("Invalid central directory entry");
+			byte[] record = new byte[recordLength];
+			ByteBuffer recordBuffer = directory.duplicate();
+			recordBuffer.position(offset);
+			recordBuffer.get(record);
+			entries.add(new Entry(record));
+			offset += recordLength;
+		}
+		return new ZipIndex(source, entries, comment);
+	}
+
+	/**
+	 * @return Entries in the order of the central directory.
+	 */
+	@Nonnull
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * @param name
+	 * 		Entry name.
+	 *
+	 * @return Entry of the given name, or {@code null} if there is no such entry.
+	 */
+	@Nullable
+	public Entry getEntry(@Nonnull String name) {
+		return entriesByName.get(name);
+	}
+
+	/**
+	 * @return Archive comment.
+	 */
+	@Nonnull
+	public byte[] getComment() {
+		return comment.clone();
+	}
+
+	/**
+	 * @param entry
+	 * 		Entry of this archive.
+	 *
+	 * @return Length of the entry's local record, being its local header, data, and data descriptor if present.
+	 *
+	 * @throws IOException
+	 * 		When the record cannot be read.
+	 */
+	public long getRecordLength(@Nonnull Entry entry) throws IOException {
+		long offset = entry.getLocalHeaderOffset();
+		ByteBuffer header = source.read(offset, LOC_LENGTH);
+		if (header.getInt(0) != LOC_SIGNATURE)
+			throw new ZipException("Invalid local header of entry: " + entry.getName());
+		int nameLength = header.getShort(26) & 0xFFFF;
+		int extraLength = header.getShort(28) & 0xFFFF;
+		long length = LOC_LENGTH + nameLength + extraLength + entry.getCompressedSize();
+		if ((entry.getFlags() & FLAG_DATA_DESCRIPTOR) != 0) {
+			// The descriptor signature is optional, so we check for it.
+			boolean signed = offset + length + 4 <= source.size()
+					&& source.read(offset + length, 4).getInt(0) == DESCRIPTOR_SIGNATURE;
+			length += signed ? 16 : 12;
+		}
+		return length;
+	}
+
+	/**
+	 * @param entry
+	 * 		Entry of this archive.
+	 * @param recordLength
+	 * 		Length of the entry's record, from {@link #getRecordLength(Entry)}.
+	 * @param target
+	 * 		Channel to copy the record to.
+	 *
+	 * @throws IOException
+	 * 		When the record cannot be read, or the target cannot be written to.
+	 */
+	public void transferRecord(@Nonnull Entry entry, long recordLength, @Nonnull WritableByteChannel target) throws IOException {
+		source.transfer(entry.getLocalHeaderOffset(), recordLength, target);
+	}
+
+	/**
+	 * Random access to archive content.
+	 */
+	public interface Source {
+		/**
+		 * @return Size of the archive in bytes.
+		 *
+		 * @throws IOException
+		 * 		When the size cannot be determined.
+		 */
+		long size() throws IOException;
+
+		/**
+		 * @param position
+		 * 		Offset in the archive.
+		 * @param length
+		 * 		Number of bytes to read.
+		 *
+		 * @return Little-endian buffer of the content.
+		 *
+		 * @throws IOException
+		 * 		When the content cannot be read.
+		 */
+		@Nonnull
+		ByteBuffer read(long position, int length) throws IOException;
+
+		/**
+		 * @param position
+		 * 		Offset in the archive.
+		 * @param length
+		 * 		Number of bytes to copy.
+		 * @param target
+		 * 		Channel to copy to.
+		 *
+		 * @throws IOException
+		 * 		When the content cannot be read, or the target cannot be written to.
+		 */
+		void transfer(long position, long length, @Nonnull WritableByteChannel target) throws IOException;
+	}
+
+	/**
+	 * Archive content read from a file channel.
+	 */
+	public static class FileChannelSource implements Source {
+		private final FileChannel channel;
+
+		/**
+		 * @param channel
+		 * 		Channel of the archive. Must remain open while the source is used.
+		 */
+		public FileChannelSource(@Nonnull FileChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public long size() throws IOException {
+			return channel.size();
+		}
+
+		@Nonnull
+		@Override
+		public ByteBuffer read(long position, int length) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+			while (buffer.hasRemaining())
+				if (channel.read(buffer, position + buffer.position()) < 0)
+					throw new ZipException("Unexpected end of archive");
+			buffer.flip();
+			return buffer;
+		}
+
+		@Override
+		public void transfer(long position, long length, @Nonnull WritableByteChannel target) throws IOException {
+			long transferred = 0;
+			while (transferred < length) {
+				long count = channel.transferTo(position + transferred, length - transferred, target);
+				if (count <= 0)
+					throw new ZipException("Unexpected end of archive");
+				transferred += count;
+			}
+		}
+	}
+
+	/**
+	 * Central directory entry.
+	 */
+	public static class Entry {
+		private final byte[] record;
+		private final String name;
+
+		private Entry(@Nonnull byte[] record) {
+			this.record = record;
+			int nameLength = buffer().getShort(28) & 0xFFFF;
+			name = new String(record, CEN_LENGTH, nameLength, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * @return Entry name.
+		 */
+		@Nonnull
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return General purpose flags.
+		 */
+		public int getFlags() {
+			return buffer().getShort(8) & 0xFFFF;
+		}
+
+		/**
+		 * @return Compression method.
+		 */
+		public int getMethod() {
+			return buffer().getShort(10) & 0xFFFF;
+		}
+
+		/**
+		 * @return CRC32 of the uncompressed content.
+		 */
+		public long getCrc() {
+			return buffer().getInt(16) & 0xFFFFFFFFL;
+		}
+
+		/**
+		 * @return Size of the compressed content.
+		 */
+		public long getCompressedSize() {
+			return buffer().getInt(20) & 0xFFFFFFFFL;
+		}
+
+		/**
+		 * @return Size of the uncompressed content.
+		 */
+		public long getSize() {
+			return buffer().getInt(24) & 0xFFFFFFFFL;
+		}
+
+		/**
+		 * @return Offset of the entry's local header in the archive.
+		 */
+		public long getLocalHeaderOffset() {
+			return buffer().getInt(42) & 0xFFFFFFFFL;
+		}
+
+		/**
+		 * @param other
+		 * 		Another entry.
+		 *
+		 * @return {@code true} when both entries have the same content, compressed the same way.
+		 * The raw record of one can then be used in place of the other.
+		 */
+		public boolean isSameContent(@Nonnull Entry other) {
+			return getCrc() == other.getCrc()
+					&& getSize() == other.getSize()
+					&& getCompressedSize() == other.getCompressedSize()
+					&& getMethod() == other.getMethod();
+		}
+
+		/**
+		 * @param localHeaderOffset
+		 * 		Offset of the entry's local header in a new archive.
+		 *
+		 * @return Central directory record of this entry, pointing to the given offset.
+		 */
+		@Nonnull
+		public byte[] toRecord(long localHeaderOffset) {
+			byte[] copy = record.clone();
+			ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(42, (int) localHeaderOffset);
+			return copy;
+		}
+
+		@Nonnull
+		private ByteBuffer buffer() {
+			return ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package software.coley.recaf.launcher.info;
+
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link LaunchProfile}.
+ */
+class LaunchProfileTest {
+	private static final Path ARCHIVE = Paths.get("recaf.jsa").toAbsolutePath();
+
+	@Test
+	void builtInProfilesChangeSomething() {
+		for (LaunchProfile profile : LaunchProfile.BUILT_IN) {
+			if (profile == LaunchProfile.DEFAULT)
+				continue;
+			for (int javaVersion : new int[]{8, 11, 17, 21, 25})
+				assertFalse(profile.toJvmArgs(javaVersion, 8L << 30, ARCHIVE).isEmpty(),
+						profile.getName() + " on Java " + javaVersion);
+		}
+	}
+
+	@Test
+	void fastStartupArchivesClasses() {
+		LaunchProfile profile = builtIn("fast-startup");
+		List<String> args = profile.toJvmArgs(21, -1, ARCHIVE);
+		assertTrue(args.contains("-XX:TieredStopAtLevel=1"));
+		assertTrue(args.contains("-XX:+AutoCreateSharedArchive"));
+		assertTrue(args.contains("-XX:SharedArchiveFile=" + ARCHIVE));
+
+		// Not available before 19, or without a location
+		assertFalse(profile.toJvmArgs(17, -1, ARCHIVE).contains("-XX:+AutoCreateSharedArchive"));
+		assertFalse(profile.toJvmArgs(21, -1).contains("-XX:+AutoCreateSharedArchive"));
+		assertFalse(profile.validate(17).isEmpty());
+		assertTrue(profile.validate(21).isEmpty());
+	}
+
+	@Test
+	void stringDeduplicationDependsOnCollector() {
+		List<String> dedup = Collections.singletonList("-XX:+UseStringDeduplication");
+		LaunchProfile g1 = new LaunchProfile("g1", 0, LaunchProfile.GarbageCollector.G1, LaunchProfile.TieredMode.DEFAULT, dedup);
+		LaunchProfile serial = new LaunchProfile("serial", 0, LaunchProfile.GarbageCollector.SERIAL, LaunchProfile.TieredMode.DEFAULT, dedup);
+		LaunchProfile parallel = new LaunchProfile("parallel", 0, LaunchProfile.GarbageCollector.PARALLEL, LaunchProfile.TieredMode.DEFAULT, dedup);
+		LaunchProfile jvmDefault = new LaunchProfile("jvm-default", 0, LaunchProfile.GarbageCollector.DEFAULT, LaunchProfile.TieredMode.DEFAULT, dedup);
+
+		assertTrue(g1.toJvmArgs(8, -1).containsAll(dedup));
+		assertTrue(g1.validate(8).isEmpty());
+		for (LaunchProfile profile : Arrays.asList(serial, parallel)) {
+			assertFalse(profile.toJvmArgs(17, -1).containsAll(dedup), profile.getName());
+			assertFalse(profile.validate(17).isEmpty(), profile.getName());
+			assertTrue(profile.toJvmArgs(18, -1).containsAll(dedup), profile.getName());
+			assertTrue(profile.validate(18).isEmpty(), profile.getName());
+		}
+		assertFalse(jvmDefault.toJvmArgs(8, -1).containsAll(dedup), "Java 8 defaults to the parallel collector");
+		assertTrue(jvmDefault.toJvmArgs(11, -1).containsAll(dedup), "Java 9+ defaults to G1");
+
+		// The low memory profile uses the serial collector
+		assertFalse(builtIn("low-memory").toJvmArgs(17, -1).containsAll(dedup));
+		assertTrue(builtIn("low-memory").toJvmArgs(21, -1).containsAll(dedup));
+	}
+
+	@Test
+	void compactHeadersRequireProductFlag() {
+		LaunchProfile profile = new LaunchProfile("compact", 0, LaunchProfile.GarbageCollector.DEFAULT,
+				LaunchProfile.TieredMode.DEFAULT, Collections.singletonList("-XX:+UseCompactObjectHeaders"));
+		assertTrue(profile.toJvmArgs(24, -1).isEmpty(), "Experimental in 24");
+		assertEquals(Collections.singletonList("-XX:+UseCompactObjectHeaders"), profile.toJvmArgs(25, -1));
+	}
+
+	@Test
+	void jsonRoundTrip() {
+		LaunchProfile profile = new LaunchProfile("custom", 40, LaunchProfile.GarbageCollector.ZGC,
+				LaunchProfile.TieredMode.OPTIMIZED, Arrays.asList("-XX:+AlwaysPreTouch", "-Dfoo=bar"), true);
+		LaunchProfile copy = LaunchProfile.fromJson(profile.toJson());
+		assertEquals(profile.getName(), copy.getName());
+		assertEquals(profile.getHeapPercent(), copy.getHeapPercent());
+		assertEquals(profile.getGarbageCollector(), copy.getGarbageCollector());
+		assertEquals(profile.getTieredMode(), copy.getTieredMode());
+		assertEquals(profile.getFlags(), copy.getFlags());
+		assertTrue(copy.isSharedArchive());
+	}
+
+	@Nonnull
+	private static LaunchProfile builtIn(@Nonnull String name) {
+		LaunchProfile profile = LaunchProfile.find(name, Collections.emptyList());
+		assertNotNull(profile, name);
+		return profile;
+	}
+}
@@ -0,0 +1,240 @@
+package software.coley.recaf.launcher.info;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link AbstractVersion} ordering, which must match the original {@link Version} default implementation.
+ */
+class VersionTest {
+	private static final List<String> RECAF_VERSIONS = Arrays.asList(
+			"4.0.0", "4.0.0-SNAPSHOT", "4.0.0-snapshot", "4", "4.0", "4.0.0.0", "4.1", "4.10.0", "4.9.9",
+			"04.0.0", "4.00.0", "4.0.01", "0.0.0", "10", "3.99.99-SNAPSHOT", "4.0.0-rc1", "4.0.0-rc2",
+			"4.0.0-rc1-SNAPSHOT", "4.0.0+build5", "4..0", "4.-1", "2147483647", "2147483648", "v4.0.0", ".4.0",
+			"-SNAPSHOT", "abc", "", "4.0.0.");
+	private static final List<String> JAVAFX_VERSIONS = Arrays.asList(
+			"21", "21.0.1", "21.0.2", "22", "22-ea+5", "22-ea+16", "22.0.1-ea+1", "23-ea+3", "17.0.10", "17.0.9",
+			"021", "21.00.1", "21.0.1-ea+1", "8", "ea+1", "-ea+1", "22-ea", "foo", "", "21.0.2.", "99999999999");
+
+	@Nested
+	class Recaf {
+		@Test
+		void ordering() {
+			assertTrue(recaf("4.0.0").isNewer(recaf("4.0.0-SNAPSHOT")), "Release is newer than its snapshot");
+			assertTrue(recaf("4.0.0-SNAPSHOT").isOlder(recaf("4.0.0")), "Snapshot is older than its release");
+			assertTrue(recaf("4.1.0").isNewer(recaf("4.0.9")));
+
+			// Snapshot state is checked after each equal group, not only when all groups are equal.
+			assertTrue(recaf("4.1.0-SNAPSHOT").isOlder(recaf("4.0.9")));
+			assertTrue(recaf("5.0.0-SNAPSHOT").isNewer(recaf("4.9.9")));
+			assertTrue(recaf("4.10.0").isNewer(recaf("4.9.9")), "Groups compare numerically, not lexically");
+			assertTrue(recaf("4.0.1").isNewer(null), "Any version is newer than none");
+			assertFalse(recaf("4.0.1").isOlder(null), "No version is older than none");
+		}
+
+		@Test
+		void mixedLength() {
+			// Only the groups both versions have are compared.
+			assertEquals(0, recaf("4").compareTo(recaf("4.0.0")));
+			assertEquals(0, recaf("4.0").compareTo(recaf("4.0.5")));
+			assertTrue(recaf("4.1").isNewer(recaf("4.0.5")));
+		}
+
+		@Test
+		void leadingZeros() {
+			assertEquals(0, recaf("04.00.01").compareTo(recaf("4.0.1")));
+			assertArrayEquals(new int[]{4, 0, 1}, recaf("04.00.01").getVersionGroups());
+		}
+
+		@Test
+		void revision() {
+			assertTrue(new RecafVersion("4.0.0", 5).isNewer(new RecafVersion("4.0.0", 4)));
+			assertTrue(new RecafVersion("4.0.0", 1).isNewer(new RecafVersion("4.0.0", -1)), "Known revisions are preferred");
+			assertTrue(new RecafVersion("4.0.1", 1).isNewer(new RecafVersion("4.0.0", 5)), "Revision is only a tie-breaker");
+		}
+
+		@Test
+		void nonNumeric() {
+			// Text without digits has no groups, so it is equal to everything.
+			assertArrayEquals(new int[0], recaf("abc").getVersionGroups());
+			assertEquals(0, recaf("abc").compareTo(recaf("4.0.0")));
+
+			// Leading text and groups out of integer range cannot be parsed.
+			assertThrows(NumberFormatException.class, () -> recaf("v4.0.0").compareTo(recaf("4.0.0")));
+			assertThrows(NumberFormatException.class, () -> recaf("2147483648").compareTo(recaf("4.0.0")));
+		}
+
+		@Test
+		void matchesLegacyImplementation() {
+			assertMatchesLegacy(RECAF_VERSIONS, VersionTest::recaf);
+			assertMatchesLegacy(generate(new Random(34), "-SNAPSHOT"), VersionTest::recaf);
+		}
+	}
+
+	@Nested
+	class JavaFx {
+		@Test
+		void ordering() {
+			assertTrue(fx("22").isNewer(fx("22-ea+16")), "Release is newer than its early access");
+			assertTrue(fx("22-ea+16").isNewer(fx("21.0.2")), "Early access of a later version is newer");
+			assertTrue(fx("21.0.2").isNewer(fx("21.0.1")));
+			assertTrue(fx("17.0.10").isNewer(fx("17.0.9")), "Groups compare numerically, not lexically");
+		}
+
+		@Test
+		void earlyAccessSuffix() {
+			// Everything from '-ea+' on is ignored when comparing groups, so only the snapshot state differs.
+			assertArrayEquals(new int[]{22}, fx("22-ea+16").getVersionGroups());
+			assertEquals(0, fx("22-ea+5").compareTo(fx("22-ea+16")));
+			assertTrue(fx("22-ea+5").isSnapshot());
+			assertFalse(fx("22-ea").isSnapshot());
+		}
+
+		@Test
+		void mixedLength() {
+			assertEquals(0, fx("21").compareTo(fx("21.0.1")));
+			assertTrue(fx("22").isNewer(fx("21.0.1")));
+		}
+
+		@Test
+		void leadingZeros() {
+			assertEquals(0, fx("021.00.1").compareTo(fx("21.0.1")));
+		}
+
+		@Test
+		void nonNumeric() {
+			assertEquals(0, fx("foo").compareTo(fx("21")));
+			assertThrows(NumberFormatException.class, () -> fx("ea+1").compareTo(fx("21")));
+			assertThrows(NumberFormatException.class, () -> fx("").getVersionGroups());
+			assertThrows(NumberFormatException.class, () -> fx("99999999999").compareTo(fx("21")));
+		}
+
+		@Test
+		void matchesLegacyImplementation() {
+			assertMatchesLegacy(JAVAFX_VERSIONS, VersionTest::fx);
+			assertMatchesLegacy(generate(new Random(21), "-ea+7"), VersionTest::fx);
+		}
+	}
+
+	@Test
+	void groupsAreCopies() {
+		Version version = recaf("4.0.0");
+		version.getVersionGroups()[0] = 9;
+		assertArrayEquals(new int[]{4, 0, 0}, version.getVersionGroups());
+	}
+
+	@Test
+	void comparableWithOtherImplementations() {
+		// Versions that are not an AbstractVersion fall back to the interface's logic.
+		assertTrue(recaf("4.0.1").isNewer(new Legacy("4.0.0", false)));
+		assertTrue(fx("21").isOlder(new Legacy("22", false)));
+	}
+
+	/**
+	 * Asserts all pairs of the given versions compare the same as the original implementation,
+	 * including which pairs cannot be compared.
+	 */
+	private static void assertMatchesLegacy(@Nonnull List<String> versions, @Nonnull VersionFactory factory) {
+		for (String a : versions) {
+			AbstractVersion parsedA = factory.create(a);
+			Legacy legacyA = new Legacy(a, parsedA.isSnapshot());
+			assertEquals(outcome(legacyA::getVersionGroups), outcome(parsedA::getVersionGroups), "Groups of '" + a + "'");
+			for (String b : versions) {
+				AbstractVersion parsedB = factory.create(b);
+				Legacy legacyB = new Legacy(b, parsedB.isSnapshot());
+				assertEquals(outcome(() -> Integer.signum(legacyA.compareTo(legacyB))),
+						outcome(() -> Integer.signum(parsedA.compareTo(parsedB))),
+						"Comparing '" + a + "' to '" + b + "'");
+			}
+		}
+	}
+
+	/**
+	 * @return Result of the action, or the type of exception it threw.
+	 */
+	@Nonnull
+	private static Object outcome(@Nonnull Action action) {
+		try {
+			Object result = action.run();
+			return result instanceof int[] ? Arrays.toString((int[]) result) : result;
+		} catch (RuntimeException ex) {
+			return ex.getClass();
+		}
+	}
+
+	@Nonnull
+	private static List<String> generate(@Nonnull Random random, @Nonnull String suffix) {
+		String[] separators = {".", ".", ".", "-", "_", "..", "+"};
+		List<String> versions = new ArrayList<>();
+		for (int i = 0; i < 150; i++) {
+			StringBuilder sb = new StringBuilder();
+			int groups = 1 + random.nextInt(4);
+			for (int g = 0; g < groups; g++) {
+				if (g > 0) sb.append(separators[random.nextInt(separators.length)]);
+				if (random.nextInt(8) == 0) sb.append('0');
+				sb.append(random.nextInt(random.nextBoolean() ? 3 : 25));
+			}
+			if (random.nextInt(3) == 0)
+				sb.append(suffix);
+			if (random.nextInt(25) == 0)
+				sb.insert(0, 'v');
+			versions.add(sb.toString());
+		}
+		return versions;
+	}
+
+	@Nonnull
+	private static RecafVersion recaf(@Nonnull String version) {
+		return new RecafVersion(version, -1);
+	}
+
+	@Nonnull
+	private static JavaFxVersion fx(@Nonnull String version) {
+		return new JavaFxVersion(version);
+	}
+
+	private interface VersionFactory {
+		@Nonnull
+		AbstractVersion create(@Nonnull String version);
+	}
+
+	private interface Action {
+		Object run();
+	}
+
+	/**
+	 * Version using only the original default implementations of {@link Version}.
+	 */
+	private static class Legacy implements Version {
+		private final String version;
+		private final boolean snapshot;
+
+		private Legacy(@Nonnull String version, boolean snapshot) {
+			this.version = version;
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public Version withoutSnapshot() {
+			return this;
+		}
+
+		@Override
+		public String getVersion() {
+			return version;
+		}
+
+		@Override
+		public boolean isSnapshot() {
+			return snapshot;
+		}
+	}
+}
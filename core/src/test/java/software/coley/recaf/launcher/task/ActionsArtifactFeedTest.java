@@ -0,0 +1,172 @@
+package software.coley.recaf.launcher.task;
+
+import com.eclipsesource.json.ParseException;
+import org.junit.jupiter.api.Test;
+import software.coley.recaf.launcher.util.IOConsumer;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ActionsArtifactFeed}.
+ */
+class ActionsArtifactFeedTest {
+	private static final int REPO_ID = 123;
+
+	@Test
+	void skipsExpiredForeignForkedAndEmptyArtifacts() throws IOException {
+		// The recorded page lists, in order: an expired build, another artifact, a build of a fork,
+		// a build of a feature branch, an empty build, and a build of master.
+		Pages pages = new Pages(recordedPage());
+		ActionsArtifactFeed.SnapshotArtifact artifact = ActionsArtifactFeed.findSnapshot(REPO_ID, "master"::equals, pages);
+		assertNotNull(artifact);
+		assertEquals(1006, artifact.getWorkflowRunId());
+		assertEquals(41953800, artifact.getSize());
+		assertEquals(Collections.singletonList(1), pages.requested);
+	}
+
+	@Test
+	void nullBranchMatcherAcceptsAnyBranch() throws IOException {
+		ActionsArtifactFeed.SnapshotArtifact artifact = ActionsArtifactFeed.findSnapshot(REPO_ID, null, new Pages(recordedPage()));
+		assertNotNull(artifact);
+		assertEquals(1004, artifact.getWorkflowRunId());
+	}
+
+	@Test
+	void otherRepositoryHasNoMatch() throws IOException {
+		assertNull(ActionsArtifactFeed.findSnapshot(456, null, new Pages(recordedPage())));
+	}
+
+	@Test
+	void stopsReadingAtFirstMatch() throws IOException {
+		// Cut the page off right after the feature branch build. Parsing past it would fail.
+		String page = recordedPage();
+		int workflowRunEnd = page.indexOf('}', page.indexOf("\"feature/widgets\""));
+		int artifactEnd = page.indexOf('}', workflowRunEnd + 1);
+		String cut = page.substring(0, artifactEnd + 1) + ", {\"name\": ";
+		Pages pages = new Pages(cut);
+		ActionsArtifactFeed.SnapshotArtifact artifact = ActionsArtifactFeed.findSnapshot(REPO_ID, null, pages);
+		assertNotNull(artifact);
+		assertEquals(1004, artifact.getWorkflowRunId());
+
+		// Without a match, the same page is parsed to its end and fails.
+		assertThrows(ParseException.class, () -> ActionsArtifactFeed.findSnapshot(REPO_ID, "master"::equals, new Pages(cut)));
+	}
+
+	@Test
+	void partialPageIsLast() throws IOException {
+		Pages pages = new Pages(recordedPage());
+		assertNull(ActionsArtifactFeed.findSnapshot(REPO_ID, "develop"::equals, pages));
+		assertEquals(Collections.singletonList(1), pages.requested);
+	}
+
+	@Test
+	void totalCountEndsPaging() throws IOException {
+		// Full pages, but the reported total is reached after the second
+		int total = ActionsArtifactFeed.PER_PAGE * 2;
+		Pages pages = new Pages(fullPage(total, 1000), fullPage(total, 2000), fullPage(total, 3000));
+		assertNull(ActionsArtifactFeed.findSnapshot(REPO_ID, "develop"::equals, pages));
+		assertEquals(Arrays.asList(1, 2), pages.requested);
+	}
+
+	@Test
+	void pagesUntilMatch() throws IOException {
+		Pages pages = new Pages(fullPage(-1, 1000), fullPage(-1, 2000), recordedPage());
+		ActionsArtifactFeed.SnapshotArtifact artifact = ActionsArtifactFeed.findSnapshot(REPO_ID, "master"::equals, pages);
+		assertNotNull(artifact);
+		assertEquals(1006, artifact.getWorkflowRunId());
+		assertEquals(Arrays.asList(1, 2, 3), pages.requested);
+	}
+
+	@Test
+	void pagingIsBounded() throws IOException {
+		// Without a total, full pages are requested up to the limit
+		List<String> content = new ArrayList<>();
+		for (int i = 0; i < ActionsArtifactFeed.MAX_PAGES + 2; i++)
+			content.add(fullPage(-1, 1000 * (i + 1)));
+		Pages pages = new Pages(content.toArray(new String[0]));
+		assertNull(ActionsArtifactFeed.findSnapshot(REPO_ID, "develop"::equals, pages));
+		assertEquals(ActionsArtifactFeed.MAX_PAGES, pages.requested.size());
+	}
+
+	@Test
+	void ignoresMembersOutsideArtifacts() throws IOException {
+		// Fields of the same names elsewhere in the document must not leak into the artifact.
+		String page = "{\"name\": \"snapshot-build\", \"size_in_bytes\": 5, \"expired\": false," +
+				" \"meta\": {\"workflow_run\": {\"id\": 1, \"head_branch\": \"master\"}}," +
+				" \"total_count\": 1, \"artifacts\": [{\"name\": \"snapshot-build\", \"expired\": false," +
+				" \"size_in_bytes\": 10, \"extra\": {\"name\": \"other\", \"expired\": true, \"size_in_bytes\": 0}," +
+				" \"workflow_run\": {\"id\": 77, \"repository_id\": 123, \"head_repository_id\": 123," +
+				" \"head_branch\": \"master\", \"pull_requests\": [{\"id\": 5, \"head_branch\": \"x\"}]}}]}";
+		ActionsArtifactFeed.SnapshotArtifact artifact = ActionsArtifactFeed.findSnapshot(REPO_ID, "master"::equals, new Pages(page));
+		assertNotNull(artifact);
+		assertEquals(77, artifact.getWorkflowRunId());
+		assertEquals(10, artifact.getSize());
+	}
+
+	/**
+	 * @return Page of artifacts, none of which are from the {@code develop} branch.
+	 */
+	@Nonnull
+	private static String fullPage(int totalCount, int firstRunId) {
+		StringBuilder sb = new StringBuilder("{");
+		if (totalCount >= 0)
+			sb.append("\"total_count\": ").append(totalCount).append(", ");
+		sb.append("\"artifacts\": [");
+		for (int i = 0; i < ActionsArtifactFeed.PER_PAGE; i++) {
+			if (i > 0) sb.append(", ");
+			sb.append("{\"id\": ").append(i).append(", \"name\": \"snapshot-build\", \"size_in_bytes\": 100,")
+					.append(" \"expired\": false, \"workflow_run\": {\"id\": ").append(firstRunId + i)
+					.append(", \"repository_id\": 123, \"head_repository_id\": 123, \"head_branch\": \"feature-")
+					.append(i).append("\"}}");
+		}
+		return sb.append("]}").toString();
+	}
+
+	@Nonnull
+	private static String recordedPage() throws IOException {
+		try (InputStream in = ActionsArtifactFeedTest.class.getResourceAsStream("/actions-artifacts-page.json")) {
+			assertNotNull(in, "Missing recorded page");
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) >= 0)
+				out.write(buffer, 0, read);
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Pages served from memory, recording which were requested.
+	 */
+	private static class Pages implements ActionsArtifactFeed.PageSource {
+		private final Map<Integer, String> content = new HashMap<>();
+		private final List<Integer> requested = new ArrayList<>();
+
+		private Pages(@Nonnull String... pages) {
+			for (int i = 0; i < pages.length; i++)
+				content.put(i + 1, pages[i]);
+		}
+
+		@Override
+		public void read(int page, @Nonnull IOConsumer<InputStream> consumer) throws IOException {
+			requested.add(page);
+			String pageContent = content.get(page);
+			if (pageContent == null)
+				throw new IOException("No page " + page);
+			consumer.accept(new ByteArrayInputStream(pageContent.getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package software.coley.recaf.launcher.task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ArtifactStoreTasks}.
+ */
+class ArtifactStoreTasksTest {
+	private static final byte[] CONTENT = "stored artifact".getBytes(StandardCharsets.UTF_8);
+	@TempDir
+	Path dir;
+	private String previousRecafDir;
+
+	@BeforeEach
+	void setup() {
+		previousRecafDir = System.setProperty("recaf.dir", dir.toString());
+	}
+
+	@AfterEach
+	void teardown() {
+		if (previousRecafDir == null)
+			System.clearProperty("recaf.dir");
+		else
+			System.setProperty("recaf.dir", previousRecafDir);
+	}
+
+	@Test
+	void installingInPlaceKeepsTheFileAndReferencesIt() throws IOException {
+		Path jar = dir.resolve("recaf.jar");
+		Files.write(jar, CONTENT);
+
+		String sha1 = ArtifactStoreTasks.install(jar, jar, "recaf/test", null);
+		assertArrayEquals(CONTENT, Files.readAllBytes(jar));
+		assertTrue(ArtifactStoreTasks.contains(sha1));
+		assertTrue(ArtifactStoreTasks.isLinked(jar, sha1));
+		assertEquals(sha1, ArtifactStoreTasks.getRef("recaf/test"));
+
+		// Referenced when the lock was released, so it is never pruned.
+		ArtifactStoreTasks.prune();
+		assertTrue(ArtifactStoreTasks.contains(sha1));
+		assertArrayEquals(CONTENT, Files.readAllBytes(jar));
+	}
+
+	@Test
+	void installingMovesTheFileIntoTheStore() throws IOException {
+		Path file = dir.resolve("download.tmp");
+		Path target = dir.resolve("artifact.jar");
+		Files.write(file, CONTENT);
+
+		String sha1 = ArtifactStoreTasks.install(file, target, "test", null);
+		assertFalse(Files.exists(file));
+		assertArrayEquals(CONTENT, Files.readAllBytes(target));
+		assertTrue(ArtifactStoreTasks.isLinked(target, sha1));
+	}
+
+	@Test
+	void unreferencedArtifactsArePruned() throws IOException {
+		Path jar = dir.resolve("recaf.jar");
+		Files.write(jar, CONTENT);
+
+		String sha1 = ArtifactStoreTasks.install(jar, jar, null, null);
+		ArtifactStoreTasks.prune();
+		assertFalse(ArtifactStoreTasks.contains(sha1));
+		assertArrayEquals(CONTENT, Files.readAllBytes(jar));
+	}
+}
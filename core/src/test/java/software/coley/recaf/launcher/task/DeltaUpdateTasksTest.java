@@ -0,0 +1,264 @@
+package software.coley.recaf.launcher.task;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.coley.recaf.launcher.util.TestZips;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link DeltaUpdateTasks}.
+ */
+class DeltaUpdateTasksTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void assemblesSharedChangedAddedAndRemovedEntries() throws IOException {
+		byte[] oldJar = new TestZips.Builder()
+				.stored("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nMain-Class: Old\n")
+				.deflated("shared/Same.class", repeat("same", 400))
+				.stored("shared/same.txt", "stored and unchanged")
+				.deflated("changed/Changed.class", repeat("old", 300))
+				.deflated("removed/Removed.class", repeat("removed", 100))
+				.comment("old")
+				.build();
+		byte[] newJar = new TestZips.Builder()
+				.stored("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nMain-Class: New\n")
+				.deflated("added/Added.class", repeat("added", 150))
+				.deflated("shared/Same.class", repeat("same", 400))
+				.deflated("changed/Changed.class", repeat("new", 300))
+				.stored("shared/same.txt", "stored and unchanged")
+				.comment("new")
+				.build();
+		Path installed = write("recaf.jar", oldJar);
+		Path temp = dir.resolve("recaf-update-tmp");
+
+		DeltaUpdateTasks.DeltaResult result = DeltaUpdateTasks.update(installed, ByteBuffer.wrap(newJar), temp);
+		assertNotNull(result);
+		assertFalse(result.isUnchanged());
+		assertEquals(2, result.getReusedEntries());
+		assertEquals(3, result.getChangedEntries());
+		assertFalse(Files.exists(temp), "Temporary jar should be moved into place");
+		assertSameContent(newJar, Files.readAllBytes(installed));
+		try (ZipFile zip = new ZipFile(installed.toFile())) {
+			assertEquals("new", zip.getComment());
+		}
+	}
+
+	@Test
+	void updatesFromDownloadedFile() throws IOException {
+		byte[] oldJar = new TestZips.Builder()
+				.deflated("shared/Same.class", repeat("same", 400))
+				.deflated("changed/Changed.class", repeat("old", 300))
+				.build();
+		byte[] newJar = new TestZips.Builder()
+				.deflated("shared/Same.class", repeat("same", 400))
+				.deflated("changed/Changed.class", repeat("new", 300))
+				.build();
+		Path installed = write("recaf.jar", oldJar);
+		Path download = write("recaf-download.tmp", newJar);
+
+		DeltaUpdateTasks.DeltaResult result = DeltaUpdateTasks.update(installed, download, dir.resolve("recaf-update-tmp"));
+		assertNotNull(result);
+		assertEquals(1, result.getReusedEntries());
+		assertEquals(1, result.getChangedEntries());
+		assertSameContent(newJar, Files.readAllBytes(installed));
+		assertArrayEquals(newJar, Files.readAllBytes(download), "Downloaded jar should only be read");
+	}
+
+	@Test
+	void reusesEntriesWithUnsignedDescriptors() throws IOException {
+		Map<String, byte[]> oldContents = new LinkedHashMap<>();
+		oldContents.put("a/A.class", repeat("a", 500).getBytes(StandardCharsets.UTF_8));
+		oldContents.put("b/B.class", repeat("b", 500).getBytes(StandardCharsets.UTF_8));
+		oldContents.put("c/C.class", repeat("c", 500).getBytes(StandardCharsets.UTF_8));
+		Map<String, byte[]> newContents = new LinkedHashMap<>(oldContents);
+		newContents.put("b/B.class", repeat("B", 500).getBytes(StandardCharsets.UTF_8));
+		byte[] newJar = TestZips.unsignedDescriptors(newContents);
+		Path installed = write("recaf.jar", TestZips.unsignedDescriptors(oldContents));
+
+		DeltaUpdateTasks.DeltaResult result = DeltaUpdateTasks.update(installed, ByteBuffer.wrap(newJar),
+				dir.resolve("recaf-update-tmp"));
+		assertNotNull(result);
+		assertEquals(2, result.getReusedEntries());
+		assertEquals(1, result.getChangedEntries());
+		assertSameContent(newJar, Files.readAllBytes(installed));
+	}
+
+	@Test
+	void mixesDescriptorStyles() throws IOException {
+		// Reused records keep the installed jar's unsigned descriptors, new records bring signed ones.
+		Map<String, byte[]> oldContents = new LinkedHashMap<>();
+		oldContents.put("a.txt", repeat("a", 200).getBytes(StandardCharsets.UTF_8));
+		oldContents.put("b.txt", repeat("b", 200).getBytes(StandardCharsets.UTF_8));
+		Path installed = write("recaf.jar", TestZips.unsignedDescriptors(oldContents));
+		byte[] newJar = new TestZips.Builder()
+				.add("a.txt", oldContents.get("a.txt"), ZipEntry.DEFLATED)
+				.deflated("b.txt", repeat("c", 200))
+				.build();
+
+		DeltaUpdateTasks.DeltaResult result = DeltaUpdateTasks.update(installed, ByteBuffer.wrap(newJar),
+				dir.resolve("recaf-update-tmp"));
+		assertNotNull(result);
+		assertSameContent(newJar, Files.readAllBytes(installed));
+	}
+
+	@Test
+	void leavesUnchangedJarAsIs() throws IOException {
+		byte[] jar = new TestZips.Builder()
+				.stored("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n")
+				.deflated("A.class", repeat("a", 100))
+				.build();
+		Path installed = write("recaf.jar", jar);
+		long modified = Files.getLastModifiedTime(installed).toMillis();
+
+		DeltaUpdateTasks.DeltaResult result = DeltaUpdateTasks.update(installed, ByteBuffer.wrap(jar.clone()),
+				dir.resolve("recaf-update-tmp"));
+		assertNotNull(result);
+		assertTrue(result.isUnchanged());
+		assertEquals(2, result.getReusedEntries());
+		assertArrayEquals(jar, Files.readAllBytes(installed));
+		assertEquals(modified, Files.getLastModifiedTime(installed).toMillis());
+	}
+
+	@Test
+	void removedEntryIsAChange() throws IOException {
+		byte[] oldJar = new TestZips.Builder()
+				.deflated("A.class", repeat("a", 100))
+				.deflated("B.class", repeat("b", 100))
+				.build();
+		byte[] newJar = new TestZips.Builder()
+				.deflated("A.class", repeat("a", 100))
+				.build();
+		Path installed = write("recaf.jar", oldJar);
+
+		DeltaUpdateTasks.DeltaResult result = DeltaUpdateTasks.update(installed, ByteBuffer.wrap(newJar),
+				dir.resolve("recaf-update-tmp"));
+		assertNotNull(result);
+		assertFalse(result.isUnchanged());
+		assertEquals(1, result.getReusedEntries());
+		assertEquals(0, result.getChangedEntries());
+		assertSameContent(newJar, Files.readAllBytes(installed));
+	}
+
+	@Test
+	void fallsBackForUnsupportedArchives() throws IOException {
+		byte[] plain = new TestZips.Builder()
+				.deflated("A.class", repeat("a", 100))
+				.build();
+		byte[] newJar = new TestZips.Builder()
+				.deflated("A.class", repeat("b", 100))
+				.build();
+		Path temp = dir.resolve("recaf-update-tmp");
+
+		// Installed jar that cannot be indexed
+		for (byte[] unsupported : new byte[][]{TestZips.markedZip64(plain), TestZips.prepended(plain), new byte[50]}) {
+			Path installed = write("recaf.jar", unsupported);
+			assertNull(DeltaUpdateTasks.update(installed, ByteBuffer.wrap(newJar), temp));
+			assertArrayEquals(unsupported, Files.readAllBytes(installed), "Installed jar should be untouched");
+			assertFalse(Files.exists(temp));
+		}
+
+		// New jar that cannot be indexed
+		Path installed = write("recaf.jar", plain);
+		assertNull(DeltaUpdateTasks.update(installed, ByteBuffer.wrap(TestZips.prepended(newJar)), temp));
+		assertNull(DeltaUpdateTasks.update(installed, ByteBuffer.wrap(TestZips.markedZip64(newJar)), temp));
+		assertArrayEquals(plain, Files.readAllBytes(installed));
+		assertFalse(Files.exists(temp));
+
+		// No installed jar
+		assertNull(DeltaUpdateTasks.update(dir.resolve("missing.jar"), ByteBuffer.wrap(newJar), temp));
+	}
+
+	/**
+	 * Asserts the assembled jar has the entries of the expected jar, in the same order and with byte-identical
+	 * content, both when read through the central directory and when streamed through the local headers.
+	 */
+	private void assertSameContent(@Nonnull byte[] expected, @Nonnull byte[] actual) throws IOException {
+		Map<String, byte[]> expectedEntries = readZipFile(write("expected.jar", expected));
+		Map<String, byte[]> actualEntries = readZipFile(write("actual.jar", actual));
+		assertEquals(new ArrayList<>(expectedEntries.keySet()), new ArrayList<>(actualEntries.keySet()));
+		for (Map.Entry<String, byte[]> entry : expectedEntries.entrySet())
+			assertArrayEquals(entry.getValue(), actualEntries.get(entry.getKey()), entry.getKey());
+
+		Map<String, byte[]> streamedEntries = readZipStream(actual);
+		assertEquals(new ArrayList<>(expectedEntries.keySet()), new ArrayList<>(streamedEntries.keySet()));
+		for (Map.Entry<String, byte[]> entry : expectedEntries.entrySet())
+			assertArrayEquals(entry.getValue(), streamedEntries.get(entry.getKey()), entry.getKey());
+
+		// Also must open as a jar, with verification of any manifest
+		try (JarFile jar = new JarFile(dir.resolve("actual.jar").toFile(), true)) {
+			assertEquals(expectedEntries.size(), jar.size());
+		}
+	}
+
+	@Nonnull
+	private static Map<String, byte[]> readZipFile(@Nonnull Path file) throws IOException {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipFile zip = new ZipFile(file.toFile())) {
+			Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry entry = zipEntries.nextElement();
+				try (InputStream in = zip.getInputStream(entry)) {
+					entries.put(entry.getName(), readAll(in));
+				}
+			}
+		}
+		return entries;
+	}
+
+	@Nonnull
+	private static Map<String, byte[]> readZipStream(@Nonnull byte[] content) throws IOException {
+		// Reads the local headers and data descriptors, checking each entry's CRC
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(content))) {
+			ZipEntry entry;
+			while ((entry = zis.getNextEntry()) != null)
+				entries.put(entry.getName(), readAll(zis));
+		}
+		return entries;
+	}
+
+	@Nonnull
+	private static byte[] readAll(@Nonnull InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = in.read(buffer)) >= 0)
+			out.write(buffer, 0, read);
+		return out.toByteArray();
+	}
+
+	@Nonnull
+	private Path write(@Nonnull String name, @Nonnull byte[] content) throws IOException {
+		return Files.write(dir.resolve(name), content);
+	}
+
+	@Nonnull
+	private static String repeat(@Nonnull String text, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++)
+			sb.append(text).append(i);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,60 @@
+package software.coley.recaf.launcher.task;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.coley.recaf.launcher.util.TestZips;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link HeapSizingTasks}.
+ */
+class HeapSizingTasksTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void countsClassesOfArchives() throws IOException {
+		Path jar = dir.resolve("app.jar");
+		Files.write(jar, new TestZips.Builder()
+				.deflated("a/A.class", "class a")
+				.stored("b/B.class", "class b")
+				.stored("readme.txt", "text")
+				.build());
+
+		HeapSizingTasks.WorkspaceEstimate estimate = HeapSizingTasks.estimate(Collections.singletonList(jar));
+		assertEquals(1, estimate.getFiles());
+		assertEquals(2, estimate.getClassCount());
+		assertEquals("class a".length() + "class b".length(), estimate.getClassBytes());
+	}
+
+	@Test
+	void fallsBackForArchivesWithPrependedData() throws IOException {
+		Path jar = dir.resolve("app.jar");
+		Files.write(jar, TestZips.prepended(new TestZips.Builder()
+				.deflated("a/A.class", "class a")
+				.build()));
+
+		HeapSizingTasks.WorkspaceEstimate estimate = HeapSizingTasks.estimate(Collections.singletonList(jar));
+		assertEquals(1, estimate.getFiles());
+		assertEquals(1, estimate.getClassCount());
+	}
+
+	@Test
+	void countsOtherFilesBySize() throws IOException {
+		Path file = dir.resolve("App.class");
+		byte[] content = "not an archive".getBytes(StandardCharsets.UTF_8);
+		Files.write(file, content);
+
+		HeapSizingTasks.WorkspaceEstimate estimate = HeapSizingTasks.estimate(Collections.singletonList(file));
+		assertEquals(1, estimate.getFiles());
+		assertEquals(1, estimate.getClassCount());
+		assertEquals(content.length, estimate.getClassBytes());
+	}
+}
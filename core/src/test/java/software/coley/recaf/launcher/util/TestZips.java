@@ -0,0 +1,202 @@
+package software.coley.recaf.launcher.util;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zip archives for tests.
+ */
+public class TestZips {
+	/**
+	 * Archive written with {@link ZipOutputStream}. Deflated entries are followed by a signed data descriptor,
+	 * stored entries are not.
+	 */
+	public static class Builder {
+		private final Map<String, byte[]> contents = new LinkedHashMap<>();
+		private final Map<String, Integer> methods = new LinkedHashMap<>();
+		private String comment;
+
+		/**
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder deflated(@Nonnull String name, @Nonnull String content) {
+			return add(name, content.getBytes(StandardCharsets.UTF_8), ZipEntry.DEFLATED);
+		}
+
+		/**
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder stored(@Nonnull String name, @Nonnull String content) {
+			return add(name, content.getBytes(StandardCharsets.UTF_8), ZipEntry.STORED);
+		}
+
+		/**
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder add(@Nonnull String name, @Nonnull byte[] content, int method) {
+			contents.put(name, content);
+			methods.put(name, method);
+			return this;
+		}
+
+		/**
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder comment(@Nonnull String comment) {
+			this.comment = comment;
+			return this;
+		}
+
+		/**
+		 * @return Archive content.
+		 */
+		@Nonnull
+		public byte[] build() throws IOException {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+				if (comment != null)
+					zos.setComment(comment);
+				for (Map.Entry<String, byte[]> e : contents.entrySet()) {
+					byte[] content = e.getValue();
+					ZipEntry entry = new ZipEntry(e.getKey());
+					entry.setTime(0);
+					int method = methods.get(e.getKey());
+					entry.setMethod(method);
+					if (method == ZipEntry.STORED) {
+						CRC32 crc = new CRC32();
+						crc.update(content);
+						entry.setCrc(crc.getValue());
+						entry.setSize(content.length);
+						entry.setCompressedSize(content.length);
+					}
+					zos.putNextEntry(entry);
+					zos.write(content);
+					zos.closeEntry();
+				}
+			}
+			return baos.toByteArray();
+		}
+	}
+
+	/**
+	 * @param contents
+	 * 		Entry names to contents.
+	 *
+	 * @return Archive of deflated entries, each followed by a data descriptor without the optional signature.
+	 * The local headers have no checksum or sizes, as is the case when an archive is streamed.
+	 */
+	@Nonnull
+	public static byte[] unsignedDescriptors(@Nonnull Map<String, byte[]> contents) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream directory = new ByteArrayOutputStream();
+		for (Map.Entry<String, byte[]> e : contents.entrySet()) {
+			byte[] name = e.getKey().getBytes(StandardCharsets.UTF_8);
+			byte[] content = e.getValue();
+			byte[] compressed = deflate(content);
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			int offset = out.size();
+
+			ByteBuffer local = le(30 + name.length);
+			local.putInt(0x04034b50).putShort((short) 20).putShort((short) 0x08).putShort((short) 8)
+					.putShort((short) 0).putShort((short) 0x21)
+					.putInt(0).putInt(0).putInt(0)
+					.putShort((short) name.length).putShort((short) 0).put(name);
+			out.write(local.array(), 0, local.capacity());
+			out.write(compressed, 0, compressed.length);
+			ByteBuffer descriptor = le(12);
+			descriptor.putInt((int) crc.getValue()).putInt(compressed.length).putInt(content.length);
+			out.write(descriptor.array(), 0, 12);
+
+			ByteBuffer central = le(46 + name.length);
+			central.putInt(0x02014b50).putShort((short) 20).putShort((short) 20).putShort((short) 0x08)
+					.putShort((short) 8).putShort((short) 0).putShort((short) 0x21)
+					.putInt((int) crc.getValue()).putInt(compressed.length).putInt(content.length)
+					.putShort((short) name.length).putShort((short) 0).putShort((short) 0)
+					.putShort((short) 0).putShort((short) 0).putInt(0).putInt(offset).put(name);
+			directory.write(central.array(), 0, central.capacity());
+		}
+		int directoryOffset = out.size();
+		out.write(directory.toByteArray(), 0, directory.size());
+		out.write(end(contents.size(), directory.size(), directoryOffset).array(), 0, 22);
+		return out.toByteArray();
+	}
+
+	/**
+	 * @param zip
+	 * 		Archive content.
+	 *
+	 * @return Copy of the archive, with an end record claiming it is a Zip64 archive.
+	 */
+	@Nonnull
+	public static byte[] markedZip64(@Nonnull byte[] zip) {
+		byte[] copy = zip.clone();
+		ByteBuffer buffer = ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(findEnd(copy) + 16, 0xFFFFFFFF);
+		return copy;
+	}
+
+	/**
+	 * @param zip
+	 * 		Archive content.
+	 *
+	 * @return Copy of the archive with data before it, as in a self-extracting archive.
+	 */
+	@Nonnull
+	public static byte[] prepended(@Nonnull byte[] zip) {
+		byte[] prefix = "#!/bin/sh\nexit 0\n".getBytes(StandardCharsets.UTF_8);
+		byte[] copy = new byte[prefix.length + zip.length];
+		System.arraycopy(prefix, 0, copy, 0, prefix.length);
+		System.arraycopy(zip, 0, copy, prefix.length, zip.length);
+		return copy;
+	}
+
+	private static int findEnd(@Nonnull byte[] zip) {
+		ByteBuffer buffer = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = zip.length - 22; i >= 0; i--)
+			if (buffer.getInt(i) == 0x06054b50)
+				return i;
+		throw new IllegalArgumentException("Not a zip archive");
+	}
+
+	@Nonnull
+	private static ByteBuffer end(int entries, int directorySize, int directoryOffset) {
+		ByteBuffer end = le(22);
+		end.putInt(0x06054b50).putShort((short) 0).putShort((short) 0)
+				.putShort((short) entries).putShort((short) entries)
+				.putInt(directorySize).putInt(directoryOffset).putShort((short) 0);
+		return end;
+	}
+
+	@Nonnull
+	private static byte[] deflate(@Nonnull byte[] content) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		deflater.setInput(content);
+		deflater.finish();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		while (!deflater.finished())
+			out.write(buffer, 0, deflater.deflate(buffer));
+		deflater.end();
+		return out.toByteArray();
+	}
+
+	@Nonnull
+	private static ByteBuffer le(int length) {
+		return ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
@@ -0,0 +1,195 @@
+package software.coley.recaf.launcher.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ZipIndex}.
+ */
+class ZipIndexTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void matchesJdkZipFile() throws IOException {
+		byte[] zip = new TestZips.Builder()
+				.stored("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n")
+				.deflated("a/A.class", repeat("class A", 200))
+				.deflated("b/B.class", repeat("class B", 50))
+				.stored("empty.txt", "")
+				.build();
+		Path file = write("test.zip", zip);
+		ZipIndex index = ZipIndex.read(ByteBuffer.wrap(zip));
+		try (ZipFile zipFile = new ZipFile(file.toFile())) {
+			List<String> names = new ArrayList<>();
+			Enumeration<? extends ZipEntry> jdkEntries = zipFile.entries();
+			while (jdkEntries.hasMoreElements()) {
+				ZipEntry jdkEntry = jdkEntries.nextElement();
+				names.add(jdkEntry.getName());
+				ZipIndex.Entry entry = index.getEntry(jdkEntry.getName());
+				assertNotNull(entry, jdkEntry.getName());
+				assertEquals(jdkEntry.getMethod(), entry.getMethod());
+				assertEquals(jdkEntry.getCrc(), entry.getCrc());
+				assertEquals(jdkEntry.getSize(), entry.getSize());
+				assertEquals(jdkEntry.getCompressedSize(), entry.getCompressedSize());
+			}
+			assertEquals(names, entryNames(index));
+		}
+		assertNull(index.getEntry("missing"));
+	}
+
+	@Test
+	void fileChannelAndBufferAgree() throws IOException {
+		byte[] zip = new TestZips.Builder()
+				.deflated("a.txt", repeat("a", 100))
+				.stored("b.txt", "b")
+				.comment("build 5")
+				.build();
+		Path file = write("test.zip", zip);
+		ZipIndex fromBuffer = ZipIndex.read(ByteBuffer.wrap(zip));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ZipIndex fromChannel = ZipIndex.read(channel);
+			assertEquals(entryNames(fromBuffer), entryNames(fromChannel));
+			assertArrayEquals(fromBuffer.getComment(), fromChannel.getComment());
+			for (ZipIndex.Entry entry : fromChannel.getEntries()) {
+				ZipIndex.Entry other = fromBuffer.getEntry(entry.getName());
+				assertEquals(fromBuffer.getRecordLength(other), fromChannel.getRecordLength(entry));
+				assertArrayEquals(record(fromBuffer, other), record(fromChannel, entry));
+			}
+		}
+		assertEquals("build 5", new String(fromBuffer.getComment(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void recordsWithSignedDescriptorsAreContiguous() throws IOException {
+		byte[] zip = new TestZips.Builder()
+				.deflated("a.txt", repeat("a", 300))
+				.stored("b.txt", "stored")
+				.deflated("c.txt", repeat("c", 10))
+				.build();
+		ZipIndex index = ZipIndex.read(ByteBuffer.wrap(zip));
+		assertNotEquals(0, index.getEntry("a.txt").getFlags() & 0x08, "Deflated entries should have descriptors");
+		assertEquals(0, index.getEntry("b.txt").getFlags() & 0x08, "Stored entries should not have descriptors");
+		assertRecordsContiguous(index, zip);
+	}
+
+	@Test
+	void recordsWithUnsignedDescriptorsAreContiguous() throws IOException {
+		Map<String, byte[]> contents = new LinkedHashMap<>();
+		contents.put("a.txt", repeat("a", 300).getBytes(StandardCharsets.UTF_8));
+		contents.put("b.txt", "b".getBytes(StandardCharsets.UTF_8));
+		contents.put("c.txt", new byte[0]);
+		byte[] zip = TestZips.unsignedDescriptors(contents);
+		ZipIndex index = ZipIndex.read(ByteBuffer.wrap(zip));
+		assertRecordsContiguous(index, zip);
+
+		// Sanity check that the JDK agrees the archive is valid
+		try (ZipFile zipFile = new ZipFile(write("unsigned.zip", zip).toFile())) {
+			assertEquals(3, zipFile.size());
+		}
+	}
+
+	@Test
+	void toRecordOnlyChangesOffset() throws IOException {
+		byte[] zip = new TestZips.Builder()
+				.stored("a.txt", "a")
+				.stored("b.txt", "b")
+				.build();
+		ZipIndex index = ZipIndex.read(ByteBuffer.wrap(zip));
+		ZipIndex.Entry entry = index.getEntry("b.txt");
+		long offset = 0xFFFFFFF0L;
+		byte[] record = entry.toRecord(offset);
+		byte[] original = entry.toRecord(entry.getLocalHeaderOffset());
+		for (int i = 0; i < record.length; i++)
+			if (i < 42 || i >= 46)
+				assertEquals(original[i], record[i], "Byte " + i + " of the record changed");
+		assertEquals(offset, ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN).getInt(42) & 0xFFFFFFFFL,
+				"Offsets above 2GB should be written as unsigned");
+	}
+
+	@Test
+	void rejectsZip64() throws IOException {
+		byte[] zip = TestZips.markedZip64(new TestZips.Builder().stored("a.txt", "a").build());
+		ZipException ex = assertThrows(ZipException.class, () -> ZipIndex.read(ByteBuffer.wrap(zip)));
+		assertTrue(ex.getMessage().contains("Zip64"), ex.getMessage());
+	}
+
+	@Test
+	void rejectsPrependedData() throws IOException {
+		byte[] zip = TestZips.prepended(new TestZips.Builder().stored("a.txt", "a").build());
+		ZipException ex = assertThrows(ZipException.class, () -> ZipIndex.read(ByteBuffer.wrap(zip)));
+		assertTrue(ex.getMessage().contains("prepended"), ex.getMessage());
+	}
+
+	@Test
+	void rejectsNonArchives() {
+		assertThrows(ZipException.class, () -> ZipIndex.read(ByteBuffer.wrap(new byte[10])));
+		assertThrows(ZipException.class, () -> ZipIndex.read(ByteBuffer.wrap(new byte[100])));
+	}
+
+	/**
+	 * Records are written one after another, so if the length of each is right, the first record starts at zero
+	 * and each following record starts where the previous one ended.
+	 */
+	private static void assertRecordsContiguous(@Nonnull ZipIndex index, @Nonnull byte[] zip) throws IOException {
+		long expectedOffset = 0;
+		for (ZipIndex.Entry entry : index.getEntries()) {
+			assertEquals(expectedOffset, entry.getLocalHeaderOffset(), "Offset of " + entry.getName());
+			expectedOffset += index.getRecordLength(entry);
+		}
+
+		// The central directory follows the last record.
+		ByteBuffer buffer = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(0x02014b50, buffer.getInt((int) expectedOffset));
+	}
+
+	@Nonnull
+	private static byte[] record(@Nonnull ZipIndex index, @Nonnull ZipIndex.Entry entry) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		index.transferRecord(entry, index.getRecordLength(entry), Channels.newChannel(out));
+		return out.toByteArray();
+	}
+
+	@Nonnull
+	private static List<String> entryNames(@Nonnull ZipIndex index) {
+		List<String> names = new ArrayList<>();
+		for (ZipIndex.Entry entry : index.getEntries())
+			names.add(entry.getName());
+		return names;
+	}
+
+	@Nonnull
+	private Path write(@Nonnull String name, @Nonnull byte[] content) throws IOException {
+		return Files.write(dir.resolve(name), content);
+	}
+
+	@Nonnull
+	private static String repeat(@Nonnull String text, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++)
+			sb.append(text).append(i);
+		return sb.toString();
+	}
+}
@@ -10,6 +10,7 @@
 import software.coley.recaf.launcher.gui.FirstTimePanel;
 import software.coley.recaf.launcher.gui.MainPanel;
 import software.coley.recaf.launcher.gui.PopupLauncherFeedback;
+import software.coley.recaf.launcher.info.JavaFxVersion;
 import software.coley.recaf.launcher.info.JavaInstall;
 import software.coley.recaf.launcher.info.JavaVersion;
 import software.coley.recaf.launcher.task.ExecutionTasks;
@@ -43,6 +44,7 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Objects;
@@ -50,8 +52,6 @@
 import java.util.concurrent.Executor;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Entry point class for GUI usage.
@@ -258,7 +258,8 @@ public static void launch(@Nonnull LauncherFeedback feedback, boolean update) {
 				try {Thread.sleep(2000);} catch (InterruptedException ignored) {}
 				launchFuture.complete(true);
 			}).start();
-			ExecutionTasks.RunResult result = ExecutionTasks.run(true, false, javaExecutablePath);
+			ExecutionTasks.RunResult result = ExecutionTasks.run(true, false, javaExecutablePath,
+					config.getLaunchProfile(), Collections.emptyList(), Collections.emptyList());
 
 			// At this point Recaf has closed. We want to complete the launch future if it hasn't been completed already.
 			// If Recaf closed normally we want to kill the launcher process. Otherwise, we want to stick around to
@@ -319,6 +320,7 @@ public static void launch(@Nonnull LauncherFeedback feedback, boolean update) {
 	 */
 	public static void updateRecaf(@Nonnull LauncherFeedback feedback) {
 		RecafTasks.setDownloadListener(feedback.provideRecafDownloadListener());
+		RecafTasks.setDeltaUpdates(Config.get().isDeltaUpdates());
 
 		// Update from snapshots
 		VersionUpdateResult result = RecafTasks.updateFromSnapshot("master");
@@ -386,17 +388,14 @@ private static boolean recafRequiresUpdate() {
 	 * @return {@code true} when an update to JavaFX is required, even if not requested by the user in their config choice.
 	 */
 	private static boolean javafxRequiresUpdate() {
-		// JavaFX dependencies must exist.
-		Path dependenciesDir = CommonPaths.getDependenciesDir();
-		if (!Files.isDirectory(dependenciesDir))
+		// JavaFX dependencies must exist for this platform.
+		// The dependencies directory may be shared with other systems, so only our own platform's artifacts count.
+		JavaFxVersion cachedVersion = JavaFxTasks.detectCachedVersion();
+		if (cachedVersion == null)
 			return true;
 
-		try (Stream<Path> dependencyPathStream = Files.list(dependenciesDir)) {
-			List<Path> dependencyPaths = dependencyPathStream.collect(Collectors.toList());
-
-			// Ensure the dependencies exist.
-			if (dependencyPaths.isEmpty())
-				return true;
+		try {
+			List<Path> dependencyPaths = JavaFxTasks.getCachedArtifacts(cachedVersion, JavaFxTasks.detectSystemPlatform());
 
 			// Ensure they are not obviously malformed.
 			for (Path dependencyPath : dependencyPaths) {
@@ -404,7 +403,7 @@ private static boolean javafxRequiresUpdate() {
 					return true;
 			}
 		} catch (IOException ex) {
-			throw new RuntimeException("Files.list failed even though dependencies dir exists!", ex);
+			throw new RuntimeException("Files.list failed even though a cached JavaFX version exists!", ex);
 		}
 
 		return false;
@@ -1,10 +1,12 @@
 package software.coley.recaf.launcher.config;
 
 import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 import org.slf4j.Logger;
 import software.coley.recaf.launcher.info.JavaInstall;
+import software.coley.recaf.launcher.info.LaunchProfile;
 import software.coley.recaf.launcher.task.JavaEnvTasks;
 import software.coley.recaf.launcher.util.CommonPaths;
 import software.coley.recaf.launcher.util.Loggers;
@@ -16,6 +18,8 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * GUI config.
@@ -25,6 +29,9 @@ public class Config {
 	private static final Logger logger = Loggers.newLogger();
 	private LaunchAction launchAction = LaunchAction.SHOW_LAUNCHER;
 	private JavaInstall javaInstall;
+	private String launchProfileName = LaunchProfile.DEFAULT.getName();
+	private final List<LaunchProfile> customLaunchProfiles = new ArrayList<>();
+	private boolean deltaUpdates;
 	private boolean isFirst = true;
 
 	/**
@@ -48,6 +55,12 @@ private Config() {
 							// If the value doesn't match an existing key, whatever we have a default.
 						}
 					}
+					launchProfileName = root.getString("profile", launchProfileName);
+					deltaUpdates = root.getBoolean("delta-updates", deltaUpdates);
+					JsonValue profiles = root.get("profiles");
+					if (profiles != null && profiles.isArray())
+						for (JsonValue profile : profiles.asArray())
+							customLaunchProfiles.add(LaunchProfile.fromJson(profile.asObject()));
 					if (java != null) {
 						Path javaPath = Paths.get(java);
 						if (JavaEnvTasks.addJavaInstall(javaPath).wasSuccess()) {
@@ -72,6 +85,15 @@ private void persist() {
 			root.set("action", launchAction.name());
 		if (javaInstall != null)
 			root.set("java", javaInstall.getJavaExecutable().toString());
+		root.set("profile", launchProfileName);
+		if (deltaUpdates)
+			root.set("delta-updates", true);
+		if (!customLaunchProfiles.isEmpty()) {
+			JsonArray profiles = Json.array();
+			for (LaunchProfile profile : customLaunchProfiles)
+				profiles.add(profile.toJson());
+			root.set("profiles", profiles);
+		}
 		try {
 			Path configFile = CommonPaths.getGuiConfigFile();
 			Path parentDir = configFile.getParent();
@@ -105,6 +127,14 @@ public void invalidateFirstTime() {
 		isFirst = false;
 	}
 
+	/**
+	 * @return {@code true} to write Recaf updates by re-using the unchanged entries of the installed jar.
+	 * There is no UI for this, it is enabled by setting {@code delta-updates} in the config file.
+	 */
+	public boolean isDeltaUpdates() {
+		return deltaUpdates;
+	}
+
 	/**
 	 * @return Configured action to take when running the launcher.
 	 */
@@ -139,4 +169,35 @@ public void setLaunchJavaInstallation(@Nonnull JavaInstall javaInstall) {
 		this.javaInstall = javaInstall;
 		persist();
 	}
+
+	/**
+	 * @return Available launch profiles, user defined profiles first followed by built-in profiles.
+	 */
+	@Nonnull
+	public List<LaunchProfile> getLaunchProfiles() {
+		List<LaunchProfile> profiles = new ArrayList<>(customLaunchProfiles);
+		for (LaunchProfile builtIn : LaunchProfile.BUILT_IN)
+			if (LaunchProfile.find(builtIn.getName(), customLaunchProfiles) == null)
+				profiles.add(builtIn);
+		return profiles;
+	}
+
+	/**
+	 * @return Launch profile to run Recaf with.
+	 * Falls back to {@link LaunchProfile#DEFAULT} if the configured profile does not exist.
+	 */
+	@Nonnull
+	public LaunchProfile getLaunchProfile() {
+		LaunchProfile profile = LaunchProfile.find(launchProfileName, customLaunchProfiles);
+		return profile == null ? LaunchProfile.DEFAULT : profile;
+	}
+
+	/**
+	 * @param launchProfile
+	 * 		Launch profile to run Recaf with.
+	 */
+	public void setLaunchProfile(@Nonnull LaunchProfile launchProfile) {
+		this.launchProfileName = launchProfile.getName();
+		persist();
+	}
 }
@@ -7,6 +7,7 @@
 import software.coley.recaf.launcher.info.PlatformType;
 import software.coley.recaf.launcher.task.JavaEnvTasks;
 import software.coley.recaf.launcher.util.SymLinks;
+import software.coley.recaf.launcher.util.TaskExecutors;
 
 import javax.annotation.Nonnull;
 import javax.swing.ComboBoxModel;
@@ -148,7 +149,7 @@ protected void onBrowseForInstall() {
 	 */
 	@Nonnull
 	protected CompletableFuture<?> repopulateInstallModel(boolean doScan) {
-		return CompletableFuture.supplyAsync(() -> {
+		return TaskExecutors.supplyAsync(() -> {
 			// Scan for installs
 			if (doScan)
 				JavaEnvTasks.scanForJavaInstalls();
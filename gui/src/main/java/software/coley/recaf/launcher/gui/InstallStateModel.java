@@ -0,0 +1,321 @@
+package software.coley.recaf.launcher.gui;
+
+import org.slf4j.Logger;
+import software.coley.recaf.launcher.info.JavaFxVersion;
+import software.coley.recaf.launcher.info.JavaInstall;
+import software.coley.recaf.launcher.info.RecafBuild;
+import software.coley.recaf.launcher.task.JavaFxTasks;
+import software.coley.recaf.launcher.task.RecafBuildTasks;
+import software.coley.recaf.launcher.task.RecafTasks;
+import software.coley.recaf.launcher.task.error.InvalidInstallationException;
+import software.coley.recaf.launcher.util.CommonPaths;
+import software.coley.recaf.launcher.util.Loggers;
+import software.coley.recaf.launcher.util.TaskExecutors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Model of the installed Recaf and JavaFX state shown in {@link MainPanel}, and the retained Recaf builds offered
+ * for switching.
+ * <br>
+ * State is computed on {@link TaskExecutors#io()} so that the EDT never waits on the disk. Reading the Recaf version
+ * opens its jar, finding the JavaFX version lists the dependency cache, and the retained builds are parsed from their
+ * own file, so all results are memoized against the last modification of the file they were read from. Refresh
+ * requests made while a refresh is running are coalesced into one more refresh. Listeners are notified on the EDT
+ * with an immutable {@link InstallState}, only when it differs from the last one published.
+ */
+public class InstallStateModel {
+	/**
+	 * Files modified more recently than this may still be changing within the timestamp resolution of some
+	 * file systems, so results read from them are not memoized.
+	 */
+	private static final long UNSTABLE_MILLIS = 2000;
+	private static final Logger logger = Loggers.newLogger();
+	private final List<Consumer<InstallState>> listeners = new CopyOnWriteArrayList<>();
+	private final Memo<String> recafMemo = new Memo<>();
+	private final Memo<JavaFxVersion> javafxMemo = new Memo<>();
+	private final Memo<RetainedBuilds> buildsMemo = new Memo<>();
+	private JavaInstall selectedInstall;
+	private boolean refreshRunning;
+	private boolean refreshPending;
+	private InstallState current;
+
+	/**
+	 * @param listener
+	 * 		Listener to notify on the EDT when the install state changes.
+	 */
+	public void addListener(@Nonnull Consumer<InstallState> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @return Last published state, or {@code null} if none has been computed yet. Only to be called on the EDT.
+	 */
+	@Nullable
+	public InstallState getCurrent() {
+		return current;
+	}
+
+	/**
+	 * Schedules the state to be computed again. Unchanged files are not read again.
+	 *
+	 * @param selectedInstall
+	 * 		Java installation to check JavaFX compatibility against, or {@code null} if there is none.
+	 */
+	public void refresh(@Nullable JavaInstall selectedInstall) {
+		synchronized (this) {
+			this.selectedInstall = selectedInstall;
+			if (refreshRunning) {
+				refreshPending = true;
+				return;
+			}
+			refreshRunning = true;
+		}
+		TaskExecutors.io().execute(this::runRefreshes);
+	}
+
+	/**
+	 * Drops memoized results, so that the next {@link #refresh(JavaInstall) refresh} reads all files again.
+	 */
+	public void invalidate() {
+		recafMemo.clear();
+		javafxMemo.clear();
+		buildsMemo.clear();
+	}
+
+	private void runRefreshes() {
+		while (true) {
+			JavaInstall install;
+			synchronized (this) {
+				install = selectedInstall;
+				refreshPending = false;
+			}
+			try {
+				InstallState state = compute(install);
+				SwingUtilities.invokeLater(() -> publish(state));
+			} catch (Throwable t) {
+				logger.error("Failed computing install state", t);
+			}
+			synchronized (this) {
+				if (!refreshPending) {
+					refreshRunning = false;
+					return;
+				}
+			}
+		}
+	}
+
+	private void publish(@Nonnull InstallState state) {
+		if (state.equals(current))
+			return;
+		current = state;
+		for (Consumer<InstallState> listener : listeners)
+			listener.accept(state);
+	}
+
+	@Nonnull
+	private InstallState compute(@Nullable JavaInstall install) {
+		String recafVersion = recafMemo.get(CommonPaths.getRecafJar(), () -> {
+			try {
+				return RecafTasks.getInstalledVersion().getVersion();
+			} catch (InvalidInstallationException ex) {
+				return null;
+			}
+		});
+		Path artifactDirectory = JavaFxTasks.getArtifactDirectory(JavaFxTasks.detectSystemPlatform());
+		JavaFxVersion javafxVersion = javafxMemo.get(artifactDirectory, JavaFxTasks::detectCachedVersion);
+		RetainedBuilds builds = buildsMemo.get(CommonPaths.getRecafBuildsFile(), () -> {
+			RecafBuild active = RecafBuildTasks.getActiveBuild();
+			return new RetainedBuilds(RecafBuildTasks.getBuilds(), active == null ? null : active.getName());
+		});
+		if (builds == null)
+			builds = RetainedBuilds.NONE;
+		return new InstallState(recafVersion, javafxVersion, install == null ? -1 : install.getVersion(),
+				builds.builds, builds.activeName);
+	}
+
+	/**
+	 * Retained builds, and the name of the active one.
+	 */
+	private static class RetainedBuilds {
+		private static final RetainedBuilds NONE = new RetainedBuilds(Collections.emptyList(), null);
+		private final List<RecafBuild> builds;
+		private final String activeName;
+
+		private RetainedBuilds(@Nonnull List<RecafBuild> builds, @Nullable String activeName) {
+			this.builds = builds;
+			this.activeName = activeName;
+		}
+	}
+
+	/**
+	 * Result of reading a file, which is kept while the file is unchanged.
+	 *
+	 * @param <T>
+	 * 		Result type.
+	 */
+	private static class Memo<T> {
+		private Object key;
+		private T value;
+
+		@Nullable
+		private synchronized T get(@Nonnull Path path, @Nonnull Computation<T> computation) {
+			Object stamp = stamp(path);
+			if (stamp != null && stamp.equals(key))
+				return value;
+			T result = computation.compute();
+			key = stamp;
+			value = result;
+			return result;
+		}
+
+		private synchronized void clear() {
+			key = null;
+			value = null;
+		}
+
+		@Nullable
+		private static Object stamp(@Nonnull Path path) {
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				long modified = attributes.lastModifiedTime().toMillis();
+				if (System.currentTimeMillis() - modified < UNSTABLE_MILLIS)
+					return null;
+				return modified + ":" + attributes.size() + ":" + attributes.fileKey();
+			} catch (IOException ex) {
+				// Missing files have no changes to track, but the computation may still depend on other files.
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Computation of a memoized result.
+	 *
+	 * @param <T>
+	 * 		Result type.
+	 */
+	private interface Computation<T> {
+		@Nullable
+		T compute();
+	}
+
+	/**
+	 * Compatibility of the installed JavaFX version with the selected Java installation.
+	 */
+	public enum JavafxStatus {
+		/** JavaFX is not installed. */
+		NOT_INSTALLED,
+		/** No usable Java installation is selected. */
+		NO_JAVA,
+		/** JavaFX requires a newer version of Java than the one selected. */
+		REQUIRES_NEWER_JAVA,
+		/** JavaFX is older than what Recaf requires. */
+		OUTDATED,
+		/** JavaFX is installed and compatible. */
+		OK
+	}
+
+	/**
+	 * Installed state at a point in time.
+	 */
+	public static class InstallState {
+		private final String recafVersion;
+		private final JavaFxVersion javafxVersion;
+		private final int javaVersion;
+		private final List<RecafBuild> builds;
+		private final String activeBuildName;
+
+		private InstallState(@Nullable String recafVersion, @Nullable JavaFxVersion javafxVersion, int javaVersion,
+		                     @Nonnull List<RecafBuild> builds, @Nullable String activeBuildName) {
+			this.recafVersion = recafVersion;
+			this.javafxVersion = javafxVersion;
+			this.javaVersion = javaVersion;
+			this.builds = builds;
+			this.activeBuildName = activeBuildName;
+		}
+
+		/**
+		 * @return Installed Recaf version, or {@code null} if Recaf is not installed.
+		 */
+		@Nullable
+		public String getRecafVersion() {
+			return recafVersion;
+		}
+
+		/**
+		 * @return Newest cached JavaFX version, or {@code null} if JavaFX is not installed.
+		 */
+		@Nullable
+		public JavaFxVersion getJavafxVersion() {
+			return javafxVersion;
+		}
+
+		/**
+		 * @return Version of the selected Java installation, or {@code -1} if there is none.
+		 */
+		public int getJavaVersion() {
+			return javaVersion;
+		}
+
+		/**
+		 * @return Retained Recaf builds, most recently installed first.
+		 */
+		@Nonnull
+		public List<RecafBuild> getBuilds() {
+			return builds;
+		}
+
+		/**
+		 * @return Name of the retained build linked as the installed jar, or {@code null} if there is none.
+		 */
+		@Nullable
+		public String getActiveBuildName() {
+			return activeBuildName;
+		}
+
+		/**
+		 * @return Compatibility of the installed JavaFX version with the selected Java installation.
+		 */
+		@Nonnull
+		public JavafxStatus getJavafxStatus() {
+			if (javafxVersion == null)
+				return JavafxStatus.NOT_INSTALLED;
+			if (javaVersion < 0)
+				return JavafxStatus.NO_JAVA;
+			if (javafxVersion.getRequiredJavaVersion() > javaVersion)
+				return JavafxStatus.REQUIRES_NEWER_JAVA;
+			if (javafxVersion.getMajorVersion() <= JavaFxVersion.MIN_SUGGESTED_JFX_VERSION)
+				return JavafxStatus.OUTDATED;
+			return JavafxStatus.OK;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			InstallState that = (InstallState) o;
+			return javaVersion == that.javaVersion
+					&& Objects.equals(recafVersion, that.recafVersion)
+					&& Objects.equals(javafxVersion, that.javafxVersion)
+					&& builds.equals(that.builds)
+					&& Objects.equals(activeBuildName, that.activeBuildName);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(recafVersion, javafxVersion, javaVersion, builds, activeBuildName);
+		}
+	}
+}
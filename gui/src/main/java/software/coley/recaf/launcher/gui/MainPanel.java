@@ -4,16 +4,22 @@
 import com.jgoodies.forms.layout.FormLayout;
 import software.coley.recaf.launcher.LauncherFeedback;
 import software.coley.recaf.launcher.LauncherGui;
+import software.coley.recaf.launcher.config.Config;
 import software.coley.recaf.launcher.info.JavaFxVersion;
 import software.coley.recaf.launcher.info.JavaInstall;
 import software.coley.recaf.launcher.info.JavaVersion;
-import software.coley.recaf.launcher.info.RecafVersion;
+import software.coley.recaf.launcher.info.LaunchProfile;
+import software.coley.recaf.launcher.info.RecafBuild;
 import software.coley.recaf.launcher.task.JavaEnvTasks;
 import software.coley.recaf.launcher.task.JavaFxTasks;
+import software.coley.recaf.launcher.task.RecafBuildTasks;
 import software.coley.recaf.launcher.task.RecafTasks;
-import software.coley.recaf.launcher.task.error.InvalidInstallationException;
+import software.coley.recaf.launcher.task.event.InstallEvent;
+import software.coley.recaf.launcher.task.event.InstallEventListener;
+import software.coley.recaf.launcher.task.event.InstallEvents;
 import software.coley.recaf.launcher.util.CommonPaths;
 import software.coley.recaf.launcher.util.ResettableDelayTask;
+import software.coley.recaf.launcher.util.TaskExecutors;
 import software.coley.recaf.launcher.util.TransferListener;
 
 import javax.annotation.Nonnull;
@@ -23,20 +29,32 @@
 import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
 import javax.swing.JProgressBar;
+import javax.swing.JRadioButtonMenuItem;
+import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 import java.awt.BorderLayout;
 import java.awt.CardLayout;
 import java.awt.Container;
+import java.awt.event.ItemEvent;
 import java.io.IOException;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -48,8 +66,10 @@ public class MainPanel extends BrowsableJavaVersionPanel {
 	private static final String CARD_FEEDBACK = "feedback";
 	private final JFrame frame;
 	private final LauncherFeedback feedback = new FeedbackImpl(this);
-	private CompletableFuture<Void> watchFuture;
+	private Thread watchThread;
 	private boolean watching = true;
+	private final InstallStateModel installState = new InstallStateModel();
+	private final InstallEventListener installEventListener = this::onInstallEvent;
 
 	/**
 	 * @param frame
@@ -68,6 +88,8 @@ public MainPanel(@Nonnull JFrame frame) {
 		// When complete, do enable version label state tracking
 		setupInstallCombo();
 		repopulateInstallModel(true).thenRun(this::setupVersionTracking);
+		setupProfileCombo();
+		setupBuildMenu();
 
 		// Setup cards
 		add(CARD_INFO, versionsCard);
@@ -75,100 +97,215 @@ public MainPanel(@Nonnull JFrame frame) {
 	}
 
 	/**
-	 * Setup automatic version label tracking.
+	 * Populate the launch profile selection from the config, and persist changes to the selection.
 	 */
-	private void setupVersionTracking() {
-		updateRecafLabel();
-		updateJavafxLabel();
+	private void setupProfileCombo() {
+		Config config = Config.get();
+		for (LaunchProfile profile : config.getLaunchProfiles())
+			profileCombo.addItem(profile);
+		profileCombo.setSelectedItem(config.getLaunchProfile());
+		profileCombo.addItemListener(e -> {
+			if (e.getStateChange() == ItemEvent.SELECTED)
+				config.setLaunchProfile((LaunchProfile) e.getItem());
+		});
+	}
 
-		watchFuture = CompletableFuture.runAsync(() -> {
+	/**
+	 * Setup the context menu of the Recaf label, for switching between retained builds.
+	 */
+	private void setupBuildMenu() {
+		JPopupMenu menu = new JPopupMenu();
+		menu.addPopupMenuListener(new PopupMenuListener() {
+			@Override
+			public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+				populateBuildMenu(menu);
+			}
+
+			@Override
+			public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+			}
+
+			@Override
+			public void popupMenuCanceled(PopupMenuEvent e) {
+			}
+		});
+		recafVersionLabel.setComponentPopupMenu(menu);
+		recafVersionLabel.setToolTipText("Right-click to switch between retained builds");
+	}
+
+	/**
+	 * Fill the menu from the last computed install state, so that opening it does not read from the disk.
+	 *
+	 * @param menu
+	 * 		Menu to fill with the retained builds.
+	 */
+	private void populateBuildMenu(@Nonnull JPopupMenu menu) {
+		menu.removeAll();
+		InstallStateModel.InstallState state = installState.getCurrent();
+		List<RecafBuild> builds = state == null ? Collections.emptyList() : state.getBuilds();
+		if (builds.isEmpty()) {
+			JMenuItem none = new JMenuItem(state == null ? "Loading retained builds..." : "No retained builds");
+			none.setEnabled(false);
+			menu.add(none);
+			return;
+		}
+		String activeName = state.getActiveBuildName();
+		for (RecafBuild build : builds) {
+			String text = "Use " + build.getName() + (build.isFailed() ? " (failed to launch)" : "");
+			JMenuItem item = new JRadioButtonMenuItem(text, build.getName().equals(activeName));
+			item.addActionListener(e -> useBuild(build));
+			menu.add(item);
+		}
+	}
+
+	/**
+	 * Switch to a retained Recaf build.
+	 *
+	 * @param build
+	 * 		Build to use.
+	 */
+	private void useBuild(@Nonnull RecafBuild build) {
+		TaskExecutors.runAsync(() -> {
 			try {
-				ResettableDelayTask delayableUpdate = new ResettableDelayTask("Label-Update", () -> {
-					updateJavafxLabel();
-					updateRecafLabel();
-				}, 500, TimeUnit.MILLISECONDS);
-				Path recafDirectory = CommonPaths.getRecafDirectory();
-				WatchService watchService = FileSystems.getDefault().newWatchService();
-				recafDirectory.register(watchService,
-						StandardWatchEventKinds.ENTRY_CREATE,
-						StandardWatchEventKinds.ENTRY_DELETE,
-						StandardWatchEventKinds.ENTRY_MODIFY);
-				// Infinite loop to continuously watch for events
+				RecafBuildTasks.use(build.getName());
+			} catch (IOException ex) {
+				SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, ex.getMessage(),
+						"Failed switching Recaf build", JOptionPane.ERROR_MESSAGE, LauncherGui.recafIcon));
+			}
+			refreshInstallState();
+		});
+	}
+
+	/**
+	 * Setup automatic version label tracking.
+	 * <br>
+	 * Changes made by this launcher are {@link InstallEvents published} as they happen. Watching the file system
+	 * is only a fallback for changes made by other processes, so it only looks at the files that make up the
+	 * install state, and ignores temporary files of downloads in progress.
+	 */
+	private void setupVersionTracking() {
+		installState.addListener(this::showInstallState);
+		InstallEvents.addListener(installEventListener);
+		refreshInstallState();
+
+		// The watch loop blocks until there are changes, so it gets its own thread rather than holding a pooled one
+		watchThread = TaskExecutors.startDaemon("Launcher-Directory-Watch", () -> {
+			ResettableDelayTask delayableUpdate = new ResettableDelayTask("Label-Update",
+					this::refreshInstallState, 500, TimeUnit.MILLISECONDS);
+			Path recafDirectory = CommonPaths.getRecafDirectory();
+			Path dependenciesDirectory = CommonPaths.getDependenciesDir();
+			Path artifactDirectory = JavaFxTasks.getArtifactDirectory(JavaFxTasks.detectSystemPlatform());
+			String recafJarName = CommonPaths.getRecafJar().getFileName().toString();
+			try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+				for (Path directory : Arrays.asList(recafDirectory, artifactDirectory))
+					if (Files.isDirectory(directory))
+						directory.register(watchService,
+								StandardWatchEventKinds.ENTRY_CREATE,
+								StandardWatchEventKinds.ENTRY_DELETE,
+								StandardWatchEventKinds.ENTRY_MODIFY);
 				while (watching) {
 					WatchKey key = watchService.take();
+					Path directory = (Path) key.watchable();
 					for (WatchEvent<?> event : key.pollEvents()) {
-						// So normally you'd want to do something like this:
-						/*
-						Path localEventPath = (Path) event.context();
-						Path actualPath = recafDirectory.resolve(localEventPath);
-						if (actualPath.startsWith(CommonPaths.getDependenciesDir())) {
-							updateJavafxLabel();
-						} else if (actualPath.equals(CommonPaths.getRecafJar())) {
-							updateRecafLabel();
+						if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+							delayableUpdate.startOrReset();
+							continue;
 						}
-						 */
-
-						// However, the order of events makes that not super reliable.
-						// So instead we just refresh the labels for any change in the directory.
-						delayableUpdate.startOrReset();
+						Path changed = directory.resolve((Path) event.context());
+						String changedName = changed.getFileName().toString();
+						boolean relevant = directory.equals(artifactDirectory) ?
+								changedName.endsWith(".jar") :
+								changedName.equals(recafJarName) || changed.equals(dependenciesDirectory);
+						if (relevant)
+							delayableUpdate.startOrReset();
 					}
 
 					// To receive further events, reset the key
 					key.reset();
 				}
 			} catch (IOException | InterruptedException ignored) {
+			} finally {
+				delayableUpdate.stop();
 			}
 		});
 
-		installCombo.addItemListener(e -> updateJavafxLabel());
+		installCombo.addItemListener(e -> refreshInstallState());
 	}
 
 	/**
-	 * Update the Recaf label to match what is found at {@link CommonPaths#getRecafJar()}.
+	 * @param event
+	 * 		Install change made by this launcher.
 	 */
-	private void updateRecafLabel() {
-		try {
-			RecafVersion installedVersion = RecafTasks.getInstalledVersion();
-			recafVersionLabel.setText(installedVersion.getVersion());
-		} catch (InvalidInstallationException ex) {
-			recafVersionLabel.setText("<html><p style=\"color: #780000; font-weight: bold;\">Not installed</p></html>");
+	private void onInstallEvent(@Nonnull InstallEvent event) {
+		if (event.isStateChange()) {
+			installState.invalidate();
+			refreshInstallState();
+		}
+	}
+
+	/**
+	 * Schedule the install state to be re-computed off the EDT, which updates the version labels when it changes.
+	 */
+	private void refreshInstallState() {
+		if (!SwingUtilities.isEventDispatchThread()) {
+			SwingUtilities.invokeLater(this::refreshInstallState);
+			return;
 		}
+		installState.refresh(getSelectedJavaInstall());
+	}
+
+	/**
+	 * Show the last known install state in place of any temporary label text, then re-compute it from scratch.
+	 */
+	private void reloadInstallState() {
+		InstallStateModel.InstallState state = installState.getCurrent();
+		if (state != null)
+			showInstallState(state);
+		installState.invalidate();
+		refreshInstallState();
 	}
 
 	/**
-	 * Update the JavaFX label to match what is in the {@link CommonPaths#getDependenciesDir()}.
+	 * Update the Recaf and JavaFX labels to match the given state.
+	 *
+	 * @param state
+	 * 		Current install state.
 	 */
-	private void updateJavafxLabel() {
+	private void showInstallState(@Nonnull InstallStateModel.InstallState state) {
+		String recafVersion = state.getRecafVersion();
+		if (recafVersion != null)
+			recafVersionLabel.setText(recafVersion);
+		else
+			recafVersionLabel.setText("<html><p style=\"color: #780000; font-weight: bold;\">Not installed</p></html>");
+
 		String updateText = "Update";
-		JavaFxVersion fxVersion = JavaFxTasks.detectCachedVersion();
-		if (fxVersion != null) {
-			String versionName = fxVersion.getVersion();
-			JavaInstall selectedJavaInstall = getSelectedJavaInstall();
-			if (selectedJavaInstall == null) {
+		JavaFxVersion fxVersion = state.getJavafxVersion();
+		String versionName = fxVersion == null ? null : fxVersion.getVersion();
+		switch (state.getJavafxStatus()) {
+			case NOT_INSTALLED:
+				javafxVersionLabel.setText("<html><p style=\"color: #780000; font-weight: bold;\">Not installed</p></html>");
+				break;
+			case NO_JAVA:
 				javafxVersionLabel.setText("<html><p>" + versionName +
 						"<span style=\"color: #780000; font-weight: bold;\"> " +
 						"(Incompatible with outdated Java " + JavaVersion.get() + ")</span></p></html>");
 				return;
-			}
-
-			int requiredJavaVersion = fxVersion.getRequiredJavaVersion();
-			if (requiredJavaVersion > selectedJavaInstall.getVersion()) {
+			case REQUIRES_NEWER_JAVA:
 				// JavaFX depends on newer version of Java
 				javafxVersionLabel.setText("<html><p>" + versionName +
 						"<span style=\"color: #780000; font-weight: bold;\"> " +
-						"(Requires Java " + requiredJavaVersion + ")</span></p></html>");
+						"(Requires Java " + fxVersion.getRequiredJavaVersion() + ")</span></p></html>");
 				updateText = "Downgrade";
-			} else if (fxVersion.getMajorVersion() <= JavaFxVersion.MIN_SUGGESTED_JFX_VERSION) {
+				break;
+			case OUTDATED:
 				// JavaFX is older than what Recaf requires
 				javafxVersionLabel.setText("<html><p>" + versionName +
 						"<span style=\"color: #780000; font-weight: bold;\"> " +
 						"(Outdated)</span></p></html>");
-			} else {
+				break;
+			case OK:
 				javafxVersionLabel.setText(versionName);
-			}
-		} else {
-			// JavaFX is not installed
-			javafxVersionLabel.setText("<html><p style=\"color: #780000; font-weight: bold;\">Not installed</p></html>");
+				break;
 		}
 		updateJavafxButton.setText(updateText);
 	}
@@ -207,19 +344,17 @@ protected JComboBox<JavaInstall> getInstallCombo() {
 	 * @see #updateRecafButton
 	 */
 	private void updateRecaf() {
-		CompletableFuture.runAsync(() -> {
-			// Swap out version label for progress bar
-			recafVersionProgress.setIndeterminate(true);
-			recafVersionWrapper.removeAll();
-			recafVersionWrapper.add(recafVersionProgress, BorderLayout.CENTER);
-			recafVersionWrapper.revalidate();
+		// Swap out version label for progress bar
+		recafVersionProgress.setIndeterminate(true);
+		recafVersionWrapper.removeAll();
+		recafVersionWrapper.add(recafVersionProgress, BorderLayout.CENTER);
+		recafVersionWrapper.revalidate();
 
-			// Disable button and update the label
-			updateRecafButton.setEnabled(false);
-			recafVersionLabel.setText("<html><i>Updating...</i></html>");
-
-			LauncherGui.updateRecaf(feedback);
+		// Disable button and update the label
+		updateRecafButton.setEnabled(false);
+		recafVersionLabel.setText("<html><i>Updating...</i></html>");
 
+		TaskExecutors.runAsync(() -> LauncherGui.updateRecaf(feedback)).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
 			// Put the label back in its original place and re-enable the button
 			recafVersionProgress.setIndeterminate(false);
 			recafVersionWrapper.removeAll();
@@ -228,8 +363,8 @@ private void updateRecaf() {
 			updateRecafButton.setEnabled(true);
 
 			// Ensure the label is updated in case no actual updated were determined to have been necessary
-			updateRecafLabel();
-		});
+			reloadInstallState();
+		}));
 	}
 
 	/**
@@ -238,30 +373,32 @@ private void updateRecaf() {
 	 * @see #updateJavafxButton
 	 */
 	private void updateJavafx() {
-		CompletableFuture.runAsync(() -> {
-			// Swap out version label for progress bar
-			javafxVersionProgress.setIndeterminate(true);
-			javafxVersionWrapper.removeAll();
-			javafxVersionWrapper.add(javafxVersionProgress, BorderLayout.CENTER);
-			javafxVersionWrapper.revalidate();
-
-			// Disable button
-			updateJavafxButton.setEnabled(false);
-
-			// Update if we have an applicable Java version selected
-			JavaInstall selectedJavaInstall = getSelectedJavaInstall();
-			if (selectedJavaInstall != null) {
-				javafxVersionLabel.setText("<html><i>Updating...</i></html>");
+		// Swap out version label for progress bar
+		javafxVersionProgress.setIndeterminate(true);
+		javafxVersionWrapper.removeAll();
+		javafxVersionWrapper.add(javafxVersionProgress, BorderLayout.CENTER);
+		javafxVersionWrapper.revalidate();
+
+		// Disable button
+		updateJavafxButton.setEnabled(false);
+
+		// Update if we have an applicable Java version selected
+		JavaInstall selectedJavaInstall = getSelectedJavaInstall();
+		if (selectedJavaInstall != null)
+			javafxVersionLabel.setText("<html><i>Updating...</i></html>");
+		TaskExecutors.runAsync(() -> {
+			if (selectedJavaInstall != null)
 				LauncherGui.updateJavafx(feedback, selectedJavaInstall.getVersion());
-			}
-
+		}).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
 			// Put the label back in its original place and re-enable the button
 			javafxVersionProgress.setIndeterminate(false);
 			javafxVersionWrapper.removeAll();
 			javafxVersionWrapper.add(BorderLayout.CENTER, javafxVersionLabel);
 			javafxVersionWrapper.revalidate();
 			updateJavafxButton.setEnabled(true);
-		});
+
+			reloadInstallState();
+		}));
 	}
 
 	/**
@@ -320,9 +457,10 @@ public void finishLaunchProgress(boolean success) {
 				feedbackProgressBar.setIndeterminate(false);
 				feedbackProgressBar.setValue(100);
 
-				// Cancel watch service
+				// Cancel watch service and event tracking
 				watching = false;
-				if (watchFuture != null) watchFuture.cancel(true);
+				if (watchThread != null) watchThread.interrupt();
+				InstallEvents.removeListener(installEventListener);
 
 				// Hide the UI now that the launch is complete.
 				frame.setVisible(false);
@@ -348,6 +486,8 @@ private void initComponents() {
         JLabel installLabel = new JLabel();
         installCombo = new JComboBox<>();
         browseInstallButton = new JButton();
+        JLabel profileLabel = new JLabel();
+        profileCombo = new JComboBox<>();
         launchButton = new JButton();
         feedbackCard = new JPanel();
         feedbackLabel = new JLabel();
@@ -410,6 +550,11 @@ private void initComponents() {
             browseInstallButton.addActionListener(e -> browseForInstall());
             versionsCard.add(browseInstallButton, CC.xy(5, 5));
 
+            //---- profileLabel ----
+            profileLabel.setText("Profile:");
+            versionsCard.add(profileLabel, CC.xy(1, 7));
+            versionsCard.add(profileCombo, CC.xy(3, 7));
+
             //---- launchButton ----
             launchButton.setText("Launch");
             launchButton.setIcon(new ImageIcon(getClass().getResource("/images/run.png")));
@@ -449,6 +594,7 @@ private void initComponents() {
     private JButton updateJavafxButton;
     private JComboBox<JavaInstall> installCombo;
     private JButton browseInstallButton;
+    private JComboBox<LaunchProfile> profileCombo;
     private JButton launchButton;
     private JPanel feedbackCard;
     private JLabel feedbackLabel;
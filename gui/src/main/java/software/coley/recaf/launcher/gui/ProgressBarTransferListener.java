@@ -1,17 +1,24 @@
 package software.coley.recaf.launcher.gui;
 
-import software.coley.recaf.launcher.util.StringUtil;
-import software.coley.recaf.launcher.util.TransferListener;
+import software.coley.recaf.launcher.util.TransferEvent;
+import software.coley.recaf.launcher.util.TransferProgress;
 
 import javax.annotation.Nonnull;
 import javax.swing.JProgressBar;
+import javax.swing.Timer;
 
 /**
  * Transfer listener that displays feedback in a {@link JProgressBar}.
+ * <br>
+ * Transfer notifications arrive on download threads for every chunk of data, so they only update the aggregated
+ * {@link TransferProgress}. The bar is updated from a timer on the EDT, at most {@link #FRAMES_PER_SECOND} times
+ * a second, and only while transfers are in progress.
  */
-public class ProgressBarTransferListener implements TransferListener {
+public class ProgressBarTransferListener extends TransferProgress {
+	private static final int FRAMES_PER_SECOND = 20;
 	private final JProgressBar progressBar;
 	private final int fallbackMax;
+	private final Timer timer;
 
 	/**
 	 * @param fallbackMax
@@ -22,31 +29,42 @@ public class ProgressBarTransferListener implements TransferListener {
 	public ProgressBarTransferListener(int fallbackMax, @Nonnull JProgressBar progressBar) {
 		this.progressBar = progressBar;
 		this.fallbackMax = fallbackMax;
+		timer = new Timer(1000 / FRAMES_PER_SECOND, e -> render());
+		timer.setCoalesce(true);
 	}
 
 	@Override
-	public void start(int max) {
-		if (max <= 0)
-			max = fallbackMax;
-		progressBar.setValue(0);
-		progressBar.setIndeterminate(false);
-		progressBar.setStringPainted(false);
-		progressBar.setMaximum(max);
-	}
+	public void start(@Nonnull TransferEvent event) {
+		super.start(event);
 
-	@Override
-	public void progress(int current, int max) {
-		progressBar.setIndeterminate(false);
-		progressBar.setStringPainted(true);
-		progressBar.setString(StringUtil.humanReadableByteCountSI(current));
-		progressBar.setValue(current);
+		// Timers can be started from any thread, and starting a running timer does nothing.
+		synchronized (this) {
+			timer.start();
+		}
 	}
 
-	@Override
-	public void end(int current, int max) {
+	/**
+	 * Updates the bar to the sampled progress. Called on the EDT.
+	 */
+	private void render() {
+		Snapshot snapshot = sample();
+		long max = snapshot.getMax() > 0 ? snapshot.getMax() : Math.max(fallbackMax, snapshot.getCurrent());
 		progressBar.setIndeterminate(false);
-		progressBar.setValue(current);
-		if (current >= max)
-			progressBar.setStringPainted(false);
+		progressBar.setMaximum((int) Math.min(Integer.MAX_VALUE, max));
+		progressBar.setValue((int) Math.min(Integer.MAX_VALUE, snapshot.getCurrent()));
+		if (snapshot.isActive()) {
+			progressBar.setStringPainted(true);
+			progressBar.setString(snapshot.describe());
+		} else {
+			// All transfers ended, so this is the last frame until another one starts.
+			synchronized (this) {
+				// A transfer started since sampling will have seen the timer as still running, so it must keep running.
+				if (sample().isActive())
+					return;
+				timer.stop();
+			}
+			if (snapshot.getCurrent() >= max)
+				progressBar.setStringPainted(false);
+		}
 	}
 }
@@ -1,16 +1,20 @@
 package software.coley.recaf.launcher.util;
 
+import org.slf4j.Logger;
+
 import javax.annotation.Nonnull;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Wrapper around a task that can be delayed repeatedly.
+ * <br>
+ * The delay is tracked on the shared {@link TaskExecutors#scheduler() scheduler}, and the task itself runs
+ * on {@link TaskExecutors#io()}.
  */
 public class ResettableDelayTask {
-	private final ScheduledExecutorService scheduler;
+	private static final Logger logger = Loggers.newLogger();
+	private final String name;
 	private final Runnable task;
 	private final long delay;
 	private final TimeUnit unit;
@@ -18,7 +22,7 @@ public class ResettableDelayTask {
 
 	/**
 	 * @param name
-	 * 		Task name.
+	 * 		Task name, for logging.
 	 * @param task
 	 * 		Task to run.
 	 * @param delay
@@ -27,16 +31,10 @@ public class ResettableDelayTask {
 	 * 		Delay amount time units.
 	 */
 	public ResettableDelayTask(@Nonnull String name, @Nonnull Runnable task, long delay, @Nonnull TimeUnit unit) {
+		this.name = name;
 		this.task = task;
 		this.delay = delay;
 		this.unit = unit;
-
-		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-			Thread thread = new Thread(r);
-			thread.setName(name);
-			thread.setDaemon(true);
-			return thread;
-		});
 	}
 
 	/**
@@ -45,15 +43,22 @@ public ResettableDelayTask(@Nonnull String name, @Nonnull Runnable task, long de
 	public synchronized void startOrReset() {
 		if (taskFuture != null && !taskFuture.isDone())
 			taskFuture.cancel(false);
-		taskFuture = scheduler.schedule(task, delay, unit);
+		taskFuture = TaskExecutors.scheduler().schedule(() -> TaskExecutors.io().execute(this::run), delay, unit);
 	}
 
 	/**
 	 * Cancel running the pending task.
 	 */
-	public void stop() {
+	public synchronized void stop() {
 		if (taskFuture != null && !taskFuture.isDone())
-			taskFuture.cancel(true);
-		scheduler.shutdownNow();
+			taskFuture.cancel(false);
+	}
+
+	private void run() {
+		try {
+			task.run();
+		} catch (Throwable t) {
+			logger.error("Delayed task '{}' failed", name, t);
+		}
 	}
-}
\ No newline at end of file
+}